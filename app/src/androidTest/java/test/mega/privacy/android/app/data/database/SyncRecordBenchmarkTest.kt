@@ -0,0 +1,189 @@
+package test.mega.privacy.android.app.data.database
+
+import android.content.ContentValues
+import android.database.sqlite.SQLiteDatabase
+import android.provider.Settings
+import android.util.Base64
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import mega.privacy.android.app.SqliteDatabaseHandler
+import mega.privacy.android.app.utils.Util
+import mega.privacy.android.domain.entity.SyncRecord
+import org.junit.After
+import org.junit.Assume.assumeTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.kotlin.mock
+
+/**
+ * Benchmark of the sync record queries of [SqliteDatabaseHandler] on a real database.
+ *
+ * The legacy benchmarks run the queries as they were before reusing the ciphers and compiled
+ * statements: a new cipher per field, the encrypted values concatenated into the SQL and
+ * every field of the found row decrypted, with the same key as the app. Both run against the same
+ * table holding [ROWS] records of each kind, so their results can be compared.
+ *
+ * It uses its own database, so the data of the app under test is not touched. The benchmarks
+ * only run in the debuggable test APK when requested with `-Pbenchmark`.
+ */
+@RunWith(AndroidJUnit4::class)
+class SyncRecordBenchmarkTest {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private lateinit var underTest: SqliteDatabaseHandler
+    private lateinit var database: SQLiteDatabase
+
+    private var count = 0
+
+    private val context = InstrumentationRegistry.getInstrumentation().targetContext
+
+    @Before
+    fun setUp() {
+        assumeTrue("Benchmarks only run with -Pbenchmark",
+            InstrumentationRegistry.getArguments().getString("benchmark").toBoolean())
+        context.deleteDatabase(DATABASE_NAME)
+        underTest = SqliteDatabaseHandler(
+            context = context,
+            legacyLoggingSettings = mock(),
+            storageStateMapper = mock(),
+            storageStateIntMapper = mock(),
+            databaseName = DATABASE_NAME,
+        )
+        database = underTest.writableDatabase
+
+        repeat(ROWS) {
+            underTest.saveSyncRecord(syncRecord(it))
+            legacySaveSyncRecord(syncRecord(it))
+        }
+        count = ROWS
+    }
+
+    @After
+    fun tearDown() {
+        if (!::underTest.isInitialized) return
+
+        underTest.close()
+        context.deleteDatabase(DATABASE_NAME)
+    }
+
+    @Test
+    fun benchmark_saveSyncRecord() {
+        benchmarkRule.measureRepeated {
+            underTest.saveSyncRecord(syncRecord(count++))
+        }
+    }
+
+    @Test
+    fun benchmark_legacySaveSyncRecord() {
+        benchmarkRule.measureRepeated {
+            legacySaveSyncRecord(syncRecord(count++))
+        }
+    }
+
+    @Test
+    fun benchmark_recordExists() {
+        benchmarkRule.measureRepeated {
+            underTest.recordExists(fingerprint(count++ % ROWS), isSecondary = false, isCopyOnly = false)
+        }
+    }
+
+    @Test
+    fun benchmark_legacyRecordExists() {
+        benchmarkRule.measureRepeated {
+            legacyRecordExists(fingerprint(count++ % ROWS), isSecondary = false, isCopyOnly = false)
+        }
+    }
+
+    private fun syncRecord(index: Int) = SyncRecord(
+        localPath = "/storage/emulated/0/DCIM/Camera/IMG_$index.jpg",
+        newPath = "/data/user/0/mega.privacy.android.app/cache/cu/IMG_$index.jpg",
+        originFingerprint = fingerprint(index),
+        newFingerprint = null,
+        timestamp = 1666087810000L + index,
+        fileName = "IMG_$index.jpg",
+        longitude = 174.7762f,
+        latitude = -41.2865f,
+        status = 0,
+        type = 1,
+        nodeHandle = 123456789012345L + index,
+        isCopyOnly = false,
+        isSecondary = false,
+    )
+
+    private fun fingerprint(index: Int) = "GGGGGGGGGGGGGGGGGGGGGGGGGGGGGGGGGGGGGG$index"
+
+    private fun legacySaveSyncRecord(record: SyncRecord) {
+        val values = ContentValues().apply {
+            with(record) {
+                localPath?.let { put("sync_filepath_origin", legacyEncrypt(it)) }
+                newPath?.let { put("sync_filepath_new", legacyEncrypt(it)) }
+                originFingerprint?.let { put("sync_fingerprint_origin", legacyEncrypt(it)) }
+                newFingerprint?.let { put("sync_fingerprint_new", legacyEncrypt(it)) }
+                fileName?.let { put("sync_filename", legacyEncrypt(it)) }
+                nodeHandle?.let { put("sync_handle", legacyEncrypt(it.toString())) }
+                timestamp?.let { put("sync_timestamp", legacyEncrypt(it.toString())) }
+                put("sync_copyonly", legacyEncrypt(isCopyOnly.toString()))
+                put("sync_secondary", legacyEncrypt(isSecondary.toString()))
+                longitude?.let { put("sync_longitude", legacyEncrypt(it.toString())) }
+                latitude?.let { put("sync_latitude", legacyEncrypt(it.toString())) }
+                put("sync_state", status)
+                put("sync_type", type)
+            }
+        }
+        database.insert("syncrecords", null, values)
+    }
+
+    private fun legacyRecordExists(
+        originalFingerprint: String,
+        isSecondary: Boolean,
+        isCopyOnly: Boolean,
+    ): List<String?>? {
+        val selectQuery = "SELECT * FROM syncrecords " +
+                "WHERE sync_fingerprint_origin ='${legacyEncrypt(originalFingerprint)}' " +
+                "AND sync_secondary = '${legacyEncrypt(isSecondary.toString())}' " +
+                "AND sync_copyonly = '${legacyEncrypt(isCopyOnly.toString())}'"
+        database.rawQuery(selectQuery, null).use { cursor ->
+            if (!cursor.moveToFirst()) return null
+
+            return ENCRYPTED_COLUMNS.map { column ->
+                cursor.getString(cursor.getColumnIndexOrThrow(column))?.let { legacyDecrypt(it) }
+            }
+        }
+    }
+
+    private fun legacyEncrypt(original: String): String =
+        Base64.encodeToString(Util.aes_encrypt(DATABASE_KEY, original.toByteArray()), Base64.DEFAULT)
+
+    private fun legacyDecrypt(encoded: String): String =
+        String(Util.aes_decrypt(DATABASE_KEY, Base64.decode(encoded, Base64.DEFAULT)))
+
+    companion object {
+        private const val DATABASE_NAME = "syncRecordBenchmark"
+        private const val ROWS = 1_000
+
+        /**
+         * Key of the database of the app, derived as [SqliteDatabaseHandler] does
+         */
+        private val DATABASE_KEY = (Settings.Secure.ANDROID_ID + "fkvn8 w4y*(NC\$G*(G($*GR*(#)*huio4h389\$G")
+            .toByteArray().copyOfRange(0, 32)
+        private val ENCRYPTED_COLUMNS = listOf(
+            "sync_filepath_origin",
+            "sync_filepath_new",
+            "sync_fingerprint_origin",
+            "sync_fingerprint_new",
+            "sync_filename",
+            "sync_handle",
+            "sync_timestamp",
+            "sync_copyonly",
+            "sync_secondary",
+            "sync_longitude",
+            "sync_latitude",
+        )
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.barteksc.pdfviewer;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Pool of the bitmaps of the parts evicted from the {@link CacheManager}, reused to render new
+ * parts instead of allocating a bitmap for each one.
+ * <p>
+ * Bitmaps are kept in buckets by allocation size. A request is served from the smallest bucket
+ * big enough for it, reconfigured to the requested size, as long as it does not waste more than
+ * half of the allocation. The pool is bounded by the total bytes of its bitmaps; bitmaps released
+ * when it is full are recycled.
+ * <p>
+ * Bitmaps are acquired from the rendering thread and released from the UI thread.
+ */
+class BitmapPool {
+
+    private final TreeMap<Integer, ArrayDeque<Bitmap>> buckets = new TreeMap<>();
+
+    private final long maxBytes;
+
+    private long currentBytes;
+
+    BitmapPool(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Gets a cleared bitmap, reused from the pool if possible.
+     *
+     * @return The bitmap, or null if the pool has no bitmap of a suitable size
+     */
+    @Nullable
+    synchronized Bitmap acquire(int width, int height, Bitmap.Config config) {
+        int bytes = width * height * bytesPerPixel(config);
+        Map.Entry<Integer, ArrayDeque<Bitmap>> bucket = buckets.ceilingEntry(bytes);
+        if (bucket == null || bucket.getKey() > bytes * 2) {
+            return null;
+        }
+
+        Bitmap bitmap = bucket.getValue().poll();
+        if (bucket.getValue().isEmpty()) {
+            buckets.remove(bucket.getKey());
+        }
+        currentBytes -= bucket.getKey();
+
+        if (bitmap.getWidth() != width || bitmap.getHeight() != height
+                || bitmap.getConfig() != config) {
+            bitmap.reconfigure(width, height, config);
+        }
+        bitmap.eraseColor(Color.TRANSPARENT);
+        return bitmap;
+    }
+
+    /**
+     * Gets a cleared bitmap, reused from the pool or allocated if there is none of a suitable
+     * size.
+     */
+    Bitmap get(int width, int height, Bitmap.Config config) {
+        Bitmap bitmap = acquire(width, height, config);
+        return bitmap != null ? bitmap : Bitmap.createBitmap(width, height, config);
+    }
+
+    /**
+     * Returns a bitmap no longer used to the pool, or recycles it if the pool is full.
+     */
+    synchronized void release(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled()) {
+            return;
+        }
+
+        int bytes = bitmap.getAllocationByteCount();
+        if (!bitmap.isMutable() || currentBytes + bytes > maxBytes) {
+            bitmap.recycle();
+            return;
+        }
+
+        ArrayDeque<Bitmap> bucket = buckets.get(bytes);
+        if (bucket == null) {
+            bucket = new ArrayDeque<>();
+            buckets.put(bytes, bucket);
+        }
+        bucket.push(bitmap);
+        currentBytes += bytes;
+    }
+
+    /**
+     * Recycles all the bitmaps of the pool.
+     */
+    synchronized void clear() {
+        for (ArrayDeque<Bitmap> bucket : buckets.values()) {
+            for (Bitmap bitmap : bucket) {
+                bitmap.recycle();
+            }
+        }
+        buckets.clear();
+        currentBytes = 0;
+    }
+
+    private static int bytesPerPixel(Bitmap.Config config) {
+        return config == Bitmap.Config.RGB_565 ? 2 : 4;
+    }
+}
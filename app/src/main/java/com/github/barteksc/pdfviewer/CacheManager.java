@@ -15,45 +15,84 @@
  */
 package com.github.barteksc.pdfviewer;
 
+import android.graphics.Bitmap;
 import android.graphics.RectF;
-import androidx.annotation.Nullable;
 
 import com.github.barteksc.pdfviewer.model.PagePart;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.PriorityQueue;
+import java.util.Set;
 
+import static com.github.barteksc.pdfviewer.util.Constants.Cache.BITMAP_POOL_SIZE_BYTES;
+import static com.github.barteksc.pdfviewer.util.Constants.Cache.CACHE_MAX_MEMORY_FRACTION;
 import static com.github.barteksc.pdfviewer.util.Constants.Cache.CACHE_SIZE;
+import static com.github.barteksc.pdfviewer.util.Constants.Cache.CACHE_SIZE_BYTES;
 import static com.github.barteksc.pdfviewer.util.Constants.Cache.THUMBNAILS_CACHE_SIZE;
 
+/**
+ * Cache of the rendered {@link PagePart}s, bounded by the bytes of their bitmaps.
+ * <p>
+ * Parts are indexed by page and bounds, so looking one up does not scan the cache. The bitmaps
+ * of the evicted parts are returned to a {@link BitmapPool} to render the next ones. Thumbnails,
+ * much bigger and only a few, are recycled instead.
+ */
 class CacheManager {
 
     private final PriorityQueue<PagePart> passiveCache;
 
     private final PriorityQueue<PagePart> activeCache;
 
+    /** Active and passive parts, by page and bounds */
+    private final Map<PagePart, PagePart> partIndex = new HashMap<>();
+
     private final List<PagePart> thumbnails;
 
+    private final Set<PagePart> thumbnailIndex = new HashSet<>();
+
     private final Object passiveActiveLock = new Object();
 
     private final PagePartComparator orderComparator = new PagePartComparator();
 
+    private final BitmapPool bitmapPool = new BitmapPool(BITMAP_POOL_SIZE_BYTES);
+
+    private final long maxCacheBytes;
+
+    private long cacheBytes;
+
     public CacheManager() {
         activeCache = new PriorityQueue<>(CACHE_SIZE, orderComparator);
         passiveCache = new PriorityQueue<>(CACHE_SIZE, orderComparator);
         thumbnails = new ArrayList<>();
+        maxCacheBytes = Math.min(CACHE_SIZE_BYTES,
+                (long) (Runtime.getRuntime().maxMemory() * CACHE_MAX_MEMORY_FRACTION));
+    }
+
+    BitmapPool getBitmapPool() {
+        return bitmapPool;
     }
 
     public void cachePart(PagePart part) {
         synchronized (passiveActiveLock) {
-            // If cache too big, remove and recycle
-            makeAFreeSpace();
+            // Already rendered by a previous task, keep the cached one
+            if (partIndex.containsKey(part)) {
+                bitmapPool.release(part.getRenderedBitmap());
+                return;
+            }
+
+            // If cache too big, remove and reuse
+            int bytes = part.getRenderedBitmap().getAllocationByteCount();
+            makeAFreeSpace(bytes);
 
             // Then add part
             activeCache.offer(part);
+            partIndex.put(part, part);
+            cacheBytes += bytes;
         }
     }
 
@@ -64,30 +103,43 @@ class CacheManager {
         }
     }
 
-    private void makeAFreeSpace() {
+    private void makeAFreeSpace(int incomingBytes) {
         synchronized (passiveActiveLock) {
-            while ((activeCache.size() + passiveCache.size()) >= CACHE_SIZE &&
-                    !passiveCache.isEmpty()) {
-                PagePart part = passiveCache.poll();
-                part.getRenderedBitmap().recycle();
+            while (cacheBytes + incomingBytes > maxCacheBytes && !passiveCache.isEmpty()) {
+                evict(passiveCache.poll());
             }
 
-            while ((activeCache.size() + passiveCache.size()) >= CACHE_SIZE &&
-                    !activeCache.isEmpty()) {
-                activeCache.poll().getRenderedBitmap().recycle();
+            while (cacheBytes + incomingBytes > maxCacheBytes && !activeCache.isEmpty()) {
+                evict(activeCache.poll());
             }
         }
     }
 
+    private void evict(PagePart part) {
+        Bitmap bitmap = part.getRenderedBitmap();
+        partIndex.remove(part);
+        cacheBytes -= bitmap.getAllocationByteCount();
+        bitmapPool.release(bitmap);
+    }
+
     public void cacheThumbnail(PagePart part) {
         synchronized (thumbnails) {
+            // Already rendered by a previous task, keep the cached one
+            if (thumbnailIndex.contains(part)) {
+                part.getRenderedBitmap().recycle();
+                return;
+            }
+
             // If cache too big, remove and recycle
             while (thumbnails.size() >= THUMBNAILS_CACHE_SIZE) {
-                thumbnails.remove(0).getRenderedBitmap().recycle();
+                PagePart removed = thumbnails.remove(0);
+                thumbnailIndex.remove(removed);
+                removed.getRenderedBitmap().recycle();
             }
 
             // Then add thumbnail
-            addWithoutDuplicates(thumbnails, part);
+            thumbnails.add(part);
+            thumbnailIndex.add(part);
         }
 
     }
@@ -95,16 +147,17 @@ class CacheManager {
     public boolean upPartIfContained(int page, RectF pageRelativeBounds, int toOrder) {
         PagePart fakePart = new PagePart(page, null, pageRelativeBounds, false, 0);
 
-        PagePart found;
         synchronized (passiveActiveLock) {
-            if ((found = find(passiveCache, fakePart)) != null) {
-                passiveCache.remove(found);
+            PagePart found = partIndex.get(fakePart);
+            if (found == null) {
+                return false;
+            }
+
+            if (passiveCache.remove(found)) {
                 found.setCacheOrder(toOrder);
                 activeCache.offer(found);
-                return true;
             }
-
-            return find(activeCache, fakePart) != null;
+            return true;
         }
     }
 
@@ -114,36 +167,19 @@ class CacheManager {
     public boolean containsThumbnail(int page, RectF pageRelativeBounds) {
         PagePart fakePart = new PagePart(page, null, pageRelativeBounds, true, 0);
         synchronized (thumbnails) {
-            for (PagePart part : thumbnails) {
-                if (part.equals(fakePart)) {
-                    return true;
-                }
-            }
-            return false;
+            return thumbnailIndex.contains(fakePart);
         }
     }
 
     /**
-     * Add part if it doesn't exist, recycle bitmap otherwise
+     * Releases the bitmap of a part which is not going to be cached
      */
-    private void addWithoutDuplicates(Collection<PagePart> collection, PagePart newPart) {
-        for (PagePart part : collection) {
-            if (part.equals(newPart)) {
-                newPart.getRenderedBitmap().recycle();
-                return;
-            }
-        }
-        collection.add(newPart);
-    }
-
-    @Nullable
-    private static PagePart find(PriorityQueue<PagePart> vector, PagePart fakePart) {
-        for (PagePart part : vector) {
-            if (part.equals(fakePart)) {
-                return part;
-            }
+    void releasePart(PagePart part) {
+        if (part.isThumbnail()) {
+            part.getRenderedBitmap().recycle();
+        } else {
+            bitmapPool.release(part.getRenderedBitmap());
         }
-        return null;
     }
 
     public List<PagePart> getPageParts() {
@@ -170,13 +206,17 @@ class CacheManager {
                 part.getRenderedBitmap().recycle();
             }
             activeCache.clear();
+            partIndex.clear();
+            cacheBytes = 0;
         }
         synchronized (thumbnails) {
             for (PagePart part : thumbnails) {
                 part.getRenderedBitmap().recycle();
             }
             thumbnails.clear();
+            thumbnailIndex.clear();
         }
+        bitmapPool.clear();
     }
 
     class PagePartComparator implements Comparator<PagePart> {
@@ -30,7 +30,6 @@ import android.graphics.RectF;
 import android.graphics.drawable.Drawable;
 import android.net.Uri;
 import android.os.AsyncTask;
-import android.os.HandlerThread;
 import com.google.android.material.textfield.TextInputLayout;
 import androidx.core.content.ContextCompat;
 import androidx.appcompat.widget.AppCompatEditText;
@@ -61,6 +60,7 @@ import com.github.barteksc.pdfviewer.source.AssetSource;
 import com.github.barteksc.pdfviewer.source.ByteArraySource;
 import com.github.barteksc.pdfviewer.source.DocumentSource;
 import com.github.barteksc.pdfviewer.source.FileSource;
+import com.github.barteksc.pdfviewer.source.HttpRangeSource;
 import com.github.barteksc.pdfviewer.source.InputStreamSource;
 import com.github.barteksc.pdfviewer.source.UriSource;
 import com.github.barteksc.pdfviewer.util.Constants;
@@ -168,10 +168,8 @@ public class PDFView extends RelativeLayout {
     /** Async task used during the loading phase to decode a PDF document */
     private DecodingAsyncTask decodingAsyncTask;
 
-    /** The thread {@link #renderingHandler} will run on */
-    private final HandlerThread renderingHandlerThread;
-    /** Handler always waiting in the background and rendering tasks */
-    RenderingHandler renderingHandler;
+    /** Scheduler rendering the tasks in the background, closest to the screen first */
+    RenderingScheduler renderingScheduler;
 
     private PagesLoader pagesLoader;
 
@@ -240,8 +238,6 @@ public class PDFView extends RelativeLayout {
 
         pdfViewer = (PdfViewerActivity) getContext();
 
-        renderingHandlerThread = new HandlerThread("PDF renderer");
-
         if (isInEditMode()) {
             return;
         }
@@ -395,9 +391,8 @@ public class PDFView extends RelativeLayout {
         dragPinchManager.disable();
 
         // Stop tasks
-        if (renderingHandler != null) {
-            renderingHandler.stop();
-            renderingHandler.removeMessages(RenderingHandler.MSG_RENDER_TASK);
+        if (renderingScheduler != null) {
+            renderingScheduler.stop();
         }
         if (decodingAsyncTask != null) {
             decodingAsyncTask.cancel(true);
@@ -415,7 +410,7 @@ public class PDFView extends RelativeLayout {
             pdfFile = null;
         }
 
-        renderingHandler = null;
+        renderingScheduler = null;
         scrollHandle = null;
         isScrollHandleInit = false;
         currentXOffset = currentYOffset = 0;
@@ -666,18 +661,71 @@ public class PDFView extends RelativeLayout {
 
     }
 
+    /**
+     * Get the distance, in pixels, from the center of the screen to a part of a page,
+     * 0 if the part covers the center. Called from the rendering threads.
+     */
+    float getDistanceToCenter(int page, RectF pageRelativeBounds) {
+        RectF rect = getPartScreenRect(page, pageRelativeBounds);
+        if (rect == null) {
+            return Float.MAX_VALUE;
+        }
+
+        float centerX = getWidth() / 2f;
+        float centerY = getHeight() / 2f;
+        float dx = Math.max(Math.max(rect.left - centerX, centerX - rect.right), 0);
+        float dy = Math.max(Math.max(rect.top - centerY, centerY - rect.bottom), 0);
+        return (float) Math.hypot(dx, dy);
+    }
+
+    /**
+     * Check if a part of a page is on the screen, or at most margin pixels away from it.
+     * Called from the rendering threads.
+     */
+    boolean isPartOnScreen(int page, RectF pageRelativeBounds, float margin) {
+        RectF rect = getPartScreenRect(page, pageRelativeBounds);
+        return rect != null
+                && rect.right >= -margin && rect.left <= getWidth() + margin
+                && rect.bottom >= -margin && rect.top <= getHeight() + margin;
+    }
+
+    /** Get the position on the screen of a part of a page, as drawn by drawPart */
+    private RectF getPartScreenRect(int page, RectF pageRelativeBounds) {
+        PdfFile pdfFile = this.pdfFile;
+        if (pdfFile == null) {
+            return null;
+        }
+
+        float zoom = this.zoom;
+        SizeF size = pdfFile.getPageSize(page);
+        float pageX, pageY;
+        if (swipeVertical) {
+            pageX = zoom * (pdfFile.getMaxPageWidth() - size.getWidth()) / 2;
+            pageY = pdfFile.getPageOffset(page, zoom);
+        } else {
+            pageX = pdfFile.getPageOffset(page, zoom);
+            pageY = zoom * (pdfFile.getMaxPageHeight() - size.getHeight()) / 2;
+        }
+
+        float left = currentXOffset + pageX + zoom * pageRelativeBounds.left * size.getWidth();
+        float top = currentYOffset + pageY + zoom * pageRelativeBounds.top * size.getHeight();
+        return new RectF(left, top,
+                left + zoom * pageRelativeBounds.width() * size.getWidth(),
+                top + zoom * pageRelativeBounds.height() * size.getHeight());
+    }
+
     /**
      * Load all the parts around the center of the screen,
      * taking into account X and Y offsets, zoom level, and
      * the current page displayed
      */
     public void loadPages() {
-        if (pdfFile == null || renderingHandler == null) {
+        if (pdfFile == null || renderingScheduler == null) {
             return;
         }
 
         // Cancel all current tasks
-        renderingHandler.removeMessages(RenderingHandler.MSG_RENDER_TASK);
+        renderingScheduler.cancelTasks();
         cacheManager.makeANewSet();
 
         pagesLoader.loadPages();
@@ -690,11 +738,11 @@ public class PDFView extends RelativeLayout {
 
         this.pdfFile = pdfFile;
 
-        if (!renderingHandlerThread.isAlive()) {
-            renderingHandlerThread.start();
+        if (renderingScheduler != null) {
+            renderingScheduler.stop();
         }
-        renderingHandler = new RenderingHandler(renderingHandlerThread.getLooper(), this);
-        renderingHandler.start();
+        renderingScheduler = new RenderingScheduler(this);
+        renderingScheduler.start();
 
         if (scrollHandle != null) {
             scrollHandle.setupLayout(this);
@@ -1219,6 +1267,11 @@ public class PDFView extends RelativeLayout {
         return new Configurator(new InputStreamSource(stream, tmpFileName));
     }
 
+    /** Use an url as the pdf source, read progressively if the server supports range requests */
+    public Configurator fromUrl(String url, String tmpFileName) {
+        return new Configurator(new HttpRangeSource(url, tmpFileName));
+    }
+
     /** Use custom source as pdf source */
     public Configurator fromSource(DocumentSource docSource) {
         return new Configurator(docSource);
@@ -236,8 +236,11 @@ class PdfFile {
 
     public void renderPageBitmap(Bitmap bitmap, int pageIndex, Rect bounds, boolean annotationRendering) {
         int docPage = documentPage(pageIndex);
-        pdfiumCore.renderPageBitmap(pdfDocument, bitmap, docPage,
-                bounds.left, bounds.top, bounds.width(), bounds.height(), annotationRendering);
+        // Pdfium is not thread safe, pages are rendered one at a time
+        synchronized (lock) {
+            pdfiumCore.renderPageBitmap(pdfDocument, bitmap, docPage,
+                    bounds.left, bounds.top, bounds.width(), bounds.height(), annotationRendering);
+        }
     }
 
     public PdfDocument.Meta getMetaData() {
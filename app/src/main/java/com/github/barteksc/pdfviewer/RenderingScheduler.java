@@ -0,0 +1,222 @@
+package com.github.barteksc.pdfviewer;
+
+import android.graphics.Bitmap;
+import android.graphics.Matrix;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.os.Process;
+import android.util.Log;
+
+import com.github.barteksc.pdfviewer.exception.PageRenderingException;
+import com.github.barteksc.pdfviewer.model.PagePart;
+import com.github.barteksc.pdfviewer.util.Util;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.barteksc.pdfviewer.util.Constants.PRELOAD_OFFSET;
+import static com.github.barteksc.pdfviewer.util.Constants.RENDERING_THREADS;
+
+/**
+ * Renders the {@link RenderingTask}s on a small pool of worker threads and alerts
+ * {@link PDFView#onBitmapRendered(PagePart)} when the portion of the PDF is ready to render.
+ * <p>
+ * Tasks are rendered by distance from the center of the screen when they are added, closest
+ * first, and thumbnails before the parts at the same distance. When its turn comes, a task which
+ * is no longer on screen, nor within the preload offset, is dropped: it is requested again by
+ * {@link PagesLoader} if the user comes back to it.
+ * <p>
+ * Pdfium is not thread safe, so the native calls are serialised by {@link PdfFile}. The workers
+ * overlap the rest of the work, as preparing the bitmaps and delivering the parts, with them.
+ */
+class RenderingScheduler {
+
+    private static final String TAG = RenderingScheduler.class.getName();
+
+    private final PDFView pdfView;
+
+    private final ExecutorService executor;
+
+    private final PriorityQueue<RenderingTask> tasks = new PriorityQueue<>(11,
+            new RenderingTaskComparator());
+
+    private final float preloadOffset;
+
+    private long sequence;
+
+    private volatile boolean running = false;
+
+    RenderingScheduler(PDFView pdfView) {
+        this.pdfView = pdfView;
+        this.preloadOffset = Util.getDP(pdfView.getContext(), PRELOAD_OFFSET);
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(RENDERING_THREADS, runnable -> {
+            Thread thread = new Thread(() -> {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_DISPLAY);
+                runnable.run();
+            }, "PDF renderer " + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void addRenderingTask(int page, float width, float height, RectF bounds, boolean thumbnail, int cacheOrder, boolean bestQuality, boolean annotationRendering) {
+        RenderingTask task = new RenderingTask(width, height, bounds, page, thumbnail, cacheOrder, bestQuality, annotationRendering);
+        task.distance = pdfView.getDistanceToCenter(page, bounds);
+        synchronized (tasks) {
+            if (executor.isShutdown()) {
+                return;
+            }
+            task.sequence = sequence++;
+            tasks.offer(task);
+            executor.execute(this::renderNext);
+        }
+    }
+
+    /**
+     * Removes the tasks not started yet
+     */
+    void cancelTasks() {
+        synchronized (tasks) {
+            tasks.clear();
+        }
+    }
+
+    private void renderNext() {
+        RenderingTask task;
+        synchronized (tasks) {
+            task = tasks.poll();
+        }
+        if (task == null || !running) {
+            return;
+        }
+
+        float margin = pdfView.toCurrentScale(preloadOffset);
+        if (!pdfView.isPartOnScreen(task.page, task.bounds, margin)) {
+            return;
+        }
+
+        try {
+            final PagePart part = proceed(task);
+            if (part != null) {
+                if (running) {
+                    pdfView.post(() -> pdfView.onBitmapRendered(part));
+                } else {
+                    pdfView.cacheManager.releasePart(part);
+                }
+            }
+        } catch (final PageRenderingException ex) {
+            pdfView.post(() -> pdfView.onPageError(ex));
+        }
+    }
+
+    private PagePart proceed(RenderingTask renderingTask) throws PageRenderingException {
+        PdfFile pdfFile = pdfView.pdfFile;
+        if (pdfFile == null) {
+            return null;
+        }
+        pdfFile.openPage(renderingTask.page);
+
+        int w = Math.round(renderingTask.width);
+        int h = Math.round(renderingTask.height);
+
+        if (w == 0 || h == 0 || pdfFile.pageHasError(renderingTask.page)) {
+            return null;
+        }
+
+        Bitmap.Config config = renderingTask.bestQuality ? Bitmap.Config.ARGB_8888 : Bitmap.Config.RGB_565;
+        Bitmap render;
+        try {
+            // Parts reuse the bitmaps of the evicted ones
+            render = renderingTask.thumbnail
+                    ? Bitmap.createBitmap(w, h, config)
+                    : pdfView.cacheManager.getBitmapPool().get(w, h, config);
+        } catch (IllegalArgumentException e) {
+            Log.e(TAG, "Cannot create bitmap", e);
+            return null;
+        }
+        Rect roundedRenderBounds = calculateBounds(w, h, renderingTask.bounds);
+
+        pdfFile.renderPageBitmap(render, renderingTask.page, roundedRenderBounds, renderingTask.annotationRendering);
+
+        return new PagePart(renderingTask.page, render,
+                renderingTask.bounds, renderingTask.thumbnail,
+                renderingTask.cacheOrder);
+    }
+
+    private Rect calculateBounds(int width, int height, RectF pageSliceBounds) {
+        Matrix renderMatrix = new Matrix();
+        renderMatrix.postTranslate(-pageSliceBounds.left * width, -pageSliceBounds.top * height);
+        renderMatrix.postScale(1 / pageSliceBounds.width(), 1 / pageSliceBounds.height());
+
+        RectF renderBounds = new RectF(0, 0, width, height);
+        renderMatrix.mapRect(renderBounds);
+        Rect roundedRenderBounds = new Rect();
+        renderBounds.round(roundedRenderBounds);
+        return roundedRenderBounds;
+    }
+
+    /**
+     * Stops delivering the rendered parts and drops the pending tasks. The workers are released,
+     * so a stopped scheduler cannot be started again.
+     */
+    void stop() {
+        running = false;
+        synchronized (tasks) {
+            tasks.clear();
+            executor.shutdown();
+        }
+    }
+
+    void start() {
+        running = true;
+    }
+
+    private class RenderingTask {
+
+        float width, height;
+
+        RectF bounds;
+
+        int page;
+
+        boolean thumbnail;
+
+        int cacheOrder;
+
+        boolean bestQuality;
+
+        boolean annotationRendering;
+
+        float distance;
+
+        long sequence;
+
+        RenderingTask(float width, float height, RectF bounds, int page, boolean thumbnail, int cacheOrder, boolean bestQuality, boolean annotationRendering) {
+            this.page = page;
+            this.width = width;
+            this.height = height;
+            this.bounds = bounds;
+            this.thumbnail = thumbnail;
+            this.cacheOrder = cacheOrder;
+            this.bestQuality = bestQuality;
+            this.annotationRendering = annotationRendering;
+        }
+    }
+
+    private class RenderingTaskComparator implements Comparator<RenderingTask> {
+        @Override
+        public int compare(RenderingTask task1, RenderingTask task2) {
+            if (task1.distance != task2.distance) {
+                return Float.compare(task1.distance, task2.distance);
+            }
+            if (task1.thumbnail != task2.thumbnail) {
+                return task1.thumbnail ? -1 : 1;
+            }
+            return Long.compare(task1.sequence, task2.sequence);
+        }
+    }
+}
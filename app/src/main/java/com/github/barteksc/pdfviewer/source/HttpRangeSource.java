@@ -0,0 +1,195 @@
+package com.github.barteksc.pdfviewer.source;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.ParcelFileDescriptor;
+import android.os.ProxyFileDescriptorCallback;
+import android.os.storage.StorageManager;
+import android.system.ErrnoException;
+import android.system.OsConstants;
+import androidx.annotation.RequiresApi;
+import com.shockwave.pdfium.PdfDocument;
+import com.shockwave.pdfium.PdfiumCore;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import mega.privacy.android.app.utils.CacheFolderManager;
+import timber.log.Timber;
+
+/**
+ * Document served over HTTP, as by the streaming server of the SDK, opened without downloading it
+ * first.
+ * <p>
+ * If the server supports range requests, pdfium reads the document through a proxy file
+ * descriptor backed by a {@link SparseBlockCache}: only the parts pdfium actually reads, as the
+ * cross-reference table and the pages being rendered, are fetched. Linearized documents show their
+ * first page after a few requests; others need their trailer first, which is at the end of the
+ * file, but still not the whole file.
+ * <p>
+ * Proxy file descriptors need Android 8.0. On older versions, or if the server does not support
+ * range requests, the whole document is copied first as by {@link InputStreamSource}.
+ */
+public class HttpRangeSource implements DocumentSource {
+
+    private static final int CONNECT_TIMEOUT_MS = 10000;
+    private static final int READ_TIMEOUT_MS = 30000;
+
+    private final String url;
+    private final String tmpFileName;
+
+    public HttpRangeSource(String url, String tmpFileName) {
+        this.url = url;
+        this.tmpFileName = tmpFileName;
+    }
+
+    @Override
+    public PdfDocument createDocument(Context context, PdfiumCore core, String password)
+            throws IOException {
+        File tmpFolder = CacheFolderManager
+                .getCacheFolder(context, CacheFolderManager.TEMPORARY_FOLDER);
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O && tmpFolder != null) {
+            long length = getRangeLength();
+            if (length > 0) {
+                File partFile = new File(tmpFolder, tmpFileName + ".part");
+                SparseBlockCache cache = new SparseBlockCache(partFile, length, this::openRange);
+                return openProxyDocument(context, core, password, cache);
+            }
+            Timber.d("Range requests not supported, copying the whole document");
+        }
+
+        HttpURLConnection connection = openConnection();
+        int responseCode = connection.getResponseCode();
+        if (responseCode != HttpURLConnection.HTTP_OK) {
+            connection.disconnect();
+            throw new IOException("Unexpected response code " + responseCode);
+        }
+        return new InputStreamSource(new BufferedInputStream(connection.getInputStream()),
+                tmpFileName).createDocument(context, core, password);
+    }
+
+    @RequiresApi(Build.VERSION_CODES.O)
+    private PdfDocument openProxyDocument(Context context, PdfiumCore core, String password,
+                                          SparseBlockCache cache) throws IOException {
+        HandlerThread thread = new HandlerThread("PDF range reader");
+        thread.start();
+
+        ParcelFileDescriptor fd;
+        try {
+            StorageManager storageManager = context.getSystemService(StorageManager.class);
+            fd = storageManager.openProxyFileDescriptor(ParcelFileDescriptor.MODE_READ_ONLY,
+                    new RangeCallback(cache, thread), new Handler(thread.getLooper()));
+        } catch (IOException | RuntimeException e) {
+            cache.close();
+            thread.quitSafely();
+            throw e;
+        }
+
+        try {
+            // Closing the document closes the descriptor, which releases the cache
+            return core.newDocument(fd, password);
+        } catch (IOException | RuntimeException e) {
+            fd.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Checks if the server supports range requests
+     *
+     * @return the length of the document, or -1 if range requests are not supported
+     */
+    private long getRangeLength() throws IOException {
+        HttpURLConnection connection = openConnection();
+        try {
+            connection.setRequestProperty("Range", "bytes=0-0");
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_PARTIAL) {
+                return -1;
+            }
+            // Content-Range: bytes 0-0/<length>
+            String contentRange = connection.getHeaderField("Content-Range");
+            int separator = contentRange != null ? contentRange.lastIndexOf('/') : -1;
+            if (separator < 0) {
+                return -1;
+            }
+            try {
+                return Long.parseLong(contentRange.substring(separator + 1).trim());
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private InputStream openRange(long offset, long length) throws IOException {
+        final HttpURLConnection connection = openConnection();
+        connection.setRequestProperty("Range", "bytes=" + offset + "-" + (offset + length - 1));
+        int responseCode = connection.getResponseCode();
+        if (responseCode != HttpURLConnection.HTTP_PARTIAL) {
+            connection.disconnect();
+            throw new IOException("Unexpected response code " + responseCode
+                    + " for range " + offset + "+" + length);
+        }
+        return new FilterInputStream(connection.getInputStream()) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    connection.disconnect();
+                }
+            }
+        };
+    }
+
+    private HttpURLConnection openConnection() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+        connection.setReadTimeout(READ_TIMEOUT_MS);
+        return connection;
+    }
+
+    @RequiresApi(Build.VERSION_CODES.O)
+    private static class RangeCallback extends ProxyFileDescriptorCallback {
+
+        private final SparseBlockCache cache;
+        private final HandlerThread thread;
+
+        RangeCallback(SparseBlockCache cache, HandlerThread thread) {
+            this.cache = cache;
+            this.thread = thread;
+        }
+
+        @Override
+        public long onGetSize() {
+            return cache.getLength();
+        }
+
+        @Override
+        public int onRead(long offset, int size, byte[] data) throws ErrnoException {
+            try {
+                return cache.read(offset, data, 0, size);
+            } catch (IOException e) {
+                Timber.w(e, "Cannot read range %d+%d", offset, size);
+                throw new ErrnoException("onRead", OsConstants.EIO);
+            }
+        }
+
+        @Override
+        public void onRelease() {
+            try {
+                cache.close();
+            } catch (IOException e) {
+                Timber.w(e, "Cannot close the range cache");
+            }
+            thread.quitSafely();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.barteksc.pdfviewer.source;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.BitSet;
+
+/**
+ * Sparse on-disk copy of a remote file, filled block by block as it is read.
+ * <p>
+ * The file is split in blocks of {@link #BLOCK_SIZE} bytes. Reading a range fetches the missing
+ * blocks, plus up to {@link #READ_AHEAD_BLOCKS} following ones, with as few range requests as
+ * possible, and then serves the range from the local copy. Blocks already fetched are never
+ * requested again.
+ */
+class SparseBlockCache implements Closeable {
+
+    static final int BLOCK_SIZE = 64 * 1024;
+
+    static final int READ_AHEAD_BLOCKS = 4;
+
+    /**
+     * Reads ranges of the remote file
+     */
+    interface RangeReader {
+
+        /**
+         * Opens a range of the remote file
+         *
+         * @param offset Offset of the first byte
+         * @param length Number of bytes
+         * @return a stream with the bytes of the range
+         */
+        InputStream open(long offset, long length) throws IOException;
+    }
+
+    private final File path;
+
+    private final RandomAccessFile file;
+
+    private final long length;
+
+    private final int blockCount;
+
+    private final BitSet blocks;
+
+    private final RangeReader reader;
+
+    private final byte[] buffer = new byte[BLOCK_SIZE];
+
+    SparseBlockCache(File path, long length, RangeReader reader) throws IOException {
+        this.path = path;
+        this.length = length;
+        this.reader = reader;
+        blockCount = (int) ((length + BLOCK_SIZE - 1) / BLOCK_SIZE);
+        blocks = new BitSet(blockCount);
+        file = new RandomAccessFile(path, "rw");
+        file.setLength(length);
+    }
+
+    long getLength() {
+        return length;
+    }
+
+    /**
+     * Reads a range of the file, fetching the blocks not read yet.
+     *
+     * @return the number of bytes read, 0 at the end of the file
+     */
+    synchronized int read(long offset, byte[] data, int dataOffset, int size) throws IOException {
+        if (offset >= length || size <= 0) {
+            return 0;
+        }
+        size = (int) Math.min(size, length - offset);
+
+        int lastBlock = (int) ((offset + size - 1) / BLOCK_SIZE);
+        for (int block = (int) (offset / BLOCK_SIZE); block <= lastBlock; block++) {
+            if (!blocks.get(block)) {
+                block = fetch(block, lastBlock);
+            }
+        }
+
+        file.seek(offset);
+        file.readFully(data, dataOffset, size);
+        return size;
+    }
+
+    /**
+     * Fetches the missing blocks from the first one, through the last needed one plus the
+     * read-ahead, stopping at the first block already fetched.
+     *
+     * @return the last block fetched
+     */
+    private int fetch(int firstBlock, int lastNeededBlock) throws IOException {
+        int endBlock = Math.min(lastNeededBlock + READ_AHEAD_BLOCKS, blockCount - 1) + 1;
+        int nextFetched = blocks.nextSetBit(firstBlock);
+        if (nextFetched >= 0 && nextFetched < endBlock) {
+            endBlock = nextFetched;
+        }
+
+        long start = (long) firstBlock * BLOCK_SIZE;
+        long end = Math.min((long) endBlock * BLOCK_SIZE, length);
+        long position = start;
+        int block = firstBlock;
+
+        try (InputStream inputStream = reader.open(start, end - start)) {
+            file.seek(start);
+            while (position < end) {
+                int bytes = inputStream.read(buffer, 0, (int) Math.min(buffer.length, end - position));
+                if (bytes < 0) {
+                    throw new EOFException("Range ended at " + position + " instead of " + end);
+                }
+                file.write(buffer, 0, bytes);
+                position += bytes;
+
+                // Keep the complete blocks even if the rest of the range fails
+                while (block < endBlock && Math.min((long) (block + 1) * BLOCK_SIZE, length) <= position) {
+                    blocks.set(block++);
+                }
+            }
+        }
+
+        return endBlock - 1;
+    }
+
+    /**
+     * Closes and deletes the local copy
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            file.close();
+        } finally {
+            path.delete();
+        }
+    }
+}
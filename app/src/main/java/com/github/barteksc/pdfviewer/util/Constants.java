@@ -32,11 +32,26 @@ public class Constants {
     /** Part of document above and below screen that should be preloaded, in dp */
     public static int PRELOAD_OFFSET = 20;
 
+    /** Number of threads rendering the parts */
+    public static int RENDERING_THREADS = 2;
+
     public static class Cache {
 
-        /** The size of the cache (number of bitmaps kept) */
+        /** The maximum number of parts requested when loading the visible pages */
         public static int CACHE_SIZE = 120;
 
+        /**
+         * The size of the cache, in bytes of the rendered parts (default, 120 parts of 256x256
+         * ARGB_8888). Never more than {@link #CACHE_MAX_MEMORY_FRACTION} of the heap.
+         */
+        public static long CACHE_SIZE_BYTES = 120 * 256 * 256 * 4;
+
+        /** Fraction of the maximum heap size the cache may use */
+        public static float CACHE_MAX_MEMORY_FRACTION = 0.125f;
+
+        /** The size of the pool of bitmaps reused for the rendered parts, in bytes */
+        public static long BITMAP_POOL_SIZE_BYTES = 32 * 256 * 256 * 4;
+
         public static int THUMBNAILS_CACHE_SIZE = 8;
     }
 
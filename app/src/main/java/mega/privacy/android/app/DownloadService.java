@@ -290,7 +290,7 @@ public class DownloadService extends Service implements MegaRequestListenerInter
         LiveEventBus.get(EVENT_FINISH_SERVICE_IF_NO_TRANSFERS, Boolean.class)
                 .observeForever(stopServiceObserver);
 
-        Disposable subscription = getGlobalTransferUseCase.get()
+        Disposable subscription = getGlobalTransferUseCase.get(ONTRANSFERUPDATE_REFRESH_MILLIS)
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe((event) -> {
@@ -1064,10 +1064,6 @@ public class DownloadService extends Service implements MegaRequestListenerInter
      */
     @SuppressLint("NewApi")
     private void updateProgressNotification() {
-        int pendingTransfers = getNumPendingDownloadsNonBackground(megaApi);
-        int totalTransfers = megaApi.getTotalDownloads() - backgroundTransfers.size();
-
-        long totalSizePendingTransfer = megaApi.getTotalDownloadBytes();
         long totalSizeTransferred = megaApi.getTotalDownloadedBytes();
 
         boolean update;
@@ -1097,6 +1093,11 @@ public class DownloadService extends Service implements MegaRequestListenerInter
                     return;
                 }
             }
+
+            int pendingTransfers = getNumPendingDownloadsNonBackground(megaApi);
+            int totalTransfers = megaApi.getTotalDownloads() - backgroundTransfers.size();
+            long totalSizePendingTransfer = megaApi.getTotalDownloadBytes();
+
             int progressPercent = (int) Math.round((double) totalSizeTransferred / totalSizePendingTransfer * 100);
             Timber.d("Progress: " + progressPercent + "%");
 
@@ -1,6 +1,8 @@
 package mega.privacy.android.app
 
 import android.database.sqlite.SQLiteDatabase
+import kotlinx.coroutines.flow.StateFlow
+import mega.privacy.android.app.data.database.SettingsSnapshot
 import mega.privacy.android.app.main.megachat.AndroidMegaChatMessage
 import mega.privacy.android.app.main.megachat.ChatItemPreferences
 import mega.privacy.android.app.main.megachat.PendingMessageSingle
@@ -15,6 +17,12 @@ import mega.privacy.android.data.database.DatabaseHandler
  * it contains methods depending on app models, we will move to the data module later
  */
 interface LegacyDatabaseHandler : DatabaseHandler {
+    /**
+     * In-memory snapshot of the preferences, attributes and chat settings,
+     * emitted every time one of them changes.
+     */
+    val settingsSnapshot: StateFlow<SettingsSnapshot>
+
     val megaContacts: ArrayList<MegaContactGetter.MegaContact>
 
     val ephemeral: EphemeralCredentials?
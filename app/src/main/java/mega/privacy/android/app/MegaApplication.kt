@@ -34,6 +34,7 @@ import mega.privacy.android.app.globalmanagement.MegaChatRequestHandler
 import mega.privacy.android.app.globalmanagement.MyAccountInfo
 import mega.privacy.android.app.globalmanagement.TransfersManagement
 import mega.privacy.android.app.listeners.GlobalChatListener
+import mega.privacy.android.app.main.megachat.chatAdapters.ChatMetaImageLoader
 import mega.privacy.android.app.meeting.CallService
 import mega.privacy.android.app.meeting.CallSoundType
 import mega.privacy.android.app.meeting.CallSoundsController
@@ -53,7 +54,11 @@ import mega.privacy.android.app.utils.Constants
 import mega.privacy.android.app.utils.ContextUtils.getAvailableMemory
 import mega.privacy.android.app.utils.DBUtil
 import mega.privacy.android.app.utils.FrescoNativeMemoryChunkPoolParams.get
+import mega.privacy.android.app.utils.PreviewUtils
+import mega.privacy.android.app.utils.ThumbnailUtils
+import mega.privacy.android.data.cache.DiskCacheManager
 import mega.privacy.android.data.qualifier.MegaApi
+import mega.privacy.android.data.thumbnail.ThumbnailRequestScheduler
 import mega.privacy.android.domain.entity.StorageState
 import mega.privacy.android.domain.usecase.InitialiseLogging
 import mega.privacy.android.domain.usecase.MonitorStorageStateEvent
@@ -96,6 +101,8 @@ import javax.inject.Inject
  * @property isEsid
  * @property storageState
  * @property monitorStorageStateEvent
+ * @property thumbnailRequestScheduler
+ * @property diskCacheManager
  */
 @HiltAndroidApp
 class MegaApplication : MultiDexApplication(), Configuration.Provider, DefaultLifecycleObserver {
@@ -173,6 +180,12 @@ class MegaApplication : MultiDexApplication(), Configuration.Provider, DefaultLi
     @Inject
     lateinit var monitorStorageStateEvent: MonitorStorageStateEvent
 
+    @Inject
+    lateinit var thumbnailRequestScheduler: ThumbnailRequestScheduler
+
+    @Inject
+    lateinit var diskCacheManager: DiskCacheManager
+
     var localIpAddress: String? = ""
 
     var isEsid = false
@@ -265,6 +278,18 @@ class MegaApplication : MultiDexApplication(), Configuration.Provider, DefaultLi
         }
     }
 
+    /**
+     * On trim memory
+     *
+     * Releases the in-memory thumbnail and preview caches according to the system level.
+     */
+    override fun onTrimMemory(level: Int) {
+        super.onTrimMemory(level)
+        ThumbnailUtils.trimMemory(level)
+        PreviewUtils.trimMemory(level)
+        ChatMetaImageLoader.trimMemory(level)
+    }
+
     private fun enableStrictMode() {
         if (BuildConfig.DEBUG) {
             StrictMode.setThreadPolicy(
@@ -11,6 +11,14 @@ import android.provider.Settings
 import android.text.TextUtils
 import android.util.Base64
 import dagger.hilt.android.EntryPointAccessors.fromApplication
+import kotlinx.coroutines.flow.StateFlow
+import mega.privacy.android.app.data.database.DatabaseCipher
+import mega.privacy.android.app.data.database.DatabaseKeyedHash
+import mega.privacy.android.app.data.database.SettingsRow
+import mega.privacy.android.app.data.database.SettingsSnapshot
+import mega.privacy.android.app.data.database.SettingsSnapshotStore
+import mega.privacy.android.app.data.database.StatementCache
+import mega.privacy.android.app.data.database.bindStringOrNull
 import mega.privacy.android.data.database.DatabaseHandler.Companion.MAX_TRANSFERS
 import mega.privacy.android.data.mapper.StorageStateIntMapper
 import mega.privacy.android.data.model.UserCredentials
@@ -33,7 +41,6 @@ import mega.privacy.android.app.sync.camerauploads.CameraUploadSyncManager.updat
 import mega.privacy.android.app.utils.Constants
 import mega.privacy.android.app.utils.PasscodeUtil
 import mega.privacy.android.app.utils.TextUtil
-import mega.privacy.android.app.utils.Util
 import mega.privacy.android.app.utils.contacts.MegaContactGetter.MegaContact
 import mega.privacy.android.data.database.DatabaseHandler
 import mega.privacy.android.data.mapper.StorageStateMapper
@@ -51,15 +58,54 @@ import java.util.Collections
 
 /**
  * Sqlite implementation of database handler
+ *
+ * @param databaseName Name of the database file, only changed by tests so they do not touch the
+ *                     database of the app
  */
 class SqliteDatabaseHandler(
     context: Context?,
     private val legacyLoggingSettings: LegacyLoggingSettings,
     private val storageStateMapper: StorageStateMapper,
     private val storageStateIntMapper: StorageStateIntMapper,
+    databaseName: String = DATABASE_NAME,
 ) :
-    SQLiteOpenHelper(context, DATABASE_NAME, null, DATABASE_VERSION), LegacyDatabaseHandler {
-    private var db: SQLiteDatabase
+    SQLiteOpenHelper(context, databaseName, null, DATABASE_VERSION), LegacyDatabaseHandler {
+    private var database: SQLiteDatabase
+
+    /**
+     * Database to run queries on directly, except on the settings tables.
+     */
+    private val db: SQLiteDatabase
+        get() = database
+
+    /**
+     * Database to run queries on the settings tables directly, once the pending settings writes
+     * have been stored. Queries on other tables use [db], so they never wait for those writes.
+     */
+    private val settingsDb: SQLiteDatabase
+        get() {
+            settingsStore.flush()
+            return database
+        }
+
+    /**
+     * In-memory snapshot of the preferences, attributes and chat settings tables.
+     */
+    private val settingsStore by lazy {
+        SettingsSnapshotStore(
+            loadRow = ::loadSettingsRow,
+            decrypt = ::decrypt,
+            writeRow = ::writeSettingsRow,
+        )
+    }
+
+    override val settingsSnapshot: StateFlow<SettingsSnapshot>
+        get() = settingsStore.snapshot
+
+    /**
+     * Compiled statements of the hot sync record and completed transfer queries.
+     */
+    private val statements by lazy { StatementCache(db) }
     override fun onCreate(db: SQLiteDatabase) {
         Timber.d("onCreate")
         val CREATE_OFFLINE_TABLE = "CREATE TABLE IF NOT EXISTS $TABLE_OFFLINE(" +
@@ -253,6 +299,7 @@ class SqliteDatabaseHandler(
         db.execSQL(CREATE_NEW_PENDING_MSG_TABLE)
 
         db.execSQL(CREATE_SYNC_RECORDS_TABLE)
+        CREATE_SYNC_RECORDS_INDEXES.forEach { db.execSQL(it) }
         db.execSQL(CREATE_MEGA_CONTACTS_TABLE)
         db.execSQL(CREATE_SD_TRANSFERS_TABLE)
         db.execSQL(CREATE_BACKUP_TABLE)
@@ -265,6 +312,8 @@ class SqliteDatabaseHandler(
         var chatSettingsAlreadyUpdated = false
         //Used to identify when the Attributes table has been already recreated
         var attributesAlreadyUpdated = false
+        //Used to identify when the Sync Records table has been created with the current columns
+        var syncRecordsAlreadyCreated = false
         //Used to identify when the Preferences table has been already recreated
         var preferencesAlreadyUpdated = false
         if (oldVersion <= 7) {
@@ -517,6 +566,7 @@ class SqliteDatabaseHandler(
         }
         if (oldVersion <= 44) {
             db.execSQL(CREATE_SYNC_RECORDS_TABLE)
+            syncRecordsAlreadyCreated = true
             db.execSQL("ALTER TABLE $TABLE_PREFERENCES ADD COLUMN $KEY_UPLOAD_VIDEO_QUALITY TEXT;")
             db.execSQL("ALTER TABLE $TABLE_PREFERENCES ADD COLUMN $KEY_CONVERSION_ON_CHARGING BOOLEAN;")
             db.execSQL("ALTER TABLE $TABLE_PREFERENCES ADD COLUMN $KEY_CHARGING_ON_SIZE TEXT;")
@@ -645,7 +695,59 @@ class SqliteDatabaseHandler(
             //KEY_FILE_LOGGER_SDK and KEY_FILE_LOGGER_KARERE have been removed in DB v67
             recreateAttributes(db, getAttributes(db))
         }
-        this.db = db
+        if (oldVersion <= 67) {
+            //Lookup hashes of the sync records have been added in DB v68
+            if (!syncRecordsAlreadyCreated) {
+                addSyncRecordHashes(db)
+            }
+            CREATE_SYNC_RECORDS_INDEXES.forEach { db.execSQL(it) }
+        }
+        database = db
+    }
+
+    /**
+     * Adds the lookup hash columns to the sync records table
+     * and fills them in from the encrypted values of the existing records.
+     *
+     * Records whose values cannot be decrypted or hashed are logged and deleted, as lookups would
+     * never find them. Sync records only avoid uploading a file twice, so losing a few is better
+     * than failing the upgrade, which would be retried and fail again on every start.
+     *
+     * @param db Current DB.
+     */
+    private fun addSyncRecordHashes(db: SQLiteDatabase) {
+        SYNC_RECORD_HASHED_COLUMNS.keys.forEach { hashColumn ->
+            db.execSQL("ALTER TABLE $TABLE_SYNC_RECORDS ADD COLUMN $hashColumn TEXT;")
+        }
+
+        val selectQuery = "SELECT $KEY_ID, ${SYNC_RECORD_HASHED_COLUMNS.values.joinToString()} " +
+                "FROM $TABLE_SYNC_RECORDS"
+        db.rawQuery(selectQuery, null).use { cursor ->
+            while (cursor.moveToNext()) {
+                val id = cursor.getLong(0)
+                try {
+                    val values = ContentValues()
+                    SYNC_RECORD_HASHED_COLUMNS.keys.forEachIndexed { index, hashColumn ->
+                        values.put(hashColumn, hash(decrypt(cursor.getString(index + 1))))
+                    }
+                    db.update(TABLE_SYNC_RECORDS, values, "$KEY_ID = ?", arrayOf(id.toString()))
+                } catch (e: Exception) {
+                    Timber.e(e, "Error hashing sync record %d", id)
+                }
+            }
+        }
+
+        val withoutHashes =
+            SYNC_RECORD_HASHED_COLUMNS.entries.joinToString(" OR ") { (hashColumn, column) ->
+                "($column IS NOT NULL AND $hashColumn IS NULL)"
+            }
+        db.rawQuery("SELECT $KEY_ID FROM $TABLE_SYNC_RECORDS WHERE $withoutHashes", null)
+            .use { cursor ->
+                while (cursor.moveToNext()) {
+                    Timber.w("Sync record %d could not be hashed, deleting it", cursor.getLong(0))
+                }
+            }
+        db.delete(TABLE_SYNC_RECORDS, withoutHashes, null)
     }
 
     /**
@@ -708,24 +810,29 @@ class SqliteDatabaseHandler(
     }
 
     override fun saveSyncRecord(record: SyncRecord) {
-        val values = ContentValues().apply {
+        statements.use(INSERT_SYNC_RECORD) { statement ->
             with(record) {
-                localPath?.let { put(KEY_SYNC_FILEPATH_ORI, encrypt(it)) }
-                newPath?.let { put(KEY_SYNC_FILEPATH_NEW, encrypt(it)) }
-                originFingerprint?.let { put(KEY_SYNC_FP_ORI, encrypt(it)) }
-                newFingerprint?.let { put(KEY_SYNC_FP_NEW, encrypt(it)) }
-                fileName?.let { put(KEY_SYNC_FILENAME, encrypt(it)) }
-                nodeHandle?.let { put(KEY_SYNC_HANDLE, encrypt(it.toString())) }
-                timestamp?.let { put(KEY_SYNC_TIMESTAMP, encrypt(it.toString())) }
-                put(KEY_SYNC_COPYONLY, encrypt(record.isCopyOnly.toString()))
-                put(KEY_SYNC_SECONDARY, encrypt(record.isSecondary.toString()))
-                longitude?.let { put(KEY_SYNC_LONGITUDE, encrypt(it.toString())) }
-                latitude?.let { put(KEY_SYNC_LATITUDE, encrypt(it.toString())) }
-                put(KEY_SYNC_STATE, record.status)
-                put(KEY_SYNC_TYPE, record.type)
+                statement.bindStringOrNull(1, encrypt(localPath))
+                statement.bindStringOrNull(2, encrypt(newPath))
+                statement.bindStringOrNull(3, encrypt(originFingerprint))
+                statement.bindStringOrNull(4, encrypt(newFingerprint))
+                statement.bindStringOrNull(5, encrypt(fileName))
+                statement.bindStringOrNull(6, encrypt(nodeHandle?.toString()))
+                statement.bindStringOrNull(7, encrypt(timestamp?.toString()))
+                statement.bindStringOrNull(8, encrypt(isCopyOnly.toString()))
+                statement.bindStringOrNull(9, encrypt(isSecondary.toString()))
+                statement.bindStringOrNull(10, encrypt(longitude?.toString()))
+                statement.bindStringOrNull(11, encrypt(latitude?.toString()))
+                statement.bindLong(12, status.toLong())
+                statement.bindLong(13, type.toLong())
+                statement.bindStringOrNull(14, hash(localPath))
+                statement.bindStringOrNull(15, hash(originFingerprint))
+                statement.bindStringOrNull(16, hash(fileName))
+                statement.bindStringOrNull(17, hash(newPath))
+                statement.bindStringOrNull(18, hash(newFingerprint))
             }
+            statement.executeInsert()
         }
-        db.insert(TABLE_SYNC_RECORDS, null, values)
     }
 
     override fun updateVideoState(state: Int) {
@@ -735,25 +842,39 @@ class SqliteDatabaseHandler(
         db.execSQL(sql)
     }
 
-    override fun fileNameExists(name: String?, isSecondary: Boolean, fileType: Int): Boolean {
-        var selectQuery = "SELECT * FROM $TABLE_SYNC_RECORDS " +
-                "WHERE $KEY_SYNC_FILENAME ='${encrypt(name)}' " +
-                "AND $KEY_SYNC_SECONDARY = '${encrypt(isSecondary.toString())}'"
-        if (fileType != SYNC_RECORD_TYPE_ANY) {
-            selectQuery += " AND $KEY_SYNC_TYPE = $fileType"
-        }
-        db.rawQuery(selectQuery, null).use { cursor -> return cursor != null && cursor.count == 1 }
-    }
+    override fun fileNameExists(name: String?, isSecondary: Boolean, fileType: Int): Boolean =
+        countSyncRecords(KEY_SYNC_FILENAME_HASH, name, isSecondary, fileType) == 1L
+
+    override fun localPathExists(localPath: String?, isSecondary: Boolean, fileType: Int): Boolean =
+        countSyncRecords(KEY_SYNC_FILEPATH_ORI_HASH, localPath, isSecondary, fileType) == 1L
 
-    override fun localPathExists(localPath: String?, isSecondary: Boolean, fileType: Int): Boolean {
-        var selectQuery = ("SELECT * FROM $TABLE_SYNC_RECORDS " +
-                "WHERE $KEY_SYNC_FILEPATH_ORI ='${encrypt(localPath)}' " +
-                "AND $KEY_SYNC_SECONDARY = '${encrypt(isSecondary.toString())}'")
+    /**
+     * Counts the sync records which have a value in a column.
+     *
+     * @param column      Lookup hash column to check.
+     * @param value       Value to look for, not hashed.
+     * @param isSecondary True if the records are from the secondary folder, false otherwise.
+     * @param fileType    Type of the records, or [SYNC_RECORD_TYPE_ANY].
+     * @return The number of records.
+     */
+    private fun countSyncRecords(
+        column: String,
+        value: String?,
+        isSecondary: Boolean,
+        fileType: Int,
+    ): Long {
+        var selectQuery = "SELECT COUNT(*) FROM $TABLE_SYNC_RECORDS " +
+                "WHERE $column = ? AND $KEY_SYNC_SECONDARY = ?"
         if (fileType != SYNC_RECORD_TYPE_ANY) {
-            selectQuery += " AND $KEY_SYNC_TYPE = $fileType"
+            selectQuery += " AND $KEY_SYNC_TYPE = ?"
         }
-        db.rawQuery(selectQuery, null).use { cursor ->
-            return cursor != null && cursor.count == 1
+        return statements.use(selectQuery) { statement ->
+            statement.bindStringOrNull(1, hash(value))
+            statement.bindStringOrNull(2, encrypt(isSecondary.toString()))
+            if (fileType != SYNC_RECORD_TYPE_ANY) {
+                statement.bindLong(3, fileType.toLong())
+            }
+            statement.simpleQueryForLong()
         }
     }
 
@@ -762,12 +883,15 @@ class SqliteDatabaseHandler(
         isSecondary: Boolean,
         isCopyOnly: Boolean,
     ): SyncRecord? {
-        val selectQuery = ("SELECT * FROM $TABLE_SYNC_RECORDS " +
-                "WHERE $KEY_SYNC_FP_ORI ='${encrypt(originalFingerprint)}' " +
-                "AND $KEY_SYNC_SECONDARY = '${encrypt(isSecondary.toString())}' " +
-                "AND $KEY_SYNC_COPYONLY = '${encrypt(isCopyOnly.toString())}'")
+        val selectQuery = "SELECT * FROM $TABLE_SYNC_RECORDS " +
+                "WHERE $KEY_SYNC_FP_ORI_HASH = ? " +
+                "AND $KEY_SYNC_SECONDARY = ? " +
+                "AND $KEY_SYNC_COPYONLY = ?"
+        val selectionArgs = arrayOf(hash(originalFingerprint),
+            encrypt(isSecondary.toString()),
+            encrypt(isCopyOnly.toString()))
         try {
-            db.rawQuery(selectQuery, null)?.use { cursor ->
+            db.rawQuery(selectQuery, selectionArgs)?.use { cursor ->
                 if (cursor.moveToFirst()) {
                     return extractSyncRecord(cursor)
                 }
@@ -883,10 +1007,11 @@ class SqliteDatabaseHandler(
 
     override fun findSyncRecordByLocalPath(localPath: String?, isSecondary: Boolean): SyncRecord? {
         val selectQuery = "SELECT * FROM $TABLE_SYNC_RECORDS " +
-                "WHERE $KEY_SYNC_FILEPATH_ORI ='${encrypt(localPath)}' " +
-                "AND $KEY_SYNC_SECONDARY ='${encrypt(isSecondary.toString())}'"
+                "WHERE $KEY_SYNC_FILEPATH_ORI_HASH = ? " +
+                "AND $KEY_SYNC_SECONDARY = ?"
+        val selectionArgs = arrayOf(hash(localPath), encrypt(isSecondary.toString()))
         try {
-            db.rawQuery(selectQuery, null)?.use { cursor ->
+            db.rawQuery(selectQuery, selectionArgs)?.use { cursor ->
                 if (cursor.moveToFirst()) {
                     return extractSyncRecord(cursor)
                 }
@@ -898,31 +1023,34 @@ class SqliteDatabaseHandler(
     }
 
     override fun deleteSyncRecordByPath(path: String?, isSecondary: Boolean) {
-        val sql = "DELETE FROM $TABLE_SYNC_RECORDS  " +
-                "WHERE ($KEY_SYNC_FILEPATH_ORI ='${encrypt(path)}' " +
-                "OR $KEY_SYNC_FILEPATH_NEW ='${encrypt(path)}') " +
-                "AND $KEY_SYNC_SECONDARY ='${encrypt(isSecondary.toString())}'"
-        db.execSQL(sql)
+        val sql = "DELETE FROM $TABLE_SYNC_RECORDS " +
+                "WHERE ($KEY_SYNC_FILEPATH_ORI_HASH = ? " +
+                "OR $KEY_SYNC_FILEPATH_NEW_HASH = ?) " +
+                "AND $KEY_SYNC_SECONDARY = ?"
+        val pathHash = hash(path)
+        db.execSQL(sql, arrayOf(pathHash, pathHash, encrypt(isSecondary.toString())))
     }
 
     override fun deleteSyncRecordByLocalPath(localPath: String?, isSecondary: Boolean) {
-        val sql = "DELETE FROM $TABLE_SYNC_RECORDS  " +
-                "WHERE $KEY_SYNC_FILEPATH_ORI ='${encrypt(localPath)}' " +
-                "AND $KEY_SYNC_SECONDARY ='${encrypt(isSecondary.toString())}'"
-        db.execSQL(sql)
+        val sql = "DELETE FROM $TABLE_SYNC_RECORDS " +
+                "WHERE $KEY_SYNC_FILEPATH_ORI_HASH = ? " +
+                "AND $KEY_SYNC_SECONDARY = ?"
+        db.execSQL(sql, arrayOf(hash(localPath), encrypt(isSecondary.toString())))
     }
 
     override fun deleteSyncRecordByNewPath(newPath: String?) {
-        val sql =
-            "DELETE FROM $TABLE_SYNC_RECORDS WHERE $KEY_SYNC_FILEPATH_NEW ='${encrypt(newPath)}'"
-        db.execSQL(sql)
+        val sql = "DELETE FROM $TABLE_SYNC_RECORDS WHERE $KEY_SYNC_FILEPATH_NEW_HASH = ?"
+        db.execSQL(sql, arrayOf(hash(newPath)))
     }
 
     override fun deleteSyncRecordByFileName(fileName: String?) {
-        val sql = "DELETE FROM $TABLE_SYNC_RECORDS  " +
-                "WHERE $KEY_SYNC_FILENAME = '${encrypt(fileName)}' " +
-                "OR $KEY_SYNC_FILEPATH_ORI LIKE '%${encrypt(fileName)}'"
-        db.execSQL(sql)
+        // Encrypted values can not be matched by suffix, so the LIKE on the encrypted local path
+        // this replaces only ever matched a local path equal to the file name.
+        val sql = "DELETE FROM $TABLE_SYNC_RECORDS " +
+                "WHERE $KEY_SYNC_FILENAME_HASH = ? " +
+                "OR $KEY_SYNC_FILEPATH_ORI_HASH = ?"
+        val fileNameHash = hash(fileName)
+        db.execSQL(sql, arrayOf(fileNameHash, fileNameHash))
     }
 
     override fun deleteSyncRecordByFingerprint(
@@ -930,25 +1058,26 @@ class SqliteDatabaseHandler(
         newFingerprint: String?,
         isSecondary: Boolean,
     ) {
-        val sql = ("DELETE FROM $TABLE_SYNC_RECORDS  " +
-                "WHERE $KEY_SYNC_FP_ORI = '${encrypt(oriFingerprint)}' " +
-                "OR $KEY_SYNC_FP_NEW = '${encrypt(newFingerprint)}' " +
-                "AND $KEY_SYNC_SECONDARY ='${encrypt(isSecondary.toString())}'")
-        db.execSQL(sql)
+        val sql = "DELETE FROM $TABLE_SYNC_RECORDS " +
+                "WHERE $KEY_SYNC_FP_ORI_HASH = ? " +
+                "OR $KEY_SYNC_FP_NEW_HASH = ? " +
+                "AND $KEY_SYNC_SECONDARY = ?"
+        db.execSQL(sql,
+            arrayOf(hash(oriFingerprint), hash(newFingerprint), encrypt(isSecondary.toString())))
     }
 
     override fun updateSyncRecordStatusByLocalPath(status: Int, localPath: String?, isSecondary: Boolean) {
-        val sql = "UPDATE $TABLE_SYNC_RECORDS SET $KEY_SYNC_STATE = $status  " +
-                "WHERE $KEY_SYNC_FILEPATH_ORI = '${encrypt(localPath)}' " +
-                "AND $KEY_SYNC_SECONDARY ='${encrypt(isSecondary.toString())}'"
-        db.execSQL(sql)
+        val sql = "UPDATE $TABLE_SYNC_RECORDS SET $KEY_SYNC_STATE = $status " +
+                "WHERE $KEY_SYNC_FILEPATH_ORI_HASH = ? " +
+                "AND $KEY_SYNC_SECONDARY = ?"
+        db.execSQL(sql, arrayOf(hash(localPath), encrypt(isSecondary.toString())))
     }
 
     override fun findSyncRecordByNewPath(newPath: String?): SyncRecord? {
-        val selectQuery = ("SELECT * FROM $TABLE_SYNC_RECORDS " +
-                "WHERE $KEY_SYNC_FILEPATH_NEW ='${encrypt(newPath)}'")
+        val selectQuery = "SELECT * FROM $TABLE_SYNC_RECORDS " +
+                "WHERE $KEY_SYNC_FILEPATH_NEW_HASH = ?"
         try {
-            db.rawQuery(selectQuery, null)?.use { cursor ->
+            db.rawQuery(selectQuery, arrayOf(hash(newPath)))?.use { cursor ->
                 if (cursor.moveToFirst()) {
                     return extractSyncRecord(cursor)
                 }
@@ -960,31 +1089,12 @@ class SqliteDatabaseHandler(
     }
 
     override fun shouldClearCamsyncRecords(): Boolean {
-        val selectQuery =
-            "SELECT $KEY_SHOULD_CLEAR_CAMSYNC_RECORDS FROM $TABLE_PREFERENCES"
-        try {
-            db.rawQuery(selectQuery, null)?.use { cursor ->
-                if (cursor.moveToFirst()) {
-                    var should = cursor.getString(cursor.getColumnIndexOrThrow(
-                        KEY_SHOULD_CLEAR_CAMSYNC_RECORDS))
-                    should = decrypt(should)
-                    return if (should.isNullOrEmpty()) {
-                        false
-                    } else {
-                        java.lang.Boolean.valueOf(should)
-                    }
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
-        return false
+        val should = getRowValue(TABLE_PREFERENCES, KEY_SHOULD_CLEAR_CAMSYNC_RECORDS, null)
+        return !should.isNullOrEmpty() && should.toBoolean()
     }
 
     override fun saveShouldClearCamsyncRecords(should: Boolean) {
-        val sql =
-            "UPDATE $TABLE_PREFERENCES SET $KEY_SHOULD_CLEAR_CAMSYNC_RECORDS = '${encrypt(should.toString())}'"
-        db.execSQL(sql)
+        setStringValue(TABLE_PREFERENCES, KEY_SHOULD_CLEAR_CAMSYNC_RECORDS, should.toString())
     }
 
     override fun findMaxTimestamp(isSecondary: Boolean, fileType: Int): Long? {
@@ -1022,81 +1132,19 @@ class SqliteDatabaseHandler(
     }
 
     override fun setCameraUploadVideoQuality(quality: Int) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_UPLOAD_VIDEO_QUALITY= '${encrypt(quality.toString())}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_UPLOAD_VIDEO_QUALITY, encrypt(quality.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_UPLOAD_VIDEO_QUALITY, quality.toString())
     }
 
     override fun setConversionOnCharging(onCharging: Boolean) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_CONVERSION_ON_CHARGING= '${
-                            encrypt(onCharging.toString())
-                        }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_CONVERSION_ON_CHARGING, encrypt(onCharging.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_CONVERSION_ON_CHARGING, onCharging.toString())
     }
 
     override fun setChargingOnSize(size: Int) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_CHARGING_ON_SIZE= '${encrypt(size.toString())}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_CHARGING_ON_SIZE, encrypt(size.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_CHARGING_ON_SIZE, size.toString())
     }
 
     override fun setRemoveGPS(removeGPS: Boolean) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_REMOVE_GPS= '${encrypt(removeGPS.toString())}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_REMOVE_GPS, encrypt(removeGPS.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_REMOVE_GPS, removeGPS.toString())
     }
 
     override fun saveEphemeral(ephemeralCredentials: EphemeralCredentials) {
@@ -1388,6 +1436,7 @@ class SqliteDatabaseHandler(
         }
 
         db.insert(TABLE_PREFERENCES, null, values)
+        settingsStore.invalidate(TABLE_PREFERENCES)
     }
 
     override fun shouldAskForDisplayOver(): Boolean {
@@ -1400,7 +1449,7 @@ class SqliteDatabaseHandler(
     }
 
     override fun dontAskForDisplayOver() {
-        db.execSQL("UPDATE $TABLE_PREFERENCES SET $KEY_ASK_FOR_DISPLAY_OVER = '${encrypt("false")}';")
+        setStringValue(TABLE_PREFERENCES, KEY_ASK_FOR_DISPLAY_OVER, false.toString())
     }
 
     /**
@@ -1428,7 +1477,7 @@ class SqliteDatabaseHandler(
      * @return Preferences.
      */
     override val preferences: MegaPreferences?
-        get() = getPreferences(db)
+        get() = settingsStore.getRow(TABLE_PREFERENCES)?.let { getPreferences(it) }
 
     /**
      * Gets preferences.
@@ -1436,153 +1485,106 @@ class SqliteDatabaseHandler(
      * @param db Current DB.
      * @return Preferences.
      */
-    private fun getPreferences(db: SQLiteDatabase): MegaPreferences? {
-        var prefs: MegaPreferences? = null
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        try {
-            db.rawQuery(selectQuery, null)?.use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val firstTime =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_FIRST_LOGIN)))
-                    val camSyncEnabled =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_CAM_SYNC_ENABLED)))
-                    val camSyncHandle =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_CAM_SYNC_HANDLE)))
-                    val camSyncLocalPath =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_CAM_SYNC_LOCAL_PATH)))
-                    val wifi = decrypt(cursor.getString(getColumnIndex(cursor, KEY_CAM_SYNC_WIFI)))
-                    val fileUpload =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_CAM_SYNC_FILE_UPLOAD)))
-                    val pinLockEnabled =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_PASSCODE_LOCK_ENABLED)))
-                    val pinLockCode =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_PASSCODE_LOCK_CODE)))
-                    val askAlways =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_STORAGE_ASK_ALWAYS)))
-                    val downloadLocation = decrypt(cursor.getString(getColumnIndex(cursor,
-                        KEY_STORAGE_DOWNLOAD_LOCATION)))
-                    val camSyncTimeStamp =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_CAM_SYNC_TIMESTAMP)))
-                    val lastFolderUpload =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_LAST_UPLOAD_FOLDER)))
-                    val lastFolderCloud = decrypt(cursor.getString(getColumnIndex(cursor,
-                        KEY_LAST_CLOUD_FOLDER_HANDLE)))
-                    val secondaryFolderEnabled =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_SEC_FOLDER_ENABLED)))
-                    val secondaryPath =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_SEC_FOLDER_LOCAL_PATH)))
-                    val secondaryHandle =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_SEC_FOLDER_HANDLE)))
-                    val secSyncTimeStamp =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_SEC_SYNC_TIMESTAMP)))
-                    val keepFileNames =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_KEEP_FILE_NAMES)))
-                    val storageAdvancedDevices = decrypt(cursor.getString(getColumnIndex(cursor,
-                        KEY_STORAGE_ADVANCED_DEVICES)))
-                    val preferredViewList =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_PREFERRED_VIEW_LIST)))
-                    val preferredViewListCamera = decrypt(cursor.getString(getColumnIndex(cursor,
-                        KEY_PREFERRED_VIEW_LIST_CAMERA)))
-                    val uriExternalSDCard =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_URI_EXTERNAL_SD_CARD)))
-                    val cameraFolderExternalSDCard = decrypt(cursor.getString(getColumnIndex(cursor,
-                        KEY_CAMERA_FOLDER_EXTERNAL_SD_CARD)))
-                    val pinLockType =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_PASSCODE_LOCK_TYPE)))
-                    val preferredSortCloud =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_PREFERRED_SORT_CLOUD)))
-                    val preferredSortOthers =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_PREFERRED_SORT_OTHERS)))
-                    val firstTimeChat =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_FIRST_LOGIN_CHAT)))
-                    val isAutoPlayEnabled =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_AUTO_PLAY)))
-                    val uploadVideoQuality =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_UPLOAD_VIDEO_QUALITY)))
-                    val conversionOnCharging = decrypt(cursor.getString(getColumnIndex(cursor,
-                        KEY_CONVERSION_ON_CHARGING)))
-                    val chargingOnSize =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_CHARGING_ON_SIZE)))
-                    val shouldClearCameraSyncRecords = decrypt(cursor.getString(getColumnIndex(
-                        cursor,
-                        KEY_SHOULD_CLEAR_CAMSYNC_RECORDS)))
-                    val camVideoSyncTimeStamp = decrypt(cursor.getString(getColumnIndex(cursor,
-                        KEY_CAM_VIDEO_SYNC_TIMESTAMP)))
-                    val secVideoSyncTimeStamp = decrypt(cursor.getString(getColumnIndex(cursor,
-                        KEY_SEC_VIDEO_SYNC_TIMESTAMP)))
-                    val removeGPS =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_REMOVE_GPS)))
-                    val closeInviteBanner =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_SHOW_INVITE_BANNER)))
-                    val preferredSortCameraUpload = decrypt(cursor.getString(getColumnIndex(cursor,
-                        KEY_PREFERRED_SORT_CAMERA_UPLOAD)))
-                    val sdCardUri =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_SD_CARD_URI)))
-                    val askForDisplayOver =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_ASK_FOR_DISPLAY_OVER)))
-                    val askForSetDownloadLocation = decrypt(cursor.getString(getColumnIndex(cursor,
-                        KEY_ASK_SET_DOWNLOAD_LOCATION)))
-                    val mediaSDCardUri = decrypt(cursor.getString(getColumnIndex(cursor,
-                        KEY_URI_MEDIA_EXTERNAL_SD_CARD)))
-                    val isMediaOnSDCard = decrypt(cursor.getString(getColumnIndex(cursor,
-                        KEY_MEDIA_FOLDER_EXTERNAL_SD_CARD)))
-                    val passcodeLockRequireTime = decrypt(cursor.getString(getColumnIndex(cursor,
-                        KEY_PASSCODE_LOCK_REQUIRE_TIME)))
-                    val fingerprintLock =
-                        if (cursor.getColumnIndex(KEY_FINGERPRINT_LOCK) != Constants.INVALID_VALUE) decrypt(
-                            cursor.getString(getColumnIndex(cursor,
-                                KEY_FINGERPRINT_LOCK))) else "false"
-                    prefs = MegaPreferences(
-                        firstTime,
-                        wifi,
-                        camSyncEnabled,
-                        camSyncHandle,
-                        camSyncLocalPath,
-                        fileUpload,
-                        camSyncTimeStamp,
-                        pinLockEnabled,
-                        pinLockCode,
-                        askAlways,
-                        downloadLocation,
-                        lastFolderUpload,
-                        lastFolderCloud,
-                        secondaryFolderEnabled,
-                        secondaryPath,
-                        secondaryHandle,
-                        secSyncTimeStamp,
-                        keepFileNames,
-                        storageAdvancedDevices,
-                        preferredViewList,
-                        preferredViewListCamera,
-                        uriExternalSDCard,
-                        cameraFolderExternalSDCard,
-                        pinLockType,
-                        preferredSortCloud,
-                        preferredSortOthers,
-                        firstTimeChat,
-                        uploadVideoQuality,
-                        conversionOnCharging,
-                        chargingOnSize,
-                        shouldClearCameraSyncRecords,
-                        camVideoSyncTimeStamp,
-                        secVideoSyncTimeStamp,
-                        isAutoPlayEnabled,
-                        removeGPS,
-                        closeInviteBanner,
-                        preferredSortCameraUpload,
-                        sdCardUri,
-                        askForDisplayOver,
-                        askForSetDownloadLocation,
-                        mediaSDCardUri,
-                        isMediaOnSDCard,
-                        passcodeLockRequireTime,
-                        fingerprintLock)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
-        return prefs
+    private fun getPreferences(db: SQLiteDatabase): MegaPreferences? =
+        loadSettingsRow(db, TABLE_PREFERENCES)?.let { getPreferences(it) }
+
+    /**
+     * Gets preferences.
+     *
+     * @param row Row of the preferences table.
+     * @return Preferences.
+     */
+    private fun getPreferences(row: SettingsRow): MegaPreferences {
+        val firstTime = row.getString(KEY_FIRST_LOGIN)
+        val camSyncEnabled = row.getString(KEY_CAM_SYNC_ENABLED)
+        val camSyncHandle = row.getString(KEY_CAM_SYNC_HANDLE)
+        val camSyncLocalPath = row.getString(KEY_CAM_SYNC_LOCAL_PATH)
+        val wifi = row.getString(KEY_CAM_SYNC_WIFI)
+        val fileUpload = row.getString(KEY_CAM_SYNC_FILE_UPLOAD)
+        val pinLockEnabled = row.getString(KEY_PASSCODE_LOCK_ENABLED)
+        val pinLockCode = row.getString(KEY_PASSCODE_LOCK_CODE)
+        val askAlways = row.getString(KEY_STORAGE_ASK_ALWAYS)
+        val downloadLocation = row.getString(KEY_STORAGE_DOWNLOAD_LOCATION)
+        val camSyncTimeStamp = row.getString(KEY_CAM_SYNC_TIMESTAMP)
+        val lastFolderUpload = row.getString(KEY_LAST_UPLOAD_FOLDER)
+        val lastFolderCloud = row.getString(KEY_LAST_CLOUD_FOLDER_HANDLE)
+        val secondaryFolderEnabled = row.getString(KEY_SEC_FOLDER_ENABLED)
+        val secondaryPath = row.getString(KEY_SEC_FOLDER_LOCAL_PATH)
+        val secondaryHandle = row.getString(KEY_SEC_FOLDER_HANDLE)
+        val secSyncTimeStamp = row.getString(KEY_SEC_SYNC_TIMESTAMP)
+        val keepFileNames = row.getString(KEY_KEEP_FILE_NAMES)
+        val storageAdvancedDevices = row.getString(KEY_STORAGE_ADVANCED_DEVICES)
+        val preferredViewList = row.getString(KEY_PREFERRED_VIEW_LIST)
+        val preferredViewListCamera = row.getString(KEY_PREFERRED_VIEW_LIST_CAMERA)
+        val uriExternalSDCard = row.getString(KEY_URI_EXTERNAL_SD_CARD)
+        val cameraFolderExternalSDCard = row.getString(KEY_CAMERA_FOLDER_EXTERNAL_SD_CARD)
+        val pinLockType = row.getString(KEY_PASSCODE_LOCK_TYPE)
+        val preferredSortCloud = row.getString(KEY_PREFERRED_SORT_CLOUD)
+        val preferredSortOthers = row.getString(KEY_PREFERRED_SORT_OTHERS)
+        val firstTimeChat = row.getString(KEY_FIRST_LOGIN_CHAT)
+        val isAutoPlayEnabled = row.getString(KEY_AUTO_PLAY)
+        val uploadVideoQuality = row.getString(KEY_UPLOAD_VIDEO_QUALITY)
+        val conversionOnCharging = row.getString(KEY_CONVERSION_ON_CHARGING)
+        val chargingOnSize = row.getString(KEY_CHARGING_ON_SIZE)
+        val shouldClearCameraSyncRecords = row.getString(KEY_SHOULD_CLEAR_CAMSYNC_RECORDS)
+        val camVideoSyncTimeStamp = row.getString(KEY_CAM_VIDEO_SYNC_TIMESTAMP)
+        val secVideoSyncTimeStamp = row.getString(KEY_SEC_VIDEO_SYNC_TIMESTAMP)
+        val removeGPS = row.getString(KEY_REMOVE_GPS)
+        val closeInviteBanner = row.getString(KEY_SHOW_INVITE_BANNER)
+        val preferredSortCameraUpload = row.getString(KEY_PREFERRED_SORT_CAMERA_UPLOAD)
+        val sdCardUri = row.getString(KEY_SD_CARD_URI)
+        val askForDisplayOver = row.getString(KEY_ASK_FOR_DISPLAY_OVER)
+        val askForSetDownloadLocation = row.getString(KEY_ASK_SET_DOWNLOAD_LOCATION)
+        val mediaSDCardUri = row.getString(KEY_URI_MEDIA_EXTERNAL_SD_CARD)
+        val isMediaOnSDCard = row.getString(KEY_MEDIA_FOLDER_EXTERNAL_SD_CARD)
+        val passcodeLockRequireTime = row.getString(KEY_PASSCODE_LOCK_REQUIRE_TIME)
+        val fingerprintLock =
+            if (KEY_FINGERPRINT_LOCK in row) row.getString(KEY_FINGERPRINT_LOCK) else "false"
+        return MegaPreferences(
+            firstTime,
+            wifi,
+            camSyncEnabled,
+            camSyncHandle,
+            camSyncLocalPath,
+            fileUpload,
+            camSyncTimeStamp,
+            pinLockEnabled,
+            pinLockCode,
+            askAlways,
+            downloadLocation,
+            lastFolderUpload,
+            lastFolderCloud,
+            secondaryFolderEnabled,
+            secondaryPath,
+            secondaryHandle,
+            secSyncTimeStamp,
+            keepFileNames,
+            storageAdvancedDevices,
+            preferredViewList,
+            preferredViewListCamera,
+            uriExternalSDCard,
+            cameraFolderExternalSDCard,
+            pinLockType,
+            preferredSortCloud,
+            preferredSortOthers,
+            firstTimeChat,
+            uploadVideoQuality,
+            conversionOnCharging,
+            chargingOnSize,
+            shouldClearCameraSyncRecords,
+            camVideoSyncTimeStamp,
+            secVideoSyncTimeStamp,
+            isAutoPlayEnabled,
+            removeGPS,
+            closeInviteBanner,
+            preferredSortCameraUpload,
+            sdCardUri,
+            askForDisplayOver,
+            askForSetDownloadLocation,
+            mediaSDCardUri,
+            isMediaOnSDCard,
+            passcodeLockRequireTime,
+            fingerprintLock)
     }
 
     /**
@@ -1656,9 +1658,9 @@ class SqliteDatabaseHandler(
      * @param chatSettings Chat settings to save.
      */
     override var chatSettings: ChatSettings?
-        get() = getChatSettings(db)
+        get() = settingsStore.getRow(TABLE_CHAT_SETTINGS)?.let { getChatSettings(it) }
         set(chatSettings) {
-            setChatSettings(db, chatSettings)
+            setChatSettings(settingsDb, chatSettings)
         }
 
     /**
@@ -1667,27 +1669,20 @@ class SqliteDatabaseHandler(
      * @param db Current DB.
      * @return Chat settings.
      */
-    private fun getChatSettings(db: SQLiteDatabase): ChatSettings? {
-        Timber.d("getChatSettings")
-        var chatSettings: ChatSettings? = null
-        val selectQuery = "SELECT * FROM $TABLE_CHAT_SETTINGS"
-        try {
-            db.rawQuery(selectQuery, null)?.use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val notificationSound = decrypt(cursor.getString(2))
-                    val vibrationEnabled = decrypt(cursor.getString(3))
-                    val videoQuality = decrypt(cursor.getString(4))
-                    chatSettings = ChatSettings(
-                        notificationSound,
-                        vibrationEnabled,
-                        videoQuality)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
-        return chatSettings
-    }
+    private fun getChatSettings(db: SQLiteDatabase): ChatSettings? =
+        loadSettingsRow(db, TABLE_CHAT_SETTINGS)?.let { getChatSettings(it) }
+
+    /**
+     * Get chat settings.
+     *
+     * @param row Row of the chat settings table.
+     * @return Chat settings.
+     */
+    private fun getChatSettings(row: SettingsRow): ChatSettings =
+        ChatSettings(
+            row.getString(KEY_CHAT_SOUND_NOTIFICATIONS),
+            row.getString(KEY_CHAT_VIBRATION_ENABLED),
+            row.getString(KEY_CHAT_VIDEO_QUALITY))
 
     /**
      * Save chat settings in the DB.
@@ -1709,6 +1704,7 @@ class SqliteDatabaseHandler(
         }
 
         db.insert(TABLE_CHAT_SETTINGS, null, values)
+        settingsStore.invalidate(TABLE_CHAT_SETTINGS)
     }
     /**
      * Gets the chat video quality value.
@@ -1735,45 +1731,11 @@ class SqliteDatabaseHandler(
         }
 
     override fun setNotificationSoundChat(sound: String?) {
-        val selectQuery = "SELECT * FROM $TABLE_CHAT_SETTINGS"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_CHAT_SETTINGS SET $KEY_CHAT_SOUND_NOTIFICATIONS= '${
-                            encrypt(sound)
-                        }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_CHAT_SOUND_NOTIFICATIONS, encrypt(sound))
-                    db.insert(TABLE_CHAT_SETTINGS, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_CHAT_SETTINGS, KEY_CHAT_SOUND_NOTIFICATIONS, sound)
     }
 
     override fun setVibrationEnabledChat(enabled: String?) {
-        val selectQuery = "SELECT * FROM $TABLE_CHAT_SETTINGS"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_CHAT_SETTINGS SET $KEY_CHAT_VIBRATION_ENABLED= '${
-                            encrypt(enabled)
-                        }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_CHAT_VIBRATION_ENABLED, encrypt(enabled))
-                    db.insert(TABLE_CHAT_SETTINGS, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_CHAT_SETTINGS, KEY_CHAT_VIBRATION_ENABLED, enabled)
     }
 
     override fun setChatItemPreferences(chatPrefs: ChatItemPreferences) {
@@ -1869,10 +1831,9 @@ class SqliteDatabaseHandler(
      * @return The completed transfer which has the id value as identifier.
      */
     override fun getCompletedTransfer(id: Long): AndroidCompletedTransfer? {
-        val selectQuery =
-            "SELECT * FROM $TABLE_COMPLETED_TRANSFERS WHERE $KEY_ID = '$id'"
+        val selectQuery = "SELECT * FROM $TABLE_COMPLETED_TRANSFERS WHERE $KEY_ID = ?"
         try {
-            db.rawQuery(selectQuery, null)?.use { cursor ->
+            db.rawQuery(selectQuery, arrayOf(id.toString()))?.use { cursor ->
                 if (cursor.moveToFirst()) {
                     return extractAndroidCompletedTransfer(cursor)
                 }
@@ -1909,21 +1870,22 @@ class SqliteDatabaseHandler(
     }
 
     override fun setCompletedTransfer(transfer: AndroidCompletedTransfer): Long {
-        val values = ContentValues().apply {
-            put(KEY_TRANSFER_FILENAME, encrypt(transfer.fileName))
-            put(KEY_TRANSFER_TYPE, encrypt(transfer.type.toString()))
-            put(KEY_TRANSFER_STATE, encrypt(transfer.state.toString()))
-            put(KEY_TRANSFER_SIZE, encrypt(transfer.size))
-            put(KEY_TRANSFER_HANDLE, encrypt(transfer.nodeHandle))
-            put(KEY_TRANSFER_PATH, encrypt(transfer.path))
-            put(KEY_TRANSFER_OFFLINE, encrypt(transfer.isOfflineFile.toString()))
-            put(KEY_TRANSFER_TIMESTAMP, encrypt(transfer.timeStamp.toString()))
-            put(KEY_TRANSFER_ERROR, encrypt(transfer.error))
-            put(KEY_TRANSFER_ORIGINAL_PATH, encrypt(transfer.originalPath))
-            put(KEY_TRANSFER_PARENT_HANDLE, encrypt(transfer.parentHandle.toString()))
-        }
-
-        val id = db.insert(TABLE_COMPLETED_TRANSFERS, null, values)
+        val id = statements.use(INSERT_COMPLETED_TRANSFER) { statement ->
+            with(transfer) {
+                statement.bindStringOrNull(1, encrypt(fileName))
+                statement.bindStringOrNull(2, encrypt(type.toString()))
+                statement.bindStringOrNull(3, encrypt(state.toString()))
+                statement.bindStringOrNull(4, encrypt(size))
+                statement.bindStringOrNull(5, encrypt(nodeHandle))
+                statement.bindStringOrNull(6, encrypt(path))
+                statement.bindStringOrNull(7, encrypt(isOfflineFile.toString()))
+                statement.bindStringOrNull(8, encrypt(timeStamp.toString()))
+                statement.bindStringOrNull(9, encrypt(error))
+                statement.bindStringOrNull(10, encrypt(originalPath))
+                statement.bindStringOrNull(11, encrypt(parentHandle.toString()))
+            }
+            statement.executeInsert()
+        }
         if (DatabaseUtils.queryNumEntries(db, TABLE_COMPLETED_TRANSFERS) > MAX_TRANSFERS) {
             deleteOldestTransfer()
         }
@@ -1949,20 +1911,22 @@ class SqliteDatabaseHandler(
      * @return True if the transfer already exists, false otherwise.
      */
     private fun alreadyExistsAsCompletedTransfer(transfer: AndroidCompletedTransfer): Boolean {
-        val selectQuery = "SELECT * FROM $TABLE_COMPLETED_TRANSFERS " +
-                "WHERE $KEY_TRANSFER_FILENAME = '${encrypt(transfer.fileName)}' " +
-                "AND $KEY_TRANSFER_TYPE = '${encrypt(transfer.type.toString())}' " +
-                "AND $KEY_TRANSFER_STATE = '${encrypt(transfer.state.toString())}' " +
-                "AND $KEY_TRANSFER_SIZE = '${encrypt(transfer.size)}' " +
-                "AND $KEY_TRANSFER_HANDLE = '${encrypt(transfer.nodeHandle)}' " +
-                "AND $KEY_TRANSFER_PATH = '${encrypt(transfer.path)}' " +
-                "AND $KEY_TRANSFER_OFFLINE = '${encrypt(transfer.isOfflineFile.toString())}' " +
-                "AND $KEY_TRANSFER_ERROR = '${encrypt(transfer.error)}' " +
-                "AND $KEY_TRANSFER_ORIGINAL_PATH = '${encrypt(transfer.originalPath)}' " +
-                "AND $KEY_TRANSFER_PARENT_HANDLE = '${encrypt(transfer.parentHandle.toString())}'"
-
         try {
-            return db.rawQuery(selectQuery, null)?.use { it.count > 0 } ?: false
+            return statements.use(COUNT_COMPLETED_TRANSFER) { statement ->
+                with(transfer) {
+                    statement.bindStringOrNull(1, encrypt(fileName))
+                    statement.bindStringOrNull(2, encrypt(type.toString()))
+                    statement.bindStringOrNull(3, encrypt(state.toString()))
+                    statement.bindStringOrNull(4, encrypt(size))
+                    statement.bindStringOrNull(5, encrypt(nodeHandle))
+                    statement.bindStringOrNull(6, encrypt(path))
+                    statement.bindStringOrNull(7, encrypt(isOfflineFile.toString()))
+                    statement.bindStringOrNull(8, encrypt(error))
+                    statement.bindStringOrNull(9, encrypt(originalPath))
+                    statement.bindStringOrNull(10, encrypt(parentHandle.toString()))
+                }
+                statement.simpleQueryForLong() > 0
+            }
         } catch (e: Exception) {
             Timber.e(e, "Exception opening or managing DB cursor")
         }
@@ -2092,6 +2056,7 @@ class SqliteDatabaseHandler(
             encrypt(attr.myChatFilesFolderHandle.toString()))
         values.put(KEY_TRANSFER_QUEUE_STATUS, encrypt(attr.transferQueueStatus))
         db.insert(TABLE_ATTRIBUTES, null, values)
+        settingsStore.invalidate(TABLE_ATTRIBUTES)
     }
 
     /**
@@ -2100,91 +2065,65 @@ class SqliteDatabaseHandler(
      * @param db Current DB.
      * @return The attributes.
      */
-    private fun getAttributes(db: SQLiteDatabase): MegaAttributes? {
-        var attr: MegaAttributes? = null
-        val selectQuery = "SELECT * FROM $TABLE_ATTRIBUTES"
-        try {
-            db.rawQuery(selectQuery, null)?.use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val online = decrypt(cursor.getString(getColumnIndex(cursor, KEY_ATTR_ONLINE)))
-                    val intents =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_ATTR_INTENTS)))
-                    val askSizeDownload = decrypt(cursor.getString(getColumnIndex(cursor,
-                        KEY_ATTR_ASK_SIZE_DOWNLOAD)))
-                    val askNoAppDownload = decrypt(cursor.getString(getColumnIndex(cursor,
-                        KEY_ATTR_ASK_NOAPP_DOWNLOAD)))
-                    if (!legacyLoggingSettings.areSDKLogsEnabled() && cursor.getColumnIndex(
-                            KEY_FILE_LOGGER_SDK) != Constants.INVALID_VALUE
-                    ) {
-                        val fileLoggerSDK =
-                            decrypt(cursor.getString(getColumnIndex(cursor, KEY_FILE_LOGGER_SDK)))
-                        legacyLoggingSettings.updateSDKLogs(java.lang.Boolean.parseBoolean(
-                            fileLoggerSDK))
-                    }
-                    val accountDetailsTimeStamp = decrypt(cursor.getString(getColumnIndex(cursor,
-                        KEY_ACCOUNT_DETAILS_TIMESTAMP)))
-                    val paymentMethodsTimeStamp = decrypt(cursor.getString(getColumnIndex(cursor,
-                        KEY_PAYMENT_METHODS_TIMESTAMP)))
-                    val pricingTimeStamp =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_PRICING_TIMESTAMP)))
-                    val extendedAccountDetailsTimeStamp = decrypt(cursor.getString(getColumnIndex(
-                        cursor,
-                        KEY_EXTENDED_ACCOUNT_DETAILS_TIMESTAMP)))
-                    val invalidateSdkCache =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_INVALIDATE_SDK_CACHE)))
-                    if (!legacyLoggingSettings.areKarereLogsEnabled() && cursor.getColumnIndex(
-                            KEY_FILE_LOGGER_KARERE) != Constants.INVALID_VALUE
-                    ) {
-                        val fileLoggerKarere = decrypt(cursor.getString(getColumnIndex(cursor,
-                            KEY_FILE_LOGGER_KARERE)))
-                        legacyLoggingSettings.updateKarereLogs(java.lang.Boolean.parseBoolean(
-                            fileLoggerKarere))
-                    }
-                    val useHttpsOnly =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_USE_HTTPS_ONLY)))
-                    val showCopyright =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_SHOW_COPYRIGHT)))
-                    val showNotifOff =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_SHOW_NOTIF_OFF)))
-                    val lastPublicHandle =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_LAST_PUBLIC_HANDLE)))
-                    val lastPublicHandleTimeStamp = decrypt(cursor.getString(getColumnIndex(cursor,
-                        KEY_LAST_PUBLIC_HANDLE_TIMESTAMP)))
-                    val storageState =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_STORAGE_STATE)))
-                    val lastPublicHandleType = decrypt(cursor.getString(getColumnIndex(cursor,
-                        KEY_LAST_PUBLIC_HANDLE_TYPE)))
-                    val myChatFilesFolderHandle = decrypt(cursor.getString(getColumnIndex(cursor,
-                        KEY_MY_CHAT_FILES_FOLDER_HANDLE)))
-                    val transferQueueStatus =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_TRANSFER_QUEUE_STATUS)))
-                    attr = MegaAttributes(
-                        online,
-                        intents?.toIntOrNull() ?: 0,
-                        askSizeDownload,
-                        askNoAppDownload,
-                        accountDetailsTimeStamp,
-                        paymentMethodsTimeStamp,
-                        pricingTimeStamp,
-                        extendedAccountDetailsTimeStamp,
-                        invalidateSdkCache,
-                        useHttpsOnly,
-                        showCopyright,
-                        showNotifOff,
-                        lastPublicHandle,
-                        lastPublicHandleTimeStamp,
-                        lastPublicHandleType?.toIntOrNull() ?: MegaApiJava.AFFILIATE_TYPE_INVALID,
-                        storageState?.toIntOrNull()?.let { storageStateMapper(it) }
-                            ?: StorageState.Unknown,
-                        myChatFilesFolderHandle,
-                        transferQueueStatus
-                    )
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
-        return attr
+    private fun getAttributes(db: SQLiteDatabase): MegaAttributes? =
+        loadSettingsRow(db, TABLE_ATTRIBUTES)?.let { getAttributes(it) }
+
+    /**
+     * Gets attributes.
+     *
+     * @param row Row of the attributes table.
+     * @return The attributes.
+     */
+    private fun getAttributes(row: SettingsRow): MegaAttributes {
+        val online = row.getString(KEY_ATTR_ONLINE)
+        val intents = row.getString(KEY_ATTR_INTENTS)
+        val askSizeDownload = row.getString(KEY_ATTR_ASK_SIZE_DOWNLOAD)
+        val askNoAppDownload = row.getString(KEY_ATTR_ASK_NOAPP_DOWNLOAD)
+        if (!legacyLoggingSettings.areSDKLogsEnabled() && KEY_FILE_LOGGER_SDK in row) {
+            val fileLoggerSDK = row.getString(KEY_FILE_LOGGER_SDK)
+            legacyLoggingSettings.updateSDKLogs(java.lang.Boolean.parseBoolean(
+                fileLoggerSDK))
+        }
+        val accountDetailsTimeStamp = row.getString(KEY_ACCOUNT_DETAILS_TIMESTAMP)
+        val paymentMethodsTimeStamp = row.getString(KEY_PAYMENT_METHODS_TIMESTAMP)
+        val pricingTimeStamp = row.getString(KEY_PRICING_TIMESTAMP)
+        val extendedAccountDetailsTimeStamp = row.getString(KEY_EXTENDED_ACCOUNT_DETAILS_TIMESTAMP)
+        val invalidateSdkCache = row.getString(KEY_INVALIDATE_SDK_CACHE)
+        if (!legacyLoggingSettings.areKarereLogsEnabled() && KEY_FILE_LOGGER_KARERE in row) {
+            val fileLoggerKarere = row.getString(KEY_FILE_LOGGER_KARERE)
+            legacyLoggingSettings.updateKarereLogs(java.lang.Boolean.parseBoolean(
+                fileLoggerKarere))
+        }
+        val useHttpsOnly = row.getString(KEY_USE_HTTPS_ONLY)
+        val showCopyright = row.getString(KEY_SHOW_COPYRIGHT)
+        val showNotifOff = row.getString(KEY_SHOW_NOTIF_OFF)
+        val lastPublicHandle = row.getString(KEY_LAST_PUBLIC_HANDLE)
+        val lastPublicHandleTimeStamp = row.getString(KEY_LAST_PUBLIC_HANDLE_TIMESTAMP)
+        val storageState = row.getString(KEY_STORAGE_STATE)
+        val lastPublicHandleType = row.getString(KEY_LAST_PUBLIC_HANDLE_TYPE)
+        val myChatFilesFolderHandle = row.getString(KEY_MY_CHAT_FILES_FOLDER_HANDLE)
+        val transferQueueStatus = row.getString(KEY_TRANSFER_QUEUE_STATUS)
+        return MegaAttributes(
+            online,
+            intents?.toIntOrNull() ?: 0,
+            askSizeDownload,
+            askNoAppDownload,
+            accountDetailsTimeStamp,
+            paymentMethodsTimeStamp,
+            pricingTimeStamp,
+            extendedAccountDetailsTimeStamp,
+            invalidateSdkCache,
+            useHttpsOnly,
+            showCopyright,
+            showNotifOff,
+            lastPublicHandle,
+            lastPublicHandleTimeStamp,
+            lastPublicHandleType?.toIntOrNull() ?: MegaApiJava.AFFILIATE_TYPE_INVALID,
+            storageState?.toIntOrNull()?.let { storageStateMapper(it) }
+                ?: StorageState.Unknown,
+            myChatFilesFolderHandle,
+            transferQueueStatus
+        )
     }
     /**
      * Gets attributes.
@@ -2197,9 +2136,9 @@ class SqliteDatabaseHandler(
      * @param attr Attributes to save.
      */
     override var attributes: MegaAttributes?
-        get() = getAttributes(db)
+        get() = settingsStore.getRow(TABLE_ATTRIBUTES)?.let { getAttributes(it) }
         set(attr) {
-            setAttributes(db, attr)
+            setAttributes(settingsDb, attr)
         }
 
     override fun setNonContactFirstName(name: String?, handle: String?): Int {
@@ -2717,100 +2656,23 @@ class SqliteDatabaseHandler(
     }
 
     override fun setFirstTime(firstTime: Boolean) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_FIRST_LOGIN= '${encrypt(firstTime.toString())}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_FIRST_LOGIN, encrypt(firstTime.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_FIRST_LOGIN, firstTime.toString())
     }
 
     override fun setCamSyncWifi(wifi: Boolean) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_CAM_SYNC_WIFI= '${encrypt(wifi.toString())}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_CAM_SYNC_WIFI, encrypt(wifi.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_CAM_SYNC_WIFI, wifi.toString())
     }
 
     override fun setPreferredViewList(list: Boolean) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_PREFERRED_VIEW_LIST= '${encrypt(list.toString())}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_PREFERRED_VIEW_LIST, encrypt(list.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_PREFERRED_VIEW_LIST, list.toString())
     }
 
     override fun setPreferredViewListCamera(list: Boolean) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_PREFERRED_VIEW_LIST_CAMERA= '${
-                            encrypt(list.toString())
-                        }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_PREFERRED_VIEW_LIST_CAMERA, encrypt(list.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_PREFERRED_VIEW_LIST_CAMERA, list.toString())
     }
 
     override fun setPreferredSortCloud(order: String?) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_PREFERRED_SORT_CLOUD= '${encrypt(order)}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_PREFERRED_SORT_CLOUD, encrypt(order))
-                    db.insert(TABLE_PREFERENCES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_PREFERRED_SORT_CLOUD, order)
     }
 
     override fun setPreferredSortCameraUpload(order: String?) {
@@ -2819,224 +2681,63 @@ class SqliteDatabaseHandler(
     }
 
     override fun setPreferredSortOthers(order: String?) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_PREFERRED_SORT_OTHERS= '${encrypt(order)}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_PREFERRED_SORT_OTHERS, encrypt(order))
-                    db.insert(TABLE_PREFERENCES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_PREFERRED_SORT_OTHERS, order)
     }
 
     override fun setLastUploadFolder(folderPath: String) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_LAST_UPLOAD_FOLDER= '${
-                            encrypt(folderPath)
-                        }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_LAST_UPLOAD_FOLDER, encrypt(folderPath))
-                    db.insert(TABLE_PREFERENCES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_LAST_UPLOAD_FOLDER, folderPath)
     }
 
     override fun setLastCloudFolder(folderHandle: String) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_LAST_CLOUD_FOLDER_HANDLE= '${
-                            encrypt(folderHandle)
-                        }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
-                    Timber.d("KEY_LAST_CLOUD_FOLDER_HANDLE UPLOAD FOLDER: %s",
-                        UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_LAST_CLOUD_FOLDER_HANDLE, encrypt(folderHandle))
-                    db.insert(TABLE_PREFERENCES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_LAST_CLOUD_FOLDER_HANDLE, folderHandle)
     }
 
     override fun setKeepFileNames(charging: Boolean) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_KEEP_FILE_NAMES= '${encrypt(charging.toString())}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_KEEP_FILE_NAMES, encrypt(charging.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_KEEP_FILE_NAMES, charging.toString())
     }
 
     override fun setCamSyncEnabled(enabled: Boolean) {
         Timber.d("setCamSyncEnabled: %s", enabled)
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_CAM_SYNC_ENABLED= '${encrypt(enabled.toString())}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_CAM_SYNC_ENABLED, encrypt(enabled.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
-                }
-                if (enabled) {
-                    setPrimaryBackup()
-                } else {
-                    removePrimaryBackup()
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
+        setStringValue(TABLE_PREFERENCES, KEY_CAM_SYNC_ENABLED, enabled.toString())
+        if (enabled) {
+            setPrimaryBackup()
+        } else {
+            removePrimaryBackup()
         }
     }
 
     override fun setSecondaryUploadEnabled(enabled: Boolean) {
         Timber.d("setSecondaryUploadEnabled: %s", enabled)
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_SEC_FOLDER_ENABLED= '${encrypt(enabled.toString())}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_SEC_FOLDER_ENABLED, encrypt(enabled.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
-                }
-                // Set or remove corresponding MU backup.
-                if (enabled) {
-                    setSecondaryBackup()
-                } else {
-                    removeSecondaryBackup()
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
+        setStringValue(TABLE_PREFERENCES, KEY_SEC_FOLDER_ENABLED, enabled.toString())
+        // Set or remove corresponding MU backup.
+        if (enabled) {
+            setSecondaryBackup()
+        } else {
+            removeSecondaryBackup()
         }
     }
 
     override fun setCamSyncHandle(handle: Long) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_CAM_SYNC_HANDLE= '${encrypt(handle.toString())}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_CAM_SYNC_HANDLE, encrypt(handle.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
-                }
-                Timber.d("Set new primary handle: %s", handle)
-                // Update CU backup when CU target folder changed.
-                updatePrimaryFolderTargetNode(handle)
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_CAM_SYNC_HANDLE, handle.toString())
+        Timber.d("Set new primary handle: %s", handle)
+        // Update CU backup when CU target folder changed.
+        updatePrimaryFolderTargetNode(handle)
     }
 
     override fun setSecondaryFolderHandle(handle: Long) {
         Timber.d("setSecondaryFolderHandle: %s", handle)
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_SEC_FOLDER_HANDLE= '${encrypt(handle.toString())}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_SEC_FOLDER_HANDLE, encrypt(handle.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
-                }
-                Timber.d("Set new secondary handle: %s", handle)
-                // Update MU backup when MU target folder changed.
-                updateSecondaryFolderTargetNode(handle)
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_SEC_FOLDER_HANDLE, handle.toString())
+        Timber.d("Set new secondary handle: %s", handle)
+        // Update MU backup when MU target folder changed.
+        updateSecondaryFolderTargetNode(handle)
     }
 
     override fun setCamSyncLocalPath(localPath: String) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_CAM_SYNC_LOCAL_PATH= '${
-                            encrypt(localPath)
-                        }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_CAM_SYNC_LOCAL_PATH, encrypt(localPath))
-                    db.insert(TABLE_PREFERENCES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_CAM_SYNC_LOCAL_PATH, localPath)
     }
 
     override fun setUriExternalSDCard(uriExternalSDCard: String?) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_URI_EXTERNAL_SD_CARD= '${
-                            encrypt(uriExternalSDCard)
-                        }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
-                    Timber.d("KEY_URI_EXTERNAL_SD_CARD URI: %s", UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_URI_EXTERNAL_SD_CARD, encrypt(uriExternalSDCard))
-                    db.insert(TABLE_PREFERENCES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_URI_EXTERNAL_SD_CARD, uriExternalSDCard)
     }
     /**
      * Gets the local path selected in an external SD card as Media Uploads local folder.
@@ -3057,25 +2758,7 @@ class SqliteDatabaseHandler(
         }
 
     override fun setCameraFolderExternalSDCard(cameraFolderExternalSDCard: Boolean) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_CAMERA_FOLDER_EXTERNAL_SD_CARD= '${
-                            encrypt(cameraFolderExternalSDCard.toString())
-                        }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_CAMERA_FOLDER_EXTERNAL_SD_CARD,
-                        encrypt(cameraFolderExternalSDCard.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_CAMERA_FOLDER_EXTERNAL_SD_CARD, cameraFolderExternalSDCard.toString())
     }
     /**
      * Gets the flag which indicates if the local path selected as Media Uploads local folder belongs to an external SD card.
@@ -3099,67 +2782,16 @@ class SqliteDatabaseHandler(
         get() = getStringValue(TABLE_PREFERENCES, KEY_PASSCODE_LOCK_TYPE, "")
         set(passcodeLockType) {
             Timber.d("setPasscodeLockType")
-            val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-            val values = ContentValues()
-            try {
-                db.rawQuery(selectQuery, null).use { cursor ->
-                    if (cursor != null && cursor.moveToFirst()) {
-                        val UPDATE_PREFERENCES_TABLE =
-                            "UPDATE $TABLE_PREFERENCES SET $KEY_PASSCODE_LOCK_TYPE= '${
-                                encrypt(passcodeLockType)
-                            }' WHERE $KEY_ID = '1'"
-                        db.execSQL(UPDATE_PREFERENCES_TABLE)
-                    } else {
-                        values.put(KEY_PASSCODE_LOCK_TYPE, encrypt(passcodeLockType))
-                        db.insert(TABLE_PREFERENCES, null, values)
-                    }
-                }
-            } catch (e: Exception) {
-                Timber.e(e, "Exception opening or managing DB cursor")
-            }
+            setStringValue(TABLE_PREFERENCES, KEY_PASSCODE_LOCK_TYPE, passcodeLockType)
         }
 
     override fun setSecondaryFolderPath(localPath: String) {
         Timber.d("setSecondaryFolderPath: %s", localPath)
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_SEC_FOLDER_LOCAL_PATH= '${
-                            encrypt(localPath)
-                        }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_SEC_FOLDER_LOCAL_PATH, encrypt(localPath))
-                    db.insert(TABLE_PREFERENCES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_SEC_FOLDER_LOCAL_PATH, localPath)
     }
 
     override fun setCamSyncFileUpload(fileUpload: Int) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_CAM_SYNC_FILE_UPLOAD= '${
-                            encrypt(fileUpload.toString())
-                        }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_CAM_SYNC_FILE_UPLOAD, encrypt(fileUpload.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_CAM_SYNC_FILE_UPLOAD, fileUpload.toString())
     }
 
     override fun setAccountDetailsTimeStamp() {
@@ -3172,120 +2804,31 @@ class SqliteDatabaseHandler(
 
     private fun setAccountDetailsTimeStamp(accountDetailsTimeStamp: Long) {
         Timber.d("setAccountDetailsTimeStamp")
-        val selectQuery = "SELECT * FROM $TABLE_ATTRIBUTES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_ATTRIBUTE_TABLE =
-                        "UPDATE $TABLE_ATTRIBUTES SET $KEY_ACCOUNT_DETAILS_TIMESTAMP= '${
-                            encrypt(accountDetailsTimeStamp.toString())
-                        }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_ATTRIBUTE_TABLE)
-                } else {
-                    values.put(KEY_ACCOUNT_DETAILS_TIMESTAMP,
-                        encrypt(accountDetailsTimeStamp.toString()))
-                    db.insert(TABLE_ATTRIBUTES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_ATTRIBUTES, KEY_ACCOUNT_DETAILS_TIMESTAMP, accountDetailsTimeStamp.toString())
     }
 
     override fun setPaymentMethodsTimeStamp() {
         Timber.d("setPaymentMethodsTimeStamp")
         val paymentMethodsTimeStamp = System.currentTimeMillis() / 1000
-        val selectQuery = "SELECT * FROM $TABLE_ATTRIBUTES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_ATTRIBUTE_TABLE =
-                        "UPDATE $TABLE_ATTRIBUTES SET $KEY_PAYMENT_METHODS_TIMESTAMP= '${
-                            encrypt(paymentMethodsTimeStamp.toString())
-                        }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_ATTRIBUTE_TABLE)
-                } else {
-                    values.put(KEY_PAYMENT_METHODS_TIMESTAMP,
-                        encrypt(paymentMethodsTimeStamp.toString()))
-                    db.insert(TABLE_ATTRIBUTES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_ATTRIBUTES, KEY_PAYMENT_METHODS_TIMESTAMP, paymentMethodsTimeStamp.toString())
     }
 
     override fun setPricingTimestamp() {
         Timber.d("setPricingTimestamp")
         val creditCardTimestamp = System.currentTimeMillis() / 1000
-        val selectQuery = "SELECT * FROM $TABLE_ATTRIBUTES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_ATTRIBUTE_TABLE =
-                        "UPDATE $TABLE_ATTRIBUTES SET $KEY_PRICING_TIMESTAMP= '${
-                            encrypt(creditCardTimestamp.toString())
-                        }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_ATTRIBUTE_TABLE)
-                } else {
-                    values.put(KEY_PRICING_TIMESTAMP, encrypt(creditCardTimestamp.toString()))
-                    db.insert(TABLE_ATTRIBUTES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_ATTRIBUTES, KEY_PRICING_TIMESTAMP, creditCardTimestamp.toString())
     }
 
     override fun setExtendedAccountDetailsTimestamp() {
         Timber.d("setExtendedAccountDetailsTimestamp")
         val extendedAccountDetailsTimestamp = System.currentTimeMillis() / 1000
-        val selectQuery = "SELECT * FROM $TABLE_ATTRIBUTES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_ATTRIBUTE_TABLE =
-                        "UPDATE $TABLE_ATTRIBUTES SET $KEY_EXTENDED_ACCOUNT_DETAILS_TIMESTAMP= '${
-                            encrypt(extendedAccountDetailsTimestamp.toString())
-                        }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_ATTRIBUTE_TABLE)
-                } else {
-                    values.put(KEY_EXTENDED_ACCOUNT_DETAILS_TIMESTAMP,
-                        encrypt(extendedAccountDetailsTimestamp.toString()))
-                    db.insert(TABLE_ATTRIBUTES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_ATTRIBUTES, KEY_EXTENDED_ACCOUNT_DETAILS_TIMESTAMP, extendedAccountDetailsTimestamp.toString())
     }
 
     override fun resetExtendedAccountDetailsTimestamp() {
         Timber.d("resetExtendedAccountDetailsTimestamp")
         val extendedAccountDetailsTimestamp: Long = -1
-        val selectQuery = "SELECT * FROM $TABLE_ATTRIBUTES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_ATTRIBUTE_TABLE =
-                        "UPDATE $TABLE_ATTRIBUTES SET $KEY_EXTENDED_ACCOUNT_DETAILS_TIMESTAMP= '${
-                            encrypt(extendedAccountDetailsTimestamp.toString())
-                        }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_ATTRIBUTE_TABLE)
-                } else {
-                    values.put(KEY_EXTENDED_ACCOUNT_DETAILS_TIMESTAMP,
-                        encrypt(extendedAccountDetailsTimestamp.toString()))
-                    db.insert(TABLE_ATTRIBUTES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_ATTRIBUTES, KEY_EXTENDED_ACCOUNT_DETAILS_TIMESTAMP, extendedAccountDetailsTimestamp.toString())
     }
 
     override fun setCamSyncTimeStamp(camSyncTimeStamp: Long) {
@@ -3373,22 +2916,7 @@ class SqliteDatabaseHandler(
         if (TextUtil.isTextEmpty(value)) {
             Timber.w("Set %s with empty value!", columnName)
         }
-        val selectQuery = "SELECT * FROM $tableName"
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_TABLE =
-                        "UPDATE $tableName SET $columnName= '${encrypt(value)}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_TABLE)
-                } else {
-                    val values = ContentValues()
-                    values.put(columnName, encrypt(value))
-                    db.insert(tableName, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        settingsStore.setValue(tableName, columnName, value)
     }
 
     /**
@@ -3403,27 +2931,73 @@ class SqliteDatabaseHandler(
         tableName: String,
         columnName: String,
         defaultValue: String,
-    ): String? {
-        var value: String? = defaultValue
-        val selectQuery =
-            "SELECT $columnName FROM $tableName WHERE $KEY_ID = '1'"
+    ): String? = settingsStore.getValue(tableName, columnName, defaultValue)
+
+    /**
+     * Gets a String value from the snapshot, without creating the row if the table has none.
+     *
+     * @param tableName    Name of the database's table.
+     * @param columnName   Name of the table's column.
+     * @param valueIfNoRow Value to return if the table has no row.
+     * @return String value of the column.
+     */
+    private fun getRowValue(tableName: String, columnName: String, valueIfNoRow: String?): String? {
+        val row = settingsStore.getRow(tableName) ?: return valueIfNoRow
+        return row.getString(columnName)
+    }
+
+    /**
+     * Loads the row of a settings table from a DB, bypassing the snapshot, as while upgrading.
+     *
+     * @param db        DB to load the row from.
+     * @param tableName Name of the database's table.
+     * @return The row, or null if the table has no row or it could not be loaded.
+     */
+    private fun loadSettingsRow(db: SQLiteDatabase, tableName: String): SettingsRow? =
         try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    value = decrypt(cursor.getString(0))
-                    Timber.d("%s value: %s", columnName, value)
-                } else {
-                    Timber.w("No value found, setting default")
-                    val values = ContentValues()
-                    values.put(columnName, encrypt(defaultValue))
-                    db.insert(tableName, null, values)
-                    Timber.d("Default value: %s", defaultValue)
-                }
-            }
+            readSettingsRow(db.rawQuery("SELECT * FROM $tableName WHERE $KEY_ID = '1'", null))
+                ?.let { SettingsRow.fromRaw(it, ::decrypt) }
         } catch (e: Exception) {
             Timber.e(e, "Exception opening or managing DB cursor")
+            null
+        }
+
+    /**
+     * Loads the raw values of the row of a settings table.
+     *
+     * @param tableName Name of the database's table.
+     * @return The values by column name, or null if the table has no row.
+     */
+    private fun loadSettingsRow(tableName: String): Map<String, String?>? =
+        readSettingsRow(database.rawQuery("SELECT * FROM $tableName WHERE $KEY_ID = '1'", null))
+
+    /**
+     * Reads the raw values of the first row of a cursor, and closes it.
+     *
+     * @param cursor Cursor on a settings table.
+     * @return The values by column name, or null if the cursor has no row.
+     */
+    private fun readSettingsRow(cursor: Cursor): Map<String, String?>? =
+        cursor.use {
+            if (!cursor.moveToFirst()) return@use null
+
+            cursor.columnNames
+                .filter { it != KEY_ID }
+                .associateWith { cursor.getString(cursor.getColumnIndexOrThrow(it)) }
+        }
+
+    /**
+     * Stores some values in the row of a settings table, creating the row if needed.
+     *
+     * @param tableName Name of the database's table.
+     * @param values    Values to store by column name.
+     */
+    private fun writeSettingsRow(tableName: String, values: Map<String, String?>) {
+        val contentValues = ContentValues()
+        values.forEach { (column, value) -> contentValues.put(column, encrypt(value)) }
+        if (database.update(tableName, contentValues, "$KEY_ID = '1'", null) == 0) {
+            database.insert(tableName, null, contentValues)
         }
-        return value
     }
 
     /**
@@ -3445,49 +3019,13 @@ class SqliteDatabaseHandler(
     override var isPasscodeLockEnabled: Boolean
         get() = getBooleanValue(TABLE_PREFERENCES, KEY_PASSCODE_LOCK_ENABLED, false)
         set(passcodeLockEnabled) {
-            val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-            val values = ContentValues()
-            try {
-                db.rawQuery(selectQuery, null).use { cursor ->
-                    if (cursor != null && cursor.moveToFirst()) {
-                        val UPDATE_PREFERENCES_TABLE =
-                            "UPDATE $TABLE_PREFERENCES SET $KEY_PASSCODE_LOCK_ENABLED= '${
-                                encrypt(passcodeLockEnabled.toString())
-                            }' WHERE $KEY_ID = '1'"
-                        db.execSQL(UPDATE_PREFERENCES_TABLE)
-                    } else {
-                        values.put(KEY_PASSCODE_LOCK_ENABLED,
-                            encrypt(passcodeLockEnabled.toString()))
-                        db.insert(TABLE_PREFERENCES, null, values)
-                    }
-                }
-            } catch (e: Exception) {
-                Timber.e(e, "Exception opening or managing DB cursor")
-            }
+            setStringValue(TABLE_PREFERENCES, KEY_PASSCODE_LOCK_ENABLED, passcodeLockEnabled.toString())
         }
 
     override var passcodeLockCode: String
         get() = getStringValue(TABLE_PREFERENCES, KEY_PASSCODE_LOCK_CODE, "")!!
         set(passcodeLockCode: String) {
-            val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-            val values = ContentValues()
-            try {
-                db.rawQuery(selectQuery, null).use { cursor ->
-                    if (cursor != null && cursor.moveToFirst()) {
-                        val UPDATE_PREFERENCES_TABLE =
-                            "UPDATE $TABLE_PREFERENCES SET $KEY_PASSCODE_LOCK_CODE= '${
-                                encrypt(
-                                    passcodeLockCode)
-                            }' WHERE $KEY_ID = '1'"
-                        db.execSQL(UPDATE_PREFERENCES_TABLE)
-                    } else {
-                        values.put(KEY_PASSCODE_LOCK_CODE, encrypt(passcodeLockCode))
-                        db.insert(TABLE_PREFERENCES, null, values)
-                    }
-                }
-            } catch (e: Exception) {
-                Timber.e(e, "Exception opening or managing DB cursor")
-            }
+            setStringValue(TABLE_PREFERENCES, KEY_PASSCODE_LOCK_CODE, passcodeLockCode)
         }
     /**
      * Gets the time required before ask for the passcode.
@@ -3549,221 +3087,45 @@ class SqliteDatabaseHandler(
     override fun setStorageDownloadLocation(storageDownloadLocation: String?) {
         if (storageDownloadLocation == null) return
 
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_STORAGE_DOWNLOAD_LOCATION= '${
-                            encrypt(storageDownloadLocation)
-                        }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_STORAGE_DOWNLOAD_LOCATION, encrypt(storageDownloadLocation))
-                    db.insert(TABLE_PREFERENCES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_STORAGE_DOWNLOAD_LOCATION, storageDownloadLocation)
     }
 
     override fun setAttrAskSizeDownload(askSizeDownload: String?) {
-        val selectQuery = "SELECT * FROM $TABLE_ATTRIBUTES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_ATTRIBUTES_TABLE =
-                        "UPDATE $TABLE_ATTRIBUTES SET $KEY_ATTR_ASK_SIZE_DOWNLOAD='${
-                            encrypt(askSizeDownload)
-                        }' WHERE $KEY_ID ='1'"
-                    db.execSQL(UPDATE_ATTRIBUTES_TABLE)
-                    Timber.d("UPDATE_ATTRIBUTES_TABLE : %s", UPDATE_ATTRIBUTES_TABLE)
-                } else {
-                    values.put(KEY_ATTR_ASK_SIZE_DOWNLOAD, encrypt(askSizeDownload))
-                    db.insert(TABLE_ATTRIBUTES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_ATTRIBUTES, KEY_ATTR_ASK_SIZE_DOWNLOAD, askSizeDownload)
     }
 
     override fun setAttrAskNoAppDownload(askNoAppDownload: String?) {
-        val selectQuery = "SELECT * FROM $TABLE_ATTRIBUTES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_ATTRIBUTES_TABLE =
-                        "UPDATE $TABLE_ATTRIBUTES SET $KEY_ATTR_ASK_NOAPP_DOWNLOAD='${
-                            encrypt(askNoAppDownload)
-                        }' WHERE $KEY_ID ='1'"
-                    db.execSQL(UPDATE_ATTRIBUTES_TABLE)
-                    Timber.d("UPDATE_ATTRIBUTES_TABLE : %s", UPDATE_ATTRIBUTES_TABLE)
-                } else {
-                    values.put(KEY_ATTR_ASK_NOAPP_DOWNLOAD, encrypt(askNoAppDownload))
-                    db.insert(TABLE_ATTRIBUTES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_ATTRIBUTES, KEY_ATTR_ASK_NOAPP_DOWNLOAD, askNoAppDownload)
     }
 
     override fun setAttrAttempts(attempt: Int) {
-        val selectQuery = "SELECT * FROM $TABLE_ATTRIBUTES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_ATTRIBUTES_TABLE =
-                        "UPDATE $TABLE_ATTRIBUTES SET $KEY_ATTR_INTENTS='${
-                            encrypt(attempt.toString())
-                        }' WHERE $KEY_ID ='1'"
-                    db.execSQL(UPDATE_ATTRIBUTES_TABLE)
-                    Timber.d("UPDATE_ATTRIBUTES_TABLE : %s", UPDATE_ATTRIBUTES_TABLE)
-                } else {
-                    values.put(KEY_ATTR_INTENTS, encrypt(attempt.toString()))
-                    db.insert(TABLE_ATTRIBUTES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_ATTRIBUTES, KEY_ATTR_INTENTS, attempt.toString())
     }
 
     override fun setUseHttpsOnly(useHttpsOnly: Boolean) {
-        val selectQuery = "SELECT * FROM $TABLE_ATTRIBUTES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_ATTRIBUTES_TABLE =
-                        "UPDATE $TABLE_ATTRIBUTES SET $KEY_USE_HTTPS_ONLY='${encrypt(useHttpsOnly.toString())}' WHERE $KEY_ID ='1'"
-                    db.execSQL(UPDATE_ATTRIBUTES_TABLE)
-                    Timber.d("UPDATE_ATTRIBUTES_TABLE : %s", UPDATE_ATTRIBUTES_TABLE)
-                } else {
-                    values.put(KEY_USE_HTTPS_ONLY, encrypt(useHttpsOnly.toString()))
-                    db.insert(TABLE_ATTRIBUTES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_ATTRIBUTES, KEY_USE_HTTPS_ONLY, useHttpsOnly.toString())
     }
 
     override val useHttpsOnly: String?
-        get() {
-            val selectQuery =
-                "SELECT $KEY_USE_HTTPS_ONLY FROM $TABLE_ATTRIBUTES WHERE $KEY_ID = '1'"
-            try {
-                db.rawQuery(selectQuery, null)?.use { cursor ->
-                    if (cursor.moveToFirst()) {
-                        return decrypt(cursor.getString(0))
-                    }
-                }
-            } catch (e: Exception) {
-                Timber.e(e, "Exception opening or managing DB cursor")
-            }
-            return "false"
-        }
+        get() = getRowValue(TABLE_ATTRIBUTES, KEY_USE_HTTPS_ONLY, "false")
 
     override fun setShowCopyright(showCopyright: Boolean) {
-        val selectQuery = "SELECT * FROM $TABLE_ATTRIBUTES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_ATTRIBUTES_TABLE =
-                        "UPDATE $TABLE_ATTRIBUTES SET $KEY_SHOW_COPYRIGHT='${encrypt(showCopyright.toString())}' WHERE $KEY_ID ='1'"
-                    db.execSQL(UPDATE_ATTRIBUTES_TABLE)
-                } else {
-                    values.put(KEY_SHOW_COPYRIGHT, encrypt(showCopyright.toString()))
-                    db.insert(TABLE_ATTRIBUTES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_ATTRIBUTES, KEY_SHOW_COPYRIGHT, showCopyright.toString())
     }
 
     override val showCopyright: String?
-        get() {
-            val selectQuery =
-                "SELECT $KEY_SHOW_COPYRIGHT FROM $TABLE_ATTRIBUTES WHERE $KEY_ID = '1'"
-            try {
-                db.rawQuery(selectQuery, null)?.use { cursor ->
-                    if (cursor.moveToFirst()) {
-                        return decrypt(cursor.getString(0))
-                    }
-                }
-            } catch (e: Exception) {
-                Timber.e(e, "Exception opening or managing DB cursor")
-            }
-            return "true"
-        }
+        get() = getRowValue(TABLE_ATTRIBUTES, KEY_SHOW_COPYRIGHT, "true")
 
     override fun setShowNotifOff(showNotifOff: Boolean) {
-        val selectQuery = "SELECT * FROM $TABLE_ATTRIBUTES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_ATTRIBUTES_TABLE =
-                        "UPDATE $TABLE_ATTRIBUTES SET $KEY_SHOW_NOTIF_OFF='${encrypt(showNotifOff.toString())}' WHERE $KEY_ID ='1'"
-                    db.execSQL(UPDATE_ATTRIBUTES_TABLE)
-                } else {
-                    values.put(KEY_SHOW_NOTIF_OFF, encrypt(showNotifOff.toString()))
-                    db.insert(TABLE_ATTRIBUTES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_ATTRIBUTES, KEY_SHOW_NOTIF_OFF, showNotifOff.toString())
     }
 
     override fun setLastPublicHandle(handle: Long) {
-        val selectQuery = "SELECT * FROM $TABLE_ATTRIBUTES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_ATTRIBUTES_TABLE =
-                        "UPDATE $TABLE_ATTRIBUTES SET $KEY_LAST_PUBLIC_HANDLE= '${encrypt(handle.toString())}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_ATTRIBUTES_TABLE)
-                } else {
-                    values.put(KEY_LAST_PUBLIC_HANDLE, encrypt(handle.toString()))
-                    db.insert(TABLE_ATTRIBUTES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_ATTRIBUTES, KEY_LAST_PUBLIC_HANDLE, handle.toString())
     }
 
     override fun setLastPublicHandleTimeStamp(lastPublicHandleTimeStamp: Long) {
-        val selectQuery = "SELECT * FROM $TABLE_ATTRIBUTES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_ATTRIBUTE_TABLE =
-                        "UPDATE $TABLE_ATTRIBUTES SET $KEY_LAST_PUBLIC_HANDLE_TIMESTAMP= '${
-                            encrypt(lastPublicHandleTimeStamp.toString())
-                        }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_ATTRIBUTE_TABLE)
-                } else {
-                    values.put(KEY_LAST_PUBLIC_HANDLE_TIMESTAMP,
-                        encrypt(lastPublicHandleTimeStamp.toString()))
-                    db.insert(TABLE_ATTRIBUTES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_ATTRIBUTES, KEY_LAST_PUBLIC_HANDLE_TIMESTAMP, lastPublicHandleTimeStamp.toString())
     }
 
     override fun setLastPublicHandleTimeStamp() {
@@ -3862,41 +3224,10 @@ class SqliteDatabaseHandler(
         }
 
     override val showNotifOff: String?
-        get() {
-            val selectQuery =
-                "SELECT $KEY_SHOW_NOTIF_OFF FROM $TABLE_ATTRIBUTES WHERE $KEY_ID = '1'"
-            try {
-                db.rawQuery(selectQuery, null)?.use { cursor ->
-                    if (cursor.moveToFirst()) {
-                        return decrypt(cursor.getString(0))
-                    }
-                }
-            } catch (e: Exception) {
-                Timber.e(e, "Exception opening or managing DB cursor")
-            }
-            return "true"
-        }
+        get() = getRowValue(TABLE_ATTRIBUTES, KEY_SHOW_NOTIF_OFF, "true")
 
     override fun setInvalidateSdkCache(invalidateSdkCache: Boolean) {
-        val selectQuery = "SELECT * FROM $TABLE_ATTRIBUTES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_ATTRIBUTES_TABLE =
-                        "UPDATE $TABLE_ATTRIBUTES SET $KEY_INVALIDATE_SDK_CACHE='" + encrypt(
-                            invalidateSdkCache.toString()) + "' WHERE " + KEY_ID + " ='1'"
-                    db.execSQL(UPDATE_ATTRIBUTES_TABLE)
-                    Timber.d("UPDATE_ATTRIBUTES_TABLE : %s", UPDATE_ATTRIBUTES_TABLE)
-                } else {
-                    values.put(KEY_INVALIDATE_SDK_CACHE,
-                        encrypt(invalidateSdkCache.toString()))
-                    db.insert(TABLE_ATTRIBUTES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_ATTRIBUTES, KEY_INVALIDATE_SDK_CACHE, invalidateSdkCache.toString())
     }
 
     override fun clearCredentials() {
@@ -3911,8 +3242,9 @@ class SqliteDatabaseHandler(
     }
 
     override fun clearPreferences() {
-        db.execSQL("DROP TABLE IF EXISTS $TABLE_PREFERENCES")
+        settingsDb.execSQL("DROP TABLE IF EXISTS $TABLE_PREFERENCES")
         onCreate(db)
+        settingsStore.invalidate(TABLE_PREFERENCES)
     }
 
     override fun clearAttributes() {
@@ -3928,8 +3260,9 @@ class SqliteDatabaseHandler(
             Timber.w(e, "EXCEPTION getting last public handle info.")
             lastPublicHandle = MegaApiJava.INVALID_HANDLE
         }
-        db.execSQL("DROP TABLE IF EXISTS $TABLE_ATTRIBUTES")
+        settingsDb.execSQL("DROP TABLE IF EXISTS $TABLE_ATTRIBUTES")
         onCreate(db)
+        settingsStore.invalidate(TABLE_ATTRIBUTES)
         if (lastPublicHandle != MegaApiJava.INVALID_HANDLE) {
             try {
                 setLastPublicHandle(lastPublicHandle)
@@ -3956,8 +3289,9 @@ class SqliteDatabaseHandler(
     }
 
     override fun clearChatSettings() {
-        db.execSQL("DROP TABLE IF EXISTS $TABLE_CHAT_SETTINGS")
+        settingsDb.execSQL("DROP TABLE IF EXISTS $TABLE_CHAT_SETTINGS")
         onCreate(db)
+        settingsStore.invalidate(TABLE_CHAT_SETTINGS)
     }
 
     override fun clearOffline(db: SQLiteDatabase) {
@@ -3971,6 +3305,7 @@ class SqliteDatabaseHandler(
     }
 
     override fun clearCompletedTransfers() {
+        statements.clear()
         db.execSQL("DROP TABLE IF EXISTS $TABLE_COMPLETED_TRANSFERS")
         onCreate(db)
     }
@@ -4215,20 +3550,7 @@ class SqliteDatabaseHandler(
     }
 
     override val autoPlayEnabled: String?
-        get() {
-            val selectQuery =
-                "SELECT $KEY_AUTO_PLAY FROM $TABLE_PREFERENCES WHERE $KEY_ID = '1'"
-            try {
-                db.rawQuery(selectQuery, null)?.use { cursor ->
-                    if (cursor.moveToFirst()) {
-                        return decrypt(cursor.getString(0))
-                    }
-                }
-            } catch (e: Exception) {
-                Timber.e(e, "Exception opening or managing DB cursor")
-            }
-            return "false"
-        }
+        get() = getRowValue(TABLE_PREFERENCES, KEY_AUTO_PLAY, "false")
     override var sdCardUri: String?
         get() = getStringValue(TABLE_PREFERENCES, KEY_SD_CARD_URI, "")
         set(sdCardUri) {
@@ -4237,42 +3559,12 @@ class SqliteDatabaseHandler(
 
     override fun setAutoPlayEnabled(enabled: String) {
         Timber.d("setAutoPlayEnabled")
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_ATTRIBUTES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_AUTO_PLAY='${encrypt(enabled)}' WHERE $KEY_ID ='1'"
-                    db.execSQL(UPDATE_ATTRIBUTES_TABLE)
-                } else {
-                    values.put(KEY_AUTO_PLAY, encrypt(enabled))
-                    db.insert(TABLE_PREFERENCES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_AUTO_PLAY, enabled)
     }
 
     override fun setShowInviteBanner(show: String) {
         Timber.d("setCloseInviteBanner")
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            db.rawQuery(selectQuery, null).use { cursor ->
-                if (cursor != null && cursor.moveToFirst()) {
-                    val UPDATE_ATTRIBUTES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_SHOW_INVITE_BANNER='${encrypt(show)}' WHERE $KEY_ID ='1'"
-                    db.execSQL(UPDATE_ATTRIBUTES_TABLE)
-                } else {
-                    values.put(KEY_SHOW_INVITE_BANNER, encrypt(show))
-                    db.insert(TABLE_PREFERENCES, null, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_SHOW_INVITE_BANNER, show)
     }
 
     override val sdTransfers: ArrayList<SDTransfer>
@@ -4510,7 +3802,7 @@ class SqliteDatabaseHandler(
         "DELETE FROM $TABLE_BACKUPS WHERE $KEY_BACKUP_ID = '${encrypt(id.toString())}'"
 
     companion object {
-        private const val DATABASE_VERSION = 67
+        private const val DATABASE_VERSION = 68
         private const val DATABASE_NAME = "megapreferences"
         private const val TABLE_PREFERENCES = "preferences"
         private const val TABLE_CREDENTIALS = "credentials"
@@ -4658,6 +3950,22 @@ class SqliteDatabaseHandler(
         private const val KEY_SYNC_TYPE = "sync_type"
         private const val KEY_SYNC_LONGITUDE = "sync_longitude"
         private const val KEY_SYNC_LATITUDE = "sync_latitude"
+        private const val KEY_SYNC_FILEPATH_ORI_HASH = "sync_filepath_origin_hash"
+        private const val KEY_SYNC_FP_ORI_HASH = "sync_fingerprint_origin_hash"
+        private const val KEY_SYNC_FILENAME_HASH = "sync_filename_hash"
+        private const val KEY_SYNC_FILEPATH_NEW_HASH = "sync_filepath_new_hash"
+        private const val KEY_SYNC_FP_NEW_HASH = "sync_fingerprint_new_hash"
+
+        /**
+         * Lookup hash columns of the sync records, with the encrypted columns they are hashes of.
+         */
+        private val SYNC_RECORD_HASHED_COLUMNS = linkedMapOf(
+            KEY_SYNC_FILEPATH_ORI_HASH to KEY_SYNC_FILEPATH_ORI,
+            KEY_SYNC_FP_ORI_HASH to KEY_SYNC_FP_ORI,
+            KEY_SYNC_FILENAME_HASH to KEY_SYNC_FILENAME,
+            KEY_SYNC_FILEPATH_NEW_HASH to KEY_SYNC_FILEPATH_NEW,
+            KEY_SYNC_FP_NEW_HASH to KEY_SYNC_FP_NEW,
+        )
         private const val CREATE_SYNC_RECORDS_TABLE =
             "CREATE TABLE IF NOT EXISTS $TABLE_SYNC_RECORDS(" +
                     "$KEY_ID INTEGER PRIMARY KEY, " +
@@ -4673,7 +3981,52 @@ class SqliteDatabaseHandler(
                     "$KEY_SYNC_TYPE INTEGER," +
                     "$KEY_SYNC_HANDLE TEXT," +
                     "$KEY_SYNC_COPYONLY BOOLEAN," +
-                    "$KEY_SYNC_SECONDARY BOOLEAN)"
+                    "$KEY_SYNC_SECONDARY BOOLEAN," +
+                    "$KEY_SYNC_FILEPATH_ORI_HASH TEXT," +
+                    "$KEY_SYNC_FP_ORI_HASH TEXT," +
+                    "$KEY_SYNC_FILENAME_HASH TEXT," +
+                    "$KEY_SYNC_FILEPATH_NEW_HASH TEXT," +
+                    "$KEY_SYNC_FP_NEW_HASH TEXT)"
+        private val CREATE_SYNC_RECORDS_INDEXES = listOf(
+            "CREATE INDEX IF NOT EXISTS ${TABLE_SYNC_RECORDS}_filepath_origin_hash " +
+                    "ON $TABLE_SYNC_RECORDS($KEY_SYNC_FILEPATH_ORI_HASH)",
+            "CREATE INDEX IF NOT EXISTS ${TABLE_SYNC_RECORDS}_fingerprint_origin_hash " +
+                    "ON $TABLE_SYNC_RECORDS($KEY_SYNC_FP_ORI_HASH)",
+            "CREATE INDEX IF NOT EXISTS ${TABLE_SYNC_RECORDS}_filename_hash " +
+                    "ON $TABLE_SYNC_RECORDS($KEY_SYNC_FILENAME_HASH)",
+            "CREATE INDEX IF NOT EXISTS ${TABLE_SYNC_RECORDS}_filepath_new_hash " +
+                    "ON $TABLE_SYNC_RECORDS($KEY_SYNC_FILEPATH_NEW_HASH)",
+            "CREATE INDEX IF NOT EXISTS ${TABLE_SYNC_RECORDS}_fingerprint_new_hash " +
+                    "ON $TABLE_SYNC_RECORDS($KEY_SYNC_FP_NEW_HASH)",
+        )
+        private const val INSERT_SYNC_RECORD =
+            "INSERT INTO $TABLE_SYNC_RECORDS(" +
+                    "$KEY_SYNC_FILEPATH_ORI, $KEY_SYNC_FILEPATH_NEW, $KEY_SYNC_FP_ORI, " +
+                    "$KEY_SYNC_FP_NEW, $KEY_SYNC_FILENAME, $KEY_SYNC_HANDLE, " +
+                    "$KEY_SYNC_TIMESTAMP, $KEY_SYNC_COPYONLY, $KEY_SYNC_SECONDARY, " +
+                    "$KEY_SYNC_LONGITUDE, $KEY_SYNC_LATITUDE, $KEY_SYNC_STATE, $KEY_SYNC_TYPE, " +
+                    "$KEY_SYNC_FILEPATH_ORI_HASH, $KEY_SYNC_FP_ORI_HASH, $KEY_SYNC_FILENAME_HASH, " +
+                    "$KEY_SYNC_FILEPATH_NEW_HASH, $KEY_SYNC_FP_NEW_HASH) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"
+        private const val INSERT_COMPLETED_TRANSFER =
+            "INSERT INTO $TABLE_COMPLETED_TRANSFERS(" +
+                    "$KEY_TRANSFER_FILENAME, $KEY_TRANSFER_TYPE, $KEY_TRANSFER_STATE, " +
+                    "$KEY_TRANSFER_SIZE, $KEY_TRANSFER_HANDLE, $KEY_TRANSFER_PATH, " +
+                    "$KEY_TRANSFER_OFFLINE, $KEY_TRANSFER_TIMESTAMP, $KEY_TRANSFER_ERROR, " +
+                    "$KEY_TRANSFER_ORIGINAL_PATH, $KEY_TRANSFER_PARENT_HANDLE) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"
+        private const val COUNT_COMPLETED_TRANSFER =
+            "SELECT COUNT(*) FROM $TABLE_COMPLETED_TRANSFERS " +
+                    "WHERE $KEY_TRANSFER_FILENAME = ? " +
+                    "AND $KEY_TRANSFER_TYPE = ? " +
+                    "AND $KEY_TRANSFER_STATE = ? " +
+                    "AND $KEY_TRANSFER_SIZE = ? " +
+                    "AND $KEY_TRANSFER_HANDLE = ? " +
+                    "AND $KEY_TRANSFER_PATH = ? " +
+                    "AND $KEY_TRANSFER_OFFLINE = ? " +
+                    "AND $KEY_TRANSFER_ERROR = ? " +
+                    "AND $KEY_TRANSFER_ORIGINAL_PATH = ? " +
+                    "AND $KEY_TRANSFER_PARENT_HANDLE = ?"
         private const val KEY_LAST_PUBLIC_HANDLE = "lastpublichandle"
         private const val KEY_LAST_PUBLIC_HANDLE_TIMESTAMP = "lastpublichandletimestamp"
         private const val KEY_LAST_PUBLIC_HANDLE_TYPE = "lastpublichandletype"
@@ -4781,7 +4134,7 @@ class SqliteDatabaseHandler(
         private fun encrypt(original: String?): String? =
             original?.let {
                 try {
-                    val encrypted = Util.aes_encrypt(aesKey, it.toByteArray())
+                    val encrypted = cipher.encrypt(it.toByteArray())
                     Base64.encodeToString(encrypted, Base64.DEFAULT)
                 } catch (e: Exception) {
                     Timber.e(e, "Error encrypting DB field")
@@ -4796,11 +4149,17 @@ class SqliteDatabaseHandler(
                 return key.toByteArray().copyOfRange(0, 32)
             }
 
+        private val cipher by lazy { DatabaseCipher(aesKey) }
+
+        private val keyedHash by lazy { DatabaseKeyedHash(aesKey) }
+
+        private fun hash(value: String?): String? = keyedHash.hash(value)
+
         private fun decrypt(encodedString: String?): String? =
             encodedString?.let {
                 try {
                     val encoded = Base64.decode(encodedString, Base64.DEFAULT)
-                    val original = Util.aes_decrypt(aesKey, encoded)
+                    val original = cipher.decrypt(encoded)
                     String(original)
                 } catch (e: Exception) {
                     Timber.e(e, "Error decrypting DB field")
@@ -4812,6 +4171,6 @@ class SqliteDatabaseHandler(
     }
 
     init {
-        db = this.writableDatabase
+        database = this.writableDatabase
     }
 }
@@ -43,6 +43,7 @@ import static mega.privacy.android.app.utils.PreviewUtils.resizeBitmapUpload;
 import static mega.privacy.android.app.utils.TextUtil.addStringSeparator;
 import static mega.privacy.android.app.utils.TextUtil.isTextEmpty;
 import static mega.privacy.android.app.utils.ThumbnailUtils.createThumbnailPdf;
+import static mega.privacy.android.app.utils.Util.ONTRANSFERUPDATE_REFRESH_MILLIS;
 import static mega.privacy.android.app.utils.Util.getProgressSize;
 import static mega.privacy.android.app.utils.Util.getSizeString;
 import static mega.privacy.android.app.utils.permission.PermissionUtils.hasPermissions;
@@ -223,7 +224,7 @@ public class UploadService extends Service {
         LiveEventBus.get(EVENT_FINISH_SERVICE_IF_NO_TRANSFERS, Boolean.class)
                 .observeForever(stopServiceObserver);
 
-        Disposable subscription = getGlobalTransferUseCase.get()
+        Disposable subscription = getGlobalTransferUseCase.get(ONTRANSFERUPDATE_REFRESH_MILLIS)
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe((event) -> {
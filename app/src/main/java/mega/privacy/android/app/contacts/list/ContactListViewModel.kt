@@ -22,12 +22,10 @@ import mega.privacy.android.app.contacts.usecase.RemoveContactUseCase
 import mega.privacy.android.app.objects.PasscodeManagement
 import mega.privacy.android.app.usecase.call.StartCallUseCase
 import mega.privacy.android.app.utils.CallUtil
-import mega.privacy.android.app.utils.RxUtil.debounceImmediate
 import mega.privacy.android.app.utils.StringResourcesUtils.getString
 import mega.privacy.android.app.utils.notifyObserver
 import nz.mega.sdk.MegaUser
 import timber.log.Timber
-import java.util.concurrent.TimeUnit
 import javax.inject.Inject
 
 /**
@@ -48,10 +46,6 @@ class ContactListViewModel @Inject constructor(
     private val passcodeManagement: PasscodeManagement
 ) : BaseRxViewModel() {
 
-    companion object {
-        private const val REQUEST_TIMEOUT_IN_MS = 100L
-    }
-
     private var queryString: String? = null
     private val contacts: MutableLiveData<List<ContactItem.Data>> = MutableLiveData()
     private val contactActions: MutableLiveData<List<ContactActionItem>> = MutableLiveData()
@@ -79,7 +73,6 @@ class ContactListViewModel @Inject constructor(
 
     private fun retrieveContacts() {
         getContactsUseCase.get()
-            .debounceImmediate(REQUEST_TIMEOUT_IN_MS, TimeUnit.MILLISECONDS)
             .subscribeOn(Schedulers.io())
             .observeOn(AndroidSchedulers.mainThread())
             .subscribeBy(
@@ -78,6 +78,9 @@ sealed class ContactItem(val id: Long) {
             oldItem.id == newItem.id
 
         override fun areContentsTheSame(oldItem: ContactItem, newItem: ContactItem): Boolean {
+            // The contacts not updated keep their instances, see ContactListStore
+            if (oldItem === newItem) return true
+
             val isSameDataItem = oldItem is Data && newItem is Data && oldItem == newItem
             val isSameHeaderItem = oldItem is Header && newItem is Header && oldItem == newItem
             return isSameDataItem || isSameHeaderItem
@@ -0,0 +1,159 @@
+package mega.privacy.android.app.contacts.list.data
+
+/**
+ * Contacts of the current user, kept sorted alphabetically by title and indexed by handle and
+ * email.
+ *
+ * An update finds the contact by handle or email instead of scanning the list, and moves it to
+ * its sorted position with a binary search instead of sorting the whole list again, so a burst of
+ * presence updates does not sort the contacts once per update. The contacts not updated keep their
+ * instances, so the snapshots can be diffed by identity.
+ *
+ * The store is updated from the SDK callbacks and read when emitting, so it is synchronized.
+ *
+ * @param contacts Initial contacts
+ */
+class ContactListStore(contacts: Collection<ContactItem.Data> = emptyList()) {
+
+    private val sortedContacts = ArrayList<ContactItem.Data>(contacts.size)
+    private val contactsByHandle = HashMap<Long, ContactItem.Data>(contacts.size)
+    private val handlesByEmail = HashMap<String, Long>(contacts.size)
+
+    init {
+        contacts.forEach { put(it) }
+    }
+
+    /**
+     * Number of contacts
+     */
+    val size: Int
+        @Synchronized get() = sortedContacts.size
+
+    /**
+     * Gets a contact by handle
+     *
+     * @param handle User handle
+     * @return The contact, or null if there is no contact with that handle
+     */
+    @Synchronized
+    fun getByHandle(handle: Long): ContactItem.Data? =
+        contactsByHandle[handle]
+
+    /**
+     * Gets a contact by email
+     *
+     * @param email User email
+     * @return The contact, or null if there is no contact with that email
+     */
+    @Synchronized
+    fun getByEmail(email: String?): ContactItem.Data? =
+        email?.let { handlesByEmail[it] }?.let { contactsByHandle[it] }
+
+    /**
+     * Finds the first contact, in alphabetical order, matching a predicate
+     *
+     * @param predicate Condition the contact matches
+     * @return The contact, or null if no contact matches
+     */
+    @Synchronized
+    fun find(predicate: (ContactItem.Data) -> Boolean): ContactItem.Data? =
+        sortedContacts.find(predicate)
+
+    /**
+     * Adds a contact, or replaces the contact with the same handle
+     *
+     * @param contact The contact
+     * @return True if the contacts changed, false otherwise
+     */
+    @Synchronized
+    fun put(contact: ContactItem.Data): Boolean {
+        val currentContact = contactsByHandle[contact.handle]
+        if (currentContact == contact) return false
+
+        if (currentContact != null) {
+            val currentPosition = sortedContacts.binarySearch(currentContact, COMPARATOR)
+            if (COMPARATOR.compare(currentContact, contact) == 0) {
+                // Same title, so the position does not change
+                sortedContacts[currentPosition] = contact
+            } else {
+                sortedContacts.removeAt(currentPosition)
+                sortedContacts.add(getPositionToInsert(contact), contact)
+            }
+            handlesByEmail.remove(currentContact.email)
+        } else {
+            sortedContacts.add(getPositionToInsert(contact), contact)
+        }
+
+        contactsByHandle[contact.handle] = contact
+        handlesByEmail[contact.email] = contact.handle
+        return true
+    }
+
+    /**
+     * Updates a contact
+     *
+     * @param handle    User handle
+     * @param transform Gets the updated contact from the current one
+     * @return True if the contacts changed, false otherwise
+     */
+    @Synchronized
+    fun update(handle: Long, transform: (ContactItem.Data) -> ContactItem.Data): Boolean {
+        val currentContact = contactsByHandle[handle] ?: return false
+        return put(transform(currentContact))
+    }
+
+    /**
+     * Updates all the contacts
+     *
+     * @param transform Gets the updated contact from the current one
+     * @return True if the contacts changed, false otherwise
+     */
+    @Synchronized
+    fun updateAll(transform: (ContactItem.Data) -> ContactItem.Data): Boolean {
+        var changed = false
+        ArrayList(sortedContacts).forEach { contact ->
+            if (put(transform(contact))) {
+                changed = true
+            }
+        }
+        return changed
+    }
+
+    /**
+     * Removes a contact
+     *
+     * @param handle User handle
+     * @return True if the contacts changed, false otherwise
+     */
+    @Synchronized
+    fun remove(handle: Long): Boolean {
+        val contact = contactsByHandle.remove(handle) ?: return false
+        sortedContacts.removeAt(sortedContacts.binarySearch(contact, COMPARATOR))
+        handlesByEmail.remove(contact.email)
+        return true
+    }
+
+    /**
+     * Gets a snapshot of the contacts
+     *
+     * @return The contacts sorted alphabetically
+     */
+    @Synchronized
+    fun toList(): List<ContactItem.Data> =
+        ArrayList(sortedContacts)
+
+    private fun getPositionToInsert(contact: ContactItem.Data): Int {
+        val position = sortedContacts.binarySearch(contact, COMPARATOR)
+        return if (position < 0) -(position + 1) else position
+    }
+
+    companion object {
+        /**
+         * Alphabetical order of the titles, and by handle the contacts with the same title so the
+         * order is total
+         */
+        private val COMPARATOR: Comparator<ContactItem.Data> =
+            compareBy(String.CASE_INSENSITIVE_ORDER, ContactItem.Data::getTitle)
+                .thenBy(ContactItem.Data::handle)
+    }
+}
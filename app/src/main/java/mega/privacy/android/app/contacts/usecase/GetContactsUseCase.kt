@@ -15,6 +15,7 @@ import io.reactivex.rxjava3.kotlin.addTo
 import io.reactivex.rxjava3.kotlin.subscribeBy
 import mega.privacy.android.app.R
 import mega.privacy.android.app.contacts.list.data.ContactItem
+import mega.privacy.android.app.contacts.list.data.ContactListStore
 import mega.privacy.android.app.data.extensions.getDecodedAliases
 import mega.privacy.android.data.qualifier.MegaApi
 import mega.privacy.android.app.listeners.OptionalMegaRequestListenerInterface
@@ -22,7 +23,6 @@ import mega.privacy.android.app.usecase.GetGlobalChangesUseCase
 import mega.privacy.android.app.usecase.chat.GetChatChangesUseCase
 import mega.privacy.android.app.usecase.chat.GetChatChangesUseCase.Result.*
 import mega.privacy.android.app.utils.AvatarUtil
-import mega.privacy.android.app.utils.Constants.INVALID_POSITION
 import mega.privacy.android.app.utils.ErrorUtils.toThrowable
 import mega.privacy.android.app.utils.MegaUserUtils.getUserStatusColor
 import mega.privacy.android.app.utils.MegaUserUtils.isExternalChange
@@ -35,6 +35,7 @@ import nz.mega.sdk.MegaChatApi.STATUS_ONLINE
 import nz.mega.sdk.MegaUser.VISIBILITY_VISIBLE
 import timber.log.Timber
 import java.io.File
+import java.util.concurrent.TimeUnit
 import javax.inject.Inject
 
 /**
@@ -54,58 +55,70 @@ class GetContactsUseCase @Inject constructor(
     private val getGlobalChangesUseCase: GetGlobalChangesUseCase
 ) {
 
+    companion object {
+        private const val FRAME_WINDOW_IN_MS = 16L
+    }
+
+    /**
+     * Get the contacts of the current user, sorted alphabetically and updated on every change.
+     * The changes are coalesced, so at most one list is emitted per frame window.
+     *
+     * @return  Flowable containing the contacts
+     */
     fun get(): Flowable<List<ContactItem.Data>> =
-        Flowable.create({ emitter ->
+        Flowable.create<ContactListStore>({ emitter ->
             val disposable = CompositeDisposable()
-            val contacts = megaApi.contacts
-                .filter { it.visibility == VISIBILITY_VISIBLE }
-                .map { it.toContactItem() }
-                .toMutableList()
+            val contacts = ContactListStore(
+                megaApi.contacts
+                    .filter { it.visibility == VISIBILITY_VISIBLE }
+                    .map { it.toContactItem() }
+            )
 
-            emitter.onNext(contacts.sortedAlphabetically())
+            emitter.onNext(contacts)
 
             val userAttrsListener = OptionalMegaRequestListenerInterface(
                 onRequestFinish = { request, error ->
                     if (emitter.isCancelled) return@OptionalMegaRequestListenerInterface
 
                     if (error.errorCode == MegaError.API_OK) {
-                        val index = contacts.indexOfFirst { it.email == request.email }
-                        if (index != INVALID_POSITION) {
-                            val currentContact = contacts[index]
-
-                            when (request.paramType) {
-                                USER_ATTR_AVATAR -> {
-                                    if (!request.file.isNullOrBlank()) {
-                                        contacts[index] = currentContact.copy(
+                        val currentContact = contacts.getByEmail(request.email)
+                        if (currentContact != null) {
+                            val updated = when (request.paramType) {
+                                USER_ATTR_AVATAR ->
+                                    !request.file.isNullOrBlank() && contacts.put(
+                                        currentContact.copy(
                                             avatarUri = File(request.file).toUri()
                                         )
-                                    }
-                                }
+                                    )
                                 USER_ATTR_FIRSTNAME, USER_ATTR_LASTNAME ->
-                                    contacts[index] = currentContact.copy(
-                                        fullName = megaChatApi.getUserFullnameFromCache(currentContact.handle)
+                                    contacts.put(
+                                        currentContact.copy(
+                                            fullName = megaChatApi.getUserFullnameFromCache(currentContact.handle)
+                                        )
                                     )
                                 USER_ATTR_ALIAS ->
-                                    contacts[index] = currentContact.copy(
-                                        alias = request.text
+                                    contacts.put(
+                                        currentContact.copy(
+                                            alias = request.text
+                                        )
                                     )
+                                else -> false
                             }
 
-                            emitter.onNext(contacts.sortedAlphabetically())
+                            if (updated) emitter.onNext(contacts)
                         } else if (request.paramType == USER_ATTR_ALIAS) {
                             val requestAliases = request.megaStringMap.getDecodedAliases()
 
-                            contacts.forEachIndexed { indexToUpdate, contact ->
-                                var newAlias: String? = null
-                                if (requestAliases.isNotEmpty() && requestAliases.containsKey(contact.handle)) {
-                                    newAlias = requestAliases[contact.handle]
-                                }
+                            val updated = contacts.updateAll { contact ->
+                                val newAlias = requestAliases[contact.handle]
                                 if (newAlias != contact.alias) {
-                                    contacts[indexToUpdate] = contact.copy(alias = newAlias)
+                                    contact.copy(alias = newAlias)
+                                } else {
+                                    contact
                                 }
                             }
 
-                            emitter.onNext(contacts.sortedAlphabetically())
+                            if (updated) emitter.onNext(contacts)
                         }
                     } else {
                         Timber.e(error.toThrowable())
@@ -124,10 +137,8 @@ class GetContactsUseCase @Inject constructor(
 
                         when (change) {
                             is OnChatOnlineStatusUpdate -> {
-                                val index = contacts.indexOfFirst { it.handle == change.userHandle }
-                                if (index != INVALID_POSITION) {
-                                    val currentContact = contacts[index]
-                                    contacts[index] = currentContact.copy(
+                                val updated = contacts.update(change.userHandle) { currentContact ->
+                                    currentContact.copy(
                                         status = change.status,
                                         statusColor = getUserStatusColor(change.status),
                                         lastSeen = if (change.status == STATUS_ONLINE) {
@@ -137,35 +148,34 @@ class GetContactsUseCase @Inject constructor(
                                             currentContact.lastSeen
                                         }
                                     )
-
-                                    emitter.onNext(contacts.sortedAlphabetically())
                                 }
+
+                                if (updated) emitter.onNext(contacts)
                             }
                             is OnChatPresenceLastGreen -> {
-                                val index = contacts.indexOfFirst { it.handle == change.userHandle }
-                                if (index != INVALID_POSITION) {
-                                    val currentContact = contacts[index]
-                                    contacts[index] = currentContact.copy(
+                                val updated = contacts.update(change.userHandle) { currentContact ->
+                                    currentContact.copy(
                                         lastSeen = TimeUtils.unformattedLastGreenDate(
                                             context,
                                             change.lastGreen
                                         )
                                     )
-
-                                    emitter.onNext(contacts.sortedAlphabetically())
                                 }
+
+                                if (updated) emitter.onNext(contacts)
                             }
                             is OnChatConnectionStateUpdate -> {
-                                val index = contacts.indexOfFirst {
+                                val currentContact = contacts.find {
                                     it.isNew && change.chatid == megaChatApi.getChatRoomByUser(it.handle)?.chatId
                                 }
-                                if (index != INVALID_POSITION) {
-                                    val currentContact = contacts[index]
-                                    contacts[index] = currentContact.copy(
-                                        isNew = false
+                                if (currentContact != null) {
+                                    contacts.put(
+                                        currentContact.copy(
+                                            isNew = false
+                                        )
                                     )
 
-                                    emitter.onNext(contacts.sortedAlphabetically())
+                                    emitter.onNext(contacts)
                                 }
                             }
                             else -> {
@@ -184,9 +194,9 @@ class GetContactsUseCase @Inject constructor(
                         if (emitter.isCancelled) return@subscribeBy
 
                         users.forEach { user ->
-                            val index = contacts.indexOfFirst { it.email == user.email }
+                            val currentContact = contacts.getByEmail(user.email)
                             when {
-                                index != INVALID_POSITION -> {
+                                currentContact != null -> {
                                     when {
                                         user.isExternalChange() && user.hasChanged(MegaUser.CHANGE_TYPE_AVATAR) ->
                                             megaApi.getUserAttribute(user.email, USER_ATTR_ALIAS, userAttrsListener)
@@ -195,8 +205,8 @@ class GetContactsUseCase @Inject constructor(
                                         user.hasChanged(MegaUser.CHANGE_TYPE_LASTNAME) ->
                                             megaApi.getUserAttribute(user.email, USER_ATTR_LASTNAME, userAttrsListener)
                                         user.visibility != VISIBILITY_VISIBLE -> {
-                                            contacts.removeAt(index)
-                                            emitter.onNext(contacts.sortedAlphabetically())
+                                            contacts.remove(currentContact.handle)
+                                            emitter.onNext(contacts)
                                         }
                                     }
                                 }
@@ -205,8 +215,8 @@ class GetContactsUseCase @Inject constructor(
                                 }
                                 user.visibility == VISIBILITY_VISIBLE -> { // New contact
                                     val contact = user.toContactItem()
-                                    contacts.add(contact)
-                                    emitter.onNext(contacts.sortedAlphabetically())
+                                    contacts.put(contact)
+                                    emitter.onNext(contacts)
                                     contact.requestMissingFields(userAttrsListener)
                                 }
                             }
@@ -215,10 +225,12 @@ class GetContactsUseCase @Inject constructor(
                     onError = Timber::e
                 ).addTo(disposable)
 
-            contacts.forEach { it.requestMissingFields(userAttrsListener) }
+            contacts.toList().forEach { it.requestMissingFields(userAttrsListener) }
 
             emitter.setCancellable { disposable.clear() }
         }, BackpressureStrategy.LATEST)
+            .throttleLatest(FRAME_WINDOW_IN_MS, TimeUnit.MILLISECONDS, true)
+            .map { it.toList() }
 
     /**
      * Get MegaUser from email
@@ -306,7 +318,4 @@ class GetContactsUseCase @Inject constructor(
             .toUpperCase()
             .endConfig()
             .buildRound(AvatarUtil.getFirstLetter(title), color)
-
-    private fun MutableList<ContactItem.Data>.sortedAlphabetically(): List<ContactItem.Data> =
-        sortedWith(compareBy(String.CASE_INSENSITIVE_ORDER, ContactItem.Data::getTitle))
 }
@@ -0,0 +1,56 @@
+package mega.privacy.android.app.data.database
+
+import javax.crypto.Cipher
+import javax.crypto.spec.SecretKeySpec
+
+/**
+ * AES cipher for the database fields.
+ *
+ * Getting and initialising a [Cipher] is far more expensive than encrypting a short field,
+ * so each thread keeps its own initialised instances and reuses them for every call.
+ * A [Cipher] is reset to its initialised state after [Cipher.doFinal], so no new init is needed.
+ *
+ * @param key AES key.
+ */
+class DatabaseCipher(key: ByteArray) {
+
+    private val keySpec = SecretKeySpec(key, ALGORITHM)
+
+    private val encryptCipher = ThreadLocalCipher(Cipher.ENCRYPT_MODE)
+    private val decryptCipher = ThreadLocalCipher(Cipher.DECRYPT_MODE)
+
+    /**
+     * Encrypts some data.
+     *
+     * @param clear Data to encrypt.
+     * @return The encrypted data.
+     */
+    fun encrypt(clear: ByteArray): ByteArray = encryptCipher.doFinal(clear)
+
+    /**
+     * Decrypts some data.
+     *
+     * @param encrypted Data to decrypt.
+     * @return The decrypted data.
+     */
+    fun decrypt(encrypted: ByteArray): ByteArray = decryptCipher.doFinal(encrypted)
+
+    private inner class ThreadLocalCipher(private val mode: Int) : ThreadLocal<Cipher>() {
+
+        override fun initialValue(): Cipher =
+            Cipher.getInstance(ALGORITHM).apply { init(mode, keySpec) }
+
+        fun doFinal(input: ByteArray): ByteArray =
+            try {
+                get()!!.doFinal(input)
+            } catch (e: Exception) {
+                // The state of a cipher is undefined after a failure, so it is not reused
+                remove()
+                throw e
+            }
+    }
+
+    companion object {
+        private const val ALGORITHM = "AES"
+    }
+}
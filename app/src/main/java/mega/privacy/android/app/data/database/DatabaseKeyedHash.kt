@@ -0,0 +1,61 @@
+package mega.privacy.android.app.data.database
+
+import java.security.MessageDigest
+import javax.crypto.Mac
+import javax.crypto.spec.SecretKeySpec
+
+/**
+ * Deterministic keyed hash of the database fields used as lookup keys.
+ *
+ * Encrypted fields cannot be compared in an index efficiently, so a short HMAC of the clear value
+ * is stored next to them and indexed instead. The HMAC key is derived from the database key, so
+ * the hashes cannot be computed without it. As with [DatabaseCipher], each thread keeps its own
+ * initialised [Mac] and reuses it for every call.
+ *
+ * @param key Database key.
+ */
+class DatabaseKeyedHash(key: ByteArray) {
+
+    private val keySpec = SecretKeySpec(
+        MessageDigest.getInstance(DIGEST).run {
+            update(KEY_LABEL.toByteArray())
+            digest(key)
+        },
+        ALGORITHM
+    )
+
+    private val mac = object : ThreadLocal<Mac>() {
+        override fun initialValue(): Mac = Mac.getInstance(ALGORITHM).apply { init(keySpec) }
+    }
+
+    /**
+     * Hashes a value.
+     *
+     * @param value Clear value.
+     * @return The first [HASH_SIZE] bytes of its HMAC as a hex string,
+     * or null if the value is null.
+     */
+    fun hash(value: String?): String? =
+        value?.let { clear ->
+            val hash = mac.get()!!.doFinal(clear.toByteArray())
+            buildString(HASH_SIZE * 2) {
+                for (i in 0 until HASH_SIZE) {
+                    val byte = hash[i].toInt()
+                    append(HEX_DIGITS[byte shr 4 and 0xF])
+                    append(HEX_DIGITS[byte and 0xF])
+                }
+            }
+        }
+
+    companion object {
+        /**
+         * Size of the hashes in bytes.
+         */
+        const val HASH_SIZE = 16
+
+        private const val ALGORITHM = "HmacSHA256"
+        private const val DIGEST = "SHA-256"
+        private const val KEY_LABEL = "mega.db.lookup"
+        private const val HEX_DIGITS = "0123456789abcdef"
+    }
+}
@@ -0,0 +1,92 @@
+package mega.privacy.android.app.data.database
+
+/**
+ * Immutable in-memory copy of a single-row settings table.
+ *
+ * Values loaded from the database are decrypted the first time they are read, so columns which
+ * are never read never pay for it.
+ *
+ * @param values Lazily decrypted values, by column name.
+ */
+class SettingsRow internal constructor(private val values: Map<String, Lazy<String?>>) {
+
+    /**
+     * Gets the value of a column.
+     *
+     * @param column Column name.
+     * @return The value, or null if the column has no value.
+     */
+    fun getString(column: String): String? = values[column]?.value
+
+    /**
+     * Gets the value of a column as a boolean.
+     *
+     * @param column Column name.
+     * @return The value, or null if the column has no valid boolean value.
+     */
+    fun getBoolean(column: String): Boolean? = getString(column)?.toBooleanStrictOrNull()
+
+    /**
+     * Gets the value of a column as an integer.
+     *
+     * @param column Column name.
+     * @return The value, or null if the column has no valid integer value.
+     */
+    fun getInt(column: String): Int? = getString(column)?.toIntOrNull()
+
+    /**
+     * Gets the value of a column as a long.
+     *
+     * @param column Column name.
+     * @return The value, or null if the column has no valid long value.
+     */
+    fun getLong(column: String): Long? = getString(column)?.toLongOrNull()
+
+    /**
+     * Checks if the row has a column.
+     *
+     * @param column Column name.
+     */
+    operator fun contains(column: String) = values.containsKey(column)
+
+    /**
+     * Gets a copy of the row with a new value for a column.
+     *
+     * @param column Column name.
+     * @param value  New value.
+     */
+    internal fun with(column: String, value: String?) =
+        SettingsRow(values + (column to lazyOf(value)))
+
+    companion object {
+        /**
+         * Row which does not exist in the database yet.
+         */
+        internal val EMPTY = SettingsRow(emptyMap())
+
+        /**
+         * Creates a row from the values loaded from the database.
+         *
+         * @param values  Raw values, by column name.
+         * @param decrypt Decrypts a raw value.
+         */
+        internal fun fromRaw(values: Map<String, String?>, decrypt: (String?) -> String?) =
+            SettingsRow(values.mapValues { (_, raw) -> lazy { decrypt(raw) } })
+    }
+}
+
+/**
+ * Snapshot of the single-row settings tables which have been loaded.
+ *
+ * @property rows Rows by table name. A table which has not been loaded yet is not present.
+ */
+data class SettingsSnapshot(val rows: Map<String, SettingsRow> = emptyMap()) {
+
+    /**
+     * Gets the row of a table.
+     *
+     * @param table Table name.
+     * @return The row, or null if the table has not been loaded.
+     */
+    operator fun get(table: String): SettingsRow? = rows[table]
+}
@@ -0,0 +1,168 @@
+package mega.privacy.android.app.data.database
+
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.update
+import timber.log.Timber
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+
+/**
+ * Write-through, in-memory snapshot of the single-row settings tables.
+ *
+ * Each table is loaded once, on its first read. Reads are then served from memory and writes
+ * update the snapshot immediately. Writes are stored in the database asynchronously: every
+ * change made within [flushDelayMillis] is coalesced into a single write per table.
+ *
+ * Anything accessing the tables directly must call [flush] first, so it sees the pending writes,
+ * and [invalidate] after writing to them, so the snapshot is loaded again.
+ *
+ * @param loadRow          Loads the raw values of the row of a table, by column name, or returns
+ *                         null if the table has no row. Raw values are decrypted lazily.
+ * @param decrypt          Decrypts a raw value.
+ * @param writeRow         Stores some values, by column name, in the row of a table, creating the
+ *                         row if needed.
+ * @param executor         Executor on which writes are stored.
+ * @param flushDelayMillis Time during which writes are coalesced.
+ */
+class SettingsSnapshotStore(
+    private val loadRow: (table: String) -> Map<String, String?>?,
+    private val decrypt: (String?) -> String?,
+    private val writeRow: (table: String, values: Map<String, String?>) -> Unit,
+    private val executor: ScheduledExecutorService = Executors.newSingleThreadScheduledExecutor(),
+    private val flushDelayMillis: Long = DEFAULT_FLUSH_DELAY_MILLIS,
+) {
+
+    private val lock = Any()
+    private val flushLock = Any()
+    private val pendingWrites = LinkedHashMap<String, LinkedHashMap<String, String?>>()
+    private var flushScheduled = false
+
+    @Volatile
+    private var hasPendingWrites = false
+
+    private val _snapshot = MutableStateFlow(SettingsSnapshot())
+
+    /**
+     * Snapshot of the tables, updated on every change.
+     */
+    val snapshot: StateFlow<SettingsSnapshot> = _snapshot.asStateFlow()
+
+    /**
+     * Gets the row of a table, loading it if needed.
+     *
+     * @param table Table name.
+     * @return The row, or null if the table has no row.
+     */
+    fun getRow(table: String): SettingsRow? = row(table)?.takeUnless { it === SettingsRow.EMPTY }
+
+    /**
+     * Gets the value of a column. If the table has no row, it is created with the default value.
+     *
+     * @param table        Table name.
+     * @param column       Column name.
+     * @param defaultValue Value to set and return if the table has no row.
+     * @return The value of the column.
+     */
+    fun getValue(table: String, column: String, defaultValue: String): String? {
+        val row = row(table) ?: return defaultValue
+        if (row === SettingsRow.EMPTY) {
+            Timber.w("No value found, setting default")
+            setValue(table, column, defaultValue)
+            return defaultValue
+        }
+
+        return row.getString(column)
+    }
+
+    /**
+     * Sets the value of a column. The snapshot is updated immediately and the database later.
+     *
+     * @param table  Table name.
+     * @param column Column name.
+     * @param value  New value.
+     */
+    fun setValue(table: String, column: String, value: String?) {
+        val loaded = row(table) != null
+        synchronized(lock) {
+            // If the table could not be loaded, only the database is updated
+            if (loaded) {
+                _snapshot.update { snapshot ->
+                    val row = snapshot[table] ?: SettingsRow.EMPTY
+                    snapshot.copy(rows = snapshot.rows + (table to row.with(column, value)))
+                }
+            }
+            pendingWrites.getOrPut(table) { LinkedHashMap() }[column] = value
+            hasPendingWrites = true
+
+            if (!flushScheduled) {
+                flushScheduled = true
+                executor.schedule({ flush() }, flushDelayMillis, TimeUnit.MILLISECONDS)
+            }
+        }
+    }
+
+    /**
+     * Stores all the pending writes in the database, waiting for any write in progress.
+     * Does nothing, without taking any lock, if there are none.
+     */
+    fun flush() {
+        if (!hasPendingWrites) return
+
+        synchronized(flushLock) {
+            val writes = synchronized(lock) {
+                flushScheduled = false
+                LinkedHashMap(pendingWrites).also { pendingWrites.clear() }
+            }
+
+            writes.forEach { (table, values) ->
+                runCatching { writeRow(table, values) }
+                    .onFailure { Timber.e(it, "Error writing settings of $table") }
+            }
+
+            synchronized(lock) {
+                if (pendingWrites.isEmpty()) hasPendingWrites = false
+            }
+        }
+    }
+
+    /**
+     * Drops a table from the snapshot, so it is loaded again on its next read.
+     * Pending writes must have been flushed before the table was written directly.
+     *
+     * @param table Table name.
+     */
+    fun invalidate(table: String) {
+        synchronized(lock) {
+            _snapshot.update { it.copy(rows = it.rows - table) }
+        }
+    }
+
+    /**
+     * Gets the row of a table, loading it if needed.
+     *
+     * @return The row, [SettingsRow.EMPTY] if the table has no row,
+     * or null if it could not be loaded.
+     */
+    private fun row(table: String): SettingsRow? {
+        _snapshot.value[table]?.let { return it }
+
+        return synchronized(lock) {
+            _snapshot.value[table] ?: load(table)?.also { row ->
+                _snapshot.update { it.copy(rows = it.rows + (table to row)) }
+            }
+        }
+    }
+
+    private fun load(table: String): SettingsRow? =
+        runCatching {
+            loadRow(table)?.let { SettingsRow.fromRaw(it, decrypt) } ?: SettingsRow.EMPTY
+        }.onFailure { Timber.e(it, "Error loading settings of $table") }
+            .getOrNull()
+
+    companion object {
+        private const val DEFAULT_FLUSH_DELAY_MILLIS = 200L
+    }
+}
@@ -0,0 +1,48 @@
+package mega.privacy.android.app.data.database
+
+import android.database.sqlite.SQLiteDatabase
+import android.database.sqlite.SQLiteStatement
+
+/**
+ * Cache of compiled statements of a database, keyed by their SQL.
+ *
+ * Statements keep their bindings between executions, so they are always cleared before being
+ * handed out, and only one caller can use the cached statements at a time.
+ *
+ * @param database Database which compiles the statements.
+ */
+class StatementCache(private val database: SQLiteDatabase) {
+
+    private val statements = HashMap<String, SQLiteStatement>()
+
+    /**
+     * Runs a block with the compiled statement of some SQL, compiling it the first time.
+     *
+     * @param sql   SQL of the statement, with "?" for every parameter.
+     * @param block Block which binds the parameters and executes the statement.
+     * @return The result of the block.
+     */
+    fun <T> use(sql: String, block: (SQLiteStatement) -> T): T = synchronized(statements) {
+        val statement = statements.getOrPut(sql) { database.compileStatement(sql) }
+        statement.clearBindings()
+        block(statement)
+    }
+
+    /**
+     * Closes and removes all the cached statements.
+     */
+    fun clear() = synchronized(statements) {
+        statements.values.forEach { it.close() }
+        statements.clear()
+    }
+}
+
+/**
+ * Binds a string or, if it is null, a null value.
+ *
+ * @param index Index of the parameter, starting at 1.
+ * @param value Value to bind.
+ */
+fun SQLiteStatement.bindStringOrNull(index: Int, value: String?) {
+    if (value == null) bindNull(index) else bindString(index, value)
+}
@@ -7,6 +7,7 @@ import mega.privacy.android.app.utils.CacheFolderManager
 import mega.privacy.android.app.utils.FileUtil
 import mega.privacy.android.app.utils.MegaNodeUtil.getThumbnailFileName
 import mega.privacy.android.app.utils.Util
+import mega.privacy.android.data.cache.DiskCacheManager
 import mega.privacy.android.data.gateway.CacheFolderGateway
 import nz.mega.sdk.MegaNode
 import timber.log.Timber
@@ -21,10 +22,12 @@ import javax.inject.Inject
  *
  * @property context ApplicationContext
  * @property megaThreadPoolExecutor ThreadPoolExecutor
+ * @property diskCacheManager DiskCacheManager
  */
 class CacheFolderFacade @Inject constructor(
     @ApplicationContext private val context: Context,
     private val megaThreadPoolExecutor: ThreadPoolExecutor,
+    private val diskCacheManager: DiskCacheManager,
 ) : CacheFolderGateway {
 
     companion object {
@@ -101,6 +104,7 @@ class CacheFolderFacade @Inject constructor(
             e.printStackTrace()
             Timber.e("Exception deleting private cache", e)
         }
+        diskCacheManager.clear()
         clearPublicCache()
     }
 
@@ -1,11 +1,15 @@
 package mega.privacy.android.app.data.repository
 
 import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineStart
 import kotlinx.coroutines.async
+import kotlinx.coroutines.channels.Channel
 import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.channelFlow
 import kotlinx.coroutines.flow.filterIsInstance
 import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.flow.mapNotNull
+import kotlinx.coroutines.launch
 import kotlinx.coroutines.suspendCancellableCoroutine
 import kotlinx.coroutines.withContext
 import mega.privacy.android.data.gateway.api.MegaApiGateway
@@ -20,8 +24,11 @@ import mega.privacy.android.data.mapper.FileTypeInfoMapper
 import mega.privacy.android.data.mapper.ImageMapper
 import mega.privacy.android.data.mapper.NodeUpdateMapper
 import mega.privacy.android.data.mapper.VideoMapper
+import mega.privacy.android.domain.entity.ImageFileTypeInfo
+import mega.privacy.android.domain.entity.VideoFileTypeInfo
 import mega.privacy.android.domain.entity.node.NodeUpdate
 import mega.privacy.android.domain.entity.photos.Photo
+import mega.privacy.android.domain.entity.photos.PhotosChange
 import mega.privacy.android.domain.qualifier.IoDispatcher
 import mega.privacy.android.domain.repository.PhotosRepository
 import nz.mega.sdk.MegaApiAndroid
@@ -84,6 +91,97 @@ class DefaultPhotosRepository @Inject constructor(
                 nodeUpdateMapper(nodeList)
             }
 
+    override fun monitorPhotos(): Flow<PhotosChange> = channelFlow {
+        // Node updates received during the first search are applied right after it
+        val nodeUpdates = Channel<List<MegaNode>>(Channel.UNLIMITED)
+        launch(start = CoroutineStart.UNDISPATCHED) {
+            megaApiFacade.globalUpdates
+                .filterIsInstance<GlobalUpdate.OnNodesUpdate>()
+                .mapNotNull { it.nodeList?.toList() }
+                .collect { nodeUpdates.send(it) }
+        }
+
+        val index = PhotoIndex()
+        val folderInCloudDrive = HashMap<Long, Boolean>()
+        index.reset(searchMegaPhotos())
+        send(index.takeChange() ?: PhotosChange())
+
+        for (nodes in nodeUpdates) {
+            applyNodeUpdates(index, folderInCloudDrive, nodes)
+            while (true) {
+                val pending = nodeUpdates.tryReceive().getOrNull() ?: break
+                applyNodeUpdates(index, folderInCloudDrive, pending)
+            }
+            index.takeChange()?.let { send(it) }
+        }
+    }
+
+    /**
+     * Applies a node update batch to the photo index.
+     *
+     * Only the updated files are mapped again. A moved folder is the exception: the SDK does
+     * not report its descendants, so the whole account is searched again.
+     *
+     * @param folderInCloudDrive Folders already known to be in the cloud drive or not, by handle.
+     * It is cleared when a folder changes, as the folders below it may have moved.
+     */
+    private suspend fun applyNodeUpdates(
+        index: PhotoIndex,
+        folderInCloudDrive: MutableMap<Long, Boolean>,
+        nodes: List<MegaNode>,
+    ) = withContext(ioDispatcher) {
+        if (nodes.any { it.isFolder }) folderInCloudDrive.clear()
+        if (nodes.any { it.isFolder && it.hasChanged(MegaNode.CHANGE_TYPE_PARENT) }) {
+            index.reset(searchMegaPhotos())
+            return@withContext
+        }
+
+        val rootHandle = megaApiFacade.getRootNode()?.handle ?: return@withContext
+        nodes.filter { it.isFile }.forEach { node ->
+            val photo = node.takeUnless { it.hasChanged(MegaNode.CHANGE_TYPE_REMOVED) }
+                ?.takeIf { isInCloudDrive(it, rootHandle, folderInCloudDrive) }
+                ?.let { mapMegaNodeToPhoto(it) }
+            photo?.let { index.put(it) } ?: index.remove(node.handle)
+        }
+    }
+
+    /**
+     * Checks if a node is below the root node, so not in the rubbish bin nor in an incoming share,
+     * as the nodes found by [searchMegaPhotos].
+     *
+     * The parent chain is only walked up to the first folder found in [folderInCloudDrive], and
+     * the result is stored for every folder walked, so the siblings of the node are resolved by
+     * a single lookup.
+     */
+    private suspend fun isInCloudDrive(
+        node: MegaNode,
+        rootHandle: Long,
+        folderInCloudDrive: MutableMap<Long, Boolean>,
+    ): Boolean {
+        val walked = mutableListOf<Long>()
+        var parent = megaApiFacade.getParentNode(node)
+        var inCloudDrive = false
+        while (parent != null) {
+            val known = folderInCloudDrive[parent.handle]
+                ?: if (parent.handle == rootHandle) true else null
+            if (known != null) {
+                inCloudDrive = known
+                break
+            }
+            walked.add(parent.handle)
+            parent = megaApiFacade.getParentNode(parent)
+        }
+        walked.forEach { folderInCloudDrive[it] = inCloudDrive }
+        return inCloudDrive
+    }
+
+    private fun mapMegaNodeToPhoto(megaNode: MegaNode): Photo? =
+        when (fileTypeInfoMapper(megaNode)) {
+            is ImageFileTypeInfo -> mapMegaNodeToImage(megaNode)
+            is VideoFileTypeInfo -> mapMegaNodeToVideo(megaNode)
+            else -> null
+        }
+
     override suspend fun searchMegaPhotos(): List<Photo> = withContext(ioDispatcher) {
         val images = async { mapMegaNodesToImages(searchImages()) }
         val videos = async { mapMegaNodesToVideos(searchVideos()) }
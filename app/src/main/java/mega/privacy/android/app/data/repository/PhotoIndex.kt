@@ -0,0 +1,79 @@
+package mega.privacy.android.app.data.repository
+
+import mega.privacy.android.domain.entity.photos.Photo
+import mega.privacy.android.domain.entity.photos.PhotosChange
+
+/**
+ * Photos of the account by node handle, updated one node at a time.
+ *
+ * The index remembers which photos were touched since the last [takeChange], so only the photos
+ * which actually changed are emitted, and a node update batch which does not touch any photo
+ * does not cause a new emission. Not thread safe, it is owned by one collector.
+ */
+internal class PhotoIndex {
+
+    private val photos = HashMap<Long, Photo>()
+
+    /**
+     * Whether each photo touched since the last [takeChange] was indexed before being touched.
+     */
+    private val touched = LinkedHashMap<Long, Boolean>()
+
+    /**
+     * Replaces all the photos.
+     *
+     * @param newPhotos Photos of the account.
+     */
+    fun reset(newPhotos: List<Photo>) {
+        val newIndex = newPhotos.associateBy { it.id }
+        photos.keys.filter { it !in newIndex }.forEach { remove(it) }
+        newIndex.values.forEach { put(it) }
+    }
+
+    /**
+     * Adds or replaces a photo.
+     *
+     * @param photo New or updated photo.
+     */
+    fun put(photo: Photo) {
+        if (photos[photo.id] == photo) return
+
+        touched.putIfAbsent(photo.id, photo.id in photos)
+        photos[photo.id] = photo
+    }
+
+    /**
+     * Removes a photo.
+     *
+     * @param id Node handle.
+     */
+    fun remove(id: Long) {
+        if (id !in photos) return
+
+        touched.putIfAbsent(id, true)
+        photos.remove(id)
+    }
+
+    /**
+     * Gets the changes since the previous call and starts recording again.
+     *
+     * @return The changes, or null if no photo changed.
+     */
+    fun takeChange(): PhotosChange? {
+        val added = mutableListOf<Photo>()
+        val updated = mutableListOf<Photo>()
+        val removed = mutableListOf<Long>()
+        touched.forEach { (id, wasIndexed) ->
+            val photo = photos[id]
+            when {
+                photo == null -> if (wasIndexed) removed.add(id)
+                wasIndexed -> updated.add(photo)
+                else -> added.add(photo)
+            }
+        }
+        touched.clear()
+
+        return PhotosChange(added, updated, removed)
+            .takeUnless { added.isEmpty() && updated.isEmpty() && removed.isEmpty() }
+    }
+}
@@ -70,7 +70,10 @@ abstract class LoggingModule {
         @SdkLogger
         @Provides
         fun provideSdkFileLogger(): LogWriterGateway =
-            FileLogWriter(LoggerFactory.getLogger(TimberMegaLogger::class.java))
+            FileLogWriter(
+                logger = LoggerFactory.getLogger(TimberMegaLogger::class.java),
+                timestampPattern = "dd-MM HH:mm:ss"
+            )
 
         @Singleton
         @ChatLogger
@@ -0,0 +1,30 @@
+package mega.privacy.android.app.domain.usecase
+
+import mega.privacy.android.domain.entity.CameraUploadMedia
+import nz.mega.sdk.MegaNode
+
+/**
+ * Camera upload media partitioned by what has to be done with them
+ *
+ * @property pending  Media without any node with the same fingerprint, to upload
+ * @property copyOnly Media with a node with the same fingerprint outside the upload folder, to copy
+ * @property uploaded Media with a node with the same fingerprint in the upload folder
+ */
+data class CameraUploadNodeResolution(
+    val pending: List<ResolvedCameraUploadMedia>,
+    val copyOnly: List<ResolvedCameraUploadMedia>,
+    val uploaded: List<ResolvedCameraUploadMedia>,
+)
+
+/**
+ * Camera upload media with its fingerprint and the node with the same fingerprint, if any
+ *
+ * @property media       Camera upload media
+ * @property fingerprint Fingerprint of the local file, or null if it could not be computed
+ * @property node        Node with the same fingerprint, or null if there is none
+ */
+data class ResolvedCameraUploadMedia(
+    val media: CameraUploadMedia,
+    val fingerprint: String?,
+    val node: MegaNode?,
+)
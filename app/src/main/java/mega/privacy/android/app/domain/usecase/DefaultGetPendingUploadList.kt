@@ -11,7 +11,6 @@ import mega.privacy.android.domain.usecase.GetGPSCoordinates
 import mega.privacy.android.domain.usecase.MediaLocalPathExists
 import mega.privacy.android.domain.usecase.ShouldCompressVideo
 import mega.privacy.android.domain.usecase.UpdateCameraUploadTimeStamp
-import nz.mega.sdk.MegaNode
 import timber.log.Timber
 import java.io.File
 import java.util.Queue
@@ -22,13 +21,11 @@ import javax.inject.Inject
  */
 
 class DefaultGetPendingUploadList @Inject constructor(
-    private val getNodeFromCloud: GetNodeFromCloud,
+    private val resolveCameraUploadNodes: ResolveCameraUploadNodes,
     private val getNodeByHandle: GetNodeByHandle,
-    private val getParentMegaNode: GetParentMegaNode,
     private val getPrimarySyncHandle: GetPrimarySyncHandle,
     private val getSecondarySyncHandle: GetSecondarySyncHandle,
     private val updateTimeStamp: UpdateCameraUploadTimeStamp,
-    private val getFingerprint: GetFingerprint,
     private val mediaLocalPathExists: MediaLocalPathExists,
     private val shouldCompressVideo: ShouldCompressVideo,
     private val getGPSCoordinates: GetGPSCoordinates,
@@ -46,6 +43,7 @@ class DefaultGetPendingUploadList @Inject constructor(
         Timber.d("Upload to parent node with handle: $parentNodeHandle")
         val type = if (isVideo) SyncRecordType.TYPE_VIDEO else SyncRecordType.TYPE_PHOTO
 
+        val newMedia = mutableListOf<CameraUploadMedia>()
         while (mediaList.size > 0) {
             yield()
             val media = mediaList.poll() ?: continue
@@ -53,79 +51,79 @@ class DefaultGetPendingUploadList @Inject constructor(
                 Timber.d("Skip media with timestamp: ${media.timestamp}")
                 continue
             }
+            newMedia.add(media)
+        }
+
+        val parentNode = try {
+            getNodeByHandle(parentNodeHandle)
+        } catch (e: Exception) {
+            Timber.e(e)
+            null
+        }
+        val resolution = resolveCameraUploadNodes(newMedia, parentNode)
 
+        resolution.pending.forEach { (media, localFingerPrint) ->
+            yield()
             val sourceFile = media.filePath?.let { File(it) }
-            val localFingerPrint = media.filePath?.let { getFingerprint(it) }
-            var nodeExists: MegaNode? = null
-            try {
-                nodeExists = getNodeByHandle(parentNodeHandle)?.let { node ->
-                    localFingerPrint?.let { fingerprint ->
-                        getNodeFromCloud(fingerprint, node)
-                    }
-                }
-            } catch (e: Exception) {
-                Timber.e(e)
+            val gpsData = sourceFile?.let {
+                getGPSCoordinates(
+                    it.absolutePath,
+                    isVideo
+                )
             }
+            val record = SyncRecord(
+                0,
+                sourceFile?.absolutePath,
+                null,
+                localFingerPrint,
+                null,
+                media.timestamp,
+                sourceFile?.name,
+                gpsData?.second,
+                gpsData?.first,
+                if (shouldCompressVideo() && type == SyncRecordType.TYPE_VIDEO)
+                    SyncStatus.STATUS_TO_COMPRESS.value
+                else
+                    SyncStatus.STATUS_PENDING.value,
+                syncRecordTypeIntMapper(type),
+                null,
+                false,
+                isSecondary
+            )
+            Timber.d("Add local file with timestamp: ${record.timestamp} to pending list to upload")
+            pendingList.add(record)
+        }
 
-            if (nodeExists == null) {
-                Timber.d("Possible node with same fingerprint is null")
-                val gpsData = sourceFile?.let {
-                    getGPSCoordinates(
-                        it.absolutePath,
-                        isVideo
-                    )
-                }
-                val record = SyncRecord(
-                    0,
-                    sourceFile?.absolutePath,
-                    null,
-                    localFingerPrint,
-                    null,
-                    media.timestamp,
-                    sourceFile?.name,
-                    gpsData?.second,
-                    gpsData?.first,
-                    if (shouldCompressVideo() && type == SyncRecordType.TYPE_VIDEO)
-                        SyncStatus.STATUS_TO_COMPRESS.value
-                    else
-                        SyncStatus.STATUS_PENDING.value,
-                    syncRecordTypeIntMapper(type),
-                    null,
-                    false,
-                    isSecondary
-                )
-                Timber.d("Add local file with timestamp: ${record.timestamp} to pending list to upload")
-                pendingList.add(record)
+        resolution.copyOnly.forEach { (media, _, node) ->
+            val nodeExists = node ?: return@forEach
+            Timber.d("Possible node with same fingerprint with handle: ${nodeExists.handle}")
+            val record = SyncRecord(
+                0,
+                media.filePath,
+                null,
+                nodeExists.originalFingerprint,
+                nodeExists.fingerprint,
+                media.timestamp,
+                media.filePath?.let { File(it).name },
+                nodeExists.longitude.toFloat(),
+                nodeExists.latitude.toFloat(),
+                SyncStatus.STATUS_PENDING.value,
+                syncRecordTypeIntMapper(type),
+                nodeExists.handle,
+                true,
+                isSecondary
+            )
+            Timber.d("Add local file with handle: ${record.nodeHandle} to pending list to copy")
+            pendingList.add(record)
+        }
+
+        resolution.uploaded.forEach { (media) ->
+            if (isVideo) {
+                updateTimeStamp(media.timestamp, SyncTimeStamp.PRIMARY_VIDEO)
+                updateTimeStamp(media.timestamp, SyncTimeStamp.SECONDARY_VIDEO)
             } else {
-                Timber.d("Possible node with same fingerprint with handle: ${nodeExists.handle}")
-                if (getParentMegaNode(nodeExists)?.handle != parentNodeHandle) {
-                    val record = SyncRecord(
-                        0,
-                        media.filePath,
-                        null,
-                        nodeExists.originalFingerprint,
-                        nodeExists.fingerprint,
-                        media.timestamp,
-                        sourceFile?.name,
-                        nodeExists.longitude.toFloat(),
-                        nodeExists.latitude.toFloat(),
-                        SyncStatus.STATUS_PENDING.value,
-                        syncRecordTypeIntMapper(type),
-                        nodeExists.handle,
-                        true,
-                        isSecondary
-                    )
-                    Timber.d("Add local file with handle: ${record.nodeHandle} to pending list to copy")
-                    pendingList.add(record)
-                } else {
-                    if (isVideo) {
-                        updateTimeStamp(media.timestamp, SyncTimeStamp.PRIMARY_VIDEO)
-                        updateTimeStamp(media.timestamp, SyncTimeStamp.SECONDARY_VIDEO)
-                    } else {
-                        updateTimeStamp(media.timestamp, SyncTimeStamp.PRIMARY_PHOTO)
-                        updateTimeStamp(media.timestamp, SyncTimeStamp.SECONDARY_PHOTO)
-                    }
-                }
+                updateTimeStamp(media.timestamp, SyncTimeStamp.PRIMARY_PHOTO)
+                updateTimeStamp(media.timestamp, SyncTimeStamp.SECONDARY_PHOTO)
             }
         }
         return pendingList
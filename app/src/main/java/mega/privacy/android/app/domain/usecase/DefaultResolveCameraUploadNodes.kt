@@ -0,0 +1,155 @@
+package mega.privacy.android.app.domain.usecase
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
+import kotlinx.coroutines.withContext
+import kotlinx.coroutines.yield
+import mega.privacy.android.domain.entity.CameraUploadMedia
+import mega.privacy.android.domain.entity.SortOrder
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import nz.mega.sdk.MegaNode
+import timber.log.Timber
+import javax.inject.Inject
+
+/**
+ * Resolves a whole batch of camera upload media at once
+ *
+ * The files are fingerprinted in parallel, with at most [FINGERPRINT_PARALLELISM] at a time.
+ * The upload folder and its subfolders are then fetched once and indexed by original
+ * fingerprint and by fingerprint, so matching a file against the upload folder is a map lookup.
+ * Only the fingerprints missing from the index are looked for in the rest of the account, once
+ * per distinct fingerprint and in parallel, with at most [LOOKUP_PARALLELISM] at a time.
+ * This follows the order of [DefaultGetNodeFromCloud] without repeating its lookups in the
+ * upload folder for every file.
+ */
+class DefaultResolveCameraUploadNodes @Inject constructor(
+    private val getFingerprint: GetFingerprint,
+    private val getChildrenNode: GetChildrenNode,
+    private val getNodesByOriginalFingerprint: GetNodesByOriginalFingerprint,
+    private val getNodeByFingerprint: GetNodeByFingerprint,
+    @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
+) : ResolveCameraUploadNodes {
+
+    override suspend fun invoke(
+        mediaList: List<CameraUploadMedia>,
+        parentNode: MegaNode?,
+    ): CameraUploadNodeResolution {
+        val fingerprints = getFingerprints(mediaList)
+        val folderIndex = parentNode?.let { getFolderIndex(it) }.orEmpty()
+        val accountNodes = if (parentNode != null) {
+            getNodesInAccount(fingerprints.filterNotNull().filterNot(folderIndex::containsKey))
+        } else {
+            emptyMap()
+        }
+
+        val pending = mutableListOf<ResolvedCameraUploadMedia>()
+        val copyOnly = mutableListOf<ResolvedCameraUploadMedia>()
+        val uploaded = mutableListOf<ResolvedCameraUploadMedia>()
+
+        mediaList.forEachIndexed { index, media ->
+            yield()
+            val fingerprint = fingerprints[index]
+            val indexedNode = fingerprint?.let { folderIndex[it] }
+            val accountNode = fingerprint?.let { accountNodes[it] }
+            when {
+                indexedNode?.isChild == true ->
+                    uploaded.add(ResolvedCameraUploadMedia(media, fingerprint, indexedNode.node))
+                indexedNode != null ->
+                    copyOnly.add(ResolvedCameraUploadMedia(media, fingerprint, indexedNode.node))
+                accountNode != null ->
+                    copyOnly.add(ResolvedCameraUploadMedia(media, fingerprint, accountNode))
+                else -> pending.add(ResolvedCameraUploadMedia(media, fingerprint, null))
+            }
+        }
+
+        Timber.d("Resolved ${mediaList.size} media: ${pending.size} pending, ${copyOnly.size} to copy, ${uploaded.size} uploaded")
+        return CameraUploadNodeResolution(pending, copyOnly, uploaded)
+    }
+
+    private suspend fun getFingerprints(mediaList: List<CameraUploadMedia>): List<String?> =
+        withContext(ioDispatcher) {
+            val permits = Semaphore(FINGERPRINT_PARALLELISM)
+            mediaList.map { media ->
+                async {
+                    permits.withPermit { media.filePath?.let { getFingerprint(it) } }
+                }
+            }.awaitAll()
+        }
+
+    /**
+     * Gets the nodes under a folder, at any depth, by original fingerprint and by fingerprint.
+     * A node found by original fingerprint is preferred, as [DefaultGetNodeFromCloud] does,
+     * and so is a direct child of the folder over a node of its subfolders.
+     */
+    private suspend fun getFolderIndex(parentNode: MegaNode): Map<String, IndexedNode> {
+        val nodes = mutableListOf<IndexedNode>()
+        val folders = ArrayDeque(listOf(parentNode))
+        while (folders.isNotEmpty()) {
+            val folder = folders.removeFirst()
+            runCatching { getChildrenNode(folder, SortOrder.ORDER_NONE) }
+                .onFailure { Timber.e(it) }
+                .getOrDefault(emptyList())
+                .forEach { child ->
+                    if (child.isFolder) {
+                        folders.addLast(child)
+                    } else {
+                        nodes.add(IndexedNode(child, isChild = folder === parentNode))
+                    }
+                }
+        }
+
+        val index = HashMap<String, IndexedNode>(nodes.size * 2)
+        nodes.forEach { indexed ->
+            indexed.node.originalFingerprint?.let { index.putIfAbsent(it, indexed) }
+        }
+        nodes.forEach { indexed -> indexed.node.fingerprint?.let { index.putIfAbsent(it, indexed) } }
+        return index
+    }
+
+    /**
+     * Looks for each distinct fingerprint in the whole account, first by original fingerprint
+     * and then by fingerprint.
+     */
+    private suspend fun getNodesInAccount(fingerprints: List<String>): Map<String, MegaNode> =
+        withContext(ioDispatcher) {
+            val permits = Semaphore(LOOKUP_PARALLELISM)
+            fingerprints.distinct().map { fingerprint ->
+                async {
+                    permits.withPermit { fingerprint to getNodeInAccount(fingerprint) }
+                }
+            }.awaitAll()
+        }.mapNotNull { (fingerprint, node) -> node?.let { fingerprint to it } }.toMap()
+
+    private suspend fun getNodeInAccount(fingerprint: String): MegaNode? =
+        runCatching {
+            getNodesByOriginalFingerprint(fingerprint, null)
+                ?.takeIf { it.size() > 0 }
+                ?.get(0)
+                ?: getNodeByFingerprint(fingerprint)
+        }.onFailure { Timber.e(it) }
+            .getOrNull()
+
+    /**
+     * A node of the upload folder index
+     *
+     * @property node    The node
+     * @property isChild True if the node is a direct child of the upload folder, false if it is
+     * in one of its subfolders
+     */
+    private data class IndexedNode(val node: MegaNode, val isChild: Boolean)
+
+    companion object {
+        /**
+         * Maximum number of files fingerprinted at the same time
+         */
+        const val FINGERPRINT_PARALLELISM = 4
+
+        /**
+         * Maximum number of fingerprints looked for in the account at the same time
+         */
+        const val LOOKUP_PARALLELISM = 4
+    }
+}
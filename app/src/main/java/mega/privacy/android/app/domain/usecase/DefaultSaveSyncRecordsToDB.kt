@@ -1,6 +1,7 @@
 package mega.privacy.android.app.domain.usecase
 
 import kotlinx.coroutines.yield
+import mega.privacy.android.app.sync.camerauploads.CameraUploadFolderIndex
 import mega.privacy.android.app.utils.Util
 import mega.privacy.android.app.utils.wrapper.TimeWrapper
 import mega.privacy.android.domain.entity.SyncRecord
@@ -23,7 +24,7 @@ class DefaultSaveSyncRecordsToDB @Inject constructor(
     private val getSyncRecordByFingerprint: GetSyncRecordByFingerprint,
     private val deleteSyncRecordByLocalPath: DeleteSyncRecordByLocalPath,
     private val keepFileNames: KeepFileNames,
-    private val getChildMegaNode: GetChildMegaNode,
+    private val cameraUploadFolderIndex: CameraUploadFolderIndex,
     private val fileNameExists: FileNameExists,
     private val saveSyncRecord: SaveSyncRecord,
     private val timeWrapper: TimeWrapper,
@@ -34,7 +35,8 @@ class DefaultSaveSyncRecordsToDB @Inject constructor(
         primaryUploadNode: MegaNode?,
         secondaryUploadNode: MegaNode?,
         rootPath: String?,
-    ) {
+    ): List<SyncRecord> {
+        val savedRecords = mutableListOf<SyncRecord>()
         for (file in list) {
             run {
                 Timber.d("Handle with local file which timestamp is: %s", file.timestamp)
@@ -84,7 +86,7 @@ class DefaultSaveSyncRecordsToDB @Inject constructor(
                         fileName = getNoneDuplicatedDeviceFileName(tempFileName, photoIndex)
                         Timber.d("Keep file name as in device, name index is: %s", photoIndex)
                         photoIndex++
-                        inCloud = getChildMegaNode(parent, fileName) != null
+                        inCloud = cameraUploadFolderIndex.getChildByName(parent, fileName) != null
                         fileName?.let {
                             inDatabase = fileNameExists(it, isSecondary)
                         }
@@ -97,7 +99,7 @@ class DefaultSaveSyncRecordsToDB @Inject constructor(
                             photoIndex)
                         Timber.d("Use MEGA name, name index is: %s", photoIndex)
                         photoIndex++
-                        inCloud = getChildMegaNode(parent, fileName) != null
+                        inCloud = cameraUploadFolderIndex.getChildByName(parent, fileName) != null
                         inDatabase = fileNameExists(fileName, isSecondary)
                     } while (inCloud || inDatabase)
                 }
@@ -114,8 +116,10 @@ class DefaultSaveSyncRecordsToDB @Inject constructor(
                 file.newPath = newPath
                 Timber.d("Save file to database, new path is: %s", newPath)
                 saveSyncRecord(file)
+                savedRecords.add(file)
             }
         }
+        return savedRecords
     }
 
     private fun getLastModifiedTime(file: SyncRecord): Long {
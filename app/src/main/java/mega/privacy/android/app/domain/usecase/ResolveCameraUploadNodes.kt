@@ -0,0 +1,22 @@
+package mega.privacy.android.app.domain.usecase
+
+import mega.privacy.android.domain.entity.CameraUploadMedia
+import nz.mega.sdk.MegaNode
+
+/**
+ * Use case to find the nodes with the same fingerprint as a batch of camera upload media
+ */
+fun interface ResolveCameraUploadNodes {
+
+    /**
+     * Invoke
+     *
+     * @param mediaList  Media to resolve
+     * @param parentNode Upload folder, or null if it does not exist
+     * @return the media partitioned in pending, copy only and already uploaded
+     */
+    suspend operator fun invoke(
+        mediaList: List<CameraUploadMedia>,
+        parentNode: MegaNode?,
+    ): CameraUploadNodeResolution
+}
@@ -13,12 +13,12 @@ interface SaveSyncRecordsToDB {
     /**
      * Invoke
      *
-     * @return
+     * @return the sync records saved, with their final file names
      */
     suspend operator fun invoke(
         list: List<SyncRecord>,
         primaryUploadNode: MegaNode?,
         secondaryUploadNode: MegaNode?,
         rootPath: String?,
-    )
+    ): List<SyncRecord>
 }
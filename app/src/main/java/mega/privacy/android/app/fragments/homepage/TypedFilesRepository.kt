@@ -7,6 +7,7 @@ import dagger.hilt.android.qualifiers.ApplicationContext
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.withContext
 import mega.privacy.android.data.qualifier.MegaApi
+import mega.privacy.android.data.thumbnail.ThumbnailRequestScheduler
 import nz.mega.sdk.MegaApiAndroid
 import nz.mega.sdk.MegaCancelToken
 import java.util.*
@@ -14,7 +15,8 @@ import javax.inject.Inject
 
 class TypedFilesRepository @Inject constructor(
     @ApplicationContext val context: Context,
-    @MegaApi private val megaApi: MegaApiAndroid
+    @MegaApi private val megaApi: MegaApiAndroid,
+    private val thumbnailRequestScheduler: ThumbnailRequestScheduler,
 ) {
     /** Live Data to notify the query result*/
     var fileNodeItems: LiveData<List<NodeItem>> = MutableLiveData()
@@ -34,10 +36,18 @@ class TypedFilesRepository @Inject constructor(
      */
     suspend fun getFiles(cancelToken: MegaCancelToken, type: Int, order: Int) {
         preserveSelectedItems()
+        if (::nodesFetcher.isInitialized) nodesFetcher.cancelThumbnailRequests()
 
         // Create a node fetcher for the new request, and link fileNodeItems to its result.
         // Then the result of any previous NodesFetcher will be ignored
-        nodesFetcher = TypedNodesFetcher(context, megaApi, type, order, selectedNodesMap)
+        nodesFetcher = TypedNodesFetcher(
+            context,
+            megaApi,
+            type,
+            order,
+            selectedNodesMap,
+            thumbnailRequestScheduler
+        )
         fileNodeItems = nodesFetcher.result
 
         withContext(Dispatchers.IO) {
@@ -45,6 +55,15 @@ class TypedFilesRepository @Inject constructor(
         }
     }
 
+    /**
+     * Downloads first the thumbnails of the visible items.
+     *
+     * @param handles Handles of the visible nodes
+     */
+    fun onVisibleItemsChanged(handles: List<Long>) {
+        if (::nodesFetcher.isInitialized) nodesFetcher.onVisibleItemsChanged(handles)
+    }
+
     fun emitFiles() {
         nodesFetcher.result.value?.let {
             nodesFetcher.result.value = it
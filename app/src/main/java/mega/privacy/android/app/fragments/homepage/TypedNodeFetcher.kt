@@ -4,18 +4,18 @@ import android.content.Context
 import android.os.Handler
 import android.os.Looper
 import androidx.lifecycle.MutableLiveData
-import kotlinx.coroutines.delay
-import mega.privacy.android.app.listeners.OptionalMegaRequestListenerInterface
 import mega.privacy.android.app.utils.CacheFolderManager
 import mega.privacy.android.app.utils.FileUtil
 import mega.privacy.android.app.utils.Util
+import mega.privacy.android.data.thumbnail.ThumbnailRequestScheduler
+import mega.privacy.android.data.thumbnail.ThumbnailRequestWindow
 import nz.mega.sdk.MegaApiAndroid
 import nz.mega.sdk.MegaApiJava
 import nz.mega.sdk.MegaCancelToken
-import nz.mega.sdk.MegaError
 import nz.mega.sdk.MegaNode
 import java.io.File
 import java.time.format.DateTimeFormatter.ofPattern
+import java.util.concurrent.ConcurrentHashMap
 
 /**
  * Data fetcher for fetching typed files
@@ -26,6 +26,7 @@ open class TypedNodesFetcher(
     private val type: Int = MegaApiJava.FILE_TYPE_DEFAULT,
     private val order: Int = MegaApiJava.ORDER_DEFAULT_ASC,
     private val selectedNodesMap: LinkedHashMap<Any, out NodeItem>,
+    thumbnailRequestScheduler: ThumbnailRequestScheduler,
 ) {
     val result = MutableLiveData<List<NodeItem>>()
 
@@ -44,6 +45,15 @@ open class TypedNodesFetcher(
 
     val getThumbnailNodes = mutableMapOf<MegaNode, String>()
 
+    /** Positions of the nodes in the list, by handle. Read from the main thread when scrolling */
+    private val positions = ConcurrentHashMap<Long, Int>()
+
+    private val thumbnailRequests = ThumbnailRequestWindow(
+        thumbnailRequestScheduler,
+        ThumbnailRequestScheduler.Type.THUMBNAIL,
+        ::onThumbnailLoaded
+    )
+
     /**
      * Throttle for updating the LiveData
      */
@@ -95,6 +105,7 @@ open class TypedNodesFetcher(
             val dateString = ofPattern("MMMM uuuu").format(Util.fromEpoch(node.modificationTime))
             val selected = selectedNodesMap[node.handle]?.selected ?: false
 
+            positions[node.handle] = fileNodesMap.size
             fileNodesMap[node.handle] = NodeItem(
                 node,
                 -1,
@@ -110,26 +121,39 @@ open class TypedNodesFetcher(
         getThumbnailsFromServer()
     }
 
-    suspend fun getThumbnailsFromServer() {
-        for ((key, value) in getThumbnailNodes) {
-            megaApi.getThumbnail(
-                key,
-                value,
-                OptionalMegaRequestListenerInterface(onRequestFinish = { megaRequest, megaError ->
-                    if (megaError.errorCode == MegaError.API_OK) {
-                        megaRequest.let {
-                            fileNodesMap[it.nodeHandle]?.apply {
-                                thumbnail = getThumbnailFile(key)
-                                uiDirty = true
-                            }
-                        }
-                        refreshLiveData()
-                    }
-                }))
-
-            // Throttle the getThumbnail call, or the UI would be non-responsive
-            delay(GET_THUMBNAIL_THROTTLE)
+    /**
+     * Requests the missing thumbnails. They are downloaded around the visible items, see
+     * [onVisibleItemsChanged].
+     */
+    fun getThumbnailsFromServer() {
+        thumbnailRequests.submit(getThumbnailNodes.mapNotNull { (node, path) ->
+            positions[node.handle]?.let { ThumbnailRequestWindow.Request(it, node, path) }
+        })
+    }
+
+    /**
+     * Downloads first the thumbnails of the visible items, and cancels the ones far from them.
+     *
+     * @param handles Handles of the visible nodes
+     */
+    fun onVisibleItemsChanged(handles: List<Long>) {
+        val visiblePositions = handles.mapNotNull { positions[it] }
+        if (visiblePositions.isEmpty()) return
+
+        thumbnailRequests.setVisibleRange(visiblePositions.minOf { it }, visiblePositions.maxOf { it })
+    }
+
+    /**
+     * Cancels the thumbnail downloads not started yet.
+     */
+    fun cancelThumbnailRequests() = thumbnailRequests.cancel()
+
+    private fun onThumbnailLoaded(handle: Long) {
+        fileNodesMap[handle]?.apply {
+            thumbnail = node?.let { getThumbnailFile(it) }
+            uiDirty = true
         }
+        refreshLiveData()
     }
 
     /**
@@ -145,6 +169,5 @@ open class TypedNodesFetcher(
     companion object {
         const val UPDATE_DATA_THROTTLE_TIME =
             500L   // 500ms, user can see the update of photos instantly
-        const val GET_THUMBNAIL_THROTTLE = 10L // 10ms
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package mega.privacy.android.app.fragments.homepage
 
 import androidx.recyclerview.widget.DefaultItemAnimator
+import androidx.recyclerview.widget.LinearLayoutManager
+import androidx.recyclerview.widget.ListAdapter
 import androidx.recyclerview.widget.RecyclerView
 
 /*
@@ -14,3 +16,19 @@ fun disableRecyclerViewAnimator(rv: RecyclerView, duration: Long = 100) {
     rv.itemAnimator = null
     rv.postDelayed({ rv.itemAnimator = oldAnimator }, duration)
 }
+
+/**
+ * Gets the node handles of the visible items, so their thumbnails are downloaded first.
+ * Items which are not nodes, like headers, are skipped.
+ *
+ * @return the handles of the visible nodes, empty if the adapter does not list node items
+ */
+fun RecyclerView.getVisibleNodeHandles(): List<Long> {
+    val items = (adapter as? ListAdapter<*, *>)?.currentList ?: return emptyList()
+    val layoutManager = layoutManager as? LinearLayoutManager ?: return emptyList()
+    val first = layoutManager.findFirstVisibleItemPosition()
+    val last = minOf(layoutManager.findLastVisibleItemPosition(), items.lastIndex)
+    if (first == RecyclerView.NO_POSITION || first > last) return emptyList()
+
+    return items.subList(first, last + 1).mapNotNull { (it as? NodeItem)?.node?.handle }
+}
@@ -33,6 +33,7 @@ import mega.privacy.android.app.fragments.homepage.NodeGridAdapter
 import mega.privacy.android.app.fragments.homepage.NodeListAdapter
 import mega.privacy.android.app.fragments.homepage.SortByHeaderViewModel
 import mega.privacy.android.app.fragments.homepage.disableRecyclerViewAnimator
+import mega.privacy.android.app.fragments.homepage.getVisibleNodeHandles
 import mega.privacy.android.app.globalmanagement.SortOrderManagement
 import mega.privacy.android.app.main.ManagerActivity
 import mega.privacy.android.app.mediaplayer.miniplayer.MiniAudioPlayerController
@@ -323,6 +324,7 @@ class AudioFragment : Fragment(), HomepageSearchable {
                     callManager { manager ->
                         manager.changeAppBarElevation(recyclerView.canScrollVertically(-1))
                     }
+                    viewModel.onVisibleItemsChanged(recyclerView.getVisibleNodeHandles())
                 }
             })
         }
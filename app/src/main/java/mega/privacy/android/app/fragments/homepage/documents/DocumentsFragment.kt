@@ -36,6 +36,7 @@ import mega.privacy.android.app.fragments.homepage.NodeGridAdapter
 import mega.privacy.android.app.fragments.homepage.NodeListAdapter
 import mega.privacy.android.app.fragments.homepage.SortByHeaderViewModel
 import mega.privacy.android.app.fragments.homepage.disableRecyclerViewAnimator
+import mega.privacy.android.app.fragments.homepage.getVisibleNodeHandles
 import mega.privacy.android.app.main.ManagerActivity
 import mega.privacy.android.app.main.PdfViewerActivity
 import mega.privacy.android.app.mediaplayer.miniplayer.MiniAudioPlayerController
@@ -261,6 +262,7 @@ class DocumentsFragment : Fragment(), HomepageSearchable {
                     callManager { manager ->
                         manager.changeAppBarElevation(recyclerView.canScrollVertically(-1))
                     }
+                    viewModel.onVisibleItemsChanged(recyclerView.getVisibleNodeHandles())
                 }
             })
             clipToPadding = false
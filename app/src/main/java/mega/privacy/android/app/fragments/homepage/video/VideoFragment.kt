@@ -36,6 +36,7 @@ import mega.privacy.android.app.fragments.homepage.NodeItem
 import mega.privacy.android.app.fragments.homepage.NodeListAdapter
 import mega.privacy.android.app.fragments.homepage.SortByHeaderViewModel
 import mega.privacy.android.app.fragments.homepage.disableRecyclerViewAnimator
+import mega.privacy.android.app.fragments.homepage.getVisibleNodeHandles
 import mega.privacy.android.app.globalmanagement.SortOrderManagement
 import mega.privacy.android.app.main.ManagerActivity
 import mega.privacy.android.app.mediaplayer.miniplayer.MiniAudioPlayerController
@@ -162,6 +163,7 @@ class VideoFragment : Fragment(), HomepageSearchable {
                     callManager { manager ->
                         manager.changeAppBarElevation(recyclerView.canScrollVertically(-1))
                     }
+                    viewModel.onVisibleItemsChanged(recyclerView.getVisibleNodeHandles())
                 }
             })
             clipToPadding = false
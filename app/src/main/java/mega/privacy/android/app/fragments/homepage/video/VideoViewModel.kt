@@ -195,6 +195,13 @@ class VideoViewModel @Inject constructor(
 
     fun getRealNodeCount() = items.value?.size?.minus(if (searchMode) 0 else 1) ?: 0
 
+    /**
+     * Downloads first the thumbnails of the visible items.
+     *
+     * @param handles Handles of the visible nodes
+     */
+    fun onVisibleItemsChanged(handles: List<Long>) = repository.onVisibleItemsChanged(handles)
+
     override fun onCleared() {
         LiveEventBus.get(EVENT_NODES_CHANGE, Boolean::class.java)
             .removeObserver(nodesChangeObserver)
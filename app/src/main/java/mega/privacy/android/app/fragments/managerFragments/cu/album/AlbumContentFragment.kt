@@ -36,6 +36,7 @@ import mega.privacy.android.app.fragments.homepage.ActionModeViewModel
 import mega.privacy.android.app.fragments.homepage.EventObserver
 import mega.privacy.android.app.fragments.homepage.ItemOperationViewModel
 import mega.privacy.android.app.fragments.homepage.getRoundingParams
+import mega.privacy.android.app.fragments.homepage.getVisibleNodeHandles
 import mega.privacy.android.app.fragments.homepage.photos.ScaleGestureHandler
 import mega.privacy.android.app.fragments.homepage.photos.ZoomViewModel
 import mega.privacy.android.app.gallery.adapter.GalleryAdapter
@@ -401,6 +402,7 @@ class AlbumContentFragment : Fragment(), GestureScaleListener.GestureScaleCallba
                     callManager { manager ->
                         manager.changeAppBarElevation(recyclerView.canScrollVertically(-1))
                     }
+                    viewModel.onVisibleItemsChanged(recyclerView.getVisibleNodeHandles())
                 }
             })
             clipToPadding = false
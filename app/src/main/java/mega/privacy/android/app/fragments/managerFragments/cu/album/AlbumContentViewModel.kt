@@ -309,6 +309,13 @@ class AlbumContentViewModel @Inject constructor(
         loadPhotos()
     }
 
+    /**
+     * Downloads first the thumbnails of the visible items.
+     *
+     * @param handles Handles of the visible nodes
+     */
+    fun onVisibleItemsChanged(handles: List<Long>) = repository.onVisibleItemsChanged(handles)
+
     override fun onCleared() {
         items.removeObserver(loadFinishedObserver)
     }
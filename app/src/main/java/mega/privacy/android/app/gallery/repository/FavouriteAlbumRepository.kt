@@ -9,6 +9,7 @@ import kotlinx.coroutines.withContext
 import mega.privacy.android.data.database.DatabaseHandler
 import mega.privacy.android.data.gateway.CacheFolderGateway
 import mega.privacy.android.data.qualifier.MegaApi
+import mega.privacy.android.data.thumbnail.ThumbnailRequestScheduler
 import mega.privacy.android.app.gallery.data.GalleryCard
 import mega.privacy.android.app.gallery.data.GalleryItem
 import mega.privacy.android.app.gallery.extension.previewPath
@@ -28,6 +29,7 @@ class FavouriteAlbumRepository @Inject constructor(
     @MegaApi private val megaApi: MegaApiAndroid,
     private val dbHandler: DatabaseHandler,
     cacheFolderGateway: CacheFolderGateway,
+    private val thumbnailRequestScheduler: ThumbnailRequestScheduler,
 ) {
 
     fun initGalleryNodeFetcher(
@@ -44,7 +46,8 @@ class FavouriteAlbumRepository @Inject constructor(
             context = context,
             megaApi = megaApi,
             selectedNodesMap = selectedNodesMap,
-            zoom = zoom
+            zoom = zoom,
+            thumbnailRequestScheduler = thumbnailRequestScheduler
         )
     }
 
@@ -71,6 +74,7 @@ class FavouriteAlbumRepository @Inject constructor(
         zoom: Int,
     ) {
         preserveSelectedItems()
+        if (::nodesFetcher.isInitialized) nodesFetcher.cancelThumbnailRequests()
 
         // Create a node fetcher for the new request, and link fileNodeItems to its result.
         // Then the result of any previous NodesFetcher will be ignored
@@ -92,7 +96,7 @@ class FavouriteAlbumRepository @Inject constructor(
 
     suspend fun getPreviews(list: List<GalleryCard>, refreshCallback: () -> Unit) {
         val missingPreviewIds = list.filter { it.preview == null }
-            .map { it.id }
+            .mapTo(HashSet()) { it.id }
 
         galleryItems.value?.let { items ->
             val map = items.mapNotNull { it.node }
@@ -105,6 +109,15 @@ class FavouriteAlbumRepository @Inject constructor(
 
     }
 
+    /**
+     * Downloads first the thumbnails of the visible items.
+     *
+     * @param handles Handles of the visible nodes
+     */
+    fun onVisibleItemsChanged(handles: List<Long>) {
+        if (::nodesFetcher.isInitialized) nodesFetcher.onVisibleItemsChanged(handles)
+    }
+
     fun emitFiles() {
         nodesFetcher.result.value?.let {
             nodesFetcher.result.value = it
@@ -8,6 +8,7 @@ import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.withContext
 import mega.privacy.android.data.gateway.CacheFolderGateway
 import mega.privacy.android.data.qualifier.MegaApi
+import mega.privacy.android.data.thumbnail.ThumbnailRequestScheduler
 import mega.privacy.android.app.gallery.data.GalleryCard
 import mega.privacy.android.app.gallery.data.GalleryItem
 import mega.privacy.android.app.gallery.extension.previewPath
@@ -24,6 +25,7 @@ class MediaItemRepository @Inject constructor(
     @ApplicationContext val context: Context,
     @MegaApi private val megaApi: MegaApiAndroid,
     cacheFolderGateway: CacheFolderGateway,
+    private val thumbnailRequestScheduler: ThumbnailRequestScheduler,
 ) {
 
     /** Live Data to notify the query result*/
@@ -51,10 +53,19 @@ class MediaItemRepository @Inject constructor(
         handle: Long
     ) {
         preserveSelectedItems()
+        if (::nodesFetcher.isInitialized) nodesFetcher.cancelThumbnailRequests()
 
         // Create a node fetcher for the new request, and link fileNodeItems to its result.
         // Then the result of any previous NodesFetcher will be ignored
-        nodesFetcher = MediaFetcher(context, megaApi, selectedNodesMap, order, zoom, handle)
+        nodesFetcher = MediaFetcher(
+            context,
+            megaApi,
+            selectedNodesMap,
+            order,
+            zoom,
+            handle,
+            thumbnailRequestScheduler
+        )
         @Suppress("UNCHECKED_CAST")
         galleryItems = nodesFetcher.result as MutableLiveData<List<GalleryItem>>
 
@@ -65,7 +76,7 @@ class MediaItemRepository @Inject constructor(
 
     suspend fun getPreviews(list: List<GalleryCard>, refreshCallback: () -> Unit) {
         val missingPreviewIds = list.filter { it.preview == null }
-            .map { it.id }
+            .mapTo(HashSet()) { it.id }
 
         galleryItems.value?.let { items ->
             val map = items.mapNotNull { it.node }
@@ -76,6 +87,15 @@ class MediaItemRepository @Inject constructor(
         }
     }
 
+    /**
+     * Downloads first the thumbnails of the visible items.
+     *
+     * @param handles Handles of the visible nodes
+     */
+    fun onVisibleItemsChanged(handles: List<Long>) {
+        if (::nodesFetcher.isInitialized) nodesFetcher.onVisibleItemsChanged(handles)
+    }
+
     fun emitFiles() {
         nodesFetcher.result.value?.let {
             nodesFetcher.result.value = it
@@ -5,7 +5,6 @@ import android.os.Handler
 import android.os.Looper
 import androidx.lifecycle.MutableLiveData
 import kotlinx.coroutines.Dispatchers
-import kotlinx.coroutines.delay
 import kotlinx.coroutines.withContext
 import mega.privacy.android.app.MimeTypeList
 import mega.privacy.android.app.fragments.homepage.NodeItem
@@ -16,26 +15,19 @@ import mega.privacy.android.app.listeners.OptionalMegaRequestListenerInterface
 import mega.privacy.android.app.utils.CacheFolderManager
 import mega.privacy.android.app.utils.Constants
 import mega.privacy.android.app.utils.FileUtil
-import mega.privacy.android.app.utils.Util
 import mega.privacy.android.app.utils.ZoomUtil
 import mega.privacy.android.data.database.DatabaseHandler
 import mega.privacy.android.data.extensions.failWithError
 import mega.privacy.android.data.model.MegaPreferences
+import mega.privacy.android.data.thumbnail.ThumbnailRequestScheduler
+import mega.privacy.android.data.thumbnail.ThumbnailRequestWindow
 import nz.mega.sdk.MegaApiAndroid
 import nz.mega.sdk.MegaApiJava
 import nz.mega.sdk.MegaError
 import nz.mega.sdk.MegaHandleList
 import nz.mega.sdk.MegaNode
 import java.io.File
-import java.text.SimpleDateFormat
-import java.time.LocalDate
-import java.time.Year
-import java.time.YearMonth
-import java.time.ZoneId
-import java.time.format.DateTimeFormatter
-import java.util.Date
-import java.util.Locale
-import java.util.UUID
+import java.util.concurrent.ConcurrentHashMap
 import kotlin.coroutines.suspendCoroutine
 
 /**
@@ -54,6 +46,7 @@ class FavouriteAlbumFetcher(
     private val megaApi: MegaApiAndroid,
     private val selectedNodesMap: LinkedHashMap<Any, GalleryItem>,
     private val zoom: Int,
+    private val thumbnailRequestScheduler: ThumbnailRequestScheduler,
 ) {
 
     suspend fun getNodes(): List<MegaNode> {
@@ -203,11 +196,13 @@ class FavouriteAlbumFetcher(
 
     /**
      * Get the preview of the file.
+     *
+     * @param cachedFiles Names of the files in the preview folder.
      */
-    private fun getPreview(node: MegaNode): File? {
+    private fun getPreview(node: MegaNode, cachedFiles: Set<String>): File? {
         val previewFile = getPreviewFile(node)
 
-        return if (previewFile.exists()) {
+        return if (previewFile.name in cachedFiles) {
             previewFile
         } else {
             // Note down the nodes and going to get their previews from the server
@@ -226,66 +221,21 @@ class FavouriteAlbumFetcher(
      *
      */
     suspend fun getGalleryItems() {
-        var lastYearDate: LocalDate? = null
-        var lastMonthDate: LocalDate? = null
-        var lastDayDate: LocalDate? = null
+        val sectionBuilder = GallerySectionBuilder(zoom)
+        val cachedFiles = listCachedFiles(
+            if (zoom == ZoomUtil.ZOOM_IN_1X) previewFolder else thumbnailFolder
+        )
 
         for (node in getNodes()) {
             val thumbnail = if (zoom == ZoomUtil.ZOOM_IN_1X) {
-                getPreview(node)
+                getPreview(node, cachedFiles)
             } else {
-                getThumbnail(node)
+                getThumbnail(node, cachedFiles)
             }
 
-            val modifyDate = Util.fromEpoch(node.modificationTime)
-            val dateString = SimpleDateFormat("LLLL yyyy", Locale.getDefault()).format(
-                Date.from(modifyDate.atStartOfDay().atZone(ZoneId.systemDefault()).toInstant())
-            )
-            val sameYear = Year.from(LocalDate.now()) == Year.from(modifyDate)
-
             // Photo "Month-Year" section headers
-            when (zoom) {
-                ZoomUtil.ZOOM_OUT_2X -> {
-                    if (lastYearDate == null || Year.from(lastYearDate) != Year.from(modifyDate)) {
-                        lastYearDate = modifyDate
-                        addPhotoDateTitle(
-                            dateString,
-                            Pair(DateTimeFormatter.ofPattern("uuuu").format(modifyDate), "")
-                        )
-                    }
-                }
-                ZoomUtil.ZOOM_IN_1X -> {
-                    if (lastDayDate == null || lastDayDate.dayOfYear != modifyDate.dayOfYear) {
-                        lastDayDate = modifyDate
-
-                        addPhotoDateTitle(
-                            dateString, Pair(
-                                DateTimeFormatter.ofPattern("dd MMMM").format(modifyDate),
-                                if (sameYear) "" else DateTimeFormatter.ofPattern("uuuu")
-                                    .format(modifyDate)
-                            )
-                        )
-                    }
-                }
-                else -> {
-                    if (lastMonthDate == null || YearMonth.from(lastMonthDate) != YearMonth.from(
-                            modifyDate
-                        )
-                    ) {
-                        lastMonthDate = modifyDate
-                        addPhotoDateTitle(
-                            dateString, Pair(
-                                SimpleDateFormat("LLLL", Locale.getDefault()).format(
-                                    Date.from(modifyDate.atStartOfDay()
-                                        .atZone(ZoneId.systemDefault()).toInstant())
-                                ),
-                                if (sameYear) "" else DateTimeFormatter.ofPattern("uuuu")
-                                    .format(modifyDate)
-                            )
-                        )
-                    }
-                }
-            }
+            sectionBuilder.add(node.modificationTime)?.let { addPhotoDateTitle(it) }
+            val dateString = sectionBuilder.modifyDate
 
             val selected = selectedNodesMap[node.handle]?.selected ?: false
             val galleryItem = GalleryItem(
@@ -300,58 +250,61 @@ class FavouriteAlbumFetcher(
                 selected,
                 true
             )
+            positions[node.handle] = fileNodesMap.size
             fileNodesMap[node.handle] = galleryItem
         }
 
         result.postValue(ArrayList(fileNodesMap.values))
 
         getThumbnailsFromServer()
-
-        if (zoom == ZoomUtil.ZOOM_IN_1X) {
-            getPreviewsFromServer(getPreviewNodes, ::refreshLiveData)
-        }
     }
 
-    private fun addPhotoDateTitle(dateString: String, date: Pair<String, String>) {
-        // RandomUUID() can ensure non-repetitive values in practical purpose
-        fileNodesMap[UUID.randomUUID()] = GalleryItem(
+    /**
+     * Lists a cache folder once, instead of checking every file of the gallery.
+     */
+    private fun listCachedFiles(folder: File): Set<String> =
+        folder.list()?.toHashSet() ?: emptySet()
+
+    private fun addPhotoDateTitle(header: GallerySectionBuilder.Header) {
+        fileNodesMap[header.key] = GalleryItem(
             null,
             Constants.INVALID_POSITION,
             Constants.INVALID_POSITION,
             null,
             MediaCardType.Header,
-            dateString,
-            date.formatDateTitle(context),
+            header.modifyDate,
+            header.date.formatDateTitle(context),
             null,
             false,
             uiDirty = true
         )
     }
 
-    suspend fun getPreviewsFromServer(
+    /**
+     * Requests the missing previews of the given nodes, in the order of the map.
+     *
+     * @param map             Paths of the previews, by node
+     * @param refreshCallback Called when a preview is downloaded
+     */
+    fun getPreviewsFromServer(
         map: Map<MegaNode, String>,
         refreshCallback: () -> Unit,
     ) {
-        for ((key, value) in map) {
-            megaApi.getPreview(
-                key,
-                value,
-                OptionalMegaRequestListenerInterface(
-                    onRequestFinish = { request, error ->
-                        if (error.errorCode == MegaError.API_OK) {
-                            request.let {
-                                fileNodesMap[it.nodeHandle]?.apply {
-                                    thumbnail = getPreviewFile(key).absoluteFile
-                                    uiDirty = true
-                                }
-                            }
-                            refreshCallback.invoke()
-                        }
+        map.entries.forEachIndexed { index, (node, path) ->
+            thumbnailRequestScheduler.request(
+                node,
+                ThumbnailRequestScheduler.Type.PREVIEW,
+                path,
+                index
+            ) { success ->
+                if (success) {
+                    fileNodesMap[node.handle]?.apply {
+                        thumbnail = getPreviewFile(node).absoluteFile
+                        uiDirty = true
                     }
-                ))
-
-            // Throttle the getThumbnail call, or the UI would be non-responsive
-            delay(GET_THUMBNAIL_THROTTLE)
+                    refreshCallback.invoke()
+                }
+            }
         }
     }
 
@@ -372,6 +325,21 @@ class FavouriteAlbumFetcher(
 
     val getThumbnailNodes = mutableMapOf<MegaNode, String>()
 
+    /** Positions of the nodes in the list, by handle. Read from the main thread when scrolling */
+    private val positions = ConcurrentHashMap<Long, Int>()
+
+    private val thumbnailRequests = ThumbnailRequestWindow(
+        thumbnailRequestScheduler,
+        ThumbnailRequestScheduler.Type.THUMBNAIL,
+        ::onThumbnailLoaded
+    )
+
+    private val previewRequests = ThumbnailRequestWindow(
+        thumbnailRequestScheduler,
+        ThumbnailRequestScheduler.Type.PREVIEW,
+        ::onPreviewLoaded
+    )
+
     fun getThumbnailFile(node: MegaNode) = File(
         thumbnailFolder,
         node.base64Handle.plus(FileUtil.JPG_EXTENSION)
@@ -379,11 +347,13 @@ class FavouriteAlbumFetcher(
 
     /**
      * Get the thumbnail of the file.
+     *
+     * @param cachedFiles Names of the files in the thumbnail folder.
      */
-    private fun getThumbnail(node: MegaNode): File? {
+    private fun getThumbnail(node: MegaNode, cachedFiles: Set<String>): File? {
         val thumbFile = getThumbnailFile(node)
 
-        return if (thumbFile.exists()) {
+        return if (thumbFile.name in cachedFiles) {
             thumbFile
         } else {
             // Note down the nodes and going to get their thumbnails from the server
@@ -397,33 +367,62 @@ class FavouriteAlbumFetcher(
         }
     }
 
-    suspend fun getThumbnailsFromServer() {
-        for ((key, value) in getThumbnailNodes) {
-            megaApi.getThumbnail(
-                key,
-                value,
-                OptionalMegaRequestListenerInterface(onRequestFinish = { megaRequest, megaError ->
-                    if (megaError.errorCode == MegaError.API_OK) {
-                        megaRequest.let {
-                            fileNodesMap[it.nodeHandle]?.apply {
-                                thumbnail = getThumbnailFile(key)
-                                uiDirty = true
-                            }
-                        }
-                        refreshLiveData()
-                    }
-                }))
+    /**
+     * Requests the missing thumbnails, and the missing previews if zoomed in. They are downloaded
+     * around the visible items, see [onVisibleItemsChanged].
+     */
+    fun getThumbnailsFromServer() {
+        thumbnailRequests.submit(getThumbnailNodes.toRequests())
+        if (zoom == ZoomUtil.ZOOM_IN_1X) {
+            previewRequests.submit(getPreviewNodes.toRequests())
+        }
+    }
+
+    private fun Map<MegaNode, String>.toRequests() = mapNotNull { (node, path) ->
+        positions[node.handle]?.let { ThumbnailRequestWindow.Request(it, node, path) }
+    }
+
+    /**
+     * Downloads first the images of the visible items, and cancels the ones far from them.
+     *
+     * @param handles Handles of the visible nodes
+     */
+    fun onVisibleItemsChanged(handles: List<Long>) {
+        val visiblePositions = handles.mapNotNull { positions[it] }
+        if (visiblePositions.isEmpty()) return
+
+        val first = visiblePositions.minOf { it }
+        val last = visiblePositions.maxOf { it }
+        thumbnailRequests.setVisibleRange(first, last)
+        previewRequests.setVisibleRange(first, last)
+    }
+
+    /**
+     * Cancels the image downloads not started yet.
+     */
+    fun cancelThumbnailRequests() {
+        thumbnailRequests.cancel()
+        previewRequests.cancel()
+    }
 
-            // Throttle the getThumbnail call, or the UI would be non-responsive
-            delay(GET_THUMBNAIL_THROTTLE)
+    private fun onThumbnailLoaded(handle: Long) {
+        fileNodesMap[handle]?.apply {
+            thumbnail = node?.let { getThumbnailFile(it) }
+            uiDirty = true
         }
+        refreshLiveData()
+    }
+
+    private fun onPreviewLoaded(handle: Long) {
+        fileNodesMap[handle]?.apply {
+            thumbnail = node?.let { getPreviewFile(it).absoluteFile }
+            uiDirty = true
+        }
+        refreshLiveData()
     }
 
     companion object {
         // 500ms, user can see the update of photos instantly
         private const val UPDATE_DATA_THROTTLE_TIME = 500L
-
-        // 10ms
-        private const val GET_THUMBNAIL_THROTTLE = 10L
     }
 }
\ No newline at end of file
@@ -0,0 +1,120 @@
+package mega.privacy.android.app.gallery.repository.fetcher
+
+import mega.privacy.android.app.utils.ZoomUtil
+import java.text.SimpleDateFormat
+import java.time.Instant
+import java.time.LocalDate
+import java.time.ZoneId
+import java.time.format.DateTimeFormatter
+import java.util.Date
+import java.util.Locale
+import java.util.TimeZone
+
+/**
+ * Builds the date sections of a gallery, node by node, in the order the nodes are shown.
+ *
+ * The formatters are created once, and the dates are only formatted again when a node falls on
+ * another day than the previous one, so a sorted list costs one day computation per node.
+ * Header keys are derived from the section date, so they stay the same when the gallery is
+ * built again and the adapter can keep its items.
+ *
+ * @param zoom   Zoom level of the gallery, one of the [ZoomUtil] levels.
+ * @param locale Locale of the dates.
+ * @param zoneId Time zone of the dates.
+ * @param today  Current date, the year is omitted from the headers of the current year.
+ */
+class GallerySectionBuilder(
+    private val zoom: Int,
+    locale: Locale = Locale.getDefault(),
+    private val zoneId: ZoneId = ZoneId.systemDefault(),
+    today: LocalDate = LocalDate.now(zoneId),
+) {
+
+    /**
+     * Header starting a section.
+     *
+     * @property key        Stable key of the header.
+     * @property modifyDate Month and year of the section.
+     * @property date       Title and year of the section, the year is blank for the current one.
+     */
+    data class Header(
+        val key: String,
+        val modifyDate: String,
+        val date: Pair<String, String>,
+    )
+
+    private val currentYear = today.year
+    private val zoneRules = zoneId.rules
+    private val timeZone = TimeZone.getTimeZone(zoneId)
+    private val monthYearFormat = SimpleDateFormat("LLLL yyyy", locale).also {
+        it.timeZone = timeZone
+    }
+    private val monthFormat = SimpleDateFormat("LLLL", locale).also { it.timeZone = timeZone }
+    private val yearFormatter = DateTimeFormatter.ofPattern("uuuu", locale)
+    private val dayFormatter = DateTimeFormatter.ofPattern("dd MMMM", locale)
+
+    private var lastEpochDay = Long.MIN_VALUE
+    private var lastSection = Long.MIN_VALUE
+    private var lastYearMonth = Int.MIN_VALUE
+    private val sectionOccurrences = HashMap<Long, Int>()
+
+    /**
+     * Month and year of the last added node, as shown in the gallery items.
+     */
+    var modifyDate: String = ""
+        private set
+
+    /**
+     * Adds the next node of the gallery.
+     *
+     * @param modificationTime Modification time of the node, in seconds.
+     * @return The header to insert before the node, or null if it is in the current section.
+     */
+    fun add(modificationTime: Long): Header? {
+        val epochDay = toEpochDay(modificationTime)
+        if (epochDay == lastEpochDay) return null
+        lastEpochDay = epochDay
+
+        val date = LocalDate.ofEpochDay(epochDay)
+        val yearMonth = date.year * 12 + date.monthValue
+        if (yearMonth != lastYearMonth) {
+            lastYearMonth = yearMonth
+            modifyDate = monthYearFormat.format(toDate(date))
+        }
+
+        val section = when (zoom) {
+            ZoomUtil.ZOOM_OUT_2X -> date.year.toLong()
+            ZoomUtil.ZOOM_IN_1X -> epochDay
+            else -> yearMonth.toLong()
+        }
+        if (section == lastSection) return null
+        lastSection = section
+
+        val occurrence = sectionOccurrences[section] ?: 0
+        sectionOccurrences[section] = occurrence + 1
+
+        val year = if (date.year == currentYear) "" else yearFormatter.format(date)
+        val title = when (zoom) {
+            ZoomUtil.ZOOM_OUT_2X -> Pair(yearFormatter.format(date), "")
+            ZoomUtil.ZOOM_IN_1X -> Pair(dayFormatter.format(date), year)
+            else -> Pair(monthFormat.format(toDate(date)), year)
+        }
+        return Header("$HEADER_KEY_PREFIX${zoom}_${section}_$occurrence", modifyDate, title)
+    }
+
+    private fun toEpochDay(seconds: Long): Long {
+        val offset = if (zoneRules.isFixedOffset) {
+            zoneRules.getOffset(Instant.EPOCH)
+        } else {
+            zoneRules.getOffset(Instant.ofEpochSecond(seconds))
+        }
+        return (seconds + offset.totalSeconds).floorDiv(SECONDS_PER_DAY)
+    }
+
+    private fun toDate(date: LocalDate) = Date.from(date.atStartOfDay(zoneId).toInstant())
+
+    companion object {
+        private const val HEADER_KEY_PREFIX = "header_"
+        private const val SECONDS_PER_DAY = 86_400L
+    }
+}
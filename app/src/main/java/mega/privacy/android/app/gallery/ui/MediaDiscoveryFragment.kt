@@ -39,6 +39,7 @@ import mega.privacy.android.app.fragments.homepage.ActionModeViewModel
 import mega.privacy.android.app.fragments.homepage.EventObserver
 import mega.privacy.android.app.fragments.homepage.ItemOperationViewModel
 import mega.privacy.android.app.fragments.homepage.getRoundingParams
+import mega.privacy.android.app.fragments.homepage.getVisibleNodeHandles
 import mega.privacy.android.app.fragments.homepage.photos.ScaleGestureHandler
 import mega.privacy.android.app.fragments.homepage.photos.ZoomViewModel
 import mega.privacy.android.app.fragments.managerFragments.cu.CustomHideBottomViewOnScrollBehaviour
@@ -479,6 +480,7 @@ class MediaDiscoveryFragment : Fragment(), GestureScaleListener.GestureScaleCall
                     callManager { manager ->
                         manager.changeAppBarElevation(recyclerView.canScrollVertically(-1))
                     }
+                    viewModel.onVisibleItemsChanged(recyclerView.getVisibleNodeHandles())
                 }
             })
             clipToPadding = false
@@ -330,6 +330,13 @@ class MediaViewModel @Inject constructor(
         loadPhotos()
     }
 
+    /**
+     * Downloads first the thumbnails of the visible items.
+     *
+     * @param handles Handles of the visible nodes
+     */
+    fun onVisibleItemsChanged(handles: List<Long>) = repository.onVisibleItemsChanged(handles)
+
     override fun onCleared() {
         LiveEventBus.get(Constants.EVENT_NODES_CHANGE, Boolean::class.java)
             .removeObserver(nodesChangeObserver)
@@ -5,17 +5,14 @@ import android.app.NotificationChannel
 import android.app.NotificationManager
 import android.app.PendingIntent
 import android.content.BroadcastReceiver
-import android.content.ContentResolver
 import android.content.Context
 import android.content.Intent
 import android.content.IntentFilter
-import android.database.Cursor
 import android.net.Uri
 import android.net.wifi.WifiManager
 import android.net.wifi.WifiManager.WifiLock
 import android.os.BatteryManager
 import android.os.Build
-import android.os.Bundle
 import android.os.Handler
 import android.os.IBinder
 import android.os.PowerManager
@@ -29,8 +26,13 @@ import com.jeremyliao.liveeventbus.LiveEventBus
 import dagger.hilt.android.AndroidEntryPoint
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.cancel
+import kotlinx.coroutines.channels.ReceiveChannel
+import kotlinx.coroutines.channels.produce
+import kotlinx.coroutines.coroutineScope
 import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.filter
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.yield
 import mega.privacy.android.app.AndroidCompletedTransfer
@@ -46,7 +48,6 @@ import mega.privacy.android.app.domain.usecase.AreAllUploadTransfersPaused
 import mega.privacy.android.app.domain.usecase.GetCameraUploadLocalPath
 import mega.privacy.android.app.domain.usecase.GetCameraUploadLocalPathSecondary
 import mega.privacy.android.app.domain.usecase.GetCameraUploadSelectionQuery
-import mega.privacy.android.app.domain.usecase.GetChildrenNode
 import mega.privacy.android.app.domain.usecase.GetDefaultNodeHandle
 import mega.privacy.android.app.domain.usecase.GetFingerprint
 import mega.privacy.android.app.domain.usecase.GetNodeByHandle
@@ -64,6 +65,7 @@ import mega.privacy.android.app.globalmanagement.TransfersManagement.Companion.a
 import mega.privacy.android.app.listeners.CreateFolderListener
 import mega.privacy.android.app.listeners.CreateFolderListener.ExtraAction
 import mega.privacy.android.app.listeners.GetCameraUploadAttributeListener
+import mega.privacy.android.app.listeners.OptionalMegaGlobalListenerInterface
 import mega.privacy.android.app.listeners.SetAttrUserListener
 import mega.privacy.android.app.main.ManagerActivity
 import mega.privacy.android.app.presentation.manager.model.TransfersTab
@@ -71,6 +73,8 @@ import mega.privacy.android.app.receivers.NetworkTypeChangeReceiver
 import mega.privacy.android.app.receivers.NetworkTypeChangeReceiver.OnNetworkTypeChangeCallback
 import mega.privacy.android.app.sync.BackupState
 import mega.privacy.android.app.sync.HeartbeatStatus
+import mega.privacy.android.app.sync.camerauploads.CameraUploadFolderIndex
+import mega.privacy.android.app.sync.camerauploads.CameraUploadMediaScanner
 import mega.privacy.android.app.sync.camerauploads.CameraUploadSyncManager.isActive
 import mega.privacy.android.app.sync.camerauploads.CameraUploadSyncManager.onUploadSuccess
 import mega.privacy.android.app.sync.camerauploads.CameraUploadSyncManager.reportUploadFinish
@@ -81,6 +85,8 @@ import mega.privacy.android.app.sync.camerauploads.CameraUploadSyncManager.start
 import mega.privacy.android.app.sync.camerauploads.CameraUploadSyncManager.stopActiveHeartbeat
 import mega.privacy.android.app.sync.camerauploads.CameraUploadSyncManager.updatePrimaryFolderBackupState
 import mega.privacy.android.app.sync.camerauploads.CameraUploadSyncManager.updateSecondaryFolderBackupState
+import mega.privacy.android.app.usecase.GetGlobalTransferUseCase
+import mega.privacy.android.app.usecase.GetGlobalTransferUseCase.Result.OnTransferUpdate
 import mega.privacy.android.app.utils.CameraUploadUtil
 import mega.privacy.android.app.utils.ChatUtil
 import mega.privacy.android.app.utils.Constants
@@ -89,7 +95,6 @@ import mega.privacy.android.app.utils.ImageProcessor
 import mega.privacy.android.app.utils.JobUtil
 import mega.privacy.android.app.utils.MegaNodeUtil.isNodeInRubbishOrDeleted
 import mega.privacy.android.app.utils.PreviewUtils
-import mega.privacy.android.app.utils.SDCardUtils
 import mega.privacy.android.app.utils.StringResourcesUtils
 import mega.privacy.android.app.utils.TextUtil
 import mega.privacy.android.app.utils.ThumbnailUtils
@@ -97,7 +102,6 @@ import mega.privacy.android.app.utils.Util
 import mega.privacy.android.app.utils.conversion.VideoCompressionCallback
 import mega.privacy.android.data.mapper.SyncRecordTypeIntMapper
 import mega.privacy.android.domain.entity.CameraUploadMedia
-import mega.privacy.android.domain.entity.SortOrder
 import mega.privacy.android.domain.entity.SyncRecord
 import mega.privacy.android.domain.entity.SyncRecordType
 import mega.privacy.android.domain.entity.SyncStatus
@@ -137,9 +141,7 @@ import timber.log.Timber
 import java.io.File
 import java.io.IOException
 import java.util.LinkedList
-import java.util.Queue
 import javax.inject.Inject
-import kotlin.math.max
 import kotlin.math.roundToInt
 
 /**
@@ -163,6 +165,7 @@ class CameraUploadsService : LifecycleService(), OnNetworkTypeChangeCallback,
         private const val TARGET_FOLDER_NOT_EXIST = 8
         private const val CHECKING_USER_ATTRIBUTE = 9
         private const val SHOULD_RUN_STATE_FAILED = -1
+        private const val SCAN_PAGE_BUFFER = 2
         private const val notificationId = Constants.NOTIFICATION_CAMERA_UPLOADS
         private const val notificationChannelId = Constants.NOTIFICATION_CHANNEL_CAMERA_UPLOADS_ID
         private const val notificationChannelName =
@@ -408,10 +411,16 @@ class CameraUploadsService : LifecycleService(), OnNetworkTypeChangeCallback,
     lateinit var getFingerprint: GetFingerprint
 
     /**
-     * GetChildrenNode
+     * CameraUploadMediaScanner
      */
     @Inject
-    lateinit var getChildrenNode: GetChildrenNode
+    lateinit var cameraUploadMediaScanner: CameraUploadMediaScanner
+
+    /**
+     * CameraUploadFolderIndex
+     */
+    @Inject
+    lateinit var cameraUploadFolderIndex: CameraUploadFolderIndex
 
     /**
      * SaveSyncRecordsToDB
@@ -467,6 +476,12 @@ class CameraUploadsService : LifecycleService(), OnNetworkTypeChangeCallback,
     @Inject
     lateinit var areAllUploadTransfersPaused: AreAllUploadTransfersPaused
 
+    /**
+     * GetGlobalTransferUseCase
+     */
+    @Inject
+    lateinit var getGlobalTransferUseCase: GetGlobalTransferUseCase
+
     /**
      * Sync Record Type Mapper
      */
@@ -488,6 +503,9 @@ class CameraUploadsService : LifecycleService(), OnNetworkTypeChangeCallback,
     private var app: MegaApplication? = null
     private var megaApi: MegaApiAndroid? = null
     private var megaApiFolder: MegaApiAndroid? = null
+    private val globalListener = OptionalMegaGlobalListenerInterface(
+        onNodesUpdate = { nodes -> nodes?.let { cameraUploadFolderIndex.onNodesUpdate(it) } }
+    )
     private var receiver: NetworkTypeChangeReceiver? = null
     private var wifiLock: WifiLock? = null
     private var wakeLock: PowerManager.WakeLock? = null
@@ -501,6 +519,8 @@ class CameraUploadsService : LifecycleService(), OnNetworkTypeChangeCallback,
     private var tempRoot: String? = null
     private var isOverQuota = false
     private var canceled = false
+    @Volatile
+    private var isScanning = false
     private var stopByNetworkStateChange = false
     private var isPrimaryHandleSynced = false
     private var totalUploaded = 0
@@ -549,6 +569,7 @@ class CameraUploadsService : LifecycleService(), OnNetworkTypeChangeCallback,
     override fun onCreate() {
         super.onCreate()
         coroutineScope = CoroutineScope(ioDispatcher)
+        coroutineScope?.launch { monitorUploadProgress() }
         startForegroundNotification()
         registerReceiver(chargingStopReceiver, IntentFilter(Intent.ACTION_POWER_DISCONNECTED))
         registerReceiver(batteryInfoReceiver, IntentFilter(Intent.ACTION_BATTERY_CHANGED))
@@ -578,7 +599,9 @@ class CameraUploadsService : LifecycleService(), OnNetworkTypeChangeCallback,
         megaApi?.let {
             it.removeRequestListener(this)
             it.removeTransferListener(this)
+            it.removeGlobalListener(globalListener)
         }
+        cameraUploadFolderIndex.clear()
         stopActiveHeartbeat()
     }
 
@@ -792,118 +815,14 @@ class CameraUploadsService : LifecycleService(), OnNetworkTypeChangeCallback,
         filesFromMediaStore()
     }
 
-    private fun isFilePathValid(media: CameraUploadMedia, parentPath: String?) =
-        media.filePath != null && !parentPath.isNullOrBlank()
-                && media.filePath!!.startsWith(parentPath)
-
-    private fun getUploadMediaFromCursor(
-        cursor: Cursor,
-        dataColumn: Int,
-        addedColumn: Int,
-        modifiedColumn: Int,
-    ): CameraUploadMedia {
-        val filePath = cursor.getString(dataColumn)
-        val addedTime = cursor.getLong(addedColumn) * 1000
-        val modifiedTime = cursor.getLong(modifiedColumn) * 1000
-        val timestamp = max(addedTime, modifiedTime)
-        val media = CameraUploadMedia(filePath = filePath, timestamp = timestamp)
-        Timber.d("Extract from cursor, add time: $addedTime, modify time: $modifiedTime, chosen time: $timestamp")
-        return media
-    }
-
-    private fun extractMedia(cursor: Cursor, parentPath: String?): Queue<CameraUploadMedia> {
-        return LinkedList<CameraUploadMedia>().apply {
-            try {
-                @Suppress("DEPRECATION")
-                val dataColumn = cursor.getColumnIndexOrThrow(MediaStore.MediaColumns.DATA)
-                val addedColumn =
-                    cursor.getColumnIndexOrThrow(MediaStore.MediaColumns.DATE_ADDED)
-                val modifiedColumn =
-                    cursor.getColumnIndexOrThrow(MediaStore.MediaColumns.DATE_MODIFIED)
-                while (cursor.moveToNext()) {
-                    getUploadMediaFromCursor(
-                        cursor,
-                        dataColumn,
-                        addedColumn,
-                        modifiedColumn
-                    ).takeIf {
-                        isFilePathValid(it, parentPath)
-                    }?.let(this::add)
-                }
-            } catch (exception: Exception) {
-                Timber.e(exception)
-            }
-        }
-    }
-
-    private fun buildMediaQueue(
-        uri: Uri,
-        parentPath: String?,
-        pageSize: Int,
-        selectionQuery: String?,
-    ): Queue<CameraUploadMedia> =
-        createMediaCursor(parentPath, selectionQuery, pageSize, uri)?.let {
-            Timber.d("Extract ${it.count} Media from Cursor")
-            extractMedia(it, parentPath)
-        } ?: LinkedList<CameraUploadMedia>().also {
-            Timber.d("Extract 0 Media - Cursor is NULL")
-        }
-
-    private fun createMediaCursor(
-        parentPath: String?,
-        selectionQuery: String?,
-        pageSize: Int,
-        uri: Uri,
-    ): Cursor? {
-        val projection = getProjection()
-        val mediaOrder = MediaStore.MediaColumns.DATE_MODIFIED + " ASC "
-        return if (shouldPageCursor(parentPath)) {
-            mediaOrder.getPagedMediaCursor(selectionQuery, pageSize, uri, projection)
-        } else {
-            app?.contentResolver?.query(uri, projection, selectionQuery, null, mediaOrder)
-        }
-    }
-
-    @Suppress("DEPRECATION")
-    private fun getProjection() = arrayOf(
-        MediaStore.MediaColumns.DATA,
-        MediaStore.MediaColumns.DATE_ADDED,
-        MediaStore.MediaColumns.DATE_MODIFIED
-    )
-
-    /**
-     *  Only paging for files in internal storage
-     *  Files on SD card usually have the same timestamp (the time when the SD is loaded)
-     */
-    private fun shouldPageCursor(parentPath: String?) =
-        !SDCardUtils.isLocalFolderOnSDCard(this, parentPath)
-
-    private fun String.getPagedMediaCursor(
-        selectionQuery: String?,
-        pageSize: Int,
-        uri: Uri,
-        projection: Array<String>,
-    ): Cursor? {
-        return if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
-            val args = Bundle()
-            args.putString(ContentResolver.QUERY_ARG_SQL_SORT_ORDER, this)
-            args.putString(ContentResolver.QUERY_ARG_OFFSET, "0")
-            args.putString(ContentResolver.QUERY_ARG_SQL_SELECTION, selectionQuery)
-            args.putString(ContentResolver.QUERY_ARG_SQL_LIMIT, pageSize.toString())
-            app?.contentResolver?.query(uri, projection, args, null)
-        } else {
-            val mediaOrderPreR = "$this LIMIT 0,$pageSize"
-            app?.contentResolver?.query(uri, projection, selectionQuery, null, mediaOrderPreR)
-        }
-    }
-
-    private suspend fun filesFromMediaStore() {
+    @OptIn(ExperimentalCoroutinesApi::class)
+    private suspend fun filesFromMediaStore() = coroutineScope {
         Timber.d("Get Pending Files from Media Store Database")
         val primaryUploadNode = getNodeByHandle(getPrimarySyncHandle())
         if (primaryUploadNode == null) {
             Timber.d("ERROR: Primary Parent Folder is NULL")
             endService()
-            return
+            return@coroutineScope
         }
         val secondaryEnabled = isSecondaryFolderEnabled()
         val secondaryUploadNode = if (secondaryEnabled) {
@@ -913,135 +832,86 @@ class CameraUploadsService : LifecycleService(), OnNetworkTypeChangeCallback,
             null
         }
 
-        val primaryPhotos: Queue<CameraUploadMedia> = LinkedList()
-        val primaryVideos: Queue<CameraUploadMedia> = LinkedList()
-        val secondaryPhotos: Queue<CameraUploadMedia> = LinkedList()
-        val secondaryVideos: Queue<CameraUploadMedia> = LinkedList()
-
-        val pageSize = if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) 1000 else 400
-        val pageSizeVideo = if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) 50 else 10
-        val uris = getSyncFileUploadUris()
-
-        for (uri in uris) {
-            if (uri == MediaStore.Images.Media.EXTERNAL_CONTENT_URI
-                || uri == MediaStore.Images.Media.INTERNAL_CONTENT_URI
-            ) {
-                // Photos
-                primaryPhotos.addAll(
-                    buildMediaQueue(
-                        uri,
-                        localPath(),
-                        pageSize,
-                        selectionQuery(SyncTimeStamp.PRIMARY_PHOTO)
-                    )
-                )
-                if (secondaryEnabled) {
-                    secondaryPhotos.addAll(
-                        buildMediaQueue(
-                            uri,
-                            localPathSecondary(),
-                            pageSize,
-                            selectionQuery(SyncTimeStamp.SECONDARY_PHOTO)
-                        )
-                    )
-                }
-            } else if (uri == MediaStore.Video.Media.EXTERNAL_CONTENT_URI
-                || uri == MediaStore.Video.Media.INTERNAL_CONTENT_URI
-            ) {
-                // Videos
-                primaryVideos.addAll(
-                    buildMediaQueue(
+        val scans = mutableListOf<MediaScan>()
+        for (uri in getSyncFileUploadUris()) {
+            val isVideo = when (uri) {
+                MediaStore.Images.Media.EXTERNAL_CONTENT_URI,
+                MediaStore.Images.Media.INTERNAL_CONTENT_URI -> false
+                MediaStore.Video.Media.EXTERNAL_CONTENT_URI,
+                MediaStore.Video.Media.INTERNAL_CONTENT_URI -> true
+                else -> continue
+            }
+            val primaryTimestamp =
+                if (isVideo) SyncTimeStamp.PRIMARY_VIDEO else SyncTimeStamp.PRIMARY_PHOTO
+            scans.add(MediaScan(uri, localPath(), selectionQuery(primaryTimestamp), false, isVideo))
+            if (secondaryEnabled) {
+                val secondaryTimestamp =
+                    if (isVideo) SyncTimeStamp.SECONDARY_VIDEO else SyncTimeStamp.SECONDARY_PHOTO
+                scans.add(
+                    MediaScan(
                         uri,
-                        localPath(),
-                        pageSizeVideo,
-                        selectionQuery(SyncTimeStamp.PRIMARY_VIDEO)
+                        localPathSecondary(),
+                        selectionQuery(secondaryTimestamp),
+                        true,
+                        isVideo
                     )
                 )
-                if (secondaryEnabled) {
-                    secondaryVideos.addAll(
-                        buildMediaQueue(
-                            uri,
-                            localPathSecondary(),
-                            pageSizeVideo,
-                            selectionQuery(SyncTimeStamp.SECONDARY_VIDEO)
-                        )
-                    )
-                }
+            }
+        }
+        // Primary photos first, then primary videos, secondary photos and secondary videos
+        scans.sortWith(compareBy({ it.isSecondary }, { it.isVideo }))
+
+        // The next pages are read while the current one is resolved and uploaded
+        val pages = produce(capacity = SCAN_PAGE_BUFFER) {
+            for (scan in scans) {
+                cameraUploadMediaScanner.scan(scan.uri, scan.parentPath, scan.selectionQuery)
+                    .collect { send(ScannedPage(it, scan.isSecondary, scan.isVideo)) }
             }
         }
 
         totalUploaded = 0
-        prepareUpload(
-            primaryPhotos,
-            primaryVideos,
-            secondaryPhotos,
-            secondaryVideos,
-            secondaryEnabled,
-            primaryUploadNode,
-            secondaryUploadNode
-        )
+        prepareUpload(pages, primaryUploadNode, secondaryUploadNode)
     }
 
     private suspend fun prepareUpload(
-        primaryPhotos: Queue<CameraUploadMedia>,
-        primaryVideos: Queue<CameraUploadMedia>,
-        secondaryPhotos: Queue<CameraUploadMedia>,
-        secondaryVideos: Queue<CameraUploadMedia>,
-        secondaryEnabled: Boolean,
+        pages: ReceiveChannel<ScannedPage>,
         primaryUploadNode: MegaNode?,
         secondaryUploadNode: MegaNode?,
     ) {
-        Timber.d(
-            """
-            |Primary photo count from media store database: ${primaryPhotos.size}
-            |Secondary photo count from media store database: ${secondaryPhotos.size}
-            |Primary video count from media store database: ${primaryVideos.size}
-            |Secondary video count from media store database: ${secondaryVideos.size}
-            """.trimMargin()
-        )
-
-        val pendingUploadsList = getPendingUploadList(
-            primaryPhotos,
-            isSecondary = false,
-            isVideo = false
-        )
-        Timber.d("Primary photo pending list size: %s", pendingUploadsList.size)
-        saveSyncRecordsToDB(
-            pendingUploadsList, primaryUploadNode, secondaryUploadNode, tempRoot
-        )
-
-        val pendingVideoUploadsList = getPendingUploadList(
-            primaryVideos,
-            isSecondary = false,
-            isVideo = true
-        )
-        Timber.d("Primary video pending list size: %s", pendingVideoUploadsList.size)
-        saveSyncRecordsToDB(
-            pendingVideoUploadsList, primaryUploadNode, secondaryUploadNode, tempRoot
-        )
-
-        if (secondaryEnabled) {
-            val pendingUploadsListSecondary = getPendingUploadList(
-                secondaryPhotos,
-                isSecondary = true,
-                isVideo = false
-            )
-            Timber.d("Secondary photo pending list size: %s", pendingUploadsListSecondary.size)
-            saveSyncRecordsToDB(
-                pendingUploadsListSecondary, primaryUploadNode, secondaryUploadNode, tempRoot
-            )
+        // Reset backup state as active.
+        updatePrimaryFolderBackupState(BackupState.ACTIVE)
+        updateSecondaryFolderBackupState(BackupState.ACTIVE)
+        checkUploadTransfersPaused()
 
-            val pendingVideoUploadsListSecondary = getPendingUploadList(
-                secondaryVideos,
-                isSecondary = true,
-                isVideo = true
-            )
-            Timber.d("Secondary video pending list size: %s", pendingVideoUploadsListSecondary.size)
-            saveSyncRecordsToDB(
-                pendingVideoUploadsListSecondary, primaryUploadNode, secondaryUploadNode, tempRoot
-            )
+        // Uploads finishing while the media store is scanned do not end the queue
+        isScanning = true
+        var startedUploads = 0
+        try {
+            // Records left pending by a previous run
+            startedUploads += startPendingUploads(getPendingSyncRecords())
+            for (page in pages) {
+                if (!running) break
+                val pendingUploadsList = getPendingUploadList(
+                    LinkedList(page.media),
+                    isSecondary = page.isSecondary,
+                    isVideo = page.isVideo
+                )
+                Timber.d(
+                    "Scanned %d media (secondary: %s, video: %s), pending list size: %d",
+                    page.media.size, page.isSecondary, page.isVideo, pendingUploadsList.size
+                )
+                val savedRecords = saveSyncRecordsToDB(
+                    pendingUploadsList, primaryUploadNode, secondaryUploadNode, tempRoot
+                )
+                startedUploads += startPendingUploads(
+                    savedRecords.filter { it.status == SyncStatus.STATUS_PENDING.value }
+                )
+            }
+        } finally {
+            pages.cancel()
+            isScanning = false
         }
-        yield()
+        if (!running) return
 
         // Need to maintain timestamp for better performance
         updateTimeStamp(null, SyncTimeStamp.PRIMARY_PHOTO)
@@ -1049,12 +919,7 @@ class CameraUploadsService : LifecycleService(), OnNetworkTypeChangeCallback,
         updateTimeStamp(null, SyncTimeStamp.SECONDARY_PHOTO)
         updateTimeStamp(null, SyncTimeStamp.SECONDARY_VIDEO)
 
-        // Reset backup state as active.
-        updatePrimaryFolderBackupState(BackupState.ACTIVE)
-        updateSecondaryFolderBackupState(BackupState.ACTIVE)
-
-        val finalList = getPendingSyncRecords()
-        if (finalList.isEmpty()) {
+        if (startedUploads == 0) {
             if (compressedVideoPending()) {
                 Timber.d("Pending upload list is empty, now check view compression status.")
                 startVideoCompression()
@@ -1068,27 +933,56 @@ class CameraUploadsService : LifecycleService(), OnNetworkTypeChangeCallback,
                 FileUtil.purgeDirectory(tempRoot?.let { File(it) })
             }
         } else {
-            Timber.d("Start to upload %d files.", finalList.size)
-            startParallelUpload(finalList, false)
+            Timber.d("Started to upload %d files.", startedUploads)
+            startActiveHeartbeat(getPendingSyncRecords())
+            checkUploadQueueFinished()
+        }
+    }
+
+    /**
+     * Starts the uploads of some pending sync records while the media store is still scanned.
+     *
+     * @param records Pending sync records.
+     * @return The number of records.
+     */
+    private suspend fun startPendingUploads(records: List<SyncRecord>): Int {
+        if (records.isNotEmpty()) {
+            Timber.d("Start to upload %d files.", records.size)
+            uploadRecords(records, false)
         }
+        return records.size
     }
 
     private suspend fun startParallelUpload(
         finalList: List<SyncRecord>,
         isCompressedVideo: Boolean,
     ) {
-        // If the Service detects that all upload transfers are paused when turning on
-        // Camera Uploads, update the Primary and Secondary Folder Backup States to
-        // BackupState.PAUSE_UPLOADS
+        checkUploadTransfersPaused()
+        startActiveHeartbeat(finalList)
+        uploadRecords(finalList, isCompressedVideo)
+        checkUploadQueueFinished()
+    }
+
+    /**
+     * If the Service detects that all upload transfers are paused when turning on
+     * Camera Uploads, update the Primary and Secondary Folder Backup States to
+     * BackupState.PAUSE_UPLOADS
+     */
+    private suspend fun checkUploadTransfersPaused() {
         if (areAllUploadTransfersPaused()) {
             Timber.d("All Pending Uploads Paused. Send Backup State = ${BackupState.PAUSE_UPLOADS}")
             updatePrimaryFolderBackupState(BackupState.PAUSE_UPLOADS)
             updateSecondaryFolderBackupState(BackupState.PAUSE_UPLOADS)
         }
+    }
+
+    private suspend fun uploadRecords(
+        finalList: List<SyncRecord>,
+        isCompressedVideo: Boolean,
+    ) {
         val primaryUploadNode = getNodeByHandle(getPrimarySyncHandle())
         val secondaryUploadNode = getNodeByHandle(getSecondarySyncHandle())
 
-        startActiveHeartbeat(finalList)
         for (file in finalList) {
             if (!running) break
             val isSecondary = file.isSecondary
@@ -1166,9 +1060,11 @@ class CameraUploadsService : LifecycleService(), OnNetworkTypeChangeCallback,
             } else {
                 val toUpload = path?.let { File(it) }
                 if ((toUpload != null) && toUpload.exists()) {
-                    // compare size
-                    val node = checkExistBySize(parent, toUpload.length())
-                    if (node != null && node.originalFingerprint == null) {
+                    val node = file.originFingerprint
+                        ?.let { cameraUploadFolderIndex.getChildByFingerprint(parent, it) }
+                        ?: cameraUploadFolderIndex.getChildBySize(parent, toUpload.length())
+                            ?.takeIf { it.originalFingerprint == null }
+                    if (node != null) {
                         Timber.d(
                             "Node with handle: %d already exists, delete record from database.",
                             node.handle
@@ -1192,7 +1088,9 @@ class CameraUploadsService : LifecycleService(), OnNetworkTypeChangeCallback,
                 }
             }
         }
+    }
 
+    private suspend fun checkUploadQueueFinished() {
         if (totalToUpload == totalUploaded) {
             if (compressedVideoPending() && !canceled && isCompressorAvailable()) {
                 Timber.d("Got pending videos, will start compress.")
@@ -1204,16 +1102,6 @@ class CameraUploadsService : LifecycleService(), OnNetworkTypeChangeCallback,
         }
     }
 
-    private suspend fun checkExistBySize(parent: MegaNode, size: Long): MegaNode? {
-        val nodeList = getChildrenNode(parent, SortOrder.ORDER_ALPHABETICAL_ASC)
-        for (node in nodeList) {
-            if (node.size == size) {
-                return node
-            }
-        }
-        return null
-    }
-
     private fun getLastModifiedTime(file: SyncRecord): Long {
         val source = file.localPath?.let { File(it) }
         return source?.lastModified() ?: 0
@@ -1432,6 +1320,8 @@ class CameraUploadsService : LifecycleService(), OnNetworkTypeChangeCallback,
             endService()
             return
         }
+        cameraUploadFolderIndex.clear()
+        megaApi?.addGlobalListener(globalListener)
 
         val previousIP = app?.localIpAddress
         // the new logic implemented in NetworkStateReceiver
@@ -1473,6 +1363,7 @@ class CameraUploadsService : LifecycleService(), OnNetworkTypeChangeCallback,
 
         videoCompressor?.stop()
         cuTransfers.clear()
+        cameraUploadFolderIndex.clear()
         canceled = true
         running = false
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
@@ -1571,6 +1462,7 @@ class CameraUploadsService : LifecycleService(), OnNetworkTypeChangeCallback,
         } else if (request.type == MegaRequest.TYPE_COPY) {
             if (e.errorCode == MegaError.API_OK) {
                 val node = getNodeByHandle(request.nodeHandle)
+                node?.let { cameraUploadFolderIndex.onNodeAdded(it) }
                 val fingerPrint = node?.fingerprint
                 val isSecondary = node?.parentHandle == getSecondarySyncHandle()
                 fingerPrint?.let { deleteSyncRecordByFingerprint(it, fingerPrint, isSecondary) }
@@ -1672,9 +1564,22 @@ class CameraUploadsService : LifecycleService(), OnNetworkTypeChangeCallback,
             Timber.d("Transfer cancel: %s", transfer.nodeHandle)
             megaApi?.cancelTransfer(transfer)
             endService()
-            return
         }
-        if (isOverQuota) {
+    }
+
+    /**
+     * Refreshes the progress notification from the upload updates of the transfer event bus, at
+     * most once per refresh interval instead of on every progress callback
+     */
+    private suspend fun monitorUploadProgress() {
+        getGlobalTransferUseCase.monitor(Util.ONTRANSFERUPDATE_REFRESH_MILLIS.toLong())
+            .filter { it is OnTransferUpdate && it.transfer?.type == MegaTransfer.TYPE_UPLOAD }
+            .collect { uploadProgressUpdated() }
+    }
+
+    @Synchronized
+    private fun uploadProgressUpdated() {
+        if (canceled || isOverQuota) {
             return
         }
         updateProgressNotification()
@@ -1736,6 +1641,7 @@ class CameraUploadsService : LifecycleService(), OnNetworkTypeChangeCallback,
         if (e.errorCode == MegaError.API_OK) {
             Timber.d("Image Sync API_OK")
             val node = getNodeByHandle(transfer.nodeHandle)
+            node?.let { cameraUploadFolderIndex.onNodeAdded(it) }
             val isSecondary = node?.parentHandle == getSecondarySyncHandle()
             val record = getSyncRecordByPath(path, isSecondary)
             if (record != null) {
@@ -1818,7 +1724,7 @@ class CameraUploadsService : LifecycleService(), OnNetworkTypeChangeCallback,
             totalUploaded,
             megaApi?.numPendingUploads
         )
-        if (totalToUpload == totalUploaded) {
+        if (totalToUpload == totalUploaded && !isScanning) {
             Timber.d("Photo upload finished, now checking videos")
             if (compressedVideoPending() && !canceled && isCompressorAvailable()) {
                 Timber.d("Got pending videos, will start compress")
@@ -2260,4 +2166,24 @@ class CameraUploadsService : LifecycleService(), OnNetworkTypeChangeCallback,
         Timber.d("Device battery level is %s", level)
         return level <= LOW_BATTERY_LEVEL && !Util.isCharging(this@CameraUploadsService)
     }
+
+    /**
+     * Media store collection scanned for one of the upload folders.
+     */
+    private data class MediaScan(
+        val uri: Uri,
+        val parentPath: String?,
+        val selectionQuery: String?,
+        val isSecondary: Boolean,
+        val isVideo: Boolean,
+    )
+
+    /**
+     * Page of media read by [CameraUploadMediaScanner].
+     */
+    private class ScannedPage(
+        val media: List<CameraUploadMedia>,
+        val isSecondary: Boolean,
+        val isVideo: Boolean,
+    )
 }
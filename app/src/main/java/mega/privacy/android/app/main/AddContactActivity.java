@@ -84,6 +84,7 @@ import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.jeremyliao.liveeventbus.LiveEventBus;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -115,6 +116,7 @@ import mega.privacy.android.app.main.controllers.ContactController;
 import mega.privacy.android.app.main.qrcode.QRCodeActivity;
 import mega.privacy.android.app.usecase.chat.GetChatChangesUseCase;
 import mega.privacy.android.app.utils.ColorUtils;
+import mega.privacy.android.app.utils.contacts.ContactSearchIndex;
 import nz.mega.sdk.MegaApiJava;
 import nz.mega.sdk.MegaChatApi;
 import nz.mega.sdk.MegaChatRoom;
@@ -236,7 +238,20 @@ public class AddContactActivity extends PasscodeActivity implements View.OnClick
     private SearchView.SearchAutoComplete searchAutoComplete;
     private boolean searchExpand = false;
 
-    private FilterContactsTask filterContactsTask;
+    private final ContactSearchIndex<MegaContactAdapter> megaContactsSearchIndex = new ContactSearchIndex<>(contact ->
+            Arrays.asList(getMegaContactMail(contact), contact.getFullName()));
+    private final ContactSearchIndex<PhoneContactInfo> phoneContactsSearchIndex = new ContactSearchIndex<>(contact ->
+            Arrays.asList(contact.getEmail(), contact.getName()));
+    private final ContactSearchIndex<ShareContactInfo> shareContactsSearchIndex = new ContactSearchIndex<>(contact -> {
+        if (contact.isHeader()) {
+            return Collections.emptyList();
+        } else if (contact.isMegaContact() && contact.getMegaContactAdapter() != null) {
+            return Arrays.asList(getMegaContactMail(contact.getMegaContactAdapter()), contact.getMegaContactAdapter().getFullName());
+        } else if (contact.getPhoneContactInfo() != null) {
+            return Arrays.asList(contact.getPhoneContactInfo().getEmail(), contact.getPhoneContactInfo().getName());
+        }
+        return Collections.emptyList();
+    });
     private GetContactsTask getContactsTask;
     private GetPhoneContactsTask getPhoneContactsTask;
     private RecoverContactsTask recoverContactsTask;
@@ -370,6 +385,7 @@ public class AddContactActivity extends PasscodeActivity implements View.OnClick
                 filteredContactsShare.addAll(shareContacts);
             }
 
+            shareContactsSearchIndex.prepare(shareContacts);
             return null;
         }
 
@@ -460,6 +476,9 @@ public class AddContactActivity extends PasscodeActivity implements View.OnClick
                 }
             }
 
+            megaContactsSearchIndex.prepare(filteredContactMEGA);
+            phoneContactsSearchIndex.prepare(filteredContactsPhone);
+            shareContactsSearchIndex.prepare(filteredContactsShare);
             return null;
         }
 
@@ -468,11 +487,7 @@ public class AddContactActivity extends PasscodeActivity implements View.OnClick
             Timber.d("onPostExecute GetContactsTask");
             progressBar.setVisibility(View.GONE);
             if (searchExpand) {
-                if (isAsyncTaskRunning(filterContactsTask)) {
-                    filterContactsTask.cancel(true);
-                }
-                filterContactsTask = new FilterContactsTask();
-                filterContactsTask.execute();
+                filterContacts();
             } else {
                 if (contactType == CONTACT_TYPE_MEGA) {
                     if (newGroup) {
@@ -507,108 +522,78 @@ public class AddContactActivity extends PasscodeActivity implements View.OnClick
         }
     }
 
-    private class FilterContactsTask extends AsyncTask<Void, Void, Void> {
-
-        @Override
-        protected Void doInBackground(Void... voids) {
-            if (searchExpand) {
-                if (searchAutoComplete != null) {
-                    inputString = searchAutoComplete.getText().toString();
-                }
-            } else {
-                inputString = typeContactEditText.getText().toString();
+    /**
+     * Filters the contacts by the typed text. The fields of the contacts are normalized by the
+     * search indexes, so this is fast enough to do it on the main thread as the text changes.
+     */
+    private void filterContacts() {
+        if (searchExpand) {
+            if (searchAutoComplete != null) {
+                inputString = searchAutoComplete.getText().toString();
             }
-            if (inputString != null && !inputString.equals("")) {
-                MegaContactAdapter contactMega;
-                PhoneContactInfo contactPhone;
-                ShareContactInfo contactShare;
-
-                if (contactType == CONTACT_TYPE_MEGA) {
-                    queryContactMEGA.clear();
-                    for (int i = 0; i < filteredContactMEGA.size(); i++) {
-                        contactMega = filteredContactMEGA.get(i);
-                        if (getMegaContactMail(contactMega).toLowerCase().contains(inputString.toLowerCase())
-                                || contactMega.getFullName().toLowerCase().contains(inputString.toLowerCase())) {
-                            queryContactMEGA.add(contactMega);
-                        }
-                    }
-                } else if (contactType == CONTACT_TYPE_DEVICE) {
-                    queryContactsPhone.clear();
-                    for (int i = 0; i < filteredContactsPhone.size(); i++) {
-                        contactPhone = filteredContactsPhone.get(i);
-                        if (contactPhone.getEmail().toLowerCase().contains(inputString.toLowerCase())
-                                || contactPhone.getName().toLowerCase().contains(inputString.toLowerCase())) {
-                            queryContactsPhone.add(contactPhone);
-                        }
-                    }
-                } else {
-                    queryContactsShare.clear();
-                    int numMega = 0;
-                    int numPhone = 0;
-                    for (int i = 0; i < filteredContactsShare.size(); i++) {
-                        contactShare = filteredContactsShare.get(i);
-                        if (contactShare.isHeader()) {
-                            queryContactsShare.add(contactShare);
+        } else {
+            inputString = typeContactEditText.getText().toString();
+        }
+        if (inputString != null && !inputString.equals("")) {
+            if (contactType == CONTACT_TYPE_MEGA) {
+                queryContactMEGA.clear();
+                queryContactMEGA.addAll(megaContactsSearchIndex.search(filteredContactMEGA, inputString));
+            } else if (contactType == CONTACT_TYPE_DEVICE) {
+                queryContactsPhone.clear();
+                queryContactsPhone.addAll(phoneContactsSearchIndex.search(filteredContactsPhone, inputString));
+            } else {
+                queryContactsShare.clear();
+                int numMega = 0;
+                int numPhone = 0;
+                for (ShareContactInfo contactShare : filteredContactsShare) {
+                    if (contactShare.isHeader()) {
+                        queryContactsShare.add(contactShare);
+                    } else if (shareContactsSearchIndex.matches(contactShare, inputString)) {
+                        queryContactsShare.add(contactShare);
+                        if (contactShare.isMegaContact()) {
+                            numMega++;
                         } else {
-                            if (contactShare.isMegaContact()) {
-                                if (getMegaContactMail(contactShare.getMegaContactAdapter()).toLowerCase().contains(inputString.toLowerCase())
-                                        || contactShare.getMegaContactAdapter().getFullName().toLowerCase().contains(inputString.toLowerCase())) {
-                                    queryContactsShare.add(contactShare);
-                                    numMega++;
-                                }
-                            } else if (contactShare.getPhoneContactInfo() != null
-                                    && ((contactShare.getPhoneContactInfo().getEmail() != null && contactShare.getPhoneContactInfo().getEmail().toLowerCase().contains(inputString.toLowerCase()))
-                                    || (contactShare.getPhoneContactInfo().getName() != null && contactShare.getPhoneContactInfo().getName().toLowerCase().contains(inputString.toLowerCase())))) {
-
-                                queryContactsShare.add(contactShare);
-                                numPhone++;
-                            }
+                            numPhone++;
                         }
                     }
-                    if (numMega == 0 && queryContactsShare.size() > 0) {
-                        queryContactsShare.remove(0);
-                    }
-                    if (numPhone == 0 && (queryContactsShare.size() - 1 >= 0)) {
-                        queryContactsShare.remove(queryContactsShare.size() - 1);
-                    }
+                }
+                if (numMega == 0 && queryContactsShare.size() > 0) {
+                    queryContactsShare.remove(0);
+                }
+                if (numPhone == 0 && (queryContactsShare.size() - 1 >= 0)) {
+                    queryContactsShare.remove(queryContactsShare.size() - 1);
                 }
             }
-
-            return null;
         }
 
-        @Override
-        protected void onPostExecute(Void voids) {
-            Timber.d("onPostExecute FilterContactsTask");
-            if (contactType == CONTACT_TYPE_MEGA) {
-                if (inputString != null && !inputString.equals("")) {
-                    setMegaAdapterContacts(queryContactMEGA, MegaContactsAdapter.ITEM_VIEW_TYPE_LIST_ADD_CONTACT);
-                } else {
-                    setMegaAdapterContacts(filteredContactMEGA, MegaContactsAdapter.ITEM_VIEW_TYPE_LIST_ADD_CONTACT);
-                }
-            } else if (contactType == CONTACT_TYPE_DEVICE) {
-                if (inputString != null && !inputString.equals("")) {
-                    setPhoneAdapterContacts(queryContactsPhone);
-                } else {
-                    setPhoneAdapterContacts(filteredContactsPhone);
-                }
+        if (contactType == CONTACT_TYPE_MEGA) {
+            if (inputString != null && !inputString.equals("")) {
+                setMegaAdapterContacts(queryContactMEGA, MegaContactsAdapter.ITEM_VIEW_TYPE_LIST_ADD_CONTACT);
             } else {
-                if (inputString != null && !inputString.equals("")) {
-                    setShareAdapterContacts(queryContactsShare);
-                } else {
-                    setShareAdapterContacts(filteredContactsShare);
-                }
+                setMegaAdapterContacts(filteredContactMEGA, MegaContactsAdapter.ITEM_VIEW_TYPE_LIST_ADD_CONTACT);
+            }
+        } else if (contactType == CONTACT_TYPE_DEVICE) {
+            if (inputString != null && !inputString.equals("")) {
+                setPhoneAdapterContacts(queryContactsPhone);
+            } else {
+                setPhoneAdapterContacts(filteredContactsPhone);
+            }
+        } else {
+            if (inputString != null && !inputString.equals("")) {
+                setShareAdapterContacts(queryContactsShare);
+            } else {
+                setShareAdapterContacts(filteredContactsShare);
             }
-            visibilityFastScroller();
+        }
+        visibilityFastScroller();
 
-            if (isConfirmAddShown) {
-                if (isAsyncTaskRunning(queryIfContactSouldBeAddedTask)) {
-                    queryIfContactSouldBeAddedTask.cancel(true);
-                }
-                hideKeyboard(addContactActivity, 0);
-                queryIfContactSouldBeAddedTask = new QueryIfContactSouldBeAddedTask();
-                queryIfContactSouldBeAddedTask.execute(true);
+        if (isConfirmAddShown) {
+            if (isAsyncTaskRunning(queryIfContactSouldBeAddedTask)) {
+                queryIfContactSouldBeAddedTask.cancel(true);
             }
+            hideKeyboard(addContactActivity, 0);
+            queryIfContactSouldBeAddedTask = new QueryIfContactSouldBeAddedTask();
+            queryIfContactSouldBeAddedTask.execute(true);
         }
     }
 
@@ -733,11 +718,7 @@ public class AddContactActivity extends PasscodeActivity implements View.OnClick
             Timber.d("onPostExecute RecoverContactsTask");
             setAddedAdapterContacts();
             if (searchExpand) {
-                if (isAsyncTaskRunning(filterContactsTask)) {
-                    filterContactsTask.cancel(true);
-                }
-                filterContactsTask = new FilterContactsTask();
-                filterContactsTask.execute();
+                filterContacts();
             } else {
                 if (contactType == CONTACT_TYPE_MEGA) {
                     if (onNewGroup) {
@@ -1250,11 +1231,7 @@ public class AddContactActivity extends PasscodeActivity implements View.OnClick
                 Timber.d("onMenuItemActionExpand");
                 searchExpand = true;
                 typeContactEditText.getText().clear();
-                if (isAsyncTaskRunning(filterContactsTask)) {
-                    filterContactsTask.cancel(true);
-                }
-                filterContactsTask = new FilterContactsTask();
-                filterContactsTask.execute();
+                filterContacts();
                 setSendInvitationVisibility();
                 return true;
             }
@@ -1265,9 +1242,6 @@ public class AddContactActivity extends PasscodeActivity implements View.OnClick
                 searchExpand = false;
                 setSendInvitationVisibility();
                 setTitleAB();
-                if (isAsyncTaskRunning(filterContactsTask)) {
-                    filterContactsTask.cancel(true);
-                }
                 return true;
             }
         });
@@ -1282,11 +1256,7 @@ public class AddContactActivity extends PasscodeActivity implements View.OnClick
             @Override
             public boolean onQueryTextChange(String newText) {
                 Timber.d("onQueryTextChange searchView");
-                if (isAsyncTaskRunning(filterContactsTask)) {
-                    filterContactsTask.cancel(true);
-                }
-                filterContactsTask = new FilterContactsTask();
-                filterContactsTask.execute();
+                filterContacts();
                 return true;
             }
 
@@ -1309,8 +1279,7 @@ public class AddContactActivity extends PasscodeActivity implements View.OnClick
                 Timber.d("searchView != null inputString: %s", savedInputString);
                 searchView.setQuery(savedInputString, false);
                 if (recoverContactsTask != null && recoverContactsTask.getStatus() == AsyncTask.Status.FINISHED) {
-                    filterContactsTask = new FilterContactsTask();
-                    filterContactsTask.execute();
+                    filterContacts();
                 }
             }
         }
@@ -1460,9 +1429,6 @@ public class AddContactActivity extends PasscodeActivity implements View.OnClick
             getPhoneContactsTask.cancel(true);
             finished = false;
             outState.putStringArrayList("savedaddedContacts", null);
-        } else if (isAsyncTaskRunning(filterContactsTask)) {
-            filterContactsTask.cancel(true);
-            finished = true;
         } else if (isAsyncTaskRunning(recoverContactsTask)) {
             recoverContactsTask.cancel(true);
             finished = false;
@@ -1613,11 +1579,7 @@ public class AddContactActivity extends PasscodeActivity implements View.OnClick
                         if (searchMenuItem != null) {
                             searchMenuItem.collapseActionView();
                         }
-                        if (isAsyncTaskRunning(filterContactsTask)) {
-                            filterContactsTask.cancel(true);
-                        }
-                        filterContactsTask = new FilterContactsTask();
-                        filterContactsTask.execute();
+                        filterContacts();
                     }
                 }
             }
@@ -2231,8 +2193,7 @@ public class AddContactActivity extends PasscodeActivity implements View.OnClick
                 filteredContactsShare.add(i + 1, contactToAdd);
             }
             if (inputString != null && !inputString.equals("")) {
-                filterContactsTask = new FilterContactsTask();
-                filterContactsTask.execute();
+                filterContacts();
             } else {
                 adapterShareHeader.setContacts(filteredContactsShare);
                 if (index >= 0 && index < adapterShareHeader.getItemCount()) {
@@ -2245,8 +2206,7 @@ public class AddContactActivity extends PasscodeActivity implements View.OnClick
         } else {
             if (!onNewGroup) {
                 if (inputString != null && !inputString.equals("")) {
-                    filterContactsTask = new FilterContactsTask();
-                    filterContactsTask.execute();
+                    filterContacts();
                 } else {
                     adapterMEGA.setContacts(filteredContactMEGA);
                     if (index >= 0 && index < adapterMEGA.getItemCount()) {
@@ -2292,8 +2252,7 @@ public class AddContactActivity extends PasscodeActivity implements View.OnClick
                 }
             }
             if (inputString != null && !inputString.equals("")) {
-                filterContactsTask = new FilterContactsTask();
-                filterContactsTask.execute();
+                filterContacts();
             } else {
                 adapterShareHeader.setContacts(filteredContactsShare);
                 if (position >= 0 && position < adapterShareHeader.getItemCount()) {
@@ -2305,8 +2264,7 @@ public class AddContactActivity extends PasscodeActivity implements View.OnClick
             }
         } else {
             if (inputString != null && !inputString.equals("")) {
-                filterContactsTask = new FilterContactsTask();
-                filterContactsTask.execute();
+                filterContacts();
             } else {
                 adapterPhone.setContacts(filteredContactsPhone);
                 if (index >= 0 && index < adapterPhone.getItemCount()) {
@@ -2548,11 +2506,7 @@ public class AddContactActivity extends PasscodeActivity implements View.OnClick
             }
         }
 
-        if (isAsyncTaskRunning(filterContactsTask)) {
-            filterContactsTask.cancel(true);
-        }
-        filterContactsTask = new FilterContactsTask();
-        filterContactsTask.execute();
+        filterContacts();
         refreshKeyboard();
     }
 
@@ -2599,11 +2553,7 @@ public class AddContactActivity extends PasscodeActivity implements View.OnClick
                         hideKeyboard(addContactActivity, 0);
                     }
                 }
-                if (isAsyncTaskRunning(filterContactsTask)) {
-                    filterContactsTask.cancel(true);
-                }
-                filterContactsTask = new FilterContactsTask();
-                filterContactsTask.execute();
+                filterContacts();
             }
             return true;
         }
@@ -2792,8 +2742,7 @@ public class AddContactActivity extends PasscodeActivity implements View.OnClick
             }
 
             if (inputString != null && !inputString.equals("")) {
-                filterContactsTask = new FilterContactsTask();
-                filterContactsTask.execute();
+                filterContacts();
             } else {
                 adapterShareHeader.setContacts(filteredContactsShare);
             }
@@ -3033,9 +2982,6 @@ public class AddContactActivity extends PasscodeActivity implements View.OnClick
     private void newGroup() {
         Timber.d("newGroup");
 
-        if (isAsyncTaskRunning(filterContactsTask)) {
-            filterContactsTask.cancel(true);
-        }
         onNewGroup = true;
         searchExpand = false;
         if (aB != null) {
@@ -69,6 +69,7 @@ import mega.privacy.android.app.namecollision.data.NameCollision
 import mega.privacy.android.app.namecollision.data.NameCollision.Upload.Companion.getUploadCollision
 import mega.privacy.android.app.namecollision.usecase.CheckNameCollisionUseCase
 import mega.privacy.android.app.presentation.transfers.TransfersManagementActivity
+import mega.privacy.android.app.search.usecase.SearchNodesUseCase
 import mega.privacy.android.app.usecase.CopyNodeUseCase
 import mega.privacy.android.app.usecase.UploadUseCase
 import mega.privacy.android.app.usecase.chat.GetChatChangesUseCase
@@ -160,6 +161,9 @@ class FileExplorerActivity : TransfersManagementActivity(), MegaRequestListenerI
     @Inject
     lateinit var copyNodeUseCase: CopyNodeUseCase
 
+    @Inject
+    lateinit var searchNodesUseCase: SearchNodesUseCase
+
     private val viewModel by viewModels<FileExplorerViewModel>()
 
     private lateinit var binding: ActivityFileExplorerBinding
@@ -376,6 +380,8 @@ class FileExplorerActivity : TransfersManagementActivity(), MegaRequestListenerI
 
         super.onCreate(savedInstanceState)
         onBackPressedDispatcher.addCallback(this, onBackPressedCallback)
+        // The explorer fragments search through the local index once it is built
+        searchNodesUseCase.prepare()
 
         createChatLauncher =
             registerForActivityResult(ActivityResultContracts.StartActivityForResult()) { result ->
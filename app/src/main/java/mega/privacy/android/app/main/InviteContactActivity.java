@@ -75,6 +75,7 @@ import com.jeremyliao.liveeventbus.LiveEventBus;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -94,6 +95,7 @@ import mega.privacy.android.app.main.qrcode.QRCodeActivity;
 import mega.privacy.android.app.utils.ColorUtils;
 import mega.privacy.android.app.utils.Constants;
 import mega.privacy.android.app.utils.TimeUtils;
+import mega.privacy.android.app.utils.contacts.ContactSearchIndex;
 import mega.privacy.android.app.utils.contacts.ContactsFilter;
 import mega.privacy.android.app.utils.contacts.ContactsUtil;
 import mega.privacy.android.app.utils.contacts.MegaContactGetter;
@@ -145,7 +147,8 @@ public class InviteContactActivity extends PasscodeActivity implements ContactIn
     private int defaultLocalContactAvatarColor;
     private InvitationContactsAdapter invitationContactsAdapter;
     private ArrayList<InvitationContactInfo> phoneContacts, megaContacts, addedContacts, filteredContacts, totalContacts;
-    private FilterContactsTask filterContactsTask;
+    private final ContactSearchIndex<InvitationContactInfo> contactSearchIndex = new ContactSearchIndex<>(contact ->
+            Arrays.asList(contact.getName(), removeWhitespaces(contact.getName()), removeWhitespaces(contact.getDisplayInfo())));
     private FastScroller fastScroller;
     private FloatingActionButton fabButton;
     private EditText typeContactEditText;
@@ -233,10 +236,7 @@ public class InviteContactActivity extends PasscodeActivity implements ContactIn
         typeContactEditText.setImeOptions(EditorInfo.IME_ACTION_DONE);
         typeContactEditText.setOnFocusChangeListener((v, hasFocus) -> {
             if (hasFocus) {
-                if (filterContactsTask != null && filterContactsTask.getStatus() == AsyncTask.Status.RUNNING) {
-                    filterContactsTask.cancel(true);
-                }
-                startFilterTask();
+                filterContacts();
             }
         });
 
@@ -627,11 +627,8 @@ public class InviteContactActivity extends PasscodeActivity implements ContactIn
             }
         }
 
-        if (filterContactsTask != null && filterContactsTask.getStatus() == AsyncTask.Status.RUNNING) {
-            filterContactsTask.cancel(true);
-        }
         refreshInviteContactButton();
-        startFilterTask();
+        filterContacts();
         refreshKeyboard();
     }
 
@@ -670,10 +667,7 @@ public class InviteContactActivity extends PasscodeActivity implements ContactIn
                 if (!isScreenInPortrait(this)) {
                     hideKeyboard(this, 0);
                 }
-                if (filterContactsTask != null && filterContactsTask.getStatus() == AsyncTask.Status.RUNNING) {
-                    filterContactsTask.cancel(true);
-                }
-                startFilterTask();
+                filterContacts();
             }
             hideKeyboard(this, 0);
             refreshInviteContactButton();
@@ -902,6 +896,7 @@ public class InviteContactActivity extends PasscodeActivity implements ContactIn
 
             //keep all contacts for records
             totalContacts.addAll(filteredContacts);
+            contactSearchIndex.prepare(totalContacts);
             return null;
         }
 
@@ -919,64 +914,47 @@ public class InviteContactActivity extends PasscodeActivity implements ContactIn
         }
     }
 
-    @SuppressLint("StaticFieldLeak")
-    private class FilterContactsTask extends AsyncTask<Void, Void, Void> {
+    /**
+     * Filters the contacts by the typed text. The fields of the contacts are normalized by the
+     * search index, so this is fast enough to do it on the main thread as the text changes.
+     */
+    private void filterContacts() {
+        Timber.d("filterContacts");
+        inputString = typeContactEditText.getText().toString();
+        filteredContacts.clear();
 
-        @Override
-        protected Void doInBackground(Void... voids) {
-            Timber.d("FilterContactsTask doInBackground");
-            String query = inputString == null ? null : inputString.toLowerCase();
+        if (!TextUtils.isEmpty(inputString)) {
             ArrayList<InvitationContactInfo> megaContacts = new ArrayList<>();
             ArrayList<InvitationContactInfo> phoneContacts = new ArrayList<>();
 
-            if (query != null && !query.equals("")) {
-                for (int i = 0; i < totalContacts.size(); i++) {
-                    InvitationContactInfo invitationContactInfo = totalContacts.get(i);
-                    int type = invitationContactInfo.getType();
-                    String name = invitationContactInfo.getName().toLowerCase();
-                    String nameWithoutSpace = name.replaceAll("\\s", "");
-                    String displayLabel = invitationContactInfo.getDisplayInfo().toLowerCase().replaceAll("\\s", "");
-
-                    if (name.contains(query) || displayLabel.contains(query) || nameWithoutSpace.contains(query)) {
-                        if (type == TYPE_PHONE_CONTACT) {
-                            phoneContacts.add(invitationContactInfo);
-                        } else if (type == TYPE_MEGA_CONTACT) {
-                            megaContacts.add(invitationContactInfo);
-                        }
-                    }
+            for (InvitationContactInfo invitationContactInfo : contactSearchIndex.search(totalContacts, inputString)) {
+                int type = invitationContactInfo.getType();
+                if (type == TYPE_PHONE_CONTACT) {
+                    phoneContacts.add(invitationContactInfo);
+                } else if (type == TYPE_MEGA_CONTACT) {
+                    megaContacts.add(invitationContactInfo);
                 }
-                filteredContacts.clear();
-
-                //add header
-                if (megaContacts.size() > 0) {
-                    filteredContacts.add(new InvitationContactInfo(ID_MEGA_CONTACTS_HEADER, getString(R.string.contacts_mega), TYPE_MEGA_CONTACT_HEADER));
-                    filteredContacts.addAll(megaContacts);
-                }
-                if (phoneContacts.size() > 0) {
-                    filteredContacts.add(new InvitationContactInfo(ID_PHONE_CONTACTS_HEADER, getString(R.string.contacts_phone), TYPE_MEGA_CONTACT_HEADER));
-                    filteredContacts.addAll(phoneContacts);
-                }
-            } else {
-                filteredContacts.clear();
-                filteredContacts.addAll(totalContacts);
             }
 
-            return null;
+            //add header
+            if (megaContacts.size() > 0) {
+                filteredContacts.add(new InvitationContactInfo(ID_MEGA_CONTACTS_HEADER, getString(R.string.contacts_mega), TYPE_MEGA_CONTACT_HEADER));
+                filteredContacts.addAll(megaContacts);
+            }
+            if (phoneContacts.size() > 0) {
+                filteredContacts.add(new InvitationContactInfo(ID_PHONE_CONTACTS_HEADER, getString(R.string.contacts_phone), TYPE_MEGA_CONTACT_HEADER));
+                filteredContacts.addAll(phoneContacts);
+            }
+        } else {
+            filteredContacts.addAll(totalContacts);
         }
 
-        @Override
-        protected void onPostExecute(Void voids) {
-            Timber.d("onPostExecute FilterContactsTask");
-            refreshList();
-            visibilityFastScroller();
-        }
+        refreshList();
+        visibilityFastScroller();
     }
 
-    private void startFilterTask() {
-        Timber.d("startFilterTask");
-        inputString = typeContactEditText.getText().toString();
-        filterContactsTask = new FilterContactsTask();
-        filterContactsTask.execute();
+    private static String removeWhitespaces(String text) {
+        return text == null ? null : text.replaceAll("\\s", "");
     }
 
     private View createContactTextView(String name, final int id) {
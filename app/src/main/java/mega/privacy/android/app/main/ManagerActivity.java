@@ -389,6 +389,7 @@ import mega.privacy.android.app.sync.fileBackups.FileBackupManager;
 import mega.privacy.android.app.upgradeAccount.UpgradeAccountActivity;
 import mega.privacy.android.app.usecase.CopyNodeUseCase;
 import mega.privacy.android.app.usecase.DownloadNodeUseCase;
+import mega.privacy.android.app.usecase.GetGlobalTransferUseCase;
 import mega.privacy.android.app.usecase.GetNodeUseCase;
 import mega.privacy.android.app.usecase.MoveNodeUseCase;
 import mega.privacy.android.app.usecase.RemoveNodeUseCase;
@@ -449,7 +450,6 @@ import nz.mega.sdk.MegaRequestListenerInterface;
 import nz.mega.sdk.MegaShare;
 import nz.mega.sdk.MegaTransfer;
 import nz.mega.sdk.MegaTransferData;
-import nz.mega.sdk.MegaTransferListenerInterface;
 import nz.mega.sdk.MegaUser;
 import nz.mega.sdk.MegaUserAlert;
 import timber.log.Timber;
@@ -458,7 +458,7 @@ import timber.log.Timber;
 @SuppressWarnings("deprecation")
 public class ManagerActivity extends TransfersManagementActivity
         implements MegaRequestListenerInterface, MegaChatRequestListenerInterface, OnNavigationItemSelectedListener,
-        MegaTransferListenerInterface, OnClickListener,
+        OnClickListener,
         BottomNavigationView.OnNavigationItemSelectedListener, UploadBottomSheetDialogActionListener,
         ChatManagementCallback, ActionNodeCallback, SnackbarShower,
         MeetingBottomSheetDialogActionListener, LoadPreviewListener.OnPreviewLoadedCallback {
@@ -548,6 +548,10 @@ public class ManagerActivity extends TransfersManagementActivity
     ActivityLifecycleHandler activityLifecycleHandler;
     @Inject
     MegaNodeUtilWrapper megaNodeUtilWrapper;
+    @Inject
+    GetGlobalTransferUseCase getGlobalTransferUseCase;
+
+    private Disposable transfersSubscription;
 
     public ArrayList<Integer> transfersInProgress;
     public MegaTransferData transferData;
@@ -1609,6 +1613,7 @@ public class ManagerActivity extends TransfersManagementActivity
         megaChatApi = app.getMegaChatApi();
 
         checkChatChanges();
+        checkTransferChanges();
 
         if (megaChatApi != null) {
             Timber.d("retryChatPendingConnections()");
@@ -3549,10 +3554,13 @@ public class ManagerActivity extends TransfersManagementActivity
         dbH.removeSentPendingMessages();
 
         if (megaApi != null) {
-            megaApi.removeTransferListener(this);
             megaApi.removeRequestListener(this);
         }
 
+        if (transfersSubscription != null) {
+            transfersSubscription.dispose();
+        }
+
         composite.clear();
 
         if (alertDialogSMSVerification != null) {
@@ -9998,8 +10006,33 @@ public class ManagerActivity extends TransfersManagementActivity
         }
     }
 
-    @Override
-    public void onTransferStart(MegaApiJava api, MegaTransfer transfer) {
+    /**
+     * Receives the transfer events from the shared transfer bus, with at most one update event of
+     * each transfer every ONTRANSFERUPDATE_REFRESH_MILLIS.
+     */
+    private void checkTransferChanges() {
+        transfersSubscription = getGlobalTransferUseCase.get(ONTRANSFERUPDATE_REFRESH_MILLIS)
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe((event) -> {
+                    MegaTransfer transfer = event.getTransfer();
+                    if (transfer == null) {
+                        return;
+                    }
+
+                    if (event instanceof GetGlobalTransferUseCase.Result.OnTransferStart) {
+                        onTransferStart(transfer);
+                    } else if (event instanceof GetGlobalTransferUseCase.Result.OnTransferUpdate) {
+                        onTransferUpdate(transfer);
+                    } else if (event instanceof GetGlobalTransferUseCase.Result.OnTransferFinish) {
+                        onTransferFinish(transfer, ((GetGlobalTransferUseCase.Result.OnTransferFinish) event).getError());
+                    } else if (event instanceof GetGlobalTransferUseCase.Result.OnTransferTemporaryError) {
+                        onTransferTemporaryError(transfer, ((GetGlobalTransferUseCase.Result.OnTransferTemporaryError) event).getError());
+                    }
+                }, Timber::e);
+    }
+
+    private void onTransferStart(MegaTransfer transfer) {
         Timber.d("onTransferStart: %d-%d - %d", transfer.getNotificationNumber(), transfer.getNodeHandle(), transfer.getTag());
 
         if (transfer.isStreamingTransfer() || isBackgroundTransfer(transfer)) {
@@ -10021,8 +10054,7 @@ public class ManagerActivity extends TransfersManagementActivity
         }
     }
 
-    @Override
-    public void onTransferFinish(MegaApiJava api, MegaTransfer transfer, MegaError e) {
+    private void onTransferFinish(MegaTransfer transfer, MegaError e) {
         Timber.d("onTransferFinish: %d - %d- %d", transfer.getNodeHandle(), transfer.getTag(), transfer.getNotificationNumber());
         if (transfer.isStreamingTransfer() || isBackgroundTransfer(transfer)) {
             return;
@@ -10075,8 +10107,7 @@ public class ManagerActivity extends TransfersManagementActivity
         }
     }
 
-    @Override
-    public void onTransferUpdate(MegaApiJava api, MegaTransfer transfer) {
+    private void onTransferUpdate(MegaTransfer transfer) {
 
         if (transfer.isStreamingTransfer() || isBackgroundTransfer(transfer)) {
             return;
@@ -10097,8 +10128,7 @@ public class ManagerActivity extends TransfersManagementActivity
         }
     }
 
-    @Override
-    public void onTransferTemporaryError(MegaApiJava api, MegaTransfer transfer, MegaError e) {
+    private void onTransferTemporaryError(MegaTransfer transfer, MegaError e) {
         Timber.w("onTransferTemporaryError: %d - %d", transfer.getNodeHandle(), transfer.getTag());
 
         if (e.getErrorCode() == MegaError.API_EOVERQUOTA) {
@@ -10123,12 +10153,6 @@ public class ManagerActivity extends TransfersManagementActivity
         }
     }
 
-    @Override
-    public boolean onTransferData(MegaApiJava api, MegaTransfer transfer, byte[] buffer) {
-        Timber.d("onTransferData");
-        return true;
-    }
-
     public boolean isList() {
         return isList;
     }
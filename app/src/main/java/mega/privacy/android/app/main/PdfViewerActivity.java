@@ -65,7 +65,6 @@ import android.database.Cursor;
 import android.graphics.Color;
 import android.graphics.Rect;
 import android.net.Uri;
-import android.os.AsyncTask;
 import android.os.Build;
 import android.os.Bundle;
 import android.os.Environment;
@@ -104,12 +103,7 @@ import com.shockwave.pdfium.util.SizeF;
 
 import org.jetbrains.annotations.NotNull;
 
-import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -781,49 +775,6 @@ public class PdfViewerActivity extends PasscodeActivity
         //No action needed
     }
 
-    private class LoadPDFStream extends AsyncTask<String, Void, InputStream> {
-
-        @Override
-        protected InputStream doInBackground(String... strings) {
-            InputStream inputStream = null;
-
-            try {
-                URL url = new URL(strings[0]);
-                HttpURLConnection httpURLConnection = (HttpURLConnection) url.openConnection();
-                if (httpURLConnection.getResponseCode() == 200) {
-                    inputStream = new BufferedInputStream((httpURLConnection.getInputStream()));
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-                return null;
-            }
-            return inputStream;
-        }
-
-        @Override
-        protected void onPostExecute(InputStream inputStream) {
-            Timber.d("onPostExecute");
-            try {
-                pdfView.fromStream(inputStream, String.valueOf(handle))
-                        .defaultPage(currentPage - 1)
-                        .onPageChange(PdfViewerActivity.this)
-                        .enableAnnotationRendering(true)
-                        .onLoad(PdfViewerActivity.this)
-                        .scrollHandle(defaultScrollHandle)
-                        .spacing(10) // in dp
-                        .onPageError(PdfViewerActivity.this)
-                        .password(password)
-                        .load();
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-
-            if (loading && !transferOverquota) {
-                progressBar.setVisibility(View.VISIBLE);
-            }
-        }
-    }
-
     public void reloadPDFwithPassword(String password) {
         this.password = password;
         maxIntents--;
@@ -836,7 +787,25 @@ public class PdfViewerActivity extends PasscodeActivity
 
     public void loadStreamPDF() {
         Timber.d("loading: %s", loading);
-        new LoadPDFStream().execute(uri.toString());
+
+        if (loading && !transferOverquota) {
+            progressBar.setVisibility(View.VISIBLE);
+        }
+        try {
+            // Opened progressively with range requests to the streaming server
+            pdfView.fromUrl(uri.toString(), String.valueOf(handle))
+                    .defaultPage(currentPage - 1)
+                    .onPageChange(this)
+                    .enableAnnotationRendering(true)
+                    .onLoad(this)
+                    .scrollHandle(defaultScrollHandle)
+                    .spacing(10) // in dp
+                    .onPageError(this)
+                    .password(password)
+                    .load();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
     }
 
     private void loadLocalPDF() {
@@ -742,9 +742,9 @@ public class ChatActivity extends PasscodeActivity
     MegaChatAdapter adapter;
     int stateHistory;
 
-    private ArrayList<AndroidMegaChatMessage> messages = new ArrayList<>();
-    private ArrayList<AndroidMegaChatMessage> bufferMessages = new ArrayList<>();
-    private ArrayList<AndroidMegaChatMessage> bufferSending = new ArrayList<>();
+    private ChatMessageList messages = new ChatMessageList();
+    private ChatMessageList bufferMessages = new ChatMessageList();
+    private ChatMessageList bufferSending = new ChatMessageList();
     private ArrayList<MessageVoiceClip> messagesPlaying = new ArrayList<>();
     private ArrayList<RemovedMessage> removedMessages = new ArrayList<>();
 
@@ -4799,7 +4799,6 @@ public class ChatActivity extends PasscodeActivity
             } else {
                 //Increment header position
                 index++;
-                adapter.addMessage(messages, index);
                 mLayoutManager.scrollToPositionWithOffset(index, scaleHeightPx(infoToShow == AndroidMegaChatMessage.CHAT_ADAPTER_SHOW_ALL ? 50 : 20, getOutMetrics()));
             }
         } else {
@@ -6308,21 +6307,7 @@ public class ChatActivity extends PasscodeActivity
     public void setRichLinkInfo(long msgId, AndroidMegaRichLinkMessage richLinkMessage) {
         Timber.d("setRichLinkInfo");
 
-        int indexToChange = -1;
-        ListIterator<AndroidMegaChatMessage> itr = messages.listIterator(messages.size());
-
-        // Iterate in reverse.
-        while (itr.hasPrevious()) {
-            AndroidMegaChatMessage messageToCheck = itr.previous();
-
-            if (!messageToCheck.isUploading()) {
-                if (messageToCheck.getMessage().getMsgId() == msgId) {
-                    indexToChange = itr.nextIndex();
-                    Timber.d("Found index to change: %s", indexToChange);
-                    break;
-                }
-            }
-        }
+        int indexToChange = messages.findPositionByMsgId(msgId);
 
         if (indexToChange != -1) {
 
@@ -6346,21 +6331,7 @@ public class ChatActivity extends PasscodeActivity
     public void setRichLinkImage(long msgId) {
         Timber.d("setRichLinkImage");
 
-        int indexToChange = -1;
-        ListIterator<AndroidMegaChatMessage> itr = messages.listIterator(messages.size());
-
-        // Iterate in reverse.
-        while (itr.hasPrevious()) {
-            AndroidMegaChatMessage messageToCheck = itr.previous();
-
-            if (!messageToCheck.isUploading()) {
-                if (messageToCheck.getMessage().getMsgId() == msgId) {
-                    indexToChange = itr.nextIndex();
-                    Timber.d("Found index to change: %s", indexToChange);
-                    break;
-                }
-            }
-        }
+        int indexToChange = messages.findPositionByMsgId(msgId);
 
         if (indexToChange != -1) {
 
@@ -6983,31 +6954,9 @@ public class ChatActivity extends PasscodeActivity
     }
 
     public void deleteMessage(MegaChatMessage msg, boolean rejected) {
-        int indexToChange = -1;
-
-        ListIterator<AndroidMegaChatMessage> itr = messages.listIterator(messages.size());
-
-        // Iterate in reverse.
-        while (itr.hasPrevious()) {
-            AndroidMegaChatMessage messageToCheck = itr.previous();
-            Timber.d("Index: %s", itr.nextIndex());
-
-            if (!messageToCheck.isUploading()) {
-                if (rejected) {
-                    if (messageToCheck.getMessage().getTempId() == msg.getTempId()) {
-                        indexToChange = itr.nextIndex();
-                        break;
-                    }
-                } else {
-                    if (messageToCheck.getMessage().getMsgId() == msg.getMsgId()
-                            || (msg.getTempId() != -1
-                            && messageToCheck.getMessage().getTempId() == msg.getTempId())) {
-                        indexToChange = itr.nextIndex();
-                        break;
-                    }
-                }
-            }
-        }
+        int indexToChange = rejected
+                ? messages.findPositionByTempId(msg.getTempId())
+                : messages.findPositionToUpdate(msg, true);
 
         if (indexToChange != -1) {
             messages.remove(indexToChange);
@@ -7045,7 +6994,6 @@ public class ChatActivity extends PasscodeActivity
                     }
                 }
             }
-            adapter.removeMessage(indexToChange + 1, messages);
             disableMultiselection();
         } else {
             Timber.w("index to change not found");
@@ -7054,23 +7002,7 @@ public class ChatActivity extends PasscodeActivity
 
     public int modifyAttachmentReceived(AndroidMegaChatMessage msg, long idPendMsg) {
         Timber.d("ID: %d, tempID: %d, Status: %d", msg.getMessage().getMsgId(), msg.getMessage().getTempId(), msg.getMessage().getStatus());
-        int indexToChange = -1;
-        ListIterator<AndroidMegaChatMessage> itr = messages.listIterator(messages.size());
-
-        // Iterate in reverse.
-        while (itr.hasPrevious()) {
-            AndroidMegaChatMessage messageToCheck = itr.previous();
-
-            if (messageToCheck.getPendingMessage() != null) {
-                Timber.d("Pending ID: %d, other: %d", messageToCheck.getPendingMessage().getId(), idPendMsg);
-
-                if (messageToCheck.getPendingMessage().getId() == idPendMsg) {
-                    indexToChange = itr.nextIndex();
-                    Timber.d("Found index to change: %s", indexToChange);
-                    break;
-                }
-            }
-        }
+        int indexToChange = messages.findPositionByPendingMessageId(idPendMsg);
 
         if (indexToChange != -1) {
 
@@ -7078,7 +7010,6 @@ public class ChatActivity extends PasscodeActivity
             messages.remove(indexToChange);
             Timber.d("Removed index: %s", indexToChange);
             Timber.d("Messages size: %s", messages.size());
-            adapter.removeMessage(indexToChange + 1, messages);
 
             int scrollToP = appendMessagePosition(msg);
             if (scrollToP != -1) {
@@ -7102,32 +7033,11 @@ public class ChatActivity extends PasscodeActivity
      *
      * @param msg         The updated AndroidMegaChatMessage.
      * @param checkTempId True if has to check the temp id instead of final id.
-     * @param itr         ListIterator containing the list of messages to check.
+     * @param list        List of messages to check.
      * @return The index to change if successful, INVALID_POSITION otherwise.
      */
-    private int getIndexToUpdate(AndroidMegaChatMessage msg, boolean checkTempId, ListIterator<AndroidMegaChatMessage> itr) {
-        // Iterate in reverse.
-        while (itr.hasPrevious()) {
-            AndroidMegaChatMessage messageToCheck = itr.previous();
-
-            if (!messageToCheck.isUploading()) {
-                Timber.d("Checking with Msg ID: %d and Msg TEMP ID: %d", messageToCheck.getMessage().getMsgId(), messageToCheck.getMessage().getTempId());
-
-                if (checkTempId && msg.getMessage().getTempId() != MEGACHAT_INVALID_HANDLE
-                        && msg.getMessage().getTempId() == messageToCheck.getMessage().getTempId()) {
-                    Timber.d("Modify received message with idTemp");
-                    return itr.nextIndex();
-                } else if (msg.getMessage().getMsgId() != MEGACHAT_INVALID_HANDLE
-                        && msg.getMessage().getMsgId() == messageToCheck.getMessage().getMsgId()) {
-                    Timber.d("modifyMessageReceived");
-                    return itr.nextIndex();
-                }
-            } else {
-                Timber.d("This message is uploading");
-            }
-        }
-
-        return INVALID_POSITION;
+    private int getIndexToUpdate(AndroidMegaChatMessage msg, boolean checkTempId, ChatMessageList list) {
+        return list.findPositionToUpdate(msg.getMessage(), checkTempId);
     }
 
     /**
@@ -7141,13 +7051,10 @@ public class ChatActivity extends PasscodeActivity
     public int modifyMessageReceived(AndroidMegaChatMessage msg, boolean checkTempId) {
         Timber.d("Msg ID: %dMsg TEMP ID: %dMsg status: %d", msg.getMessage().getMsgId(), msg.getMessage().getTempId(), msg.getMessage().getStatus());
 
-        ListIterator<AndroidMegaChatMessage> itr = messages.listIterator(messages.size());
-        int indexToChange = getIndexToUpdate(msg, checkTempId, itr);
-
+        int indexToChange = getIndexToUpdate(msg, checkTempId, messages);
 
         if (indexToChange == INVALID_POSITION) {
-            itr = bufferMessages.listIterator(bufferMessages.size());
-            indexToChange = getIndexToUpdate(msg, checkTempId, itr);
+            indexToChange = getIndexToUpdate(msg, checkTempId, bufferMessages);
 
             if (indexToChange != INVALID_POSITION) {
                 bufferMessages.set(indexToChange, msg);
@@ -7156,8 +7063,7 @@ public class ChatActivity extends PasscodeActivity
         }
 
         if (indexToChange == INVALID_POSITION) {
-            itr = bufferSending.listIterator(bufferSending.size());
-            indexToChange = getIndexToUpdate(msg, checkTempId, itr);
+            indexToChange = getIndexToUpdate(msg, checkTempId, bufferSending);
 
             if (indexToChange != INVALID_POSITION) {
                 bufferSending.set(indexToChange, msg);
@@ -7189,7 +7095,6 @@ public class ChatActivity extends PasscodeActivity
                             Timber.d("Removed index: %s", indexToChange);
                             messages.remove(indexToChange);
                             appendMessageAnotherMS(msg);
-                            adapter.notifyDataSetChanged();
                             return indexToChange;
                         }
                     }
@@ -7216,8 +7121,6 @@ public class ChatActivity extends PasscodeActivity
 
                     adapter.setHasStableIds(true);
                     listView.setAdapter(adapter);
-                } else {
-                    adapter.modifyMessage(messages, indexToChange + 1);
                 }
             }
         } else {
@@ -7225,7 +7128,6 @@ public class ChatActivity extends PasscodeActivity
             messages.remove(indexToChange);
             Timber.d("Removed index: %s", indexToChange);
             Timber.d("Messages size: %s", messages.size());
-            adapter.removeMessage(indexToChange + 1, messages);
             int scrollToP = appendMessagePosition(msg);
             if (scrollToP != -1) {
                 if (msg.getMessage().getStatus() == MegaChatMessage.STATUS_SERVER_RECEIVED) {
@@ -7242,42 +7144,12 @@ public class ChatActivity extends PasscodeActivity
         Timber.d("Edited Msg ID: %d, Old Msg ID: %d", editedMsg.getMessage().getMsgId(), messageToEdit.getMsgId());
         Timber.d("Edited Msg TEMP ID: %d, Old Msg TEMP ID: %d", editedMsg.getMessage().getTempId(), messageToEdit.getTempId());
         Timber.d("Edited Msg status: %d, Old Msg status: %d", editedMsg.getMessage().getStatus(), messageToEdit.getStatus());
-        int indexToChange = -1;
-        ListIterator<AndroidMegaChatMessage> itr = messages.listIterator(messages.size());
-
-        boolean editedMsgHasTempId = false;
-        if (editedMsg.getMessage().getTempId() != -1) {
-            editedMsgHasTempId = true;
-        }
-
-        // Iterate in reverse.
-        while (itr.hasPrevious()) {
-            AndroidMegaChatMessage messageToCheck = itr.previous();
-            Timber.d("Index: %s", itr.nextIndex());
-
-            if (!messageToCheck.isUploading()) {
-                Timber.d("Checking with Msg ID: %d and Msg TEMP ID: %d", messageToCheck.getMessage().getMsgId(), messageToCheck.getMessage().getTempId());
-                if (hasTempId) {
-                    if (editedMsgHasTempId && messageToCheck.getMessage().getTempId() == editedMsg.getMessage().getTempId()) {
-                        indexToChange = itr.nextIndex();
-                        break;
-                    } else if (!editedMsgHasTempId && messageToCheck.getMessage().getTempId() == editedMsg.getMessage().getMsgId()) {
-                        indexToChange = itr.nextIndex();
-                        break;
-                    }
-                } else {
-                    if (editedMsgHasTempId && messageToCheck.getMessage().getMsgId() == editedMsg.getMessage().getTempId()) {
-                        indexToChange = itr.nextIndex();
-                        break;
-                    } else if (!editedMsgHasTempId && messageToCheck.getMessage().getMsgId() == editedMsg.getMessage().getMsgId()) {
-                        indexToChange = itr.nextIndex();
-                        break;
-                    }
-                }
-            } else {
-                Timber.d("This message is uploading");
-            }
-        }
+        long editedMsgId = editedMsg.getMessage().getTempId() != -1
+                ? editedMsg.getMessage().getTempId()
+                : editedMsg.getMessage().getMsgId();
+        int indexToChange = hasTempId
+                ? messages.findPositionByTempId(editedMsgId)
+                : messages.findPositionByMsgId(editedMsgId);
 
         Timber.d("Index to change = %s", indexToChange);
         if (indexToChange != -1) {
@@ -7300,7 +7172,6 @@ public class ChatActivity extends PasscodeActivity
                             Timber.d("Removed index: %s", indexToChange);
                             messages.remove(indexToChange);
                             appendMessageAnotherMS(editedMsg);
-                            adapter.notifyDataSetChanged();
                         }
                     }
                 }
@@ -7320,8 +7191,6 @@ public class ChatActivity extends PasscodeActivity
                     //Create adapter
                     if (adapter == null) {
                         createAdapter();
-                    } else {
-                        adapter.modifyMessage(messages, indexToChange + 1);
                     }
                 }
             } else {
@@ -7329,7 +7198,6 @@ public class ChatActivity extends PasscodeActivity
                 messages.remove(indexToChange);
                 Timber.d("Removed index: %s", indexToChange);
                 Timber.d("Messages size: %s", messages.size());
-                adapter.removeMessage(indexToChange + 1, messages);
                 int scrollToP = appendMessagePosition(editedMsg);
                 if (scrollToP != -1 && editedMsg.getMessage().getStatus() == MegaChatMessage.STATUS_SERVER_RECEIVED) {
                     mLayoutManager.scrollToPosition(scrollToP + 1);
@@ -7354,8 +7222,6 @@ public class ChatActivity extends PasscodeActivity
         if (adapter == null) {
             createAdapter();
         } else {
-            adapter.loadPreviousMessages(messages, bufferMessages.size());
-
             Timber.d("addMessage: %s", messages.size());
             updateActionModeTitle();
             reDoTheSelectionAfterRotation();
@@ -7544,8 +7410,6 @@ public class ChatActivity extends PasscodeActivity
             if (lastIndex == 0) {
                 Timber.d("Arrives the first message of the chat");
                 updateMessages();
-            } else {
-                adapter.addMessage(messages, lastIndex + 1);
             }
         }
     }
@@ -7554,20 +7418,11 @@ public class ChatActivity extends PasscodeActivity
         Timber.d("reinsertNodeAttachmentNoRevoked");
         int lastIndex = messages.size() - 1;
         Timber.d("Last index: %s", lastIndex);
-        if (messages.size() == -1) {
+        if (messages.isEmpty()) {
             msg.setInfoToShow(AndroidMegaChatMessage.CHAT_ADAPTER_SHOW_ALL);
             messages.add(msg);
         } else {
-            Timber.d("Finding where to append the message");
-            while (messages.get(lastIndex).getMessage().getMsgIndex() > msg.getMessage().getMsgIndex()) {
-                Timber.d("Last index: %s", lastIndex);
-                lastIndex--;
-                if (lastIndex == -1) {
-                    break;
-                }
-            }
-            Timber.d("Last index: %s", lastIndex);
-            lastIndex++;
+            lastIndex = messages.findPositionToInsert(msg.getMessage().getMsgIndex());
             Timber.d("Append in position: %s", lastIndex);
             messages.add(lastIndex, msg);
             adjustInfoToShow(lastIndex);
@@ -7589,8 +7444,6 @@ public class ChatActivity extends PasscodeActivity
             if (lastIndex < 0) {
                 Timber.d("Arrives the first message of the chat");
                 updateMessages();
-            } else {
-                adapter.addMessage(messages, lastIndex + 1);
             }
         }
         return lastIndex;
@@ -7673,9 +7526,6 @@ public class ChatActivity extends PasscodeActivity
             if (lastIndex < 0) {
                 Timber.d("Arrives the first message of the chat");
                 updateMessages();
-            } else {
-                adapter.addMessage(messages, lastIndex + 1);
-                adapter.notifyItemChanged(lastIndex);
             }
         }
         return lastIndex;
@@ -8060,7 +7910,6 @@ public class ChatActivity extends PasscodeActivity
     public void removeMsgNotSent() {
         Timber.d("Selected position: %s", selectedPosition);
         messages.remove(selectedPosition);
-        adapter.removeMessage(selectedPosition, messages);
     }
 
     public void updatingRemovedMessage(MegaChatMessage message) {
@@ -8115,15 +7964,7 @@ public class ChatActivity extends PasscodeActivity
      * @return The position of the pending message if exist, INVALID_POSITION otherwise.
      */
     public int findPendingMessagePosition(long pendingMsgId) {
-        ListIterator<AndroidMegaChatMessage> itr = messages.listIterator(messages.size());
-
-        while (itr.hasPrevious()) {
-            if (pendingMsgId == itr.previous().getMessage().getTempId()) {
-                return itr.nextIndex();
-            }
-        }
-
-        return INVALID_POSITION;
+        return messages.findPositionByTempId(pendingMsgId);
     }
 
     /**
@@ -8132,24 +7973,15 @@ public class ChatActivity extends PasscodeActivity
      * @param pendingMsg The pending message to update.
      */
     private void updatePendingMessage(PendingMessageSingle pendingMsg) {
-        ListIterator<AndroidMegaChatMessage> itr = messages.listIterator(messages.size());
-
-        while (itr.hasPrevious()) {
-            AndroidMegaChatMessage messageToCheck = itr.previous();
-
-            if (messageToCheck.getPendingMessage() != null
-                    && messageToCheck.getPendingMessage().getId() == pendingMsg.id) {
-                int indexToChange = itr.nextIndex();
-                Timber.d("Found index to update: %s", indexToChange);
-
-                messages.set(indexToChange, new AndroidMegaChatMessage(pendingMsg,
-                        pendingMsg.getState() >= PendingMessageSingle.STATE_PREPARING
-                                && pendingMsg.getState() <= PendingMessageSingle.STATE_COMPRESSING));
-
-                adapter.modifyMessage(messages, indexToChange + 1);
-                break;
-            }
+        int indexToChange = messages.findPositionByPendingMessageId(pendingMsg.id);
+        if (indexToChange == INVALID_POSITION) {
+            return;
         }
+
+        Timber.d("Found index to update: %s", indexToChange);
+        messages.set(indexToChange, new AndroidMegaChatMessage(pendingMsg,
+                pendingMsg.getState() >= PendingMessageSingle.STATE_PREPARING
+                        && pendingMsg.getState() <= PendingMessageSingle.STATE_COMPRESSING));
     }
 
     public void showSnackbar(int type, String s, long idChat, String emailUser) {
@@ -8198,7 +8030,7 @@ public class ChatActivity extends PasscodeActivity
         if (dialog != null) {
             dialog.dismiss();
         }
-        this.messages = messages;
+        this.messages = new ChatMessageList(messages);
         //Create adapter
         if (adapter == null) {
             createAdapter();
@@ -8439,6 +8271,7 @@ public class ChatActivity extends PasscodeActivity
         if (adapter != null) {
             adapter.stopAllReproductionsInProgress();
             adapter.destroyVoiceElemnts();
+            adapter.cancelPendingImages();
         }
 
         unregisterReceiver(historyTruncatedByRetentionTimeReceiver);
@@ -8553,7 +8386,7 @@ public class ChatActivity extends PasscodeActivity
 
                                 if (pendingMsg != null) {
                                     messages.get(indexToChange).setPendingMessage(pendingMsg);
-                                    adapter.modifyMessage(messages, indexToChange + 1);
+                                    adapter.notifyItemChanged(indexToChange + 1);
                                 }
                             }
                         } else {
@@ -8683,7 +8516,6 @@ public class ChatActivity extends PasscodeActivity
                     : selectedPosition;
 
             messages.remove(positionToRemove);
-            adapter.removeMessage(positionToRemove, messages);
         } catch (IndexOutOfBoundsException exception) {
             Timber.e(exception, "EXCEPTION");
         }
@@ -0,0 +1,463 @@
+package mega.privacy.android.app.main.megachat;
+
+import static mega.privacy.android.app.utils.Constants.INVALID_POSITION;
+import static nz.mega.sdk.MegaChatApiJava.MEGACHAT_INVALID_HANDLE;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+
+import nz.mega.sdk.MegaChatMessage;
+
+/**
+ * List of the messages of a chat, indexed by msgId, tempId and pending message id.
+ * <p>
+ * The messages are kept in the order they are shown, which is the msgIndex order except for the
+ * messages still sending or uploading at the end. Finding a message by its ids is a hash lookup
+ * instead of a reverse scan of the list, and finding where a message goes by its msgIndex is a
+ * binary search while the list is in msgIndex order.
+ * <p>
+ * The positions are kept up to date when messages are added or removed close to the end of the
+ * list, as new and edited messages are, and are rebuilt on the next lookup otherwise, as after
+ * loading older messages at the beginning. A lookup checks the message found, and rebuilds the
+ * positions if it is not the expected one.
+ * <p>
+ * Every mutation reports the range of positions it affects to the {@link OnChangeListener}, so
+ * the adapter only binds those again. How a message is shown depends on the one before it, so
+ * the messages next to an inserted or removed one are reported as changed too.
+ */
+public class ChatMessageList extends ArrayList<AndroidMegaChatMessage> {
+
+    /**
+     * Maximum number of positions updated on an insertion or removal, instead of rebuilding the
+     * index on the next lookup.
+     */
+    private static final int MAX_POSITIONS_TO_SHIFT = 64;
+
+    private static final int ID_MSG = 0;
+    private static final int ID_TEMP = 1;
+    private static final int ID_PENDING = 2;
+
+    private final HashMap<Long, Integer> msgIdPositions = new HashMap<>();
+    private final HashMap<Long, Integer> tempIdPositions = new HashMap<>();
+    private final HashMap<Long, Integer> pendingIdPositions = new HashMap<>();
+    private boolean indexed;
+
+    /**
+     * Number of consecutive pairs not in msgIndex order, counting the ones with uploading messages.
+     */
+    private int unorderedPairs;
+
+    private OnChangeListener onChangeListener;
+
+    /**
+     * Receives the ranges of positions affected by the mutations of the list.
+     */
+    public interface OnChangeListener {
+
+        /**
+         * Called when messages were inserted.
+         *
+         * @param positionStart Position of the first inserted message.
+         * @param itemCount     Number of inserted messages.
+         */
+        void onRangeInserted(int positionStart, int itemCount);
+
+        /**
+         * Called when messages were removed.
+         *
+         * @param positionStart Position of the first removed message, before removing it.
+         * @param itemCount     Number of removed messages.
+         */
+        void onRangeRemoved(int positionStart, int itemCount);
+
+        /**
+         * Called when messages were replaced, or have to be shown again because of their
+         * neighbours.
+         *
+         * @param positionStart Position of the first changed message.
+         * @param itemCount     Number of changed messages.
+         */
+        void onRangeChanged(int positionStart, int itemCount);
+
+        /**
+         * Called when the list changed in ways not described by ranges.
+         */
+        void onDataSetChanged();
+    }
+
+    public ChatMessageList() {
+        super();
+    }
+
+    public ChatMessageList(@NonNull Collection<? extends AndroidMegaChatMessage> messages) {
+        super(messages);
+    }
+
+    /**
+     * Sets the listener of the changes of the list, replacing the previous one.
+     *
+     * @param onChangeListener The listener, or null to remove it.
+     */
+    public void setOnChangeListener(OnChangeListener onChangeListener) {
+        this.onChangeListener = onChangeListener;
+    }
+
+    /**
+     * Finds a loaded message by its msgId.
+     *
+     * @param msgId Identifier of the message.
+     * @return The position of the message if found, INVALID_POSITION otherwise.
+     */
+    public int findPositionByMsgId(long msgId) {
+        return findPosition(msgIdPositions, msgId, ID_MSG);
+    }
+
+    /**
+     * Finds a loaded message by its tempId.
+     *
+     * @param tempId Temporal identifier of the message.
+     * @return The position of the message if found, INVALID_POSITION otherwise.
+     */
+    public int findPositionByTempId(long tempId) {
+        return findPosition(tempIdPositions, tempId, ID_TEMP);
+    }
+
+    /**
+     * Finds a loaded pending message, one being sent or uploaded, by its id.
+     *
+     * @param pendingMsgId Identifier of the pending message.
+     * @return The position of the pending message if found, INVALID_POSITION otherwise.
+     */
+    public int findPositionByPendingMessageId(long pendingMsgId) {
+        return findPosition(pendingIdPositions, pendingMsgId, ID_PENDING);
+    }
+
+    /**
+     * Finds the loaded message an updated message replaces. If both ids match messages, gets the
+     * last one, as the reverse scan did.
+     *
+     * @param msg         The updated message.
+     * @param checkTempId True if has to check the temp id too.
+     * @return The position of the message if found, INVALID_POSITION otherwise.
+     */
+    public int findPositionToUpdate(MegaChatMessage msg, boolean checkTempId) {
+        int tempIdPosition = checkTempId ? findPositionByTempId(msg.getTempId()) : INVALID_POSITION;
+        return Math.max(tempIdPosition, findPositionByMsgId(msg.getMsgId()));
+    }
+
+    /**
+     * Gets the position where a message goes by its msgIndex, which is after the last message
+     * whose msgIndex is not greater.
+     *
+     * @param msgIndex Index of the message.
+     * @return The position.
+     */
+    public int findPositionToInsert(int msgIndex) {
+        ensureIndexed();
+
+        if (unorderedPairs == 0 && size() > 1) {
+            int low = 0;
+            int high = size();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (get(middle).getMessage().getMsgIndex() > msgIndex) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+            return low;
+        }
+
+        int position = size() - 1;
+        while (position >= 0 && (get(position).isUploading()
+                || get(position).getMessage().getMsgIndex() > msgIndex)) {
+            position--;
+        }
+        return position + 1;
+    }
+
+    @Override
+    public boolean add(AndroidMegaChatMessage message) {
+        add(size(), message);
+        return true;
+    }
+
+    @Override
+    public void add(int index, AndroidMegaChatMessage message) {
+        boolean update = canUpdate(index);
+        if (update) {
+            unorderedPairs -= countUnorderedPairs(index - 1, index);
+        }
+
+        super.add(index, message);
+
+        if (update) {
+            unorderedPairs += countUnorderedPairs(index - 1, index + 1);
+            for (int i = index; i < size(); i++) {
+                putPositions(i);
+            }
+        }
+
+        notifyInserted(index, 1);
+    }
+
+    @Override
+    public AndroidMegaChatMessage set(int index, AndroidMegaChatMessage message) {
+        AndroidMegaChatMessage previous;
+        if (indexed) {
+            unorderedPairs -= countUnorderedPairs(index - 1, index + 1);
+            previous = super.set(index, message);
+            removePositions(previous, index);
+            unorderedPairs += countUnorderedPairs(index - 1, index + 1);
+            putPositions(index);
+        } else {
+            previous = super.set(index, message);
+        }
+
+        if (onChangeListener != null) {
+            onChangeListener.onRangeChanged(index, 1);
+        }
+        return previous;
+    }
+
+    @Override
+    public AndroidMegaChatMessage remove(int index) {
+        boolean update = canUpdate(index);
+        if (update) {
+            unorderedPairs -= countUnorderedPairs(index - 1, index + 1);
+        }
+
+        AndroidMegaChatMessage removed = super.remove(index);
+
+        if (update) {
+            removePositions(removed, index);
+            unorderedPairs += countUnorderedPairs(index - 1, index);
+            for (int i = index; i < size(); i++) {
+                putPositions(i);
+            }
+        }
+
+        notifyRemoved(index, 1);
+        return removed;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int index = indexOf(o);
+        if (index == -1) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        int count = size();
+        super.clear();
+        invalidate();
+        if (count > 0 && onChangeListener != null) {
+            onChangeListener.onRangeRemoved(0, count);
+        }
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends AndroidMegaChatMessage> c) {
+        return addAll(size(), c);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends AndroidMegaChatMessage> c) {
+        invalidate();
+        boolean changed = super.addAll(index, c);
+        if (changed) {
+            notifyInserted(index, c.size());
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        invalidate();
+        return notifyDataSetChangedIf(super.removeAll(c));
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        invalidate();
+        return notifyDataSetChangedIf(super.retainAll(c));
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        invalidate();
+        super.removeRange(fromIndex, toIndex);
+        if (fromIndex < toIndex) {
+            notifyRemoved(fromIndex, toIndex - fromIndex);
+        }
+    }
+
+    /**
+     * Reports an insertion, and the messages before and after it as changed.
+     */
+    private void notifyInserted(int positionStart, int itemCount) {
+        if (onChangeListener == null) {
+            return;
+        }
+
+        onChangeListener.onRangeInserted(positionStart, itemCount);
+        if (positionStart > 0) {
+            onChangeListener.onRangeChanged(positionStart - 1, 1);
+        }
+        if (positionStart + itemCount < size()) {
+            onChangeListener.onRangeChanged(positionStart + itemCount, 1);
+        }
+    }
+
+    /**
+     * Reports a removal, and the messages which were before and after it as changed.
+     */
+    private void notifyRemoved(int positionStart, int itemCount) {
+        if (onChangeListener == null) {
+            return;
+        }
+
+        onChangeListener.onRangeRemoved(positionStart, itemCount);
+        int first = Math.max(positionStart - 1, 0);
+        int last = Math.min(positionStart, size() - 1);
+        if (first <= last) {
+            onChangeListener.onRangeChanged(first, last - first + 1);
+        }
+    }
+
+    private boolean notifyDataSetChangedIf(boolean changed) {
+        if (changed && onChangeListener != null) {
+            onChangeListener.onDataSetChanged();
+        }
+        return changed;
+    }
+
+    private int findPosition(HashMap<Long, Integer> positions, long id, int idType) {
+        if (id == MEGACHAT_INVALID_HANDLE) {
+            return INVALID_POSITION;
+        }
+
+        ensureIndexed();
+        Integer position = positions.get(id);
+        if (position == null) {
+            return INVALID_POSITION;
+        } else if (hasId(position, id, idType)) {
+            return position;
+        }
+
+        // The message was modified in place since it was indexed
+        invalidate();
+        ensureIndexed();
+        position = positions.get(id);
+        return position != null ? position : INVALID_POSITION;
+    }
+
+    private boolean hasId(int position, long id, int idType) {
+        if (position >= size()) {
+            return false;
+        }
+
+        AndroidMegaChatMessage androidMessage = get(position);
+        if (idType == ID_PENDING) {
+            PendingMessageSingle pendingMessage = androidMessage.getPendingMessage();
+            return pendingMessage != null && pendingMessage.getId() == id;
+        } else if (androidMessage.isUploading()) {
+            return false;
+        }
+
+        MegaChatMessage message = androidMessage.getMessage();
+        return message != null && (idType == ID_TEMP ? message.getTempId() : message.getMsgId()) == id;
+    }
+
+    /**
+     * Checks if the index can be updated for an insertion or removal at a position, instead of
+     * being rebuilt on the next lookup.
+     */
+    private boolean canUpdate(int index) {
+        if (indexed && size() - index <= MAX_POSITIONS_TO_SHIFT) {
+            return true;
+        }
+
+        invalidate();
+        return false;
+    }
+
+    private void invalidate() {
+        indexed = false;
+    }
+
+    private void ensureIndexed() {
+        if (indexed) {
+            return;
+        }
+
+        msgIdPositions.clear();
+        tempIdPositions.clear();
+        pendingIdPositions.clear();
+        for (int i = 0; i < size(); i++) {
+            putPositions(i);
+        }
+        unorderedPairs = countUnorderedPairs(0, size() - 1);
+        indexed = true;
+    }
+
+    private void putPositions(int position) {
+        AndroidMegaChatMessage androidMessage = get(position);
+        if (androidMessage.getPendingMessage() != null) {
+            pendingIdPositions.put(androidMessage.getPendingMessage().getId(), position);
+        }
+        if (androidMessage.isUploading() || androidMessage.getMessage() == null) {
+            return;
+        }
+
+        MegaChatMessage message = androidMessage.getMessage();
+        if (message.getMsgId() != MEGACHAT_INVALID_HANDLE) {
+            msgIdPositions.put(message.getMsgId(), position);
+        }
+        if (message.getTempId() != MEGACHAT_INVALID_HANDLE) {
+            tempIdPositions.put(message.getTempId(), position);
+        }
+    }
+
+    private void removePositions(AndroidMegaChatMessage androidMessage, int position) {
+        if (androidMessage.getPendingMessage() != null) {
+            pendingIdPositions.remove(androidMessage.getPendingMessage().getId(), position);
+        }
+        if (androidMessage.isUploading() || androidMessage.getMessage() == null) {
+            return;
+        }
+
+        MegaChatMessage message = androidMessage.getMessage();
+        msgIdPositions.remove(message.getMsgId(), position);
+        tempIdPositions.remove(message.getTempId(), position);
+    }
+
+    /**
+     * Counts the pairs of consecutive messages not in msgIndex order, for the pairs starting from
+     * the first position to the one before the last position.
+     */
+    private int countUnorderedPairs(int first, int last) {
+        int count = 0;
+        for (int i = Math.max(first, 0); i < Math.min(last, size() - 1); i++) {
+            if (!isOrdered(get(i), get(i + 1))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean isOrdered(AndroidMegaChatMessage message, AndroidMegaChatMessage next) {
+        return !message.isUploading() && !next.isUploading()
+                && message.getMessage() != null && next.getMessage() != null
+                && message.getMessage().getMsgIndex() <= next.getMessage().getMsgIndex();
+    }
+}
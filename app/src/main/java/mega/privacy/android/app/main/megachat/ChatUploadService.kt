@@ -186,7 +186,7 @@ class ChatUploadService : Service(), MegaRequestListenerInterface,
             IntentFilter(Constants.BROADCAST_ACTION_INTENT_UPDATE_PAUSE_NOTIFICATION)
         )
 
-        getGlobalTransferUseCase.get()
+        getGlobalTransferUseCase.get(Util.ONTRANSFERUPDATE_REFRESH_MILLIS.toLong())
             .subscribeOn(Schedulers.io())
             .observeOn(AndroidSchedulers.mainThread())
             .filter { it.transfer != null }
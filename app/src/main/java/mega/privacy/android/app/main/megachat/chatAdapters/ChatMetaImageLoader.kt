@@ -0,0 +1,165 @@
+package mega.privacy.android.app.main.megachat.chatAdapters
+
+import android.graphics.Bitmap
+import android.graphics.BitmapFactory
+import android.graphics.Canvas
+import android.graphics.Rect
+import android.util.Base64
+import androidx.annotation.MainThread
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.cancelChildren
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
+import mega.privacy.android.app.utils.cache.BitmapCache
+import timber.log.Timber
+
+/**
+ * Decodes the images embedded in the chat messages, as the previews and icons of rich links and
+ * the maps of geolocations, out of the main thread, and keeps them decoded.
+ *
+ * These images come Base64-encoded in the meta of the messages, so binding them decoded them on
+ * the main thread every time the message was shown while scrolling. Now a bind gets the decoded
+ * image if it is cached, or null and the decoding starts in background, notifying when it is done
+ * so the message is bound again.
+ *
+ * @property scope CoroutineScope where the images are decoded
+ */
+class ChatMetaImageLoader @JvmOverloads constructor(
+    private val scope: CoroutineScope = CoroutineScope(SupervisorJob() + Dispatchers.Default),
+) {
+
+    /**
+     * Listener notified in the main thread when an image is decoded
+     */
+    fun interface OnImageLoadedListener {
+
+        /**
+         * Called when an image of a message is decoded
+         *
+         * @param msgId Identifier of the message
+         */
+        fun onImageLoaded(msgId: Long)
+    }
+
+    /**
+     * Kind of image of a message
+     */
+    enum class ImageType {
+
+        /**
+         * Preview of a rich link
+         */
+        RICH_LINK_IMAGE,
+
+        /**
+         * Icon of a rich link
+         */
+        RICH_LINK_ICON,
+
+        /**
+         * Map of a geolocation, cropped to the size it is shown
+         */
+        GEOLOCATION
+    }
+
+    /**
+     * Keys of the images being decoded, only accessed from the main thread
+     */
+    private val pendingKeys = HashSet<String>()
+
+    /**
+     * Gets the decoded image of a message, starting to decode it if it is not decoded yet.
+     *
+     * @param msgId        Identifier of the message
+     * @param type         Kind of image
+     * @param encodedImage The image encoded in Base64, as in the meta of the message
+     * @param listener     Notified when the image is decoded, if it was not
+     * @return The decoded image, or null if it is not decoded yet or cannot be decoded
+     */
+    @MainThread
+    fun getImage(
+        msgId: Long,
+        type: ImageType,
+        encodedImage: String?,
+        listener: OnImageLoadedListener,
+    ): Bitmap? {
+        if (encodedImage.isNullOrEmpty()) return null
+
+        // Edited messages keep their identifier, so the content is part of the key
+        val key = "$msgId/${type.ordinal}/${encodedImage.hashCode()}"
+        cache.get(key)?.let { return it }
+
+        if (cache.containsKey(key) || !pendingKeys.add(key)) return null
+
+        scope.launch {
+            val bitmap = decode(encodedImage, type)
+            cache.put(key, bitmap)
+            withContext(Dispatchers.Main) {
+                pendingKeys.remove(key)
+                if (bitmap != null) {
+                    listener.onImageLoaded(msgId)
+                }
+            }
+        }
+
+        return null
+    }
+
+    /**
+     * Cancels the pending decodes, as when the chat is closed
+     */
+    @MainThread
+    fun cancel() {
+        scope.coroutineContext.cancelChildren()
+        pendingKeys.clear()
+    }
+
+    private fun decode(encodedImage: String, type: ImageType): Bitmap? =
+        try {
+            val decodedBytes = Base64.decode(encodedImage, 0)
+            val bitmap = BitmapFactory.decodeByteArray(decodedBytes, 0, decodedBytes.size)
+            if (type == ImageType.GEOLOCATION) getResizeBitmap(bitmap) else bitmap
+        } catch (e: Exception) {
+            Timber.e(e, "Error getting image")
+            null
+        }
+
+    private fun getResizeBitmap(originalBitmap: Bitmap?): Bitmap? {
+        if (originalBitmap == null) return null
+
+        val widthResizeBitmap = originalBitmap.width
+        val heightResizeBitmap = originalBitmap.width / 2
+        val topResizeBitmap = heightResizeBitmap / 2
+        val bottomResizeBitmap = topResizeBitmap + heightResizeBitmap
+        val resizeBitmap =
+            Bitmap.createBitmap(widthResizeBitmap, heightResizeBitmap, Bitmap.Config.ARGB_8888)
+
+        val canvas = Canvas(resizeBitmap)
+        val desRect = Rect(0, 0, widthResizeBitmap, heightResizeBitmap)
+        val srcRect = Rect(0, topResizeBitmap, widthResizeBitmap, bottomResizeBitmap)
+        canvas.drawBitmap(originalBitmap, srcRect, desRect, null)
+        originalBitmap.recycle()
+
+        return resizeBitmap
+    }
+
+    companion object {
+
+        /**
+         * Decoded images of all the chats, shared so reopening a chat does not decode them again
+         */
+        private val cache = BitmapCache<String>("chatMetaImage", BitmapCache.memoryBudget(32))
+
+        /**
+         * Releases memory depending on the level reported by the system.
+         *
+         * @param level Level received in onTrimMemory.
+         */
+        @JvmStatic
+        fun trimMemory(level: Int) {
+            cache.trimMemory(level)
+        }
+    }
+}
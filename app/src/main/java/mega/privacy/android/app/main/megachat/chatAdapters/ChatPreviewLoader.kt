@@ -0,0 +1,192 @@
+package mega.privacy.android.app.main.megachat.chatAdapters
+
+import android.graphics.Bitmap
+import androidx.annotation.MainThread
+import androidx.annotation.WorkerThread
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.async
+import kotlinx.coroutines.cancelChildren
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
+import timber.log.Timber
+
+/**
+ * Loads the previews of the chat messages in background, replacing an AsyncTask per bind.
+ *
+ * A bind requests the preview for its holder, which cancels the previous request of the holder,
+ * unless it is for the same preview, then only its listener is replaced. The request is cancelled
+ * too when the holder is recycled, so scrolling fast does not queue
+ * the previews of the messages no longer shown. The loads run at most [maxParallelLoads] at a time,
+ * and the requests of several holders for the same key share the same load, which is cancelled
+ * when none of them waits for it anymore.
+ *
+ * @property scope        CoroutineScope where the listeners are notified, in the main thread
+ * @property ioDispatcher CoroutineDispatcher where the previews are loaded
+ * @param maxParallelLoads Maximum number of previews loaded at the same time
+ */
+class ChatPreviewLoader @JvmOverloads constructor(
+    private val scope: CoroutineScope = CoroutineScope(SupervisorJob() + Dispatchers.Main.immediate),
+    private val ioDispatcher: CoroutineDispatcher = Dispatchers.IO,
+    maxParallelLoads: Int = MAX_PARALLEL_LOADS,
+) {
+
+    /**
+     * Loads a preview, in background
+     */
+    fun interface PreviewTask {
+
+        /**
+         * Loads the preview
+         *
+         * @return The preview, or null if it is not available
+         */
+        @WorkerThread
+        fun loadPreview(): Bitmap?
+    }
+
+    /**
+     * Listener notified in the main thread when a preview is loaded
+     */
+    fun interface OnPreviewLoadedListener {
+
+        /**
+         * Called when the preview is loaded, unless the request was cancelled
+         *
+         * @param preview The preview, or null if it is not available
+         */
+        fun onPreviewLoaded(preview: Bitmap?)
+    }
+
+    private class SharedLoad(val result: Deferred<Bitmap?>) {
+        var waiters = 0
+    }
+
+    private class Request(
+        val key: String,
+        val load: SharedLoad,
+        var listener: OnPreviewLoadedListener,
+    ) {
+        lateinit var job: Job
+        var isReleased = false
+    }
+
+    private val permits = Semaphore(maxParallelLoads)
+
+    /**
+     * Loads in progress by key, only accessed from the main thread
+     */
+    private val loads = HashMap<String, SharedLoad>()
+
+    /**
+     * Requests in progress by owner, only accessed from the main thread
+     */
+    private val requests = HashMap<Any, Request>()
+
+    /**
+     * Requests a preview, cancelling the previous request of the owner if it is for another
+     * preview.
+     *
+     * @param owner    Owner of the request, as the holder where the preview is shown
+     * @param key      Identifies the preview, so the requests for the same one share the load
+     * @param task     Loads the preview if there is no load in progress for the key
+     * @param listener Notified when the preview is loaded
+     */
+    @MainThread
+    fun load(owner: Any, key: String, task: PreviewTask, listener: OnPreviewLoadedListener) {
+        requests[owner]?.takeIf { it.key == key && !it.isReleased }?.let { current ->
+            current.listener = listener
+            return
+        }
+        cancel(owner)
+
+        val load = loads.getOrPut(key) {
+            SharedLoad(scope.async(ioDispatcher) {
+                permits.withPermit {
+                    try {
+                        task.loadPreview()
+                    } catch (e: Exception) {
+                        Timber.e(e, "Error loading preview %s", key)
+                        null
+                    }
+                }
+            })
+        }
+        load.waiters++
+
+        val request = Request(key, load, listener)
+        request.job = scope.launch(start = CoroutineStart.LAZY) {
+            val preview = load.result.await()
+            request.listener.onPreviewLoaded(preview)
+        }
+        requests[owner] = request
+        request.job.invokeOnCompletion {
+            release(request)
+            if (requests[owner] === request) {
+                requests.remove(owner)
+            }
+        }
+        request.job.start()
+    }
+
+    /**
+     * Runs a task in background, not bound to any owner, as downloading a voice clip.
+     *
+     * @param task The task
+     */
+    fun execute(task: Runnable) {
+        scope.launch(ioDispatcher) {
+            task.run()
+        }
+    }
+
+    /**
+     * Cancels the request of an owner, as when its holder is recycled.
+     *
+     * @param owner Owner of the request
+     */
+    @MainThread
+    fun cancel(owner: Any) {
+        requests.remove(owner)?.let { request ->
+            request.job.cancel()
+            release(request)
+        }
+    }
+
+    /**
+     * Cancels all the requests and tasks, as when the chat is closed
+     */
+    @MainThread
+    fun cancelAll() {
+        scope.coroutineContext.cancelChildren()
+        requests.clear()
+        loads.clear()
+    }
+
+    /**
+     * Stops waiting for the load of a request, cancelling the load if nobody else waits for it
+     */
+    private fun release(request: Request) {
+        if (request.isReleased) return
+        request.isReleased = true
+
+        val load = request.load
+        load.waiters--
+        if (load.waiters > 0) return
+
+        if (loads[request.key] === load) {
+            loads.remove(request.key)
+        }
+        load.result.cancel()
+    }
+
+    companion object {
+        private const val MAX_PARALLEL_LOADS = 4
+    }
+}
@@ -50,12 +50,13 @@ import static mega.privacy.android.app.utils.GiphyUtil.getOriginalGiphySrc;
 import static mega.privacy.android.app.utils.LinksUtil.interceptLinkClicks;
 import static mega.privacy.android.app.utils.LinksUtil.isIsClickAlreadyIntercepted;
 import static mega.privacy.android.app.utils.LinksUtil.resetIsClickAlreadyIntercepted;
+import static mega.privacy.android.app.utils.PreviewUtils.chatPreviewCache;
 import static mega.privacy.android.app.utils.PreviewUtils.createVideoPreview;
 import static mega.privacy.android.app.utils.PreviewUtils.getBitmapForCache;
+import static mega.privacy.android.app.utils.PreviewUtils.getBitmapForView;
+import static mega.privacy.android.app.utils.PreviewUtils.getChatPreviewFromCache;
 import static mega.privacy.android.app.utils.PreviewUtils.getPreview;
 import static mega.privacy.android.app.utils.PreviewUtils.getPreviewFolder;
-import static mega.privacy.android.app.utils.PreviewUtils.getPreviewFromCache;
-import static mega.privacy.android.app.utils.PreviewUtils.getPreviewFromFolder;
 import static mega.privacy.android.app.utils.PreviewUtils.previewCache;
 import static mega.privacy.android.app.utils.PreviewUtils.resizeBitmapUpload;
 import static mega.privacy.android.app.utils.PreviewUtils.setPreviewCache;
@@ -90,16 +91,13 @@ import android.content.Intent;
 import android.content.res.Configuration;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
-import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.PorterDuff;
-import android.graphics.Rect;
 import android.graphics.Typeface;
 import android.graphics.drawable.Drawable;
 import android.graphics.drawable.GradientDrawable;
 import android.media.MediaPlayer;
 import android.net.Uri;
-import android.os.AsyncTask;
 import android.os.Handler;
 import android.os.ParcelFileDescriptor;
 import android.provider.MediaStore;
@@ -110,7 +108,6 @@ import android.text.Spanned;
 import android.text.style.ForegroundColorSpan;
 import android.text.style.RelativeSizeSpan;
 import android.text.util.Linkify;
-import android.util.Base64;
 import android.util.DisplayMetrics;
 import android.util.TypedValue;
 import android.view.Display;
@@ -126,6 +123,8 @@ import android.widget.RelativeLayout;
 import android.widget.SeekBar;
 import android.widget.TextView;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.WorkerThread;
 import androidx.core.content.ContextCompat;
 import androidx.exifinterface.media.ExifInterface;
 import androidx.recyclerview.widget.RecyclerView;
@@ -170,6 +169,7 @@ import mega.privacy.android.app.main.controllers.ChatController;
 import mega.privacy.android.app.main.listeners.ChatNonContactNameListener;
 import mega.privacy.android.app.main.megachat.AndroidMegaChatMessage;
 import mega.privacy.android.app.main.megachat.ChatActivity;
+import mega.privacy.android.app.main.megachat.ChatMessageList;
 import mega.privacy.android.app.main.megachat.MessageVoiceClip;
 import mega.privacy.android.app.main.megachat.PendingMessageSingle;
 import mega.privacy.android.app.main.megachat.RemovedMessage;
@@ -241,7 +241,7 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
 
     Context context;
     private int positionClicked;
-    private ArrayList<AndroidMegaChatMessage> messages = new ArrayList<>();
+    private ChatMessageList messages = new ChatMessageList();
     private ArrayList<RemovedMessage> removedMessages = new ArrayList<>();
 
     private RecyclerView listFragment;
@@ -275,355 +275,11 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
     private GetAvatarUseCase getAvatarUseCase;
     private GetNodeUseCase getNodeUseCase;
 
-    private class ChatVoiceClipAsyncTask extends AsyncTask<MegaNodeList, Void, Integer> {
-        MegaChatAdapter.ViewHolderMessageChat holder;
-        int position;
-        long userHandle;
-        MegaNodeList nodeList;
-
-        public ChatVoiceClipAsyncTask(MegaChatAdapter.ViewHolderMessageChat holder, int position, long userHandle) {
-            this.holder = holder;
-            this.userHandle = userHandle;
-            this.position = position;
-        }
-
-        @Override
-        protected void onPreExecute() {
-            if (holder == null) {
-                holder = (ViewHolderMessageChat) listFragment.findViewHolderForAdapterPosition(position);
-            }
-            if (holder == null) return;
-
-            Timber.d("ChatVoiceClipAsyncTask:onPreExecute");
-            if (userHandle == myUserHandle) {
-                holder.uploadingOwnProgressbarVoiceclip.setVisibility(View.VISIBLE);
-                holder.contentOwnMessageVoiceClipPlay.setVisibility(View.GONE);
-                holder.notAvailableOwnVoiceclip.setVisibility(View.GONE);
-            } else {
-                holder.uploadingContactProgressbarVoiceclip.setVisibility(View.VISIBLE);
-                holder.contentContactMessageVoiceClipPlay.setVisibility(View.GONE);
-                holder.notAvailableContactVoiceclip.setVisibility(View.GONE);
-            }
-            super.onPreExecute();
-        }
-
-        @Override
-        protected Integer doInBackground(MegaNodeList... params) {
-            nodeList = params[0];
-            ((ChatActivity) context).sendToDownload(nodeList);
-            return 1;
-        }
-    }
-
-    private class ChatPreviewAsyncTask extends AsyncTask<MegaNode, Void, Integer> {
-
-        MegaChatAdapter.ViewHolderMessageChat holder;
-        MegaNode node;
-        Bitmap preview;
-        long msgId;
-
-        public ChatPreviewAsyncTask(MegaChatAdapter.ViewHolderMessageChat holder, long msgId) {
-            this.holder = holder;
-            this.msgId = msgId;
-        }
-
-        @Override
-        protected Integer doInBackground(MegaNode... params) {
-            node = params[0];
-            preview = getPreviewFromFolder(node, context);
-
-            if (preview != null) {
-                previewCache.put(node.getHandle(), preview);
-                return 0;
-            } else if (pendingPreviews.containsKey(node.getHandle())) {
-                Timber.d("The preview is already downloaded or added to the list");
-                return 1;
-            } else {
-                return 2;
-            }
-        }
-
-        @Override
-        protected void onPostExecute(Integer param) {
-            if (param == 0) {
-                AndroidMegaChatMessage message = getMessageAtAdapterPosition(holder.getAdapterPosition());
-                if (message == null) {
-                    Timber.w("Messages removed");
-                    return;
-                }
-
-                if (message.getMessage() != null && message.getMessage().getMegaNodeList() != null
-                        && message.getMessage().getMegaNodeList().get(0) != null) {
-                    long nodeMessageHandle = message.getMessage().getMegaNodeList().get(0).getHandle();
-                    if (nodeMessageHandle != node.getHandle()) {
-                        Timber.w("The nodeHandles are not equal!");
-                        return;
-                    }
-
-                    if (message.getMessage().getUserHandle() == megaChatApi.getMyUserHandle()) {
-                        setOwnPreview(holder, preview, node, checkForwardVisibilityInOwnMsg(removedMessages, message.getMessage(), isMultipleSelect(), cC), message.getMessage());
-                        if (isMsgRemovedOrHasRejectedOrManualSendingStatus(removedMessages, message.getMessage())) {
-                            setErrorStateOnPreview(holder, preview, message.getMessage().getStatus());
-                        }
-                    } else {
-                        setContactPreview(holder, preview, node);
-                    }
-                }
-            } else if (param == 2) {
-                File previewFile = new File(getPreviewFolder(context), node.getBase64Handle() + JPG_EXTENSION);
-                Timber.d("GET PREVIEW OF HANDLE: %d to download here: %s", node.getHandle(), previewFile.getAbsolutePath());
-                pendingPreviews.put(node.getHandle(), msgId);
-                PreviewDownloadListener listener = new PreviewDownloadListener(context, holder, megaChatAdapter, node);
-                megaApi.getPreview(node, previewFile.getAbsolutePath(), listener);
-            }
-        }
-    }
-
-    private class ChatLocalPreviewAsyncTask extends AsyncTask<MegaNode, Void, Integer> {
-
-        MegaNode node;
-        Bitmap preview;
-        File cacheDir;
-        File destination;
-        long msgId;
-        MegaChatAdapter.ViewHolderMessageChat holder;
-
-        public ChatLocalPreviewAsyncTask(MegaChatAdapter.ViewHolderMessageChat holder, long msgId) {
-            this.holder = holder;
-            this.msgId = msgId;
-        }
-
-        @Override
-        protected Integer doInBackground(MegaNode... params) {
-            Timber.d("ChatLocalPreviewAsyncTask-doInBackground");
-
-            node = params[0];
-
-            if (node == null) {
-                return 3;
-            }
-            preview = getPreviewFromFolder(node, context);
-
-            if (preview != null) {
-                previewCache.put(node.getHandle(), preview);
-                return 0;
-            } else {
-                destination = CacheFolderManager.buildPreviewFile(context, node.getName());
-
-                if (isFileAvailable(destination)) {
-                    if (destination.length() == node.getSize()) {
-                        File previewDir = getPreviewFolder(context);
-                        File previewFile = new File(previewDir, node.getBase64Handle() + ".jpg");
-                        Timber.d("Base 64 handle: %s, Handle: %d", node.getBase64Handle(), node.getHandle());
-                        boolean previewCreated = MegaUtilsAndroid.createPreview(destination, previewFile);
-
-                        if (previewCreated) {
-                            preview = getBitmapForCache(previewFile, context);
-                            destination.delete();
-                            return 0;
-                        } else {
-                            return 1;
-                        }
-                    } else {
-                        destination.delete();
-                        return 1;
-                    }
-                }
-
-                if (pendingPreviews.containsKey(node.getHandle())) {
-                    Timber.d("The image is already downloaded or added to the list");
-                    return 1;
-                } else {
-                    return 2;
-                }
-            }
-        }
-
-        @Override
-        protected void onPostExecute(Integer param) {
-            Timber.d("ChatLocalPreviewAsyncTask-onPostExecute");
-
-            if (param == 0) {
-                int position = holder.getAdapterPosition();
-
-                AndroidMegaChatMessage message = messages.get(position - 1);
-
-                long nodeMessageHandle = message.getMessage().getMegaNodeList().get(0).getHandle();
-
-                if (nodeMessageHandle == node.getHandle()) {
-                    if (message.getMessage().getUserHandle() == megaChatApi.getMyUserHandle()) {
-                        setOwnPreview(holder, preview, node, checkForwardVisibilityInOwnMsg(removedMessages, message.getMessage(), isMultipleSelect(), cC), message.getMessage());
-                        if (isMsgRemovedOrHasRejectedOrManualSendingStatus(removedMessages, message.getMessage())) {
-                            setErrorStateOnPreview(holder, preview, message.getMessage().getStatus());
-                        }
-                    }
-                } else {
-                    Timber.w("The nodeHandles are not equal!");
-                }
-            } else if (param == 2) {
-                Timber.w("No preview and no generated correctly");
-            }
-        }
-    }
-
-    private class ChatUploadingPreviewAsyncTask extends AsyncTask<String, Void, Boolean> {
-        String filePath;
-        MegaChatAdapter adapter;
-        int position;
-
-        public ChatUploadingPreviewAsyncTask(MegaChatAdapter adapter, int position) {
-            this.adapter = adapter;
-            this.position = position;
-        }
-
-        @Override
-        protected Boolean doInBackground(String... params) {
-
-            filePath = params[0];
-            File currentFile = new File(filePath);
-            if (MimeTypeList.typeForName(filePath).isImage()) {
-                Timber.d("Is image");
-
-                BitmapFactory.Options options = new BitmapFactory.Options();
-                options.inJustDecodeBounds = true;
-                //ARGB_8888 would create huge memory pressure to app, since we are creating preview, we don't need to have ARGB_8888 as the standard
-                options.inPreferredConfig = Bitmap.Config.RGB_565;
-                Bitmap preview;
-
-                ExifInterface exif;
-                int orientation = ExifInterface.ORIENTATION_NORMAL;
-                try {
-                    exif = new ExifInterface(currentFile.getAbsolutePath());
-                    orientation = exif.getAttributeInt(ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_UNDEFINED);
-                } catch (IOException e) {
-                    Timber.w(e, "EXCEPTION");
-                }
-
-                // Calculate inSampleSize
-                options.inSampleSize = Util.calculateInSampleSize(options, 1000, 1000);
-
-                // Decode bitmap with inSampleSize set
-                options.inJustDecodeBounds = false;
-
-                preview = BitmapFactory.decodeFile(currentFile.getAbsolutePath(), options);
-                if (preview != null) {
-                    preview = rotateBitmap(preview, orientation);
-
-                    long fingerprintCache = MegaApiAndroid.base64ToHandle(megaApi.getFingerprint(filePath));
-                    if (preview != null) {
-                        //put preview bitmap to memory cache
-                        setPreviewCache(fingerprintCache, preview);
-                        return true;
-                    }
-                    return false;
-                }
-            } else if (MimeTypeList.typeForName(filePath).isPdf()) {
-                Timber.d("Is pdf");
-
-                FileOutputStream out = null;
-                int pageNumber = 0;
-                try {
-
-                    PdfiumCore pdfiumCore = new PdfiumCore(context);
-                    File previewDir = getPreviewFolder(context);
-                    File previewFile = new File(previewDir, currentFile.getName() + ".jpg");
-
-                    PdfDocument pdfDocument = pdfiumCore.newDocument(ParcelFileDescriptor.open(currentFile, ParcelFileDescriptor.MODE_READ_ONLY));
-                    pdfiumCore.openPage(pdfDocument, pageNumber);
-                    int width = pdfiumCore.getPageWidthPoint(pdfDocument, pageNumber);
-                    int height = pdfiumCore.getPageHeightPoint(pdfDocument, pageNumber);
-                    Bitmap bmp = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
-                    pdfiumCore.renderPageBitmap(pdfDocument, bmp, pageNumber, 0, 0, width, height);
-                    Bitmap preview = resizeBitmapUpload(bmp, width, height);
-                    out = new FileOutputStream(previewFile);
-                    boolean result = preview.compress(Bitmap.CompressFormat.JPEG, 100, out); // bmp is your Bitmap instance
-                    pdfiumCore.closeDocument(pdfDocument);
-
-                    if (preview != null && result) {
-                        Timber.d("Compress OK");
-                        long fingerprintCache = MegaApiAndroid.base64ToHandle(megaApi.getFingerprint(previewFile.getPath()));
-                        //put preview bitmap to memory cache
-                        setPreviewCache(fingerprintCache, preview);
-                        return true;
-                    } else if (!result) {
-                        Timber.w("Not Compress");
-                        return false;
-                    }
-                } catch (Exception e) {
-                    Timber.e(e, "Pdf thumbnail could not be created");
-                } finally {
-                    try {
-                        if (out != null) {
-                            out.close();
-                        }
-                    } catch (Exception e) {
-                        Timber.w(e, "Error closing FileOutputStream");
-                    }
-                }
-            } else if (MimeTypeList.typeForName(filePath).isVideo()) {
-                Timber.d("Is video");
-                File previewDir = getPreviewFolder(context);
-                File previewFile = new File(previewDir, currentFile.getName() + ".jpg");
-
-                Bitmap bmPreview = createVideoPreview(filePath, MediaStore.Video.Thumbnails.FULL_SCREEN_KIND);
-                if (bmPreview == null) {
-                    Timber.w("Create video preview NULL");
-                } else {
-                    Timber.d("Create Video preview worked!");
-                }
-
-                if (bmPreview != null) {
-                    try {
-                        previewFile.createNewFile();
-                        FileOutputStream out = null;
-                        try {
-                            out = new FileOutputStream(previewFile);
-                            boolean result = bmPreview.compress(Bitmap.CompressFormat.JPEG, 100, out); // bmp is your Bitmap instance
-                            if (result) {
-                                Timber.d("Compress OK");
-                                long fingerprintCache = MegaApiAndroid.base64ToHandle(megaApi.getFingerprint(previewFile.getPath()));
-                                setPreviewCache(fingerprintCache, bmPreview);
-                                return true;
-                            } else {
-                                return false;
-                            }
-                        } catch (Exception e) {
-                            Timber.e(e, "Error with FileOutputStream");
-                        } finally {
-                            try {
-                                if (out != null) {
-                                    out.close();
-                                }
-                            } catch (IOException e) {
-                                Timber.e(e, "Error closing FileOutputStream");
-                            }
-                        }
-
-                    } catch (IOException e1) {
-                        Timber.e(e1, "Error creating new preview file");
-                    }
-                } else {
-                    Timber.w("Create video preview NULL");
-                }
-            }
-
-            return false;
-        }
-
-        @Override
-        protected void onPostExecute(Boolean isContinue) {
-            Timber.d("ChatUploadingPreviewAsyncTask-onPostExecute");
-            if (isContinue) {
-                //notify adapter to update view
-                adapter.notifyItemChanged(position);
-            } else {
-                Timber.w("The preview is NULL!");
-            }
-        }
-    }
+    private final ChatMetaImageLoader metaImageLoader = new ChatMetaImageLoader();
+    private final ChatPreviewLoader previewLoader = new ChatPreviewLoader();
 
     public MegaChatAdapter(Context _context, MegaChatRoom chatRoom,
-                           ArrayList<AndroidMegaChatMessage> _messages,
+                           ChatMessageList _messages,
                            ArrayList<MessageVoiceClip> _messagesPlaying,
                            ArrayList<RemovedMessage> _removedMessages,
                            RecyclerView _listView, InviteContactUseCase inviteContactUseCase,
@@ -631,6 +287,7 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
         Timber.d("New adapter");
         this.context = _context;
         this.messages = _messages;
+        this.messages.setOnChangeListener(messagesChangeListener);
         this.positionClicked = INVALID_POSITION;
         this.chatRoom = chatRoom;
         this.removedMessages = _removedMessages;
@@ -1622,13 +1279,10 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
                         preview = getPreview(path, context);
 
                         if (preview != null) {
+                            previewLoader.cancel((ViewHolderMessageChat) holder);
                             setUploadingPreview((ViewHolderMessageChat) holder, preview);
                         } else {
-                            try {
-                                new ChatUploadingPreviewAsyncTask(this, position).execute(path);
-                            } catch (Exception e) {
-                                Timber.w(e, "Error creating preview (Too many AsyncTasks)");
-                            }
+                            loadUploadingPreview((ViewHolderMessageChat) holder, path);
                         }
                     }
 
@@ -2527,8 +2181,10 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
             String icon = meta.getRichPreview().getIcon();
 
 
-            Bitmap bitmapImage = getBitmapFromString(image);
-            Bitmap bitmapIcon = getBitmapFromString(icon);
+            Bitmap bitmapImage = metaImageLoader.getImage(message.getMsgId(),
+                    ChatMetaImageLoader.ImageType.RICH_LINK_IMAGE, image, this::onMetaImageLoaded);
+            Bitmap bitmapIcon = metaImageLoader.getImage(message.getMsgId(),
+                    ChatMetaImageLoader.ImageType.RICH_LINK_ICON, icon, this::onMetaImageLoaded);
 
             if (message.getUserHandle() == myUserHandle) {
                 holder.layoutAvatarMessages.setVisibility(View.GONE);
@@ -2863,34 +2519,36 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
         }
     }
 
-    private Bitmap getBitmapFromString(String imageString) {
+    /**
+     * Binds again a message whose embedded image was decoded in background.
+     *
+     * @param msgId Identifier of the message.
+     */
+    private void onMetaImageLoaded(long msgId) {
+        if (!(messages instanceof ChatMessageList)) {
+            notifyDataSetChanged();
+            return;
+        }
 
-        if (imageString != null) {
-            try {
-                byte[] decodedBytes = Base64.decode(imageString, 0);
-                return BitmapFactory.decodeByteArray(decodedBytes, 0, decodedBytes.length);
-            } catch (Exception e) {
-                Timber.e(e, "Error getting image");
-            }
+        int positionInMessages = messages.findPositionByMsgId(msgId);
+        if (positionInMessages != INVALID_POSITION) {
+            notifyItemChanged(positionInMessages + 1);
         }
-        return null;
     }
 
-    private Bitmap getResizeBitmap(Bitmap originalBitmap) {
-        if (originalBitmap == null) return null;
-
-        int widthResizeBitmap = originalBitmap.getWidth();
-        int heightResizeBitmap = originalBitmap.getWidth() / 2;
-        int topResizeBitmap = heightResizeBitmap / 2;
-        int bottomResizeBitmap = topResizeBitmap + heightResizeBitmap;
-        Bitmap resizeBitmap = Bitmap.createBitmap(widthResizeBitmap, heightResizeBitmap, Bitmap.Config.ARGB_8888);
-
-        Canvas canvas = new Canvas(resizeBitmap);
-        Rect desRect = new Rect(0, 0, widthResizeBitmap, heightResizeBitmap);
-        Rect srcRect = new Rect(0, topResizeBitmap, widthResizeBitmap, bottomResizeBitmap);
-        canvas.drawBitmap(originalBitmap, srcRect, desRect, null);
+    /**
+     * Cancels the decoding of the images embedded in the messages and the loading of the
+     * previews, as when the chat is closed.
+     */
+    public void cancelPendingImages() {
+        metaImageLoader.cancel();
+        previewLoader.cancelAll();
+    }
 
-        return resizeBitmap;
+    @Override
+    public void onViewRecycled(@NonNull RecyclerView.ViewHolder holder) {
+        previewLoader.cancel(holder);
+        super.onViewRecycled(holder);
     }
 
     public void bindGeoLocationMessage(ViewHolderMessageChat holder, AndroidMegaChatMessage androidMessage, int position) {
@@ -2903,13 +2561,8 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
         float longitude = meta.getGeolocation().getLongitude();
         String location = convertToDegrees(latitude, longitude);
 
-        Bitmap bitmapImage = null;
-
-        if (image != null) {
-            byte[] decodedBytes = Base64.decode(image, 0);
-            bitmapImage = BitmapFactory.decodeByteArray(decodedBytes, 0, decodedBytes.length);
-            bitmapImage = getResizeBitmap(bitmapImage);
-        }
+        Bitmap bitmapImage = metaImageLoader.getImage(message.getMsgId(),
+                ChatMetaImageLoader.ImageType.GEOLOCATION, image, this::onMetaImageLoaded);
 
         if (messages.get(position - 1).getInfoToShow() != -1) {
             setInfoToShow(position, holder, isMyMessage, messages.get(position - 1).getInfoToShow(),
@@ -2949,9 +2602,8 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
             holder.pinnedOwnLocationInfoText.setVisibility(View.VISIBLE);
             holder.pinnedOwnLocationInfoText.setText(location);
 
-            if (bitmapImage != null) {
-                holder.previewOwnLocation.setImageBitmap(bitmapImage);
-            }
+            // Cleared while decoding, not to show the location of a recycled message
+            holder.previewOwnLocation.setImageBitmap(bitmapImage);
 
             //Forwards element (own messages):
             if (checkForwardVisibilityInOwnMsg(removedMessages, message, isMultipleSelect(), cC)) {
@@ -3030,9 +2682,7 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
             holder.forwardContactFile.setVisibility(View.GONE);
             holder.forwardContactContact.setVisibility(View.GONE);
 
-            if (bitmapImage != null) {
-                holder.previewContactLocation.setImageBitmap(bitmapImage);
-            }
+            holder.previewContactLocation.setImageBitmap(bitmapImage);
 
             if (message.isEdited()) {
                 Spannable edited = new SpannableString(context.getString(R.string.edited_message_text));
@@ -3990,9 +3640,9 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
 
                     Bitmap preview = null;
                     if (node.hasPreview()) {
-                        preview = getPreviewFromCache(node);
+                        preview = getChatPreviewFromCache(node);
                         if (preview != null) {
-                            previewCache.put(node.getHandle(), preview);
+                            previewLoader.cancel(holder);
                             setOwnPreview(holder, preview, node, checkForwardVisibilityInOwnMsg(removedMessages, message, isMultipleSelect(), cC), message);
                             if (isMsgRemovedOrHasRejectedOrManualSendingStatus(removedMessages, message)) {
                                 setErrorStateOnPreview(holder, preview, status);
@@ -4004,22 +3654,14 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
                             }
 
                             long msgId = message.getMsgId() != MEGACHAT_INVALID_HANDLE ? message.getMsgId() : message.getTempId();
-                            try {
-                                new MegaChatAdapter.ChatPreviewAsyncTask(holder, msgId).execute(node);
-                            } catch (Exception ex) {
-                                //Too many AsyncTasks
-                                Timber.e(ex, "Too many AsyncTasks");
-                            }
-
-
+                            loadNodePreview(holder, node, msgId);
                         }
                     } else {
                         Timber.w("Node has no preview on servers");
 
-                        preview = getPreviewFromCache(node);
+                        preview = getChatPreviewFromCache(node);
                         if (preview != null) {
-
-                            previewCache.put(node.getHandle(), preview);
+                            previewLoader.cancel(holder);
                             if (preview.getWidth() < preview.getHeight()) {
                                 setBitmapAndUpdateDimensions(holder.contentOwnMessageThumbPort, preview);
 
@@ -4151,13 +3793,7 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
                                 holder.errorUploadingFile.setVisibility(View.VISIBLE);
                                 holder.retryAlert.setVisibility(View.VISIBLE);
                             }
-                            try {
-                                new MegaChatAdapter.ChatLocalPreviewAsyncTask(((ViewHolderMessageChat) holder), message.getMsgId()).execute(node);
-
-                            } catch (Exception ex) {
-                                //Too many AsyncTasks
-                                Timber.e(ex, "Too many AsyncTasks");
-                            }
+                            loadLocalNodePreview(holder, node);
                         }
                     }
                 } else {
@@ -4272,9 +3908,9 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
                     Bitmap preview = null;
                     if (node.hasPreview()) {
                         Timber.d("Get preview of node");
-                        preview = getPreviewFromCache(node);
+                        preview = getChatPreviewFromCache(node);
                         if (preview != null) {
-                            previewCache.put(node.getHandle(), preview);
+                            previewLoader.cancel(holder);
 
                             if (preview.getWidth() < preview.getHeight()) {
                                 setBitmapAndUpdateDimensions(holder.contentContactMessageThumbPort, preview);
@@ -4368,31 +4004,18 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
 
                         } else {
                             long msgId = message.getMsgId() != MEGACHAT_INVALID_HANDLE ? message.getMsgId() : message.getTempId();
-                            try {
-                                new MegaChatAdapter.ChatPreviewAsyncTask(holder, msgId).execute(node);
-
-                            } catch (Exception ex) {
-                                //Too many AsyncTasks
-                                Timber.e(ex, "Too many AsyncTasks");
-                            }
+                            loadNodePreview(holder, node, msgId);
                         }
 
                     } else {
                         Timber.w("Node has no preview on servers");
 
-                        preview = getPreviewFromCache(node);
+                        preview = getChatPreviewFromCache(node);
                         if (preview != null) {
-                            previewCache.put(node.getHandle(), preview);
+                            previewLoader.cancel(holder);
                             setContactPreview(holder, preview, node);
                         } else {
-
-                            try {
-                                new MegaChatAdapter.ChatLocalPreviewAsyncTask(holder, message.getMsgId()).execute(node);
-
-                            } catch (Exception ex) {
-                                //Too many AsyncTasks
-                                Timber.e(ex, "Too many AsyncTasks");
-                            }
+                            loadLocalNodePreview(holder, node);
                         }
                     }
                 } else {
@@ -4522,10 +4145,10 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
 
             gifName = node.getName();
             gifSize = node.getSize();
-            preview = getPreviewFromCache(node);
+            preview = getChatPreviewFromCache(node);
 
             if (preview != null) {
-                previewCache.put(node.getHandle(), preview);
+                previewLoader.cancel(holder);
                 orientationPortrait = preview.getWidth() < preview.getHeight();
             } else {
                 if (isOwnMessage && checkForwardVisibilityInOwnMsg(removedMessages, message, isMultipleSelect(), cC)) {
@@ -4542,11 +4165,7 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
                     holder.forwardContactFile.setVisibility(View.GONE);
                 }
 
-                try {
-                    new MegaChatAdapter.ChatPreviewAsyncTask(holder, message.getMsgId()).execute(node);
-                } catch (Exception ex) {
-                    Timber.e(ex, "Too many AsyncTasks");
-                }
+                loadNodePreview(holder, node, message.getMsgId());
             }
         }
 
@@ -4844,7 +4463,7 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
             return;
         }
 
-        Bitmap preview = getPreviewFromCache(node);
+        Bitmap preview = getChatPreviewFromCache(node);
         if (preview != null) {
             updateGifViewBackgroundAndDimensions(holder, Color.TRANSPARENT, isPortrait, isOwnMessage, preview.getWidth(), preview.getHeight());
         }
@@ -6783,40 +6402,41 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
         return position;
     }
 
-    public void setMessages(ArrayList<AndroidMegaChatMessage> messages) {
-        this.messages = messages;
+    public void setMessages(ChatMessageList messages) {
+        if (this.messages != messages) {
+            this.messages.setOnChangeListener(null);
+            this.messages = messages;
+            this.messages.setOnChangeListener(messagesChangeListener);
+        }
         placeholderCount = 0;
         notifyDataSetChanged();
     }
 
-    public void modifyMessage(ArrayList<AndroidMegaChatMessage> messages, int position) {
-        this.messages = messages;
-        notifyItemChanged(position);
-    }
+    /**
+     * Applies the changes of the messages to the adapter, as the list reports them. The first
+     * position in adapter is the header.
+     */
+    private final ChatMessageList.OnChangeListener messagesChangeListener = new ChatMessageList.OnChangeListener() {
+        @Override
+        public void onRangeInserted(int positionStart, int itemCount) {
+            notifyItemRangeInserted(positionStart + 1, itemCount);
+        }
 
-    public void addMessage(ArrayList<AndroidMegaChatMessage> messages, int position) {
-        this.messages = messages;
-        notifyItemInserted(position);
-        notifyRangeChanged(position);
-    }
+        @Override
+        public void onRangeRemoved(int positionStart, int itemCount) {
+            notifyItemRangeRemoved(positionStart + 1, itemCount);
+        }
 
-    public void removeMessage(int position, ArrayList<AndroidMegaChatMessage> messages) {
-        this.messages = messages;
-        notifyItemRemoved(position);
-        notifyRangeChanged(position);
-    }
+        @Override
+        public void onRangeChanged(int positionStart, int itemCount) {
+            notifyItemRangeChanged(positionStart + 1, itemCount);
+        }
 
-    /**
-     * Notifies the adapter if the range changed due to and addition or deletion in adapter.
-     *
-     * @param position where the item was added or removed.
-     */
-    private void notifyRangeChanged(int position) {
-        if (position != messages.size()) {
-            int itemCount = messages.size() - position + 1;
-            notifyItemRangeChanged(position, itemCount + 1);
+        @Override
+        public void onDataSetChanged() {
+            notifyDataSetChanged();
         }
-    }
+    };
 
     /**
      * Gets the message at specified position in the Adapter.
@@ -6839,12 +6459,6 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
         return messages != null && positionInMessages >= 0 && positionInMessages < messages.size() ? messages.get(positionInMessages) : null;
     }
 
-    public void loadPreviousMessages(ArrayList<AndroidMegaChatMessage> messages, int counter) {
-        Timber.d("counter: %s", counter);
-        this.messages = messages;
-        notifyItemRangeInserted(0, counter);
-    }
-
     private void setErrorStateOnPreview(MegaChatAdapter.ViewHolderMessageChat holder, Bitmap bitmap, int status) {
         Timber.d("setErrorStateOnPreview()");
         //Error
@@ -7111,6 +6725,329 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
         }
     }
 
+    /**
+     * Gets the size the previews are decoded to, which is the maximum size of the preview views.
+     *
+     * @param holder The holder where the preview is shown.
+     * @return The maximum width and height of the preview.
+     */
+    private int getPreviewTargetSize(ViewHolderMessageChat holder) {
+        int maxSize = holder.contentOwnMessageThumbPort.getMaxWidth();
+        if (maxSize > 0 && maxSize < Integer.MAX_VALUE) {
+            return maxSize;
+        }
+
+        return Math.min(outMetrics.widthPixels, outMetrics.heightPixels) / 2;
+    }
+
+    /**
+     * Loads in background the preview of a node for a holder, and requests to download it if it
+     * is not available.
+     *
+     * @param holder The holder where the preview is shown.
+     * @param node   The node.
+     * @param msgId  Identifier of the message of the node.
+     */
+    private void loadNodePreview(ViewHolderMessageChat holder, MegaNode node, long msgId) {
+        int targetSize = getPreviewTargetSize(holder);
+        previewLoader.load(holder, "preview/" + node.getHandle(),
+                () -> getNodePreview(node, targetSize),
+                preview -> {
+                    if (preview != null) {
+                        onNodePreviewLoaded(holder, node, preview);
+                    } else if (pendingPreviews.containsKey(node.getHandle())) {
+                        Timber.d("The preview is already downloaded or added to the list");
+                    } else {
+                        File previewFile = new File(getPreviewFolder(context), node.getBase64Handle() + JPG_EXTENSION);
+                        Timber.d("GET PREVIEW OF HANDLE: %d to download here: %s", node.getHandle(), previewFile.getAbsolutePath());
+                        pendingPreviews.put(node.getHandle(), msgId);
+                        PreviewDownloadListener listener = new PreviewDownloadListener(context, holder, megaChatAdapter, node);
+                        megaApi.getPreview(node, previewFile.getAbsolutePath(), listener);
+                    }
+                });
+    }
+
+    /**
+     * Loads in background the preview of a node for a holder, and creates it from the downloaded
+     * file if it is not available.
+     *
+     * @param holder The holder where the preview is shown.
+     * @param node   The node.
+     */
+    private void loadLocalNodePreview(ViewHolderMessageChat holder, MegaNode node) {
+        if (node == null) {
+            return;
+        }
+
+        int targetSize = getPreviewTargetSize(holder);
+        previewLoader.load(holder, "localPreview/" + node.getHandle(),
+                () -> getLocalNodePreview(node, targetSize),
+                preview -> {
+                    if (preview != null) {
+                        onNodePreviewLoaded(holder, node, preview);
+                    } else {
+                        Timber.w("No preview and no generated correctly");
+                    }
+                });
+    }
+
+    /**
+     * Shows a preview loaded in background, if the holder still shows the message of the node.
+     *
+     * @param holder  The holder where the preview is shown.
+     * @param node    The node.
+     * @param preview The preview of the node.
+     */
+    private void onNodePreviewLoaded(ViewHolderMessageChat holder, MegaNode node, Bitmap preview) {
+        AndroidMegaChatMessage androidMessage = getMessageAtAdapterPosition(holder.getAdapterPosition());
+        if (androidMessage == null || androidMessage.getMessage() == null) {
+            Timber.w("Messages removed");
+            return;
+        }
+
+        MegaChatMessage message = androidMessage.getMessage();
+        MegaNodeList nodeList = message.getMegaNodeList();
+        if (nodeList == null || nodeList.size() == 0 || nodeList.get(0) == null) {
+            return;
+        }
+
+        if (nodeList.get(0).getHandle() != node.getHandle()) {
+            Timber.w("The nodeHandles are not equal!");
+            return;
+        }
+
+        if (message.getUserHandle() == megaChatApi.getMyUserHandle()) {
+            setOwnPreview(holder, preview, node, checkForwardVisibilityInOwnMsg(removedMessages, message, isMultipleSelect(), cC), message);
+            if (isMsgRemovedOrHasRejectedOrManualSendingStatus(removedMessages, message)) {
+                setErrorStateOnPreview(holder, preview, message.getStatus());
+            }
+        } else {
+            setContactPreview(holder, preview, node);
+        }
+    }
+
+    /**
+     * Gets the preview of a node from the preview caches or the preview folder, decoded for the
+     * size it is shown.
+     *
+     * @param node       The node.
+     * @param targetSize Maximum width and height of the preview.
+     * @return The preview, or null if it is not available.
+     */
+    @WorkerThread
+    private Bitmap getNodePreview(MegaNode node, int targetSize) {
+        Bitmap preview = getChatPreviewFromCache(node);
+        if (preview != null) {
+            return preview;
+        }
+
+        // The chat downloads the previews by base64 handle, other screens by handle
+        File previewDir = getPreviewFolder(context);
+        for (String name : new String[]{node.getBase64Handle(), Long.toString(node.getHandle())}) {
+            File previewFile = new File(previewDir, name + JPG_EXTENSION);
+            if (!isFileAvailable(previewFile) || previewFile.length() <= 0) {
+                continue;
+            }
+
+            preview = getBitmapForView(previewFile, targetSize);
+            if (preview != null) {
+                chatPreviewCache.put(node.getHandle(), preview);
+                return preview;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the preview of a node, creating it from the downloaded file if it is not available.
+     *
+     * @param node       The node.
+     * @param targetSize Maximum width and height of the preview.
+     * @return The preview, or null if it is not available.
+     */
+    @WorkerThread
+    private Bitmap getLocalNodePreview(MegaNode node, int targetSize) {
+        Bitmap preview = getNodePreview(node, targetSize);
+        if (preview != null) {
+            return preview;
+        }
+
+        File destination = CacheFolderManager.buildPreviewFile(context, node.getName());
+        if (!isFileAvailable(destination)) {
+            return null;
+        }
+
+        if (destination.length() != node.getSize()) {
+            destination.delete();
+            return null;
+        }
+
+        File previewFile = new File(getPreviewFolder(context), node.getBase64Handle() + JPG_EXTENSION);
+        Timber.d("Base 64 handle: %s, Handle: %d", node.getBase64Handle(), node.getHandle());
+        if (!MegaUtilsAndroid.createPreview(destination, previewFile)) {
+            return null;
+        }
+
+        destination.delete();
+        preview = getBitmapForView(previewFile, targetSize);
+        if (preview != null) {
+            chatPreviewCache.put(node.getHandle(), preview);
+        }
+
+        return preview;
+    }
+
+    /**
+     * Creates in background the preview of a file being uploaded, and updates the holder when
+     * it is created.
+     *
+     * @param holder   The holder where the preview is shown.
+     * @param filePath Path of the file.
+     */
+    private void loadUploadingPreview(ViewHolderMessageChat holder, String filePath) {
+        int targetSize = getPreviewTargetSize(holder);
+        previewLoader.load(holder, "uploadingPreview/" + filePath,
+                () -> createUploadingPreview(filePath, targetSize),
+                preview -> {
+                    int position = holder.getAdapterPosition();
+                    if (preview == null) {
+                        Timber.w("The preview is NULL!");
+                    } else if (position != RecyclerView.NO_POSITION) {
+                        notifyItemChanged(position);
+                    }
+                });
+    }
+
+    /**
+     * Creates the preview of a file being uploaded and puts it in the preview cache.
+     *
+     * @param filePath   Path of the file.
+     * @param targetSize Maximum width and height of the preview of an image.
+     * @return The preview, or null if it cannot be created.
+     */
+    @WorkerThread
+    private Bitmap createUploadingPreview(String filePath, int targetSize) {
+        File currentFile = new File(filePath);
+        if (MimeTypeList.typeForName(filePath).isImage()) {
+            Timber.d("Is image");
+
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inJustDecodeBounds = true;
+            //ARGB_8888 would create huge memory pressure to app, since we are creating preview, we don't need to have ARGB_8888 as the standard
+            options.inPreferredConfig = Bitmap.Config.RGB_565;
+            BitmapFactory.decodeFile(currentFile.getAbsolutePath(), options);
+
+            int orientation = ExifInterface.ORIENTATION_NORMAL;
+            try {
+                ExifInterface exif = new ExifInterface(currentFile.getAbsolutePath());
+                orientation = exif.getAttributeInt(ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_UNDEFINED);
+            } catch (IOException e) {
+                Timber.w(e, "EXCEPTION");
+            }
+
+            // Calculate inSampleSize
+            options.inSampleSize = Util.calculateInSampleSize(options, targetSize, targetSize);
+
+            // Decode bitmap with inSampleSize set
+            options.inJustDecodeBounds = false;
+
+            Bitmap preview = BitmapFactory.decodeFile(currentFile.getAbsolutePath(), options);
+            if (preview != null) {
+                preview = rotateBitmap(preview, orientation);
+            }
+
+            if (preview != null) {
+                long fingerprintCache = MegaApiAndroid.base64ToHandle(megaApi.getFingerprint(filePath));
+                //put preview bitmap to memory cache
+                setPreviewCache(fingerprintCache, preview);
+            }
+
+            return preview;
+        } else if (MimeTypeList.typeForName(filePath).isPdf()) {
+            Timber.d("Is pdf");
+
+            FileOutputStream out = null;
+            int pageNumber = 0;
+            try {
+                PdfiumCore pdfiumCore = new PdfiumCore(context);
+                File previewDir = getPreviewFolder(context);
+                File previewFile = new File(previewDir, currentFile.getName() + ".jpg");
+
+                PdfDocument pdfDocument = pdfiumCore.newDocument(ParcelFileDescriptor.open(currentFile, ParcelFileDescriptor.MODE_READ_ONLY));
+                pdfiumCore.openPage(pdfDocument, pageNumber);
+                int width = pdfiumCore.getPageWidthPoint(pdfDocument, pageNumber);
+                int height = pdfiumCore.getPageHeightPoint(pdfDocument, pageNumber);
+                Bitmap bmp = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+                pdfiumCore.renderPageBitmap(pdfDocument, bmp, pageNumber, 0, 0, width, height);
+                Bitmap preview = resizeBitmapUpload(bmp, width, height);
+                out = new FileOutputStream(previewFile);
+                boolean result = preview.compress(Bitmap.CompressFormat.JPEG, 100, out); // bmp is your Bitmap instance
+                pdfiumCore.closeDocument(pdfDocument);
+
+                if (result) {
+                    Timber.d("Compress OK");
+                    long fingerprintCache = MegaApiAndroid.base64ToHandle(megaApi.getFingerprint(previewFile.getPath()));
+                    //put preview bitmap to memory cache
+                    setPreviewCache(fingerprintCache, preview);
+                    return preview;
+                } else {
+                    Timber.w("Not Compress");
+                }
+            } catch (Exception e) {
+                Timber.e(e, "Pdf thumbnail could not be created");
+            } finally {
+                try {
+                    if (out != null) {
+                        out.close();
+                    }
+                } catch (Exception e) {
+                    Timber.w(e, "Error closing FileOutputStream");
+                }
+            }
+        } else if (MimeTypeList.typeForName(filePath).isVideo()) {
+            Timber.d("Is video");
+            File previewDir = getPreviewFolder(context);
+            File previewFile = new File(previewDir, currentFile.getName() + ".jpg");
+
+            Bitmap bmPreview = createVideoPreview(filePath, MediaStore.Video.Thumbnails.FULL_SCREEN_KIND);
+            if (bmPreview == null) {
+                Timber.w("Create video preview NULL");
+                return null;
+            }
+
+            Timber.d("Create Video preview worked!");
+            try {
+                previewFile.createNewFile();
+                FileOutputStream out = null;
+                try {
+                    out = new FileOutputStream(previewFile);
+                    boolean result = bmPreview.compress(Bitmap.CompressFormat.JPEG, 100, out); // bmp is your Bitmap instance
+                    if (result) {
+                        Timber.d("Compress OK");
+                        long fingerprintCache = MegaApiAndroid.base64ToHandle(megaApi.getFingerprint(previewFile.getPath()));
+                        setPreviewCache(fingerprintCache, bmPreview);
+                        return bmPreview;
+                    }
+                } catch (Exception e) {
+                    Timber.e(e, "Error with FileOutputStream");
+                } finally {
+                    try {
+                        if (out != null) {
+                            out.close();
+                        }
+                    } catch (IOException e) {
+                        Timber.e(e, "Error closing FileOutputStream");
+                    }
+                }
+            } catch (IOException e1) {
+                Timber.e(e1, "Error creating new preview file");
+            }
+        }
+
+        return null;
+    }
+
     private void setPreview(long handle, MegaChatAdapter.ViewHolderMessageChat holder, MegaNode node, long msgId) {
         if (holder == null) {
             Timber.w("Holder is null. Handle: %s", handle);
@@ -7815,7 +7752,7 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
 
                 if (MimeTypeList.typeForName(node.getName()).isGIF() && !holder.isPlayingAnimation) {
                     //GIF message not playing animation, play
-                    Bitmap preview = getPreviewFromCache(node);
+                    Bitmap preview = getChatPreviewFromCache(node);
                     if (preview != null) {
                         int width = preview.getWidth();
                         int height = preview.getHeight();
@@ -7894,15 +7831,27 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
     }
 
     /*
-     * Download a voice note using an asynctask
+     * Download a voice note in background
      */
-    private void downloadVoiceClip(final ViewHolderMessageChat holder, int position, long userHandle, final MegaNodeList nodeList) {
+    private void downloadVoiceClip(ViewHolderMessageChat holder, int position, long userHandle, final MegaNodeList nodeList) {
         Timber.d("downloadVoiceClip() ");
-        try {
-            new MegaChatAdapter.ChatVoiceClipAsyncTask(holder, position, userHandle).execute(nodeList);
-        } catch (Exception ex) {
-            Timber.e(ex, "Too many AsyncTasks");
+        if (holder == null) {
+            holder = (ViewHolderMessageChat) listFragment.findViewHolderForAdapterPosition(position);
+        }
+
+        if (holder != null) {
+            if (userHandle == myUserHandle) {
+                holder.uploadingOwnProgressbarVoiceclip.setVisibility(View.VISIBLE);
+                holder.contentOwnMessageVoiceClipPlay.setVisibility(View.GONE);
+                holder.notAvailableOwnVoiceclip.setVisibility(View.GONE);
+            } else {
+                holder.uploadingContactProgressbarVoiceclip.setVisibility(View.VISIBLE);
+                holder.contentContactMessageVoiceClipPlay.setVisibility(View.GONE);
+                holder.notAvailableContactVoiceclip.setVisibility(View.GONE);
+            }
         }
+
+        previewLoader.execute(() -> ((ChatActivity) context).sendToDownload(nodeList));
     }
 
     /*
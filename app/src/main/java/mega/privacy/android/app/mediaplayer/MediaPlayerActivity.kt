@@ -799,9 +799,12 @@ abstract class MediaPlayerActivity : PasscodeActivity(), SnackbarShower, Activit
             }
             R.id.properties -> {
                 if (isAudioPlayer()) {
+                    // The uri of the playing item is already resolved if it was deferred
                     val uri =
-                        serviceGateway?.getCurrentMediaItem()?.localConfiguration?.uri
-                            ?: return true
+                        serviceGateway?.getCurrentMediaItem()?.localConfiguration?.uri?.let {
+                            runCatching { playerServiceViewModelGateway?.resolveMediaUri(it) }
+                                .getOrNull()
+                        } ?: return true
                     navController.navigate(
                         MediaPlayerFragmentDirections.actionPlayerToTrackInfo(
                             adapterType,
@@ -1,5 +1,6 @@
 package mega.privacy.android.app.mediaplayer.gateway
 
+import android.net.Uri
 import com.google.android.exoplayer2.MediaItem
 import com.google.android.exoplayer2.Player
 import com.google.android.exoplayer2.source.ShuffleOrder
@@ -23,6 +24,7 @@ interface MediaPlayerGateway {
      * @param repeatToggleMode RepeatToggleMode
      * @param nameChangeCallback the callback when name is changed
      * @param mediaPlayerCallback MediaPlayerCallback
+     * @param mediaUriResolver resolves the uri of the media items when they are loaded
      */
     fun createPlayer(
         shuffleEnabled: Boolean? = null,
@@ -30,6 +32,7 @@ interface MediaPlayerGateway {
         repeatToggleMode: RepeatToggleMode,
         nameChangeCallback: (title: String?, artist: String?, album: String?) -> Unit,
         mediaPlayerCallback: MediaPlayerCallback,
+        mediaUriResolver: (Uri) -> Uri,
     )
 
     /**
@@ -1,6 +1,7 @@
 package mega.privacy.android.app.mediaplayer.gateway
 
 import android.content.Intent
+import android.net.Uri
 import androidx.lifecycle.LiveData
 import com.google.android.exoplayer2.source.ShuffleOrder
 import kotlinx.coroutines.flow.Flow
@@ -157,6 +158,22 @@ interface PlayerServiceViewModelGateway {
      */
     fun scrollToPlayingPosition()
 
+    /**
+     * Set the positions visible in the playlist screen, so the items around them are materialized
+     *
+     * @param firstPosition the first visible position
+     * @param lastPosition the last visible position
+     */
+    fun onPlaylistScrolled(firstPosition: Int, lastPosition: Int)
+
+    /**
+     * Resolve the uri of a media item whose uri was deferred when the playlist was built
+     *
+     * @param uri the uri of the media item
+     * @return the resolved uri
+     */
+    fun resolveMediaUri(uri: Uri): Uri
+
 
     /**
      * Judge the action mode whether is enabled
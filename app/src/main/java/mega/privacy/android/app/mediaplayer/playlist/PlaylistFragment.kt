@@ -182,6 +182,17 @@ class PlaylistFragment : Fragment(), PlaylistItemOperation, DragStartListener {
                         recyclerView.canScrollVertically(-1)
                     )
                 }
+
+                override fun onScrollStateChanged(recyclerView: RecyclerView, newState: Int) {
+                    super.onScrollStateChanged(recyclerView, newState)
+                    if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+                        // Materialize the items the user scrolled to
+                        playerServiceViewModelGateway?.onPlaylistScrolled(
+                            listLayoutManager.findFirstVisibleItemPosition(),
+                            listLayoutManager.findLastVisibleItemPosition()
+                        )
+                    }
+                }
             })
 
             requireContext().run {
@@ -41,6 +41,8 @@ data class PlaylistItem(
      * @param isSelected Whether the item is selected
      * @param duration the duration of audio
      * @param currentPosition the current playing position of audio
+     * @param withThumbnail whether the thumbnail is checked and kept, false for the items far from
+     * the playing and visible ones
      * @return the new instance
      */
     fun finalizeItem(
@@ -48,12 +50,13 @@ data class PlaylistItem(
         type: Int,
         isSelected: Boolean = false,
         duration: Int = 0,
-        currentPosition: Long = 0L
+        currentPosition: Long = 0L,
+        withThumbnail: Boolean = true,
     ): PlaylistItem {
         return PlaylistItem(
             nodeHandle = nodeHandle,
             nodeName = nodeName,
-            thumbnail = if (thumbnail?.exists() == true) thumbnail else null,
+            thumbnail = if (withThumbnail && thumbnail?.exists() == true) thumbnail else null,
             index = index,
             type = type,
             size = size,
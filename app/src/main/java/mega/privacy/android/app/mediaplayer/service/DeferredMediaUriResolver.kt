@@ -0,0 +1,66 @@
+package mega.privacy.android.app.mediaplayer.service
+
+import android.net.Uri
+import com.google.android.exoplayer2.MediaItem
+import java.io.FileNotFoundException
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Resolves the uri of the playlist items which were not materialized when the playlist was built.
+ *
+ * Getting the uri of a node queries the MediaStore for a local copy and the streaming server for
+ * a link, which takes seconds for playlists of thousands of nodes. Those items are given a
+ * deferred uri instead, resolved by the player when it loads them, and kept once resolved.
+ */
+class DeferredMediaUriResolver {
+
+    @Volatile
+    private var resolver: ((Long) -> Uri?)? = null
+
+    private val resolvedUris = ConcurrentHashMap<Long, Uri>()
+
+    /**
+     * Sets how the deferred uris of the current playlist are resolved
+     *
+     * @param resolver Gets the uri of an item from its handle, null if the playlist has no
+     *                 deferred items
+     */
+    fun setResolver(resolver: ((Long) -> Uri?)?) {
+        resolvedUris.clear()
+        this.resolver = resolver
+    }
+
+    /**
+     * Creates an item whose uri is resolved when it is loaded
+     *
+     * @param handle Handle of the item
+     * @return the media item
+     */
+    fun deferredMediaItem(handle: Long): MediaItem =
+        MediaItem.Builder()
+            .setUri(Uri.fromParts(SCHEME, handle.toString(), null))
+            .setMediaId(handle.toString())
+            .build()
+
+    /**
+     * Resolves a deferred uri. It may query the MediaStore, so it should not be called from the
+     * main thread unless the uri was already resolved, as the one of the playing item.
+     *
+     * @param uri Uri of a media item
+     * @return the resolved uri, or the same uri if it was not deferred
+     */
+    fun resolve(uri: Uri): Uri {
+        if (uri.scheme != SCHEME) {
+            return uri
+        }
+        val handle = uri.schemeSpecificPart.toLongOrNull()
+            ?: throw FileNotFoundException("Invalid deferred uri $uri")
+        return resolvedUris[handle]
+            ?: resolver?.invoke(handle)?.also { resolvedUris[handle] = it }
+            ?: throw FileNotFoundException("Cannot resolve $uri")
+    }
+
+    companion object {
+        private const val SCHEME = "mega-playlist"
+    }
+}
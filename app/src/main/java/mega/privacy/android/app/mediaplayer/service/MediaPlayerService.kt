@@ -250,13 +250,15 @@ abstract class MediaPlayerService : LifecycleService(), LifecycleEventObserver,
                     shuffleOrder = getShuffleOrder(),
                     repeatToggleMode = audioRepeatToggleMode(),
                     nameChangeCallback = nameChangeCallback,
-                    mediaPlayerCallback = mediaPlayerCallback
+                    mediaPlayerCallback = mediaPlayerCallback,
+                    mediaUriResolver = { uri -> resolveMediaUri(uri) }
                 )
             } else {
                 mediaPlayerGateway.createPlayer(
                     repeatToggleMode = videoRepeatToggleMode(),
                     nameChangeCallback = nameChangeCallback,
-                    mediaPlayerCallback = mediaPlayerCallback
+                    mediaPlayerCallback = mediaPlayerCallback,
+                    mediaUriResolver = { uri -> resolveMediaUri(uri) }
                 )
             }
         }
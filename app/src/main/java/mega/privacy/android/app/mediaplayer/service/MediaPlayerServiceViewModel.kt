@@ -11,7 +11,6 @@ import com.google.android.exoplayer2.MediaItem
 import com.google.android.exoplayer2.source.ShuffleOrder
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers
 import io.reactivex.rxjava3.core.Completable
-import io.reactivex.rxjava3.core.Observable
 import io.reactivex.rxjava3.disposables.CompositeDisposable
 import io.reactivex.rxjava3.kotlin.addTo
 import io.reactivex.rxjava3.kotlin.subscribeBy
@@ -83,6 +82,7 @@ import mega.privacy.android.app.utils.StringResourcesUtils.getString
 import mega.privacy.android.app.utils.TextUtil
 import mega.privacy.android.app.utils.ThumbnailUtils.getThumbFolder
 import mega.privacy.android.app.utils.Util.isOnline
+import mega.privacy.android.app.utils.cache.BoundedKeySet
 import mega.privacy.android.app.utils.wrapper.GetOfflineThumbnailFileWrapper
 import nz.mega.sdk.MegaApiAndroid
 import nz.mega.sdk.MegaApiJava.FILE_TYPE_AUDIO
@@ -164,6 +164,13 @@ class MediaPlayerServiceViewModel(
     private val playlistItemsMap = mutableMapOf<String, PlaylistItem>()
     private val itemsSelectedMap = mutableMapOf<Long, PlaylistItem>()
 
+    private val playlistWindow = PlaylistWindow()
+    private val deferredMediaUriResolver = DeferredMediaUriResolver()
+
+    // Handles whose thumbnail was found or requested, so they are not checked again
+    private val checkedThumbnails = BoundedKeySet<Long>(MAX_CHECKED_THUMBNAILS)
+    private var thumbnailApi: MegaApiAndroid? = null
+
     private var playlistSearchQuery: String? = null
 
     private var shuffleOrder: ShuffleOrder = ExposedShuffleOrder(0, this)
@@ -187,7 +194,8 @@ class MediaPlayerServiceViewModel(
         compositeDisposable.add(
             createThumbnailFinished.throttleLatest(1, TimeUnit.SECONDS, true)
                 .subscribe(
-                    { postPlaylistItems() },
+                    // Thumbnails are requested as the user scrolls, keep the scroll position
+                    { postPlaylistItems(isScroll = false) },
                     logErr("AudioPlayerServiceViewModel creatingThumbnailFinished")
                 )
         )
@@ -744,6 +752,7 @@ class MediaPlayerServiceViewModel(
         firstPlayHandle: Long,
         isFolderLink: Boolean = false,
     ) {
+        val thumbFolder = getThumbFolder(context)
         doBuildPlaylist(
             api, nodes, firstPlayHandle,
             {
@@ -778,14 +787,26 @@ class MediaPlayerServiceViewModel(
                 it.name
             },
             {
-                File(getThumbFolder(context), it.base64Handle.plus(JPG_EXTENSION))
+                File(thumbFolder, it.base64Handle.plus(JPG_EXTENSION))
             },
             {
                 it.size
+            },
+            {
+                api.getNodeByHandle(it)
             }
         )
     }
 
+    /**
+     * Build the playlist
+     *
+     * If [nodeGetter] is provided, only the media items around the first played one are mapped,
+     * the rest get a deferred uri resolved when the player loads them. Thumbnails are checked and
+     * requested when the items are posted, around the playing and visible items.
+     *
+     * @param nodeGetter gets a node from its handle, to resolve the deferred media items
+     */
     private fun <T> doBuildPlaylist(
         api: MegaApiAndroid,
         nodes: List<T>,
@@ -796,27 +817,37 @@ class MediaPlayerServiceViewModel(
         nameGetter: (T) -> String,
         thumbnailGetter: (T) -> File?,
         sizeGetter: (T) -> Long,
+        nodeGetter: ((Long) -> T?)? = null,
     ) {
         playlistItems.clear()
         playlistItemsMap.clear()
+        checkedThumbnails.clear()
+        thumbnailApi = api
+
+        val validNodes = nodes.filter(validator)
+        val materializedPositions = if (nodeGetter != null) {
+            val firstPlayPosition = validNodes.indexOfFirst { handleGetter(it) == firstPlayHandle }
+            playlistWindow.around(firstPlayPosition.coerceAtLeast(0), validNodes.size)
+        } else {
+            validNodes.indices
+        }
+        deferredMediaUriResolver.setResolver(nodeGetter?.let { getter ->
+            { handle -> getter(handle)?.let(mapper)?.localConfiguration?.uri }
+        })
 
-        val mediaItems = ArrayList<MediaItem>()
+        val mediaItems = ArrayList<MediaItem>(validNodes.size)
         var index = 0
         var firstPlayIndex = 0
 
-        val nodesWithoutThumbnail = ArrayList<Pair<Long, File>>()
-
-        for (node in nodes) {
-            if (!validator(node)) {
-                continue
+        for ((position, node) in validNodes.withIndex()) {
+            val handle = handleGetter(node)
+            val mediaItem = if (position in materializedPositions) {
+                mapper(node) ?: continue
+            } else {
+                deferredMediaUriResolver.deferredMediaItem(handle)
             }
-
-            val mediaItem = mapper(node) ?: continue
             mediaItems.add(mediaItem)
 
-            val handle = handleGetter(node)
-            val thumbnail = thumbnailGetter(node)
-
             if (handle == firstPlayHandle) {
                 firstPlayIndex = index
             }
@@ -825,7 +856,7 @@ class MediaPlayerServiceViewModel(
                 PlaylistItem(
                     nodeHandle = handle,
                     nodeName = nameGetter(node),
-                    thumbnail = thumbnail,
+                    thumbnail = thumbnailGetter(node),
                     index = index,
                     type = PlaylistItem.TYPE_NEXT,
                     size = sizeGetter(node),
@@ -838,10 +869,6 @@ class MediaPlayerServiceViewModel(
             playlistItems.add(playlistItem)
             playlistItemsMap[handle.toString()] = playlistItem
 
-            if (thumbnail != null && !thumbnail.exists()) {
-                nodesWithoutThumbnail.add(Pair(handle, thumbnail))
-            }
-
             index++
         }
 
@@ -849,20 +876,33 @@ class MediaPlayerServiceViewModel(
             playerSource.postValue(MediaPlaySources(mediaItems, firstPlayIndex, null))
             postPlaylistItems()
         }
+    }
 
-        if (nodesWithoutThumbnail.isNotEmpty() && isOnline(context)) {
-            compositeDisposable.add(
-                Observable.fromIterable(nodesWithoutThumbnail)
-                    .subscribeOn(Schedulers.io())
-                    .subscribe({
-                        val node = api.getNodeByHandle(it.first)
-                        if (node != null) {
-                            api.getThumbnail(
-                                node, it.second.absolutePath, createThumbnailRequest
-                            )
-                        }
-                    }, logErr("AudioPlayerServiceViewModel createThumbnail"))
-            )
+    /**
+     * Request the thumbnails missing of the materialized items
+     *
+     * @param items the materialized items
+     */
+    private fun requestMissingThumbnails(items: List<PlaylistItem>) {
+        val api = thumbnailApi ?: return
+        val missingThumbnails = items.filter { item ->
+            val thumbnail = item.thumbnail
+            if (thumbnail == null || item.nodeHandle in checkedThumbnails) {
+                false
+            } else {
+                checkedThumbnails.add(item.nodeHandle)
+                !thumbnail.exists()
+            }
+        }
+
+        if (missingThumbnails.isEmpty() || !isOnline(context)) {
+            return
+        }
+
+        for (item in missingThumbnails) {
+            val thumbnail = item.thumbnail ?: continue
+            val node = api.getNodeByHandle(item.nodeHandle) ?: continue
+            api.getThumbnail(node, thumbnail.absolutePath, createThumbnailRequest)
         }
     }
 
@@ -913,17 +953,18 @@ class MediaPlayerServiceViewModel(
 
         val items: ArrayList<PlaylistItem>
         if (shuffleEnabled && order.length == playlistItems.size) {
-            items = ArrayList()
-
-            items.add(playlistItems[playingIndex])
+            items = ArrayList(playlistItems.size)
 
-            var newPlayingIndex = 0
+            // Previous items are collected backwards, then reversed
             var index = order.getPreviousIndex(playingIndex)
             while (index != C.INDEX_UNSET) {
-                items.add(0, playlistItems[index])
+                items.add(playlistItems[index])
                 index = order.getPreviousIndex(index)
-                newPlayingIndex++
             }
+            items.reverse()
+            val newPlayingIndex = items.size
+
+            items.add(playlistItems[playingIndex])
 
             index = order.getNextIndex(playingIndex)
             while (index != C.INDEX_UNSET) {
@@ -941,12 +982,20 @@ class MediaPlayerServiceViewModel(
             filterPlaylistItems(items, searchQuery ?: return)
             return
         }
+        if (isScroll) {
+            playlistWindow.resetVisibleRange()
+        }
+        val materializedItems = ArrayList<PlaylistItem>()
         for ((index, item) in items.withIndex()) {
             val type = when {
                 index < playingIndex -> PlaylistItem.TYPE_PREVIOUS
                 playingIndex == index -> PlaylistItem.TYPE_PLAYING
                 else -> PlaylistItem.TYPE_NEXT
             }
+            val materialized = playlistWindow.contains(index, playingIndex)
+            if (materialized) {
+                materializedItems.add(item)
+            }
             items[index] =
                 item.finalizeItem(
                     index = index,
@@ -957,9 +1006,11 @@ class MediaPlayerServiceViewModel(
                         currentPosition ?: item.currentPosition
                     } else {
                         item.currentPosition
-                    }
+                    },
+                    withThumbnail = materialized
                 )
         }
+        requestMissingThumbnails(materializedItems)
 
         val hasPrevious = playingIndex > 0
 
@@ -985,13 +1036,26 @@ class MediaPlayerServiceViewModel(
         if (items.isEmpty()) return
 
         val filteredItems = ArrayList<PlaylistItem>()
+        val materializedItems = ArrayList<PlaylistItem>()
         items.forEachIndexed { index, item ->
             if (item.nodeName.contains(filter, true)) {
+                // The filtered list is shown from its top
+                val materialized = playlistWindow.contains(filteredItems.size, 0)
+                if (materialized) {
+                    materializedItems.add(item)
+                }
                 // Filter only affects displayed playlist, it doesn't affect what
                 // ExoPlayer is playing, so we still need use the index before filter.
-                filteredItems.add(item.finalizeItem(index, PlaylistItem.TYPE_PREVIOUS))
+                filteredItems.add(
+                    item.finalizeItem(
+                        index = index,
+                        type = PlaylistItem.TYPE_PREVIOUS,
+                        withThumbnail = materialized
+                    )
+                )
             }
         }
+        requestMissingThumbnails(materializedItems)
 
         playlist.postValue(Pair(filteredItems, 0))
     }
@@ -1244,6 +1308,13 @@ class MediaPlayerServiceViewModel(
         postPlaylistItems(isScroll = true)
     }
 
+    override fun onPlaylistScrolled(firstPosition: Int, lastPosition: Int) {
+        playlistWindow.setVisibleRange(firstPosition, lastPosition)
+        postPlaylistItems(isScroll = false)
+    }
+
+    override fun resolveMediaUri(uri: Uri): Uri = deferredMediaUriResolver.resolve(uri)
+
     override fun isActionMode() = actionMode.value
 
     private fun initPlayerSourceChanged() {
@@ -1274,6 +1345,7 @@ class MediaPlayerServiceViewModel(
 
     companion object {
         private const val MAX_RETRY = 6
+        private const val MAX_CHECKED_THUMBNAILS = 2000
 
         /**
          * Clear saved audio player settings.
@@ -0,0 +1,70 @@
+package mega.privacy.android.app.mediaplayer.service
+
+import kotlin.math.max
+import kotlin.math.min
+
+/**
+ * Window of the playlist positions whose items are materialized.
+ *
+ * A playlist may have tens of thousands of items, as when playing all the audio files of the
+ * account. Only the items around the playing one, and around the ones the user scrolled to in the
+ * playlist screen, are materialized: their thumbnail is checked and requested if missing, and their
+ * media uri is resolved when the playlist is built. The rest is materialized on demand, when the
+ * playing item or the visible items get close to them.
+ *
+ * @param radius Number of items materialized on each side of the playing and visible items
+ */
+class PlaylistWindow(private val radius: Int = DEFAULT_RADIUS) {
+
+    @Volatile
+    private var visibleRange = IntRange.EMPTY
+
+    /**
+     * Sets the positions visible in the playlist screen
+     *
+     * @param first First visible position
+     * @param last  Last visible position
+     */
+    fun setVisibleRange(first: Int, last: Int) {
+        visibleRange = if (first < 0 || last < first) IntRange.EMPTY else first..last
+    }
+
+    /**
+     * Forgets the visible positions, as after the playlist is scrolled to the playing item
+     */
+    fun resetVisibleRange() {
+        visibleRange = IntRange.EMPTY
+    }
+
+    /**
+     * Checks if the item at a position is materialized
+     *
+     * @param position        Position of the item
+     * @param playingPosition Position of the playing item
+     * @return true if the item is close to the playing item or to the visible items
+     */
+    fun contains(position: Int, playingPosition: Int): Boolean {
+        if (position in playingPosition - radius..playingPosition + radius) {
+            return true
+        }
+        val visible = visibleRange
+        return !visible.isEmpty() && position in visible.first - radius..visible.last + radius
+    }
+
+    /**
+     * Gets the positions materialized around the playing item
+     *
+     * @param playingPosition Position of the playing item
+     * @param size            Number of items of the playlist
+     * @return the range of positions
+     */
+    fun around(playingPosition: Int, size: Int): IntRange =
+        max(0, playingPosition - radius)..min(size - 1, playingPosition + radius)
+
+    companion object {
+        /**
+         * Default number of items materialized on each side of the playing and visible items
+         */
+        const val DEFAULT_RADIUS = 30
+    }
+}
@@ -68,6 +68,10 @@ class SearchViewModel @Inject constructor(
      */
     val stateLiveData = _state.map { Event(it) }.asLiveData()
 
+    init {
+        searchNodesUseCase.prepare()
+    }
+
     /**
      * Monitor global node updates
      */
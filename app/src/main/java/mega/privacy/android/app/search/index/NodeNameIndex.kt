@@ -0,0 +1,322 @@
+package mega.privacy.android.app.search.index
+
+import java.util.Locale
+
+/**
+ * In memory index of node names, answering substring and prefix queries without walking the node
+ * tree.
+ *
+ * Names are indexed by their trigrams. A query of three or more characters takes its candidates
+ * from the rarest of its trigrams and checks them; shorter queries check all the names. The result
+ * of the last query is kept, so a query extending it, as when the user types one more character,
+ * only narrows it down.
+ *
+ * Each node keeps the handle of its parent, so the results can be restricted to subtrees. While
+ * a search is filtered, whether each ancestor walked is in the subtrees is remembered, so nodes
+ * sharing ancestors do not walk them again. Renamed
+ * and removed nodes leave stale postings behind, skipped when the candidates are checked and
+ * dropped once they outnumber the live ones.
+ *
+ * The index is thread safe.
+ */
+class NodeNameIndex {
+
+    private class Entry(val handle: Long, val name: String, val parent: Long)
+
+    private val entries = ArrayList<Entry?>()
+    private val entryIds = HashMap<Long, Int>()
+    private val postings = HashMap<Long, IntList>()
+    private var staleEntries = 0
+
+    private var version = 0L
+    private var lastQuery: String? = null
+    private var lastPrefix = false
+    private var lastVersion = -1L
+    private var lastResult = IntList()
+
+    /**
+     * Number of nodes in the index
+     */
+    val size: Int
+        get() = synchronized(this) { entryIds.size }
+
+    /**
+     * Adds or updates a node
+     *
+     * @param handle Handle of the node
+     * @param name   Name of the node
+     * @param parent Handle of the parent node
+     */
+    @Synchronized
+    fun put(handle: Long, name: String, parent: Long) {
+        val normalizedName = normalize(name)
+        val existingId = entryIds[handle]
+        if (existingId != null) {
+            val existing = entries[existingId] ?: return
+            if (existing.name == normalizedName) {
+                if (existing.parent != parent) {
+                    entries[existingId] = Entry(handle, normalizedName, parent)
+                    version++
+                }
+                return
+            }
+            entries[existingId] = null
+            staleEntries++
+        }
+
+        val id = entries.size
+        entries.add(Entry(handle, normalizedName, parent))
+        entryIds[handle] = id
+        forEachTrigram(normalizedName) { trigram ->
+            val posting = postings.getOrPut(trigram) { IntList() }
+            // A name may contain the same trigram more than once
+            if (posting.size == 0 || posting[posting.size - 1] != id) {
+                posting.add(id)
+            }
+        }
+        version++
+        compactIfNeeded()
+    }
+
+    /**
+     * Removes a node
+     *
+     * @param handle Handle of the node
+     */
+    @Synchronized
+    fun remove(handle: Long) {
+        val id = entryIds.remove(handle) ?: return
+        entries[id] = null
+        staleEntries++
+        version++
+        compactIfNeeded()
+    }
+
+    /**
+     * Removes all the nodes
+     */
+    @Synchronized
+    fun clear() {
+        entries.clear()
+        entryIds.clear()
+        postings.clear()
+        staleEntries = 0
+        version++
+        lastQuery = null
+    }
+
+    /**
+     * Gets the parent of a node
+     *
+     * @param handle Handle of the node
+     * @return the handle of the parent, or null if the node is not in the index
+     */
+    @Synchronized
+    fun getParent(handle: Long): Long? = entryIds[handle]?.let { entries[it]?.parent }
+
+    /**
+     * Checks if a node is in one of the subtrees of some nodes
+     *
+     * @param handle       Handle of the node
+     * @param roots        Handles of the roots of the subtrees
+     * @param includeRoots True if the roots themselves are in their subtrees
+     * @return true if the node is in one of the subtrees
+     */
+    @Synchronized
+    fun isInSubtree(handle: Long, roots: Set<Long>, includeRoots: Boolean): Boolean =
+        isInSubtree(handle, roots, includeRoots, HashMap())
+
+    /**
+     * Searches the nodes of some subtrees whose name contains, or starts with, a query,
+     * ignoring case
+     *
+     * @param query        Text to search
+     * @param roots        Handles of the roots of the subtrees
+     * @param includeRoots True if the roots themselves are in their subtrees
+     * @param prefix       True if the names must start with the query, false if they must
+     *                     contain it
+     * @return the handles of the nodes found, in no particular order
+     */
+    @Synchronized
+    fun search(
+        query: String,
+        roots: Set<Long>,
+        includeRoots: Boolean,
+        prefix: Boolean = false,
+    ): List<Long> {
+        val membership = HashMap<Long, Boolean>()
+        return search(query, prefix).filter { isInSubtree(it, roots, includeRoots, membership) }
+    }
+
+    /**
+     * Searches the nodes whose name contains, or starts with, a query, ignoring case
+     *
+     * @param query  Text to search
+     * @param prefix True if the names must start with the query, false if they must contain it
+     * @return the handles of the nodes found, in no particular order
+     */
+    @Synchronized
+    fun search(query: String, prefix: Boolean = false): List<Long> {
+        val normalizedQuery = normalize(query)
+        if (normalizedQuery.isEmpty()) {
+            return emptyList()
+        }
+
+        val previousQuery = lastQuery
+        val candidates: IntList? = when {
+            previousQuery != null && lastVersion == version && lastPrefix == prefix
+                    && normalizedQuery.extends(previousQuery, prefix) -> lastResult
+            normalizedQuery.length >= TRIGRAM_LENGTH -> rarestPosting(normalizedQuery)
+                ?: return remember(normalizedQuery, prefix, IntList())
+            else -> null
+        }
+
+        val result = IntList()
+        if (candidates != null) {
+            for (i in 0 until candidates.size) {
+                val id = candidates[i]
+                if (entries[id]?.matches(normalizedQuery, prefix) == true) {
+                    result.add(id)
+                }
+            }
+        } else {
+            entries.forEachIndexed { id, entry ->
+                if (entry?.matches(normalizedQuery, prefix) == true) {
+                    result.add(id)
+                }
+            }
+        }
+
+        remember(normalizedQuery, prefix, result)
+        return List(result.size) { entries[result[it]]?.handle ?: 0L }
+    }
+
+    private fun isInSubtree(
+        handle: Long,
+        roots: Set<Long>,
+        includeRoots: Boolean,
+        membership: HashMap<Long, Boolean>,
+    ): Boolean {
+        if (handle in roots) {
+            return includeRoots
+        }
+        return getParent(handle)?.let { isRootOrDescendant(it, roots, membership) } ?: false
+    }
+
+    /**
+     * Checks if a node is one of some roots or is under one of them
+     *
+     * @param handle     Handle of the node
+     * @param roots      Handles of the roots
+     * @param membership Result for the nodes already checked, updated with the ancestors walked
+     * @return true if the node is a root or under one of them
+     */
+    private fun isRootOrDescendant(
+        handle: Long,
+        roots: Set<Long>,
+        membership: HashMap<Long, Boolean>,
+    ): Boolean {
+        val walked = ArrayList<Long>()
+        var current: Long? = handle
+        var result = false
+        while (current != null && walked.size < MAX_DEPTH) {
+            val known = membership[current]
+            if (known != null || current in roots) {
+                result = known ?: true
+                break
+            }
+            walked.add(current)
+            current = getParent(current)
+        }
+        walked.forEach { membership[it] = result }
+        return result
+    }
+
+    private fun remember(query: String, prefix: Boolean, result: IntList): List<Long> {
+        lastQuery = query
+        lastPrefix = prefix
+        lastVersion = version
+        lastResult = result
+        return emptyList()
+    }
+
+    /**
+     * Gets the shortest posting of the trigrams of a query
+     *
+     * @return the posting, or null if a trigram is not in any name
+     */
+    private fun rarestPosting(query: String): IntList? {
+        var rarest: IntList? = null
+        var missing = false
+        forEachTrigram(query) { trigram ->
+            val posting = postings[trigram]
+            if (posting == null) {
+                missing = true
+            } else if (rarest == null || posting.size < (rarest?.size ?: 0)) {
+                rarest = posting
+            }
+        }
+        return if (missing) null else rarest
+    }
+
+    private fun compactIfNeeded() {
+        if (staleEntries < MIN_STALE_ENTRIES_TO_COMPACT || staleEntries < entryIds.size) {
+            return
+        }
+
+        val liveEntries = entries.filterNotNull()
+        entries.clear()
+        entryIds.clear()
+        postings.clear()
+        staleEntries = 0
+        lastQuery = null
+        liveEntries.forEach { put(it.handle, it.name, it.parent) }
+    }
+
+    private fun Entry.matches(query: String, prefix: Boolean) =
+        if (prefix) name.startsWith(query) else name.contains(query)
+
+    private fun String.extends(previousQuery: String, prefix: Boolean) =
+        if (prefix) startsWith(previousQuery) else contains(previousQuery)
+
+    private inline fun forEachTrigram(text: String, action: (Long) -> Unit) {
+        for (i in 0..text.length - TRIGRAM_LENGTH) {
+            action(
+                (text[i].code.toLong() shl 32)
+                        or (text[i + 1].code.toLong() shl 16)
+                        or text[i + 2].code.toLong()
+            )
+        }
+    }
+
+    private fun normalize(text: String) = text.lowercase(Locale.ROOT)
+
+    /**
+     * Growable list of ints, to keep the postings without boxing
+     */
+    private class IntList {
+        private var values = IntArray(INITIAL_CAPACITY)
+
+        var size = 0
+            private set
+
+        fun add(value: Int) {
+            if (size == values.size) {
+                values = values.copyOf(size * 2)
+            }
+            values[size++] = value
+        }
+
+        operator fun get(index: Int) = values[index]
+
+        companion object {
+            private const val INITIAL_CAPACITY = 4
+        }
+    }
+
+    companion object {
+        private const val TRIGRAM_LENGTH = 3
+        private const val MAX_DEPTH = 1000
+        private const val MIN_STALE_ENTRIES_TO_COMPACT = 1000
+    }
+}
@@ -0,0 +1,284 @@
+package mega.privacy.android.app.search.index
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.ensureActive
+import kotlinx.coroutines.launch
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.model.GlobalUpdate
+import mega.privacy.android.data.qualifier.MegaApi
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import nz.mega.sdk.MegaApiAndroid
+import nz.mega.sdk.MegaApiJava
+import nz.mega.sdk.MegaCancelToken
+import nz.mega.sdk.MegaNode
+import timber.log.Timber
+import java.util.concurrent.atomic.AtomicBoolean
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Local index of the node names of the account, so searching does not walk the node tree in the
+ * SDK on every keystroke.
+ *
+ * The index is built in background the first time a search needs it, walking the cloud drive,
+ * rubbish bin, inbox and incoming shares, and then kept up to date from the node updates. Updates
+ * received while it is built are applied once the walk completes, so the walk does not overwrite
+ * them with the names it read before. While it is not ready, or if the account changed since it
+ * was built, the searches return null so the caller falls back to the SDK search. Only the nodes
+ * found in the searched subtrees are got from the SDK, and their names are checked again, so a
+ * stale entry is never returned.
+ *
+ * @property megaApi          MegaApiAndroid
+ * @property megaApiGateway   MegaApiGateway
+ * @property applicationScope CoroutineScope
+ * @property ioDispatcher     CoroutineDispatcher
+ */
+@Singleton
+class NodeSearchIndex @Inject constructor(
+    @MegaApi private val megaApi: MegaApiAndroid,
+    private val megaApiGateway: MegaApiGateway,
+    @ApplicationScope private val applicationScope: CoroutineScope,
+    @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
+) {
+
+    private val index = NodeNameIndex()
+    private val isStarted = AtomicBoolean(false)
+    private var buildJob: Job? = null
+
+    /**
+     * Node updates received while the index is built, guarded by this instance
+     */
+    private val pendingUpdates = ArrayList<MegaNode>()
+    private var isBuilding = false
+
+    @Volatile
+    private var isReady = false
+
+    @Volatile
+    private var rootHandle = MegaApiJava.INVALID_HANDLE
+
+    /**
+     * Starts building the index if it is not built yet
+     */
+    fun prepare() {
+        checkReady()
+    }
+
+    /**
+     * Searches the nodes under a parent node, as [MegaApiJava.search] does
+     *
+     * @param parent          Parent node
+     * @param query           Text the names contain
+     * @param megaCancelToken Token cancelling the search
+     * @param order           Sort order, as the SDK ones
+     * @return the nodes found, or null if the index is not ready
+     */
+    fun search(
+        parent: MegaNode,
+        query: String,
+        megaCancelToken: MegaCancelToken,
+        order: Int,
+    ): ArrayList<MegaNode>? =
+        search(query, megaCancelToken, order, includeRoots = false) { setOf(parent.handle) }
+
+    /**
+     * Searches the nodes of the incoming shares, as [MegaApiJava.searchOnInShares] does
+     *
+     * @param query           Text the names contain
+     * @param megaCancelToken Token cancelling the search
+     * @param order           Sort order, as the SDK ones
+     * @return the nodes found, or null if the index is not ready
+     */
+    fun searchOnInShares(
+        query: String,
+        megaCancelToken: MegaCancelToken,
+        order: Int,
+    ): ArrayList<MegaNode>? =
+        search(query, megaCancelToken, order, includeRoots = true) {
+            megaApi.inShares.mapTo(HashSet()) { it.handle }
+        }
+
+    /**
+     * Searches the nodes of the outgoing shares, as [MegaApiJava.searchOnOutShares] does
+     *
+     * @param query           Text the names contain
+     * @param megaCancelToken Token cancelling the search
+     * @param order           Sort order, as the SDK ones
+     * @return the nodes found, or null if the index is not ready
+     */
+    fun searchOnOutShares(
+        query: String,
+        megaCancelToken: MegaCancelToken,
+        order: Int,
+    ): ArrayList<MegaNode>? =
+        search(query, megaCancelToken, order, includeRoots = true) {
+            megaApi.outShares.mapTo(HashSet()) { it.nodeHandle }
+        }
+
+    /**
+     * Searches the nodes of the public links, as [MegaApiJava.searchOnPublicLinks] does
+     *
+     * @param query           Text the names contain
+     * @param megaCancelToken Token cancelling the search
+     * @param order           Sort order, as the SDK ones
+     * @return the nodes found, or null if the index is not ready
+     */
+    fun searchOnPublicLinks(
+        query: String,
+        megaCancelToken: MegaCancelToken,
+        order: Int,
+    ): ArrayList<MegaNode>? =
+        search(query, megaCancelToken, order, includeRoots = true) {
+            megaApi.publicLinks.mapTo(HashSet()) { it.handle }
+        }
+
+    private fun search(
+        query: String,
+        megaCancelToken: MegaCancelToken,
+        order: Int,
+        includeRoots: Boolean,
+        getRoots: () -> Set<Long>,
+    ): ArrayList<MegaNode>? {
+        if (!checkReady()) {
+            return null
+        }
+
+        val nodes = ArrayList<MegaNode>()
+        for (handle in index.search(query, getRoots(), includeRoots)) {
+            if (megaCancelToken.isCancelled) {
+                return ArrayList()
+            }
+            val node = megaApi.getNodeByHandle(handle) ?: continue
+            if (node.name?.contains(query, ignoreCase = true) == true) {
+                nodes.add(node)
+            }
+        }
+        nodes.sortWith(getComparator(order))
+        return nodes
+    }
+
+    /**
+     * Checks if the index is ready, starting to build it if needed
+     */
+    private fun checkReady(): Boolean {
+        val currentRootHandle = megaApi.rootNode?.handle ?: return false
+        if (isReady && currentRootHandle != rootHandle) {
+            Timber.d("Account changed, rebuilding the node index")
+            invalidate()
+        }
+
+        if (isStarted.compareAndSet(false, true)) {
+            applicationScope.launch(ioDispatcher) {
+                megaApiGateway.globalUpdates.collect { update ->
+                    when (update) {
+                        is GlobalUpdate.OnNodesUpdate -> update.nodeList?.forEach {
+                            onNodeUpdate(it)
+                        }
+                        is GlobalUpdate.OnReloadNeeded -> invalidate()
+                        else -> {}
+                    }
+                }
+            }
+            build()
+        }
+
+        return isReady
+    }
+
+    @Synchronized
+    private fun build() {
+        buildJob?.cancel()
+        isBuilding = true
+        buildJob = applicationScope.launch(ioDispatcher) {
+            val start = System.currentTimeMillis()
+            rootHandle = megaApi.rootNode?.handle ?: MegaApiJava.INVALID_HANDLE
+            index.clear()
+            val roots = listOfNotNull(megaApi.rootNode, megaApi.rubbishNode, megaApi.inboxNode)
+            (roots + megaApi.inShares).forEach { root ->
+                index.put(root.handle, root.name ?: "", root.parentHandle)
+                val folders = ArrayDeque<MegaNode>().apply { add(root) }
+                while (folders.isNotEmpty()) {
+                    ensureActive()
+                    megaApi.getChildren(folders.removeFirst())?.forEach { child ->
+                        index.put(child.handle, child.name ?: "", child.parentHandle)
+                        if (child.isFolder) {
+                            folders.add(child)
+                        }
+                    }
+                }
+            }
+            onBuilt()
+            Timber.d("Node index built: %d nodes in %d ms",
+                index.size, System.currentTimeMillis() - start)
+        }
+    }
+
+    /**
+     * Applies the node updates received during the build, unless a new build started meanwhile
+     */
+    private fun CoroutineScope.onBuilt() = synchronized(this@NodeSearchIndex) {
+        ensureActive()
+        pendingUpdates.forEach { applyNodeUpdate(it) }
+        pendingUpdates.clear()
+        isBuilding = false
+        isReady = true
+    }
+
+    @Synchronized
+    private fun onNodeUpdate(node: MegaNode) {
+        if (isBuilding) {
+            pendingUpdates.add(node)
+        } else {
+            applyNodeUpdate(node)
+        }
+    }
+
+    private fun applyNodeUpdate(node: MegaNode) {
+        // Previous versions of a file are children of the file, not found by the searches
+        if (node.hasChanged(MegaNode.CHANGE_TYPE_REMOVED)
+            || megaApi.getParentNode(node)?.isFile == true
+        ) {
+            index.remove(node.handle)
+        } else {
+            index.put(node.handle, node.name ?: "", node.parentHandle)
+        }
+    }
+
+    private fun invalidate() {
+        isReady = false
+        if (isStarted.get()) {
+            build()
+        }
+    }
+
+    private fun getComparator(order: Int): Comparator<MegaNode> {
+        val byName = compareBy(String.CASE_INSENSITIVE_ORDER) { node: MegaNode -> node.name ?: "" }
+        val foldersFirst = compareByDescending<MegaNode> { it.isFolder }
+        return foldersFirst.then(
+            when (order) {
+                MegaApiJava.ORDER_DEFAULT_DESC -> byName.reversed()
+                MegaApiJava.ORDER_SIZE_ASC -> compareBy<MegaNode> { it.size }.then(byName)
+                MegaApiJava.ORDER_SIZE_DESC ->
+                    compareByDescending<MegaNode> { it.size }.then(byName)
+                MegaApiJava.ORDER_CREATION_ASC ->
+                    compareBy<MegaNode> { it.creationTime }.then(byName)
+                MegaApiJava.ORDER_CREATION_DESC ->
+                    compareByDescending<MegaNode> { it.creationTime }.then(byName)
+                MegaApiJava.ORDER_MODIFICATION_ASC ->
+                    compareBy<MegaNode> { it.modificationTime }.then(byName)
+                MegaApiJava.ORDER_MODIFICATION_DESC ->
+                    compareByDescending<MegaNode> { it.modificationTime }.then(byName)
+                MegaApiJava.ORDER_LABEL_ASC -> compareBy<MegaNode> { it.label }.then(byName)
+                MegaApiJava.ORDER_LABEL_DESC ->
+                    compareByDescending<MegaNode> { it.label }.then(byName)
+                MegaApiJava.ORDER_FAV_ASC ->
+                    compareByDescending<MegaNode> { it.isFavourite }.then(byName)
+                MegaApiJava.ORDER_FAV_DESC -> compareBy<MegaNode> { it.isFavourite }.then(byName)
+                else -> byName
+            }
+        )
+    }
+}
@@ -10,6 +10,7 @@ import mega.privacy.android.data.qualifier.MegaApi
 import mega.privacy.android.app.globalmanagement.SortOrderManagement
 import mega.privacy.android.app.main.DrawerItem
 import mega.privacy.android.app.presentation.manager.model.SharesTab
+import mega.privacy.android.app.search.index.NodeSearchIndex
 import mega.privacy.android.app.utils.Constants.INVALID_VALUE
 import mega.privacy.android.app.utils.SortUtil.sortByNameAscending
 import mega.privacy.android.app.utils.SortUtil.sortByNameDescending
@@ -27,11 +28,15 @@ import javax.inject.Inject
 /**
  * Use case which search nodes.
  *
+ * Searches are answered from the local [NodeSearchIndex] once it is ready, and by the SDK until
+ * then.
+ *
  * @property megaApi                MegaApiAndroid object
  * @property getCloudSortOrder      GetCloudSortOrder
  * @property getOthersSortOrder     GetOthersSortOrder
  * @property getLinksSortOrder      GetLinksSortOrder     
  * @property sortOrderIntMapper     SortOrderIntMapper
+ * @property nodeSearchIndex        NodeSearchIndex, answers the searches before the SDK
  * @property ioDispatcher           CoroutineDispatcher
  */
 class SearchNodesUseCase @Inject constructor(
@@ -40,6 +45,7 @@ class SearchNodesUseCase @Inject constructor(
     private val getOthersSortOrder: GetOthersSortOrder,
     private val getLinksSortOrder: GetLinksSortOrder,
     private val sortOrderIntMapper: SortOrderIntMapper,
+    private val nodeSearchIndex: NodeSearchIndex,
     @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
 ) {
 
@@ -50,6 +56,14 @@ class SearchNodesUseCase @Inject constructor(
         const val TYPE_INCOMING_EXPLORER = 3
     }
 
+    /**
+     * Starts building the local search index if it is not built yet, so it is likely ready
+     * by the first search.
+     */
+    fun prepare() {
+        nodeSearchIndex.prepare()
+    }
+
     /**
      * Gets searched nodes.
      *
@@ -208,14 +222,10 @@ class SearchNodesUseCase @Inject constructor(
                     emitter.onSuccess(megaApi.getChildren(parent))
                 } else {
                     runBlocking {
+                        val order = sortOrderIntMapper(getCloudSortOrder())
                         emitter.onSuccess(
-                            megaApi.search(
-                                parent,
-                                query,
-                                megaCancelToken,
-                                true,
-                                sortOrderIntMapper(getCloudSortOrder())
-                            )
+                            nodeSearchIndex.search(parent, query, megaCancelToken, order)
+                                ?: megaApi.search(parent, query, megaCancelToken, true, order)
                         )
                     }
                 }
@@ -232,9 +242,9 @@ class SearchNodesUseCase @Inject constructor(
         if (query.isEmpty()) {
             megaApi.getInShares(sortOrderIntMapper(getOthersSortOrder()))
         } else {
-            megaApi.searchOnInShares(query,
-                megaCancelToken,
-                sortOrderIntMapper(getCloudSortOrder()))
+            val order = sortOrderIntMapper(getCloudSortOrder())
+            nodeSearchIndex.searchOnInShares(query, megaCancelToken, order)
+                ?: megaApi.searchOnInShares(query, megaCancelToken, order)
         }
 
     /**
@@ -263,9 +273,9 @@ class SearchNodesUseCase @Inject constructor(
 
             searchNodes
         } else {
-            megaApi.searchOnOutShares(query,
-                megaCancelToken,
-                sortOrderIntMapper(getCloudSortOrder()))
+            val order = sortOrderIntMapper(getCloudSortOrder())
+            nodeSearchIndex.searchOnOutShares(query, megaCancelToken, order)
+                ?: megaApi.searchOnOutShares(query, megaCancelToken, order)
         }
 
     /**
@@ -280,9 +290,9 @@ class SearchNodesUseCase @Inject constructor(
             megaApi.getPublicLinks(if (isFirstNavigationLevel) sortOrderIntMapper(getLinksSortOrder()) else sortOrderIntMapper(
                 getCloudSortOrder()))
         } else {
-            megaApi.searchOnPublicLinks(query,
-                megaCancelToken,
-                sortOrderIntMapper(getCloudSortOrder()))
+            val order = sortOrderIntMapper(getCloudSortOrder())
+            nodeSearchIndex.searchOnPublicLinks(query, megaCancelToken, order)
+                ?: megaApi.searchOnPublicLinks(query, megaCancelToken, order)
         }
     }
 }
\ No newline at end of file
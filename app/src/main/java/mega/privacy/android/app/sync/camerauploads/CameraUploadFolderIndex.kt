@@ -0,0 +1,153 @@
+package mega.privacy.android.app.sync.camerauploads
+
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import mega.privacy.android.app.domain.usecase.GetChildrenNode
+import mega.privacy.android.domain.entity.SortOrder
+import nz.mega.sdk.MegaNode
+import timber.log.Timber
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * In-memory index of the children of the camera upload target folders, by size, by fingerprint
+ * and by name, so the duplicate checks of an upload session do not list the folders every time.
+ *
+ * A folder is listed the first time it is queried in a session. After that the index is kept up
+ * to date with [onNodeAdded] and [onNodesUpdate], and dropped with [clear] when the session ends.
+ */
+@Singleton
+class CameraUploadFolderIndex @Inject constructor(
+    private val getChildrenNode: GetChildrenNode,
+) {
+
+    private val loadMutex = Mutex()
+    private val folders = HashMap<Long, FolderIndex>()
+
+    /**
+     * Gets the first child of a folder with a size.
+     *
+     * @param parent Folder.
+     * @param size   Size in bytes.
+     * @return The child, or null if there is none.
+     */
+    suspend fun getChildBySize(parent: MegaNode, size: Long): MegaNode? =
+        folder(parent).let { synchronized(this) { it.bySize[size]?.firstOrNull() } }
+
+    /**
+     * Gets a child of a folder with an original fingerprint or a fingerprint.
+     * A child with the original fingerprint is preferred.
+     *
+     * @param parent      Folder.
+     * @param fingerprint Fingerprint of the local file.
+     * @return The child, or null if there is none.
+     */
+    suspend fun getChildByFingerprint(parent: MegaNode, fingerprint: String): MegaNode? =
+        folder(parent).let {
+            synchronized(this) {
+                it.byOriginalFingerprint[fingerprint]?.firstOrNull()
+                    ?: it.byFingerprint[fingerprint]?.firstOrNull()
+            }
+        }
+
+    /**
+     * Gets the child of a folder with a name.
+     *
+     * @param parent Folder, or null if it does not exist.
+     * @param name   Name.
+     * @return The child, or null if there is none.
+     */
+    suspend fun getChildByName(parent: MegaNode?, name: String?): MegaNode? {
+        if (parent == null || name == null) return null
+        return folder(parent).let { synchronized(this) { it.byName[name]?.firstOrNull() } }
+    }
+
+    /**
+     * Adds a node to the index of its parent, if that folder has been indexed.
+     *
+     * @param node New node, for example an uploaded or copied file.
+     */
+    fun onNodeAdded(node: MegaNode) = synchronized(this) {
+        folders[node.parentHandle]?.add(node)
+    }
+
+    /**
+     * Updates the indexed folders with some changed nodes.
+     * Removed nodes are dropped, and moved, renamed or modified nodes are indexed again.
+     *
+     * @param nodes Updated nodes.
+     */
+    fun onNodesUpdate(nodes: List<MegaNode>) = synchronized(this) {
+        if (folders.isEmpty()) return@synchronized
+
+        nodes.forEach { node ->
+            folders.values.forEach { it.remove(node.handle) }
+            if (!node.hasChanged(MegaNode.CHANGE_TYPE_REMOVED)) {
+                folders[node.parentHandle]?.add(node)
+            }
+        }
+    }
+
+    /**
+     * Drops all the indexed folders.
+     */
+    fun clear() = synchronized(this) {
+        folders.clear()
+    }
+
+    private suspend fun folder(parent: MegaNode): FolderIndex {
+        synchronized(this) { folders[parent.handle] }?.let { return it }
+
+        return loadMutex.withLock {
+            synchronized(this) { folders[parent.handle] } ?: load(parent).also {
+                synchronized(this) { folders[parent.handle] = it }
+            }
+        }
+    }
+
+    private suspend fun load(parent: MegaNode): FolderIndex {
+        val children = runCatching { getChildrenNode(parent, SortOrder.ORDER_ALPHABETICAL_ASC) }
+            .onFailure { Timber.e(it, "Error getting the children of ${parent.handle}") }
+            .getOrDefault(emptyList())
+        Timber.d("Indexed ${children.size} children of ${parent.handle}")
+        return FolderIndex().apply { children.forEach { add(it) } }
+    }
+
+    /**
+     * Children of a folder. Only accessed while holding the lock of the outer index.
+     */
+    private class FolderIndex {
+        val byHandle = HashMap<Long, MegaNode>()
+        val bySize = HashMap<Long, MutableList<MegaNode>>()
+        val byOriginalFingerprint = HashMap<String, MutableList<MegaNode>>()
+        val byFingerprint = HashMap<String, MutableList<MegaNode>>()
+        val byName = HashMap<String, MutableList<MegaNode>>()
+
+        fun add(node: MegaNode) {
+            remove(node.handle)
+            byHandle[node.handle] = node
+            bySize.addNode(node.size, node)
+            byOriginalFingerprint.addNode(node.originalFingerprint, node)
+            byFingerprint.addNode(node.fingerprint, node)
+            byName.addNode(node.name, node)
+        }
+
+        fun remove(handle: Long) {
+            val node = byHandle.remove(handle) ?: return
+            bySize.removeNode(node.size, handle)
+            byOriginalFingerprint.removeNode(node.originalFingerprint, handle)
+            byFingerprint.removeNode(node.fingerprint, handle)
+            byName.removeNode(node.name, handle)
+        }
+
+        private fun <K> HashMap<K, MutableList<MegaNode>>.addNode(key: K?, node: MegaNode) {
+            if (key != null) getOrPut(key) { mutableListOf() }.add(node)
+        }
+
+        private fun <K> HashMap<K, MutableList<MegaNode>>.removeNode(key: K?, handle: Long) {
+            val nodes = key?.let { get(it) } ?: return
+            nodes.removeAll { it.handle == handle }
+            if (nodes.isEmpty()) remove(key)
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package mega.privacy.android.app.sync.camerauploads
+
+import android.content.ContentResolver
+import android.content.Context
+import android.database.Cursor
+import android.net.Uri
+import android.os.Build
+import android.os.Bundle
+import android.provider.BaseColumns
+import android.provider.MediaStore
+import dagger.hilt.android.qualifiers.ApplicationContext
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.flowOn
+import mega.privacy.android.domain.entity.CameraUploadMedia
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import timber.log.Timber
+import javax.inject.Inject
+import kotlin.math.max
+
+/**
+ * Pages through the media store for camera uploads.
+ *
+ * Media are read in pages of [PAGE_SIZE] rows, ordered by modification time and id. Every page
+ * starts right after the last row of the previous one (keyset pagination), so no offset has to
+ * be skipped, rows with the same modification time are neither lost nor repeated, and only one
+ * page is held in memory at a time.
+ */
+class CameraUploadMediaScanner @Inject constructor(
+    @ApplicationContext private val context: Context,
+    @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
+) {
+
+    /**
+     * Scans the media of a media store collection.
+     *
+     * @param uri            Media store collection.
+     * @param parentPath     Local folder the media must be in.
+     * @param selectionQuery Selection of the media, or null to scan the whole collection.
+     * @param pageSize       Maximum number of rows read at once.
+     * @return Flow emitting the media of every non empty page, oldest first.
+     */
+    fun scan(
+        uri: Uri,
+        parentPath: String?,
+        selectionQuery: String?,
+        pageSize: Int = PAGE_SIZE,
+    ): Flow<List<CameraUploadMedia>> = flow {
+        var key: PageKey? = null
+        do {
+            val page = queryPage(uri, parentPath, selectionQuery, key, pageSize) ?: break
+            Timber.d("Scanned ${page.rowCount} rows of $uri, ${page.media.size} in $parentPath")
+            if (page.media.isNotEmpty()) emit(page.media)
+            key = page.lastKey
+        } while (page.rowCount == pageSize && key != null)
+    }.flowOn(ioDispatcher)
+
+    private fun queryPage(
+        uri: Uri,
+        parentPath: String?,
+        selectionQuery: String?,
+        key: PageKey?,
+        pageSize: Int,
+    ): Page? {
+        val selection = getPageSelection(selectionQuery, key != null)
+        val selectionArgs = key?.let {
+            arrayOf(it.modified.toString(), it.modified.toString(), it.id.toString())
+        }
+
+        return runCatching {
+            query(uri, selection, selectionArgs, pageSize)?.use { cursor ->
+                readPage(cursor, parentPath)
+            }
+        }.onFailure { Timber.e(it, "Error scanning $uri") }
+            .getOrNull()
+    }
+
+    private fun query(
+        uri: Uri,
+        selection: String?,
+        selectionArgs: Array<String>?,
+        pageSize: Int,
+    ): Cursor? {
+        val contentResolver = context.contentResolver
+        return if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            val args = Bundle().apply {
+                putString(ContentResolver.QUERY_ARG_SQL_SELECTION, selection)
+                putStringArray(ContentResolver.QUERY_ARG_SQL_SELECTION_ARGS, selectionArgs)
+                putString(ContentResolver.QUERY_ARG_SQL_SORT_ORDER, SORT_ORDER)
+                putString(ContentResolver.QUERY_ARG_SQL_LIMIT, pageSize.toString())
+            }
+            contentResolver.query(uri, PROJECTION, args, null)
+        } else {
+            contentResolver.query(
+                uri,
+                PROJECTION,
+                selection,
+                selectionArgs,
+                "$SORT_ORDER LIMIT $pageSize"
+            )
+        }
+    }
+
+    private fun readPage(cursor: Cursor, parentPath: String?): Page {
+        val idColumn = cursor.getColumnIndexOrThrow(BaseColumns._ID)
+        @Suppress("DEPRECATION")
+        val dataColumn = cursor.getColumnIndexOrThrow(MediaStore.MediaColumns.DATA)
+        val addedColumn = cursor.getColumnIndexOrThrow(MediaStore.MediaColumns.DATE_ADDED)
+        val modifiedColumn = cursor.getColumnIndexOrThrow(MediaStore.MediaColumns.DATE_MODIFIED)
+
+        val media = ArrayList<CameraUploadMedia>(cursor.count)
+        var lastKey: PageKey? = null
+        while (cursor.moveToNext()) {
+            val modified = cursor.getLong(modifiedColumn)
+            lastKey = PageKey(modified, cursor.getLong(idColumn))
+
+            val filePath = cursor.getString(dataColumn)
+            if (filePath == null || parentPath.isNullOrBlank() || !filePath.startsWith(parentPath)) {
+                continue
+            }
+            val timestamp = max(cursor.getLong(addedColumn), modified) * 1000
+            media.add(CameraUploadMedia(filePath = filePath, timestamp = timestamp))
+        }
+
+        return Page(media, cursor.count, lastKey)
+    }
+
+    /**
+     * Position of the last row of a page.
+     */
+    private data class PageKey(val modified: Long, val id: Long)
+
+    private class Page(
+        val media: List<CameraUploadMedia>,
+        val rowCount: Int,
+        val lastKey: PageKey?,
+    )
+
+    companion object {
+        /**
+         * Default number of rows read at once.
+         */
+        const val PAGE_SIZE = 200
+
+        @Suppress("DEPRECATION")
+        private val PROJECTION = arrayOf(
+            BaseColumns._ID,
+            MediaStore.MediaColumns.DATA,
+            MediaStore.MediaColumns.DATE_ADDED,
+            MediaStore.MediaColumns.DATE_MODIFIED,
+        )
+
+        private const val SORT_ORDER =
+            "${MediaStore.MediaColumns.DATE_MODIFIED} ASC, ${BaseColumns._ID} ASC"
+
+        private const val KEYSET_SELECTION =
+            "(${MediaStore.MediaColumns.DATE_MODIFIED} > ? OR " +
+                    "(${MediaStore.MediaColumns.DATE_MODIFIED} = ? AND ${BaseColumns._ID} > ?))"
+
+        /**
+         * Gets the selection of a page.
+         *
+         * @param selectionQuery Selection of the scan, if any.
+         * @param hasKey         True if the page starts after a previous one.
+         * @return The selection, with three arguments for the position of the previous page.
+         */
+        internal fun getPageSelection(selectionQuery: String?, hasKey: Boolean): String? =
+            when {
+                !hasKey -> selectionQuery
+                selectionQuery.isNullOrBlank() -> KEYSET_SELECTION
+                else -> "($selectionQuery) AND $KEYSET_SELECTION"
+            }
+    }
+}
@@ -2,9 +2,13 @@ package mega.privacy.android.app.usecase
 
 import io.reactivex.rxjava3.core.BackpressureStrategy
 import io.reactivex.rxjava3.core.Flowable
-import mega.privacy.android.data.qualifier.MegaApi
-import mega.privacy.android.app.listeners.OptionalMegaTransferListenerInterface
-import nz.mega.sdk.MegaApiAndroid
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.launch
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.model.GlobalTransfer
+import mega.privacy.android.domain.qualifier.ApplicationScope
 import nz.mega.sdk.MegaError
 import nz.mega.sdk.MegaTransfer
 import javax.inject.Inject
@@ -13,11 +17,15 @@ import javax.inject.Singleton
 /**
  * Use case to subscribe to global transfers related to MegaApi.
  *
- * @property megaApi    MegaApi required to call the SDK
+ * All the subscribers share the same transfer listener of [MegaApiGateway.globalTransfer].
+ *
+ * @property megaApiGateway     MegaApiGateway required to get the transfer events
+ * @property applicationScope   Scope the events are collected in for the Flowable subscribers
  */
 @Singleton
 class GetGlobalTransferUseCase @Inject constructor(
-    @MegaApi private val megaApi: MegaApiAndroid,
+    private val megaApiGateway: MegaApiGateway,
+    @ApplicationScope private val applicationScope: CoroutineScope,
 ) {
 
     sealed class Result {
@@ -37,40 +45,47 @@ class GetGlobalTransferUseCase @Inject constructor(
             Result()
     }
 
-    fun get(): Flowable<Result> =
+    /**
+     * Gets all the transfer events.
+     *
+     * @return Flowable of the transfer events.
+     */
+    fun get(): Flowable<Result> = get(maxUpdateRateMillis = 0)
+
+    /**
+     * Gets the transfer events, with the update events of each transfer limited to a maximum rate.
+     * Start, finish and error events are never dropped.
+     *
+     * @param maxUpdateRateMillis Minimum time between the update events of a transfer, 0 for no limit.
+     * @return Flowable of the transfer events.
+     */
+    fun get(maxUpdateRateMillis: Long): Flowable<Result> =
         Flowable.create({ emitter ->
-            val listener = OptionalMegaTransferListenerInterface(
-                onTransferStart = { transfer ->
-                    if (!emitter.isCancelled) {
-                        emitter.onNext(Result.OnTransferStart(transfer))
-                    }
-                },
-                onTransferFinish = { transfer, error ->
-                    if (!emitter.isCancelled) {
-                        emitter.onNext(Result.OnTransferFinish(transfer, error))
-                    }
-                },
-                onTransferUpdate = { transfer ->
-                    if (!emitter.isCancelled) {
-                        emitter.onNext(Result.OnTransferUpdate(transfer))
-                    }
-                },
-                onTransferTemporaryError = { transfer, error ->
-                    if (!emitter.isCancelled) {
-                        emitter.onNext(Result.OnTransferTemporaryError(transfer, error))
-                    }
-                },
-                onTransferData = { transfer, buffer ->
-                    if (!emitter.isCancelled) {
-                        emitter.onNext(Result.OnTransferData(transfer, buffer))
-                    }
-                }
-            )
+            val job = applicationScope.launch {
+                monitor(maxUpdateRateMillis).collect { emitter.onNext(it) }
+            }
 
-            megaApi.addTransferListener(listener)
+            emitter.setCancellable { job.cancel() }
+        }, BackpressureStrategy.BUFFER)
 
-            emitter.setCancellable {
-                megaApi.removeTransferListener(listener)
+    /**
+     * Monitors the transfer events, with the update events of each transfer limited to a maximum
+     * rate. Start, finish and error events are never dropped.
+     *
+     * @param maxUpdateRateMillis Minimum time between the update events of a transfer, 0 for no limit.
+     * @return Flow of the transfer events.
+     */
+    fun monitor(maxUpdateRateMillis: Long): Flow<Result> =
+        megaApiGateway.monitorGlobalTransfer(maxUpdateRateMillis).map { event ->
+            when (event) {
+                is GlobalTransfer.OnTransferStart -> Result.OnTransferStart(event.transfer)
+                is GlobalTransfer.OnTransferFinish ->
+                    Result.OnTransferFinish(event.transfer, event.error)
+                is GlobalTransfer.OnTransferUpdate -> Result.OnTransferUpdate(event.transfer)
+                is GlobalTransfer.OnTransferTemporaryError ->
+                    Result.OnTransferTemporaryError(event.transfer, event.error)
+                is GlobalTransfer.OnTransferData ->
+                    Result.OnTransferData(event.transfer, event.buffer)
             }
-        }, BackpressureStrategy.BUFFER)
+        }
 }
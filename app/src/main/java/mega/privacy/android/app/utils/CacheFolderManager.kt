@@ -20,6 +20,7 @@ object CacheFolderManager {
     const val VOICE_CLIP_FOLDER = "voiceClipsMEGA"
     const val TEMPORARY_FOLDER = "tempMEGA"
     const val CHAT_TEMPORARY_FOLDER = "chatTempMEGA"
+    const val ZIP_PREVIEW_FOLDER = "zipPreviewMEGA"
 
     val cacheFolderGateway: CacheFolderGateway by lazy {
         EntryPointAccessors.fromApplication(MegaApplication.getInstance(),
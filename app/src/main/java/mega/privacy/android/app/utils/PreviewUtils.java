@@ -14,7 +14,8 @@ import android.view.Display;
 import java.io.File;
 
 import mega.privacy.android.app.MegaApplication;
-import mega.privacy.android.app.PreviewCache;
+import mega.privacy.android.app.utils.cache.BitmapCache;
+import mega.privacy.android.data.cache.DiskCacheManager;
 import nz.mega.sdk.MegaApiAndroid;
 import nz.mega.sdk.MegaNode;
 import timber.log.Timber;
@@ -24,12 +25,18 @@ public class PreviewUtils {
 
     private static MegaApiAndroid megaApi = MegaApplication.getInstance().getMegaApi();
 
-    public static File previewDir;
-    public static PreviewCache previewCache = new PreviewCache();
-
     //10mb
     private static final long THRESHOLD = 10 * 1024 * 1024;
 
+    public static File previewDir;
+    public static BitmapCache<Long> previewCache = new BitmapCache<>("preview", BitmapCache.memoryBudget(8));
+
+    /**
+     * Previews decoded for the size of the chat views. Kept apart from {@link #previewCache},
+     * which only holds full resolution previews, so other screens do not show them blurry.
+     */
+    public static BitmapCache<Long> chatPreviewCache = new BitmapCache<>("chatPreview", BitmapCache.memoryBudget(16));
+
     /*
      * Get preview folder
      */
@@ -52,6 +59,28 @@ public class PreviewUtils {
         previewCache.put(handle, bitmap);
     }
 
+    /**
+     * Gets the preview of a node to show in the chat, from the chat cache or, if not there, from
+     * the full resolution cache.
+     *
+     * @param node The node.
+     * @return The preview, or null if it is in none of the caches.
+     */
+    public static Bitmap getChatPreviewFromCache(MegaNode node) {
+        Bitmap preview = chatPreviewCache.get(node.getHandle());
+        return preview != null ? preview : previewCache.get(node.getHandle());
+    }
+
+    /**
+     * Releases memory of the preview caches.
+     *
+     * @param level Level received in onTrimMemory.
+     */
+    public static void trimMemory(int level) {
+        previewCache.trimMemory(level);
+        chatPreviewCache.trimMemory(level);
+    }
+
     /**
      * Get the preview of a node.
      *
@@ -87,11 +116,12 @@ public class PreviewUtils {
         if (bmp == null) {
             File previewDir = getPreviewFolder(context);
             File preview = new File(previewDir, handle + ".jpg");
-            if (preview.exists()) {
+            DiskCacheManager diskCacheManager = MegaApplication.getInstance().getDiskCacheManager();
+            if (diskCacheManager.exists(preview)) {
                 if (preview.length() > 0) {
                     bmp = getBitmapForCache(preview, context);
                     if (bmp == null) {
-                        preview.delete();
+                        diskCacheManager.delete(preview);
                     } else {
                         previewCache.put(handle, bmp);
                     }
@@ -157,6 +187,24 @@ public class PreviewUtils {
         return BitmapFactory.decodeFile(bmpFile.getAbsolutePath(), bOpts);
     }
 
+    /**
+     * Decodes a preview file for the view where it is shown, so it is not decoded bigger than the
+     * view.
+     *
+     * @param bmpFile    Preview file.
+     * @param targetSize Maximum width and height of the view.
+     * @return The bitmap of the preview, or null if it cannot be decoded.
+     */
+    public static Bitmap getBitmapForView(File bmpFile, int targetSize) {
+        BitmapFactory.Options bOpts = new BitmapFactory.Options();
+        bOpts.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(bmpFile.getAbsolutePath(), bOpts);
+
+        bOpts.inJustDecodeBounds = false;
+        bOpts.inSampleSize = calculateInSampleSize(bOpts, targetSize, targetSize);
+        return BitmapFactory.decodeFile(bmpFile.getAbsolutePath(), bOpts);
+    }
+
     public static Bitmap getPreviewFromFolderFullImage(MegaNode node, Context context) {
         if (node == null) return null;
 
@@ -164,10 +212,11 @@ public class PreviewUtils {
         if (bmp == null) {
             File previewDir = getPreviewFolder(context);
             File preview = new File(previewDir, node.getBase64Handle() + ".jpg");
-            if (preview.exists() && preview.length() > 0) {
+            DiskCacheManager diskCacheManager = MegaApplication.getInstance().getDiskCacheManager();
+            if (diskCacheManager.exists(preview) && preview.length() > 0) {
                 bmp = getBitmapForCacheFullImage(preview, context);
                 if (bmp == null) {
-                    preview.delete();
+                    diskCacheManager.delete(preview);
                 } else {
                     previewCache.put(node.getHandle(), bmp);
                 }
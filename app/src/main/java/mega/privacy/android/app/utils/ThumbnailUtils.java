@@ -42,11 +42,13 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import mega.privacy.android.app.FileDocument;
+import mega.privacy.android.app.MegaApplication;
 import mega.privacy.android.app.MimeTypeList;
 import mega.privacy.android.app.R;
-import mega.privacy.android.app.ThumbnailCache;
 import mega.privacy.android.app.main.adapters.FileStorageAdapter;
 import mega.privacy.android.app.main.adapters.FileStorageAdapter.ViewHolderFileStorage;
 import mega.privacy.android.app.main.adapters.MegaExplorerAdapter;
@@ -56,10 +58,13 @@ import mega.privacy.android.app.main.adapters.MegaTransfersAdapter;
 import mega.privacy.android.app.main.adapters.MegaTransfersAdapter.ViewHolderTransfer;
 import mega.privacy.android.app.main.adapters.MultipleBucketAdapter;
 import mega.privacy.android.app.presentation.recentactions.RecentActionsAdapter;
+import mega.privacy.android.app.utils.cache.BitmapCache;
 import mega.privacy.android.app.main.adapters.VersionsFileAdapter;
 import mega.privacy.android.app.main.megachat.chatAdapters.NodeAttachmentHistoryAdapter;
 import mega.privacy.android.app.main.providers.MegaProviderAdapter;
 import mega.privacy.android.app.main.providers.MegaProviderAdapter.ViewHolderProvider;
+import mega.privacy.android.data.cache.DiskCacheManager;
+import mega.privacy.android.data.thumbnail.ThumbnailRequestScheduler;
 import nz.mega.sdk.MegaApiAndroid;
 import nz.mega.sdk.MegaApiJava;
 import nz.mega.sdk.MegaError;
@@ -73,8 +78,9 @@ import timber.log.Timber;
  */
 public class ThumbnailUtils {
     public static File thumbDir;
-    public static ThumbnailCache thumbnailCache = new ThumbnailCache();
-    public static ThumbnailCache thumbnailCachePath = new ThumbnailCache(1);
+    // Thumbnails are already kept on disk in the thumbnail folder, so no disk tier is needed
+    public static BitmapCache<Long> thumbnailCache = new BitmapCache<>("thumbnail", BitmapCache.memoryBudget(16));
+    public static BitmapCache<String> thumbnailCachePath = new BitmapCache<>("thumbnailPath", BitmapCache.memoryBudget(32));
     public static Boolean isDeviceMemoryLow = false;
 
     static HashMap<Long, ThumbnailDownloadListenerListBrowser> listenersList = new HashMap<Long, ThumbnailDownloadListenerListBrowser>();
@@ -85,6 +91,11 @@ public class ThumbnailUtils {
 
     static HashMap<Long, ThumbnailDownloadListenerThumbnailInterface> listenersThumbnailInterface = new HashMap<Long, ThumbnailDownloadListenerThumbnailInterface>();
 
+    /**
+     * Pending thumbnail request of every view holder, to cancel it when the view holder is rebound
+     */
+    private static final Map<Object, ThumbnailRequestScheduler.Ticket> viewHolderRequests = new WeakHashMap<>();
+
     public static Bitmap getRoundedRectBitmap(Context context, final Bitmap bitmap, final int pixels) {
         Timber.d("getRoundedRectBitmap");
         final Bitmap result = Bitmap.createBitmap(bitmap.getWidth(), bitmap.getHeight(), Bitmap.Config.ARGB_8888);
@@ -616,15 +627,26 @@ public class ThumbnailUtils {
         thumbnailCachePath.put(path, bitmap);
     }
 
+    /**
+     * Releases memory of the thumbnail caches.
+     *
+     * @param level Level received in onTrimMemory.
+     */
+    public static void trimMemory(int level) {
+        thumbnailCache.trimMemory(level);
+        thumbnailCachePath.trimMemory(level);
+    }
+
     public static Bitmap getThumbnailFromFolder(MegaNode node, Context context) {
         File thumbDir = getThumbFolder(context);
         if (node != null) {
             File thumb = new File(thumbDir, node.getBase64Handle() + ".jpg");
+            DiskCacheManager diskCacheManager = MegaApplication.getInstance().getDiskCacheManager();
             Bitmap bitmap = null;
-            if (thumb.exists() && thumb.length() > 0) {
+            if (diskCacheManager.exists(thumb) && thumb.length() > 0) {
                 bitmap = getBitmapForCache(thumb, context);
                 if (bitmap == null) {
-                    thumb.delete();
+                    diskCacheManager.delete(thumb);
                 } else {
                     thumbnailCache.put(node.getHandle(), bitmap);
                 }
@@ -634,6 +656,36 @@ public class ThumbnailUtils {
         return null;
     }
 
+    /**
+     * Downloads the thumbnail of a node bound to a view holder through the shared
+     * ThumbnailRequestScheduler, as visible, so it does not wait behind the requests of items
+     * already scrolled away. The previous request of the view holder is cancelled, as it was
+     * recycled for another node. Nodes of other MegaApiAndroid instances, like folder links,
+     * are requested directly.
+     */
+    private static void requestThumbnail(MegaNode document, File thumbFile, Object viewHolder,
+                                         MegaApiAndroid megaApi, MegaRequestListenerInterface listener) {
+        MegaApplication app = MegaApplication.getInstance();
+        if (megaApi != app.getMegaApi()) {
+            megaApi.getThumbnail(document, thumbFile.getAbsolutePath(), listener);
+            return;
+        }
+
+        ThumbnailRequestScheduler.Ticket ticket = app.getThumbnailRequestScheduler().request(
+                document,
+                ThumbnailRequestScheduler.Type.THUMBNAIL,
+                thumbFile.getAbsolutePath(),
+                ThumbnailRequestScheduler.PRIORITY_VISIBLE,
+                listener);
+        if (viewHolder == null) return;
+
+        ThumbnailRequestScheduler.Ticket previous;
+        synchronized (viewHolderRequests) {
+            previous = viewHolderRequests.put(viewHolder, ticket);
+        }
+        if (previous != null) previous.cancel();
+    }
+
     public static Bitmap getThumbnailFromMegaList(MegaNode document, Context context, RecyclerView.ViewHolder viewHolder, MegaApiAndroid megaApi, RecyclerView.Adapter adapter) {
 
         if (!Util.isOnline(context)) {
@@ -643,7 +695,7 @@ public class ThumbnailUtils {
         listenersList.put(document.getHandle(), listener);
         File thumbFile = new File(getThumbFolder(context), document.getBase64Handle() + ".jpg");
 
-        megaApi.getThumbnail(document, thumbFile.getAbsolutePath(), listener);
+        requestThumbnail(document, thumbFile, viewHolder, megaApi, listener);
 
         return thumbnailCache.get(document.getHandle());
 
@@ -658,7 +710,7 @@ public class ThumbnailUtils {
         listenersGrid.put(document.getHandle(), listener);
         File thumbFile = new File(getThumbFolder(context), document.getBase64Handle() + ".jpg");
         Timber.d("Will download here: %s", thumbFile.getAbsolutePath());
-        megaApi.getThumbnail(document, thumbFile.getAbsolutePath(), listener);
+        requestThumbnail(document, thumbFile, viewHolder, megaApi, listener);
 
         return thumbnailCache.get(document.getHandle());
 
@@ -673,7 +725,7 @@ public class ThumbnailUtils {
         listenersTransfer.put(document.getHandle(), listener);
         File thumbFile = new File(getThumbFolder(context), document.getBase64Handle() + ".jpg");
         Timber.d("Will download here: %s", thumbFile.getAbsolutePath());
-        megaApi.getThumbnail(document, thumbFile.getAbsolutePath(), listener);
+        requestThumbnail(document, thumbFile, viewHolder, megaApi, listener);
 
         return thumbnailCache.get(document.getHandle());
 
@@ -687,7 +739,7 @@ public class ThumbnailUtils {
         ThumbnailDownloadListenerExplorer listener = new ThumbnailDownloadListenerExplorer(context, viewHolder, adapter);
         listenersExplorer.put(document.getHandle(), listener);
         File thumbFile = new File(getThumbFolder(context), document.getBase64Handle() + ".jpg");
-        megaApi.getThumbnail(document, thumbFile.getAbsolutePath(), listener);
+        requestThumbnail(document, thumbFile, viewHolder, megaApi, listener);
 
         return thumbnailCache.get(document.getHandle());
 
@@ -701,7 +753,7 @@ public class ThumbnailUtils {
         ThumbnailDownloadListenerProvider listener = new ThumbnailDownloadListenerProvider(context, viewHolder, adapter);
         listenersProvider.put(document.getHandle(), listener);
         File thumbFile = new File(getThumbFolder(context), document.getBase64Handle() + ".jpg");
-        megaApi.getThumbnail(document, thumbFile.getAbsolutePath(), listener);
+        requestThumbnail(document, thumbFile, viewHolder, megaApi, listener);
 
         return thumbnailCache.get(document.getHandle());
 
@@ -871,7 +923,7 @@ public class ThumbnailUtils {
         String key = megaApi.getFingerprint(originalFile.getAbsolutePath());
         //put thumbnail picture into cache
         if (key != null && bitmap != null) {
-            thumbnailCache.put(megaApi.getFingerprint(originalFile.getAbsolutePath()), bitmap);
+            thumbnailCachePath.put(key, bitmap);
         }
         //refresh the position only in required
         adapter.notifyItemChanged(position);
@@ -1343,7 +1395,7 @@ public class ThumbnailUtils {
         ThumbnailDownloadListenerThumbnailInterface listener = new ThumbnailDownloadListenerThumbnailInterface(context, viewHolder, adapter);
         listenersThumbnailInterface.put(document.getHandle(), listener);
         File thumbFile = new File(getThumbFolder(context), document.getBase64Handle() + ".jpg");
-        megaApi.getThumbnail(document, thumbFile.getAbsolutePath(), listener);
+        requestThumbnail(document, thumbFile, viewHolder, megaApi, listener);
 
         return thumbnailCache.get(document.getHandle());
     }
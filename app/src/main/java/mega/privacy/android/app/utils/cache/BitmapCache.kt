@@ -0,0 +1,140 @@
+package mega.privacy.android.app.utils.cache
+
+import android.content.ComponentCallbacks2
+import android.graphics.Bitmap
+import androidx.collection.LruCache
+import mega.privacy.android.data.cache.CacheStats
+import timber.log.Timber
+
+/**
+ * Bitmap cache sized in bytes.
+ *
+ * The cache is bounded by the [Bitmap.getAllocationByteCount] of the cached bitmaps. Keys which
+ * are known to have no bitmap are remembered in a bounded negative-lookup set.
+ *
+ * The second tier are the compressed files the bitmaps are decoded from, such as the previews in
+ * the preview folder, which the [mega.privacy.android.data.cache.DiskCacheManager] keeps within
+ * their quota. The cache keeps no other copy of them on disk: on a miss, the caller decodes the
+ * file again.
+ *
+ * Evicted bitmaps are never recycled, as they may still be displayed by a view.
+ *
+ * @param name            Name of the cache, used for logging.
+ * @param maxMemoryBytes  Maximum number of bytes of the bitmaps kept in memory.
+ * @param maxNegativeKeys Maximum number of keys remembered as having no bitmap.
+ */
+class BitmapCache<K : Any> @JvmOverloads constructor(
+    val name: String,
+    maxMemoryBytes: Int,
+    maxNegativeKeys: Int = DEFAULT_MAX_NEGATIVE_KEYS,
+) {
+
+    /**
+     * Hit, miss and eviction counters of the cache.
+     */
+    val stats = CacheStats()
+
+    private val negativeKeys = BoundedKeySet<K>(maxNegativeKeys)
+
+    private val memoryCache = object : LruCache<K, Bitmap>(maxMemoryBytes) {
+        override fun sizeOf(key: K, value: Bitmap): Int = value.allocationByteCount
+
+        override fun entryRemoved(evicted: Boolean, key: K, oldValue: Bitmap, newValue: Bitmap?) {
+            if (evicted) stats.onEviction()
+        }
+    }
+
+    /**
+     * Puts a bitmap into the cache.
+     *
+     * @param key   Key of the bitmap.
+     * @param value The bitmap, or null to remember that the key has no bitmap.
+     */
+    fun put(key: K, value: Bitmap?) {
+        if (value == null) {
+            negativeKeys.add(key)
+        } else {
+            negativeKeys.remove(key)
+            memoryCache.put(key, value)
+        }
+    }
+
+    /**
+     * Gets a bitmap from the cache. Never touches the disk, so it is safe on the UI thread.
+     *
+     * @param key Key of the bitmap.
+     * @return The bitmap, or null if it is not in memory.
+     */
+    fun get(key: K): Bitmap? =
+        memoryCache[key]?.also { stats.onHit() } ?: run {
+            if (key in negativeKeys) stats.onNegativeHit() else stats.onMiss()
+            null
+        }
+
+    /**
+     * Removes a key from the cache.
+     *
+     * @param key Key of the bitmap.
+     */
+    fun remove(key: K) {
+        negativeKeys.remove(key)
+        memoryCache.remove(key)
+    }
+
+    /**
+     * Checks if the cache has a bitmap in memory for a key or knows that it has no bitmap.
+     *
+     * @param key Key of the bitmap.
+     * @return True if the key is in memory or in the negative-lookup set, false otherwise.
+     */
+    fun containsKey(key: K): Boolean = memoryCache[key] != null || key in negativeKeys
+
+    /**
+     * Number of bytes currently used by the bitmaps in memory.
+     */
+    val memorySize: Int
+        get() = memoryCache.size()
+
+    /**
+     * Releases memory depending on the level reported by the system.
+     *
+     * @param level Level received in [ComponentCallbacks2.onTrimMemory].
+     */
+    fun trimMemory(level: Int) {
+        when {
+            level >= ComponentCallbacks2.TRIM_MEMORY_COMPLETE
+                    || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL -> {
+                memoryCache.evictAll()
+                negativeKeys.clear()
+            }
+            level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND
+                    || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW -> {
+                memoryCache.trimToSize(memoryCache.maxSize() / 2)
+            }
+        }
+        Timber.d("%s cache trimmed (level %d): %d bytes, %s", name, level, memorySize, stats)
+    }
+
+    /**
+     * Removes everything from the cache.
+     */
+    fun clear() {
+        memoryCache.evictAll()
+        negativeKeys.clear()
+    }
+
+    companion object {
+        private const val DEFAULT_MAX_NEGATIVE_KEYS = 512
+
+        /**
+         * Gets a memory budget as a fraction of the maximum heap size.
+         *
+         * @param divisor Fraction of the heap, as 1/divisor.
+         * @return The budget in bytes.
+         */
+        @JvmStatic
+        fun memoryBudget(divisor: Int): Int =
+            (Runtime.getRuntime().maxMemory() / divisor).coerceAtMost(Int.MAX_VALUE.toLong())
+                .toInt()
+    }
+}
@@ -0,0 +1,52 @@
+package mega.privacy.android.app.utils.cache
+
+/**
+ * Thread safe set of keys which keeps at most [maxSize] entries,
+ * dropping the least recently used one when full.
+ *
+ * @param maxSize Maximum number of keys kept in the set.
+ */
+class BoundedKeySet<K : Any>(private val maxSize: Int) {
+
+    private val keys = object : LinkedHashMap<K, Boolean>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<K, Boolean>?): Boolean =
+            size > maxSize
+    }
+
+    /**
+     * Number of keys currently in the set.
+     */
+    val size: Int
+        get() = synchronized(keys) { keys.size }
+
+    /**
+     * Adds a key to the set, marking it as the most recently used one.
+     */
+    fun add(key: K) {
+        synchronized(keys) { keys[key] = true }
+    }
+
+    /**
+     * Checks if the set contains a key, marking it as the most recently used one if so.
+     */
+    operator fun contains(key: K): Boolean = synchronized(keys) { keys[key] != null }
+
+    /**
+     * Removes a key from the set.
+     */
+    fun remove(key: K) {
+        synchronized(keys) { keys.remove(key) }
+    }
+
+    /**
+     * Removes all the keys.
+     */
+    fun clear() {
+        synchronized(keys) { keys.clear() }
+    }
+
+    companion object {
+        private const val INITIAL_CAPACITY = 16
+        private const val LOAD_FACTOR = 0.75f
+    }
+}
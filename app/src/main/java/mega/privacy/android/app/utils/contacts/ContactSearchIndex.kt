@@ -0,0 +1,151 @@
+package mega.privacy.android.app.utils.contacts
+
+import java.text.Normalizer
+import java.util.IdentityHashMap
+import java.util.Locale
+
+/**
+ * Search index of contacts, which normalizes the names, emails and phone numbers of each contact
+ * once instead of on every search.
+ *
+ * The fields are lowercased and without accents, so "jose" finds "José". A search matches the
+ * query anywhere in a field, or only at the beginning of a word if it is a prefix search. When the
+ * query extends the previous one over the same contacts, as while typing, only the previous result
+ * is searched again.
+ *
+ * The searches are cheap enough to filter several thousand contacts on the main thread, so there
+ * is no background search that could finish after a newer one. [prepare] can be called in
+ * background after loading the contacts, so the first search does not normalize them.
+ *
+ * @property fieldsProvider Gets the fields of a contact to search in
+ */
+class ContactSearchIndex<T : Any>(private val fieldsProvider: FieldsProvider<T>) {
+
+    /**
+     * Gets the fields of a contact to search in
+     */
+    fun interface FieldsProvider<T> {
+
+        /**
+         * Gets the fields of a contact
+         *
+         * @param contact The contact
+         * @return The fields, as names, emails and phone numbers
+         */
+        fun getFields(contact: T): List<String?>
+    }
+
+    private val normalizedFields = IdentityHashMap<T, String>()
+    private var lastQuery = ""
+    private var lastIsPrefix = false
+    private var lastContacts: List<T> = emptyList()
+    private var lastResult: List<T> = emptyList()
+
+    /**
+     * Normalizes the fields of the contacts, if they are not normalized yet
+     *
+     * @param contacts The contacts
+     */
+    @Synchronized
+    fun prepare(contacts: Collection<T>) {
+        contacts.forEach { getNormalizedFields(it) }
+    }
+
+    /**
+     * Checks if a contact matches a query
+     *
+     * @param contact The contact
+     * @param query   Text to search
+     * @param prefix  True if the query has to be at the beginning of a word, false if anywhere
+     * @return True if the contact matches, false otherwise
+     */
+    @JvmOverloads
+    @Synchronized
+    fun matches(contact: T, query: String, prefix: Boolean = false): Boolean =
+        matches(getNormalizedFields(contact), normalize(query), prefix)
+
+    /**
+     * Searches the contacts matching a query
+     *
+     * @param contacts The contacts to search in
+     * @param query    Text to search
+     * @param prefix   True if the query has to be at the beginning of a word, false if anywhere
+     * @return The contacts matching, in the same order, or all of them if the query is empty
+     */
+    @JvmOverloads
+    @Synchronized
+    fun search(contacts: List<T>, query: String, prefix: Boolean = false): List<T> {
+        val normalizedQuery = normalize(query)
+        if (normalizedQuery.isEmpty()) return ArrayList(contacts)
+
+        val candidates = if (canNarrow(contacts, normalizedQuery, prefix)) lastResult else contacts
+        val result = candidates.filter { matches(getNormalizedFields(it), normalizedQuery, prefix) }
+
+        lastContacts = ArrayList(contacts)
+        lastQuery = normalizedQuery
+        lastIsPrefix = prefix
+        lastResult = result
+        return result
+    }
+
+    /**
+     * Forgets the normalized fields, as when the fields of the contacts changed
+     */
+    @Synchronized
+    fun clear() {
+        normalizedFields.clear()
+        lastQuery = ""
+        lastContacts = emptyList()
+        lastResult = emptyList()
+    }
+
+    /**
+     * Checks if the previous result can be narrowed down instead of searching all the contacts,
+     * which is when the query extends the previous one and the contacts did not change
+     */
+    private fun canNarrow(contacts: List<T>, query: String, prefix: Boolean): Boolean {
+        if (lastQuery.isEmpty() || prefix != lastIsPrefix) return false
+
+        val extendsLastQuery = if (prefix) query.startsWith(lastQuery) else query.contains(lastQuery)
+        if (!extendsLastQuery || contacts.size != lastContacts.size) return false
+
+        return contacts.indices.all { contacts[it] === lastContacts[it] }
+    }
+
+    private fun getNormalizedFields(contact: T): String =
+        normalizedFields.getOrPut(contact) {
+            fieldsProvider.getFields(contact)
+                .filterNotNull()
+                .joinToString(FIELD_SEPARATOR) { normalize(it) }
+        }
+
+    private fun matches(fields: String, query: String, prefix: Boolean): Boolean {
+        if (!prefix) return fields.contains(query)
+
+        var index = fields.indexOf(query)
+        while (index >= 0) {
+            if (index == 0 || !fields[index - 1].isLetterOrDigit()) return true
+            index = fields.indexOf(query, index + 1)
+        }
+        return false
+    }
+
+    companion object {
+        private const val FIELD_SEPARATOR = "\u0000"
+        private val COMBINING_MARKS = "\\p{Mn}+".toRegex()
+
+        /**
+         * Normalizes a text to search, lowercasing it and removing its accents
+         *
+         * @param text The text
+         * @return The normalized text
+         */
+        @JvmStatic
+        fun normalize(text: String): String {
+            val lowercase = text.lowercase(Locale.getDefault())
+            if (lowercase.all { it.code < 0x80 }) return lowercase
+
+            return COMBINING_MARKS.replace(Normalizer.normalize(lowercase, Normalizer.Form.NFD), "")
+        }
+    }
+}
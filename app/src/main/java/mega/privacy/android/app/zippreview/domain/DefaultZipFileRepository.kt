@@ -1,27 +1,61 @@
 package mega.privacy.android.app.zippreview.domain
 
 import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
 import kotlinx.coroutines.withContext
+import mega.privacy.android.app.utils.CacheFolderManager
+import mega.privacy.android.data.gateway.CacheFolderGateway
 import mega.privacy.android.domain.qualifier.IoDispatcher
-import java.io.*
-import java.lang.Exception
+import timber.log.Timber
+import java.io.File
+import java.io.FileOutputStream
+import java.io.IOException
+import java.io.InputStream
+import java.io.OutputStream
+import java.util.UUID
+import java.util.zip.ZipEntry
 import java.util.zip.ZipFile
 import javax.inject.Inject
 
 /**
  * Zip repository implementation class
  */
-class DefaultZipFileRepository @Inject constructor(@IoDispatcher private val ioDispatcher: CoroutineDispatcher) :
-    ZipFileRepository {
+class DefaultZipFileRepository @Inject constructor(
+    @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
+    private val cacheFolderGateway: CacheFolderGateway,
+) : ZipFileRepository {
     companion object {
         private const val SUFFIX_ZIP = ".zip"
+        private const val BUFFER_SIZE = 64 * 1024
+        private const val MAX_CACHE_SIZE = 256L * 1024 * 1024
     }
 
     private val zipTreeNodeMap: ZipTreeMap = ZipTreeMap()
 
+    /**
+     * Archives being browsed, by the path of their node. The root archive has an empty path.
+     * Guarded by itself, along with [zipTreeNodeMap] while nested entries are added.
+     */
+    private val archives = HashMap<String, Archive>()
+
+    private val cacheFolder by lazy {
+        cacheFolderGateway.getCacheFolder(CacheFolderManager.ZIP_PREVIEW_FOLDER)
+    }
+
+    private val entryCache by lazy { cacheFolder?.let { ZipEntryCache(it, MAX_CACHE_SIZE) } }
+
+    /**
+     * Guards [buffer], which is reused by every extraction.
+     */
+    private val extractionMutex = Mutex()
+    private val buffer = ByteArray(BUFFER_SIZE)
+
     override suspend fun unzipFile(zipFullPath: String, unzipRootPath: String): Boolean {
         return withContext(ioDispatcher) {
-            unzip(zipFullPath, unzipRootPath)
+            extractionMutex.withLock {
+                unzip(zipFullPath, unzipRootPath)
+            }
         }
     }
 
@@ -32,50 +66,174 @@ class DefaultZipFileRepository @Inject constructor(@IoDispatcher private val ioD
      * @return true is unzip succeed.
      */
     private fun unzip(zipFullPath: String, unzipRootPath: String): Boolean {
-        val zipFile = ZipFile(zipFullPath)
-        val zipEntries = zipFile.entries()
-        zipEntries.toList().forEach {
-            val zipDestination = File(unzipRootPath + it.name)
-            if (it.isDirectory) {
-                if (!zipDestination.exists()) {
-                    zipDestination.mkdirs()
+        val rootFolder = File(unzipRootPath)
+        return try {
+            ZipFile(zipFullPath).use { zipFile ->
+                zipFile.entries().asSequence().all { zipEntry ->
+                    val zipDestination = File(rootFolder, zipEntry.name)
+                    when {
+                        !zipDestination.isInside(rootFolder) -> false
+                        zipEntry.isDirectory -> zipDestination.exists() || zipDestination.mkdirs()
+                        else -> extract(zipFile, zipEntry, zipDestination)
+                    }
                 }
+            }
+        } catch (e: IOException) {
+            Timber.e(e, "Error unzipping $zipFullPath")
+            false
+        }
+    }
+
+    override suspend fun getExtractedEntry(path: String): File? = withContext(ioDispatcher) {
+        getEntryDestination(path)?.let { (_, destination) -> entryCache?.get(destination) }
+    }
+
+    override suspend fun extractEntry(path: String): File? = withContext(ioDispatcher) {
+        val (archive, destination) = getEntryDestination(path) ?: return@withContext null
+        val cache = entryCache ?: return@withContext null
+
+        extractionMutex.withLock {
+            cache.get(destination) ?: archive.zipFile.getEntry(archive.getEntryName(path))
+                ?.takeUnless { it.isDirectory }
+                ?.takeIf { extract(archive.zipFile, it, destination) }
+                ?.let {
+                    cache.put(destination)
+                    destination
+                }
+        }
+    }
+
+    override suspend fun openNestedZip(path: String): Boolean = withContext(ioDispatcher) {
+        if (synchronized(archives) { archives.containsKey(path) }) return@withContext true
+
+        val parent = getArchive(path) ?: return@withContext false
+        val entry = parent.zipFile.getEntry(parent.getEntryName(path)) ?: return@withContext false
+        val file = extractEntry(path) ?: return@withContext false
+        val zipFile = try {
+            ZipFile(file)
+        } catch (e: IOException) {
+            Timber.e(e, "Error opening nested zip $path")
+            return@withContext false
+        }
+
+        synchronized(archives) {
+            if (archives.containsKey(path)) {
+                // Opened meanwhile by another call
+                zipFile.close()
             } else {
-                try {
-                    val inputStream = zipFile.getInputStream(it)
-                    //Get the parent file. If it is null or
-                    // doesn't exist, created the parent folder.
-                    val parentFile = zipDestination.parentFile
-                    if (parentFile != null) {
-                        if (!parentFile.exists()) {
-                            parentFile.mkdirs()
-                        }
-                        val byteArrayOutputStream = ByteArrayOutputStream()
-                        val buffer = ByteArray(1024)
-                        var count: Int
-                        FileOutputStream(zipDestination).use { outputStream ->
-                            //Write the file.
-                            while (inputStream.read(buffer)
-                                    .also { readCount -> count = readCount } != -1
-                            ) {
-                                byteArrayOutputStream.write(buffer, 0, count)
-                                val bytes = byteArrayOutputStream.toByteArray()
-                                outputStream.write(bytes)
-                                byteArrayOutputStream.reset()
-                            }
-                        }
-                        inputStream.close()
-                    }
-                } catch (e: Exception) {
-                    e.printStackTrace()
-                    return false
+                archives[path] = Archive(zipFile, path, getNestedArchiveKey(parent, entry))
+                addZipEntries(zipFile, path)
+            }
+        }
+        true
+    }
+
+    /**
+     * Gets the archive of an entry and the file it is extracted to.
+     *
+     * @param path Path of the entry node.
+     * @return The archive and the extracted file, or null if the entry cannot be extracted.
+     */
+    private fun getEntryDestination(path: String): Pair<Archive, File>? {
+        val archive = getArchive(path) ?: return null
+        val folder = archive.cacheFolder ?: return null
+        val destination = File(folder, archive.getEntryName(path))
+
+        return if (destination.isInside(folder)) {
+            Pair(archive, destination)
+        } else {
+            Timber.w("Zip entry $path is outside of the archive")
+            null
+        }
+    }
+
+    /**
+     * Gets the innermost archive containing a node.
+     *
+     * @param path Path of the node.
+     * @return The archive, or null if no zip file is open.
+     */
+    private fun getArchive(path: String): Archive? {
+        synchronized(archives) {
+            var parent = zipTreeNodeMap[path]?.parent
+            while (parent != null) {
+                archives[parent]?.let { return it }
+                parent = zipTreeNodeMap[parent]?.parent
+            }
+            return archives[""]
+        }
+    }
+
+    /**
+     * Gets the key of the root archive. It depends on the size and the last modified time of
+     * the file, so a changed archive is not read from a stale cache.
+     *
+     * @param file Zip file.
+     * @return The key of the archive.
+     */
+    private fun getRootArchiveKey(file: File) =
+        "${file.absolutePath}:${file.length()}:${file.lastModified()}"
+
+    /**
+     * Gets the key of a nested archive. It depends on the entry it is extracted from rather than
+     * on the extracted file, whose last modified time is updated by [ZipEntryCache].
+     *
+     * @param parent Archive containing the entry.
+     * @param entry  Entry of the nested archive.
+     * @return The key of the archive.
+     */
+    private fun getNestedArchiveKey(parent: Archive, entry: ZipEntry) =
+        "${parent.key}/${entry.name}:${entry.crc}:${entry.size}"
+
+    /**
+     * Gets the cache folder of the entries of an archive.
+     *
+     * @param key Key of the archive.
+     * @return The cache folder, or null if the cache is not available.
+     */
+    private fun getArchiveCacheFolder(key: String): File? = cacheFolder?.let { folder ->
+        File(folder, UUID.nameUUIDFromBytes(key.toByteArray()).toString())
+    }
+
+    /**
+     * Extracts an entry through a temporary file, so an interrupted extraction is never taken
+     * as an extracted entry.
+     *
+     * @param zipFile     Zip file.
+     * @param zipEntry    Entry to extract.
+     * @param destination Extracted file.
+     * @return True if the entry was extracted.
+     */
+    private fun extract(zipFile: ZipFile, zipEntry: ZipEntry, destination: File): Boolean {
+        val parentFile = destination.parentFile ?: return false
+        if (!parentFile.exists() && !parentFile.mkdirs()) return false
+
+        val partFile = File(parentFile, destination.name + ZipEntryCache.SUFFIX_PART)
+        return try {
+            zipFile.getInputStream(zipEntry).use { inputStream ->
+                FileOutputStream(partFile).use { outputStream ->
+                    copy(inputStream, outputStream)
                 }
             }
+            partFile.renameTo(destination)
+        } catch (e: IOException) {
+            Timber.e(e, "Error extracting ${zipEntry.name}")
+            false
+        } finally {
+            partFile.delete()
+        }
+    }
 
+    private fun copy(inputStream: InputStream, outputStream: OutputStream) {
+        var count: Int
+        while (inputStream.read(buffer).also { count = it } != -1) {
+            outputStream.write(buffer, 0, count)
         }
-        return true
     }
 
+    private fun File.isInside(folder: File) =
+        canonicalPath.startsWith(folder.canonicalPath + File.separator)
+
     override fun getParentZipInfoList(
         folderPath: String,
         isEmptyFolder: Boolean
@@ -121,58 +279,100 @@ class DefaultZipFileRepository @Inject constructor(@IoDispatcher private val ioD
      */
     override suspend fun initZipTreeNode(zipFile: ZipFile) {
         withContext(ioDispatcher) {
-            zipFile.entries().toList().forEach { zipEntry ->
-                zipEntry.name.let { name ->
-                    val nodeDepth = name.getZipTreeNodeDepth()
-                    for (i in 1..nodeDepth) {
-                        //Get every sub path of current zip entry. For example, the path zip entry
-                        // path is 1/2/3.txt, the sub paths respectively are 1/ 1/2/ 1/2/3.txt
-                        val subPath = name.getSubPathByDepth(i)
-                        //Get name of current sub path
-                        val subName = subPath.getZipTreeNodeName()
-                        //Get parent path of current sub path. For example, if current sub path is 1/2/
-                        //its parent path is 1/
-                        val subParentPath = if (i == 1) {
-                            null
-                        } else {
-                            name.getSubPathByDepth(i - 1)
-                        }
-                        //Get current zip tree node using sub path
-                        var zipTreeNode = zipTreeNodeMap[subPath]
-
-                        // If node doesn't exist, create one, otherwise ignore it
-                        if (zipTreeNode == null) {
-                            zipTreeNode = ZipTreeNode(
-                                name = subName,
-                                path = subPath,
-                                size = zipEntry.size,
-                                fileType = if (i == nodeDepth) {
-                                    if (zipEntry.isDirectory) {
-                                        FileType.FOLDER
-                                    } else {
-                                        when {
-                                            subPath.endsWith(SUFFIX_ZIP) -> FileType.ZIP
-                                            else -> FileType.FILE
-                                        }
-                                    }
-                                } else {
+            synchronized(archives) {
+                archives.values.filter { it.path.isNotEmpty() }.forEach { it.zipFile.close() }
+                archives.clear()
+                zipTreeNodeMap.clear()
+
+                archives[""] = Archive(zipFile, "", getRootArchiveKey(File(zipFile.name)))
+                addZipEntries(zipFile, null)
+            }
+        }
+    }
+
+    /**
+     * Adds the entries of a zip file to the zip tree map.
+     *
+     * @param zipFile  Zip file.
+     * @param rootPath Path of the node of a nested zip file, or null for the root zip file.
+     */
+    private fun addZipEntries(zipFile: ZipFile, rootPath: String?) {
+        val pathPrefix = rootPath?.let { "$it/" } ?: ""
+        zipFile.entries().toList().forEach { zipEntry ->
+            zipEntry.name.let { name ->
+                val nodeDepth = name.getZipTreeNodeDepth()
+                for (i in 1..nodeDepth) {
+                    //Get every sub path of current zip entry. For example, the path zip entry
+                    // path is 1/2/3.txt, the sub paths respectively are 1/ 1/2/ 1/2/3.txt
+                    val subPath = pathPrefix + name.getSubPathByDepth(i)
+                    //Get name of current sub path
+                    val subName = subPath.getZipTreeNodeName()
+                    //Get parent path of current sub path. For example, if current sub path is 1/2/
+                    //its parent path is 1/
+                    val subParentPath = if (i == 1) {
+                        rootPath
+                    } else {
+                        pathPrefix + name.getSubPathByDepth(i - 1)
+                    }
+                    //Get current zip tree node using sub path
+                    var zipTreeNode = zipTreeNodeMap[subPath]
+
+                    // If node doesn't exist, create one, otherwise ignore it
+                    if (zipTreeNode == null) {
+                        zipTreeNode = ZipTreeNode(
+                            name = subName,
+                            path = subPath,
+                            size = zipEntry.size,
+                            fileType = if (i == nodeDepth) {
+                                if (zipEntry.isDirectory) {
                                     FileType.FOLDER
-                                },
-                                parent = subParentPath,
-                                children = mutableListOf(),
-                            )
-                            zipTreeNodeMap[subPath] = zipTreeNode
-
-                            // If parent path is not empty add current path to map
-                            // Empty path represents root directory
-                            if (!subParentPath.isNullOrEmpty()) {
-                                val parentNode = zipTreeNodeMap[subParentPath]
-                                parentNode?.children?.add(zipTreeNode)
-                            }
+                                } else {
+                                    when {
+                                        subPath.endsWith(SUFFIX_ZIP) -> FileType.ZIP
+                                        else -> FileType.FILE
+                                    }
+                                }
+                            } else {
+                                FileType.FOLDER
+                            },
+                            parent = subParentPath,
+                            children = mutableListOf(),
+                        )
+                        zipTreeNodeMap[subPath] = zipTreeNode
+
+                        // If parent path is not empty add current path to map
+                        // Empty path represents root directory
+                        if (!subParentPath.isNullOrEmpty()) {
+                            val parentNode = zipTreeNodeMap[subParentPath]
+                            parentNode?.children?.add(zipTreeNode)
                         }
                     }
                 }
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Zip file being browsed.
+     *
+     * @property zipFile Zip file.
+     * @property path    Path of its node, empty for the root zip file.
+     * @property key     Stable identity of its content, nested keys starting with their parent's.
+     */
+    private inner class Archive(val zipFile: ZipFile, val path: String, val key: String) {
+
+        /**
+         * Folder its entries are extracted to, null if the cache is not available.
+         */
+        val cacheFolder: File? = getArchiveCacheFolder(key)
+
+        /**
+         * Gets the name of an entry in this zip file.
+         *
+         * @param nodePath Path of the entry node.
+         * @return The entry name.
+         */
+        fun getEntryName(nodePath: String) =
+            if (path.isEmpty()) nodePath else nodePath.removePrefix("$path/")
+    }
+}
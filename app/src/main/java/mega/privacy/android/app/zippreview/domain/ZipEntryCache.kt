@@ -0,0 +1,118 @@
+package mega.privacy.android.app.zippreview.domain
+
+import timber.log.Timber
+import java.io.File
+
+/**
+ * Size capped cache of the entries extracted from zip files.
+ *
+ * Entries are files under [folder]. When they take more than [maxSize] bytes, the least recently
+ * opened ones are deleted. The order is kept in the last modified time of the files, so it
+ * survives the app being restarted.
+ *
+ * @param folder  Folder of the extracted entries.
+ * @param maxSize Maximum size of the extracted entries, in bytes.
+ */
+class ZipEntryCache(private val folder: File, private val maxSize: Long) {
+
+    companion object {
+        /**
+         * Suffix of the entries being extracted
+         */
+        const val SUFFIX_PART = ".part"
+    }
+
+    private val entries = LinkedHashMap<File, Long>(16, 0.75f, true)
+    private var size = 0L
+    private var isLoaded = false
+
+    /**
+     * Gets an extracted entry and marks it as the most recently opened.
+     *
+     * @param file Extracted entry.
+     * @return The file, or null if it is not extracted.
+     */
+    @Synchronized
+    fun get(file: File): File? {
+        load()
+        if (!file.isFile) {
+            entries.remove(file)?.let { size -= it }
+            return null
+        }
+
+        // Reading the entry makes it the most recently opened one
+        if (entries[file] == null) {
+            // Extracted before the cache was loaded, or by a full extraction
+            add(file)
+        }
+        file.setLastModified(System.currentTimeMillis())
+        return file
+    }
+
+    /**
+     * Adds a newly extracted entry, deleting the least recently opened ones if needed.
+     *
+     * @param file Extracted entry.
+     */
+    @Synchronized
+    fun put(file: File) {
+        load()
+        entries.remove(file)?.let { size -= it }
+        add(file)
+        file.setLastModified(System.currentTimeMillis())
+        trim(keep = file)
+    }
+
+    /**
+     * Size of the extracted entries, in bytes.
+     */
+    @get:Synchronized
+    val currentSize: Long
+        get() {
+            load()
+            return size
+        }
+
+    private fun add(file: File) {
+        val length = file.length()
+        entries[file] = length
+        size += length
+    }
+
+    private fun trim(keep: File) {
+        val iterator = entries.entries.iterator()
+        while (size > maxSize && iterator.hasNext()) {
+            val (file, length) = iterator.next()
+            if (file == keep) continue
+
+            if (file.delete() || !file.exists()) {
+                iterator.remove()
+                size -= length
+                deleteEmptyParents(file)
+            } else {
+                Timber.w("Cannot delete zip entry ${file.path}")
+            }
+        }
+    }
+
+    private fun deleteEmptyParents(file: File) {
+        var parent = file.parentFile
+        while (parent != null && parent != folder && parent.delete()) {
+            parent = parent.parentFile
+        }
+    }
+
+    private fun load() {
+        if (isLoaded) return
+        isLoaded = true
+
+        folder.walkTopDown()
+            .filter { it.isFile }
+            .filter { file ->
+                // Entries interrupted while being extracted are not valid
+                !(file.name.endsWith(SUFFIX_PART) && file.delete())
+            }
+            .sortedBy { it.lastModified() }
+            .forEach { add(it) }
+    }
+}
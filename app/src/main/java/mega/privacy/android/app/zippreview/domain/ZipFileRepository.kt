@@ -1,5 +1,6 @@
 package mega.privacy.android.app.zippreview.domain
 
+import java.io.File
 import java.util.zip.ZipFile
 
 /**
@@ -15,6 +16,27 @@ interface ZipFileRepository {
      */
     suspend fun unzipFile(zipFullPath: String, unzipRootPath: String): Boolean
 
+    /**
+     * Get a zip entry if it is already extracted
+     * @param path zip entry path
+     * @return the extracted file, or null if it is not extracted
+     */
+    suspend fun getExtractedEntry(path: String): File?
+
+    /**
+     * Extract a single zip entry, unless it is already extracted
+     * @param path zip entry path
+     * @return the extracted file, or null if it cannot be extracted
+     */
+    suspend fun extractEntry(path: String): File?
+
+    /**
+     * Open a zip entry which is a zip file, adding its entries as children of its ZipTreeNode
+     * @param path zip entry path
+     * @return true if the nested zip file can be browsed
+     */
+    suspend fun openNestedZip(path: String): Boolean
+
     /**
      * Init the ZipTreeNode. Created ZipTreeMap using zip entries of current zip file
      * @param zipFile
@@ -53,7 +53,6 @@ import mega.privacy.android.app.utils.MegaProgressDialogUtil.createProgressDialo
 import mega.privacy.android.app.utils.StringResourcesUtils
 import mega.privacy.android.app.utils.Util
 import mega.privacy.android.app.utils.getScreenHeight
-import mega.privacy.android.app.zippreview.domain.FileType
 import mega.privacy.android.app.zippreview.viewmodel.ZipBrowserViewModel
 import nz.mega.sdk.MegaApiJava
 import timber.log.Timber
@@ -80,7 +79,6 @@ class ZipBrowserActivity : PasscodeActivity() {
     private lateinit var zipAdapter: ZipListAdapter
 
     private lateinit var zipFullPath: String
-    private lateinit var unzipRootPath: String
 
     private lateinit var unZipWaitingDialog: AlertDialog
 
@@ -108,8 +106,6 @@ class ZipBrowserActivity : PasscodeActivity() {
         intent.extras?.run {
             //Get the zip file path
             zipFullPath = getString(EXTRA_PATH_ZIP) ?: ""
-            //Get the unzip root path for unpack zip file
-            unzipRootPath = zipFullPath.substring(0, zipFullPath.lastIndexOf("."))
         }
     }
 
@@ -171,10 +167,7 @@ class ZipBrowserActivity : PasscodeActivity() {
             // Log the zip file path
             crashReporter.log("Path of ZipFile(setupViewModel) is $zipFullPath")
             //Open current zip file content
-            viewModelInit(
-                zipFullPath,
-                unzipRootPath
-            )
+            viewModelInit(zipFullPath)
         }
     }
 
@@ -212,8 +205,8 @@ class ZipBrowserActivity : PasscodeActivity() {
                 this@ZipBrowserActivity,
                 getString(R.string.unzipping_process)
             )
-            unZipWaitingDialog.show()
         }
+        unZipWaitingDialog.show()
     }
 
     /**
@@ -228,50 +221,42 @@ class ZipBrowserActivity : PasscodeActivity() {
 
     /**
      * Open file
-     * @param zipInfoUIO ZipInfoUIO of file opened
+     * @param file extracted file opened
      * @param position position of file opened
      */
-    private fun openFile(zipInfoUIO: ZipInfoUIO, position: Int) {
-        if (zipInfoUIO.fileType == FileType.ZIP) {
-            zipFileOpen(zipInfoUIO)
-        } else {
-            val file = File("$unzipRootPath${File.separator}${zipInfoUIO.path}")
-            MimeTypeList.typeForName(file.name).apply {
-                when {
-                    isImage ->
-                        imageFileOpen(position, file)
-                    isVideoReproducible || isAudio ->
-                        mediaFileOpen(file, position)
-                    isPdf ->
-                        pdfFileOpen(file, position)
-                    isOpenableTextFile(file.length()) -> {
-                        startActivity(
-                            Intent(
-                                this@ZipBrowserActivity,
-                                TextEditorActivity::class.java
-                            ).putExtra(INTENT_EXTRA_KEY_FILE_NAME, file.name)
-                                .putExtra(INTENT_EXTRA_KEY_ADAPTER_TYPE, ZIP_ADAPTER)
-                                .putExtra(INTENT_EXTRA_KEY_PATH, file.absolutePath)
-                        )
-                    }
-                    else -> otherFileOpen(file)
+    private fun openFile(file: File, position: Int) {
+        MimeTypeList.typeForName(file.name).apply {
+            when {
+                isImage ->
+                    imageFileOpen(position, file)
+                isVideoReproducible || isAudio ->
+                    mediaFileOpen(file, position)
+                isPdf ->
+                    pdfFileOpen(file, position)
+                isOpenableTextFile(file.length()) -> {
+                    startActivity(
+                        Intent(
+                            this@ZipBrowserActivity,
+                            TextEditorActivity::class.java
+                        ).putExtra(INTENT_EXTRA_KEY_FILE_NAME, file.name)
+                            .putExtra(INTENT_EXTRA_KEY_ADAPTER_TYPE, ZIP_ADAPTER)
+                            .putExtra(INTENT_EXTRA_KEY_PATH, file.absolutePath)
+                    )
                 }
+                else -> otherFileOpen(file)
             }
         }
     }
 
     /**
-     * Open zip type file
-     * @param zipInfoUIO ZipInfoUIO of file opened
+     * Check if the file has to be shared through the file provider
+     * @param file file
+     * @param externalFilesPath path of the external files folder
+     * @return true if the file is in the external files folder or is an extracted zip entry
      */
-    private fun zipFileOpen(zipInfoUIO: ZipInfoUIO) {
-        val intentZip = Intent(
-            this@ZipBrowserActivity,
-            ZipBrowserActivity::class.java
-        )
-        intentZip.putExtra(EXTRA_PATH_ZIP, "${unzipRootPath}${File.separator}${zipInfoUIO.path}")
-        startActivity(intentZip)
-    }
+    private fun isSharedByProvider(file: File, externalFilesPath: String) =
+        file.absolutePath.contains(externalFilesPath)
+                || file.absolutePath.startsWith(cacheDir.absolutePath)
 
     /**
      * legacy logic to open image type file
@@ -333,7 +318,7 @@ class ZipBrowserActivity : PasscodeActivity() {
             mediaIntent.addFlags(Intent.FLAG_GRANT_READ_URI_PERMISSION)
         }
         getExternalFilesDir(null)?.apply {
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N && file.absolutePath.contains(path)) {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N && isSharedByProvider(file, path)) {
                 mediaIntent.setDataAndType(
                     FileProvider.getUriForFile(
                         this@ZipBrowserActivity,
@@ -401,7 +386,7 @@ class ZipBrowserActivity : PasscodeActivity() {
             zipAdapter
         )
         getExternalFilesDir(null)?.apply {
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N && file.absolutePath.contains(path)) {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N && isSharedByProvider(file, path)) {
                 pdfIntent.setDataAndType(
                     FileProvider.getUriForFile(
                         this@ZipBrowserActivity,
@@ -38,12 +38,9 @@ class ZipBrowserViewModel @Inject constructor(
     }
 
     private lateinit var zipFullPath: String
-    private lateinit var unzipRootPath: String
 
     private lateinit var zipFile: ZipFile
 
-    private lateinit var rootFolderPath: String
-
     private var currentZipInfo: ZipInfoUIO? = null
 
     private var _title = MutableLiveData<String>()
@@ -62,8 +59,8 @@ class ZipBrowserViewModel @Inject constructor(
     val showAlert: LiveData<Boolean>
         get() = _showAlert
 
-    private var _openFile = MutableLiveData<Pair<Int, ZipInfoUIO>>()
-    val openFile: LiveData<Pair<Int, ZipInfoUIO>>
+    private var _openFile = MutableLiveData<Pair<Int, File>>()
+    val openFile: LiveData<Pair<Int, File>>
         get() = _openFile
 
     private val _deepOfFolder = MutableStateFlow(0)
@@ -73,13 +70,6 @@ class ZipBrowserViewModel @Inject constructor(
      */
     val enableBackPressedHandler = _deepOfFolder.asStateFlow().map { deep -> deep > 1 }
 
-    /**
-     * The type of clicked item
-     */
-    enum class StatusItemClicked {
-        OPEN_FOLDER, ZIP_NOT_UNPACK, ITEM_NOT_EXIST, OPEN_FILE
-    }
-
     /**
      * Update zip info list
      * @param folderPath the path of folder, default value is ""
@@ -143,15 +133,12 @@ class ZipBrowserViewModel @Inject constructor(
     /**
      * Init ViewModel and open current zip file.
      * @param zipFullPath zip file full path
-     * @param unzipRootPath unzip root path
      */
-    fun viewModelInit(zipFullPath: String, unzipRootPath: String) {
+    fun viewModelInit(zipFullPath: String) {
         this.zipFullPath = zipFullPath
-        this.unzipRootPath = "${unzipRootPath}${File.separator}"
         // Log the zip file path
         crashReporter.log("Path of ZipFile(viewModelInit) is $zipFullPath")
         zipFile = ZipFile(zipFullPath)
-        rootFolderPath = unzipRootPath.split("/").last()
         viewModelScope.launch {
             zipFileRepository.initZipTreeNode(zipFile)
             updateZipInfoList()
@@ -190,49 +177,61 @@ class ZipBrowserViewModel @Inject constructor(
     }
 
     /**
-     * Behaviours according the status of clicked file
+     * Behaviours according the type of clicked file
      * @param zipInfoUIO ZipInfoUIO
      * @param position the position of clicked file
      */
     fun onZipFileClicked(zipInfoUIO: ZipInfoUIO, position: Int) {
-        when (getItemClickedStatus(zipInfoUIO, unzipRootPath)) {
-            StatusItemClicked.ZIP_NOT_UNPACK -> {
-                _showProgressDialog.value = true
-                //If zip folder doesn't exist, unpacked the zip file.
-                unpackedZipFile(zipInfoUIO, position)
+        when (zipInfoUIO.fileType) {
+            FileType.FOLDER -> {
+                currentZipInfo = zipInfoUIO
+                updateZipInfoList(zipInfoUIO.path)
             }
-            StatusItemClicked.OPEN_FILE -> {
-                //If the zip file name is start with ".", it cannot be unzip. So show the alert.
-                if (zipInfoUIO.fileType == FileType.ZIP && zipInfoUIO.name.startsWith(".")) {
-                    Timber.e("zip file ${zipInfoUIO.name} start with \".\" cannot unzip")
-                    _showAlert.value = true
-                } else {
-                    _openFile.value = Pair(position, zipInfoUIO)
-                }
+            FileType.ZIP -> openNestedZip(zipInfoUIO)
+            FileType.FILE -> openZipEntry(zipInfoUIO, position)
+        }
+    }
 
-            }
+    /**
+     * Browse a zip file inside the current one, extracting only the nested zip file.
+     * @param zipInfoUIO ZipInfoUIO of clicked zip file
+     */
+    private fun openNestedZip(zipInfoUIO: ZipInfoUIO) {
+        viewModelScope.launch {
+            _showProgressDialog.value = true
+            val isOpened = zipFileRepository.openNestedZip(zipInfoUIO.path)
+            _showProgressDialog.value = false
 
-            StatusItemClicked.OPEN_FOLDER -> {
+            if (isOpened) {
                 currentZipInfo = zipInfoUIO
                 updateZipInfoList(zipInfoUIO.path)
-            }
-            StatusItemClicked.ITEM_NOT_EXIST -> {
-                Timber.e("zip entry position $position file not exists")
+            } else {
+                Timber.e("zip entry ${zipInfoUIO.name} cannot be browsed")
                 _showAlert.value = true
             }
         }
     }
 
     /**
-     * Unpack zip file and open the current clicked file.
+     * Extract the clicked file, if it is not extracted yet, and open it.
      * @param zipInfoUIO ZipInfoUIO of clicked file
      * @param position position of clicked file
      */
-    private fun unpackedZipFile(zipInfoUIO: ZipInfoUIO, position: Int) {
+    private fun openZipEntry(zipInfoUIO: ZipInfoUIO, position: Int) {
         viewModelScope.launch {
-            zipFileRepository.unzipFile(zipFullPath, unzipRootPath)
-            _showProgressDialog.value = false
-            _openFile.value = Pair(position, zipInfoUIO)
+            val file = zipFileRepository.getExtractedEntry(zipInfoUIO.path) ?: run {
+                _showProgressDialog.value = true
+                zipFileRepository.extractEntry(zipInfoUIO.path).also {
+                    _showProgressDialog.value = false
+                }
+            }
+
+            if (file != null) {
+                _openFile.value = Pair(position, file)
+            } else {
+                Timber.e("zip entry position $position cannot be extracted")
+                _showAlert.value = true
+            }
         }
     }
 
@@ -245,31 +244,10 @@ class ZipBrowserViewModel @Inject constructor(
         _title.value = if (folderPath.isEmpty()) {
             "${TITLE_ZIP}${zipFullPath.split("/").lastOrNull()?.removeSuffix(SUFFIX_ZIP)}"
         } else {
-            File(folderPath).name
-        }
-    }
-
-    /**
-     * Get file status of clicked file
-     * @param zipInfoUIO ZipInfoUIO of clicked file
-     * @param rootPath unzip root path
-     * @return TypeItemClickResult
-     */
-    private fun getItemClickedStatus(zipInfoUIO: ZipInfoUIO, rootPath: String): StatusItemClicked {
-        return if (zipInfoUIO.fileType == FileType.FOLDER) {
-            StatusItemClicked.OPEN_FOLDER
-        } else {
-            val currentFile = File(rootPath + zipInfoUIO.path)
-            if (File(rootPath).exists()) {
-                if (currentFile.exists()) {
-
-                    StatusItemClicked.OPEN_FILE
-                } else {
-                    StatusItemClicked.ITEM_NOT_EXIST
-                }
-            } else {
-                StatusItemClicked.ZIP_NOT_UNPACK
+            File(folderPath.removeSuffix(File.separator)).name.let { name ->
+                //If the folder is a nested zip file, title is its name as for the root one
+                if (name.endsWith(SUFFIX_ZIP)) "${TITLE_ZIP}${name.removeSuffix(SUFFIX_ZIP)}" else name
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,107 @@
+package test.mega.privacy.android.app.cameraupload
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.app.domain.usecase.GetChildrenNode
+import mega.privacy.android.app.sync.camerauploads.CameraUploadFolderIndex
+import nz.mega.sdk.MegaNode
+import org.junit.Before
+import org.junit.Test
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class CameraUploadFolderIndexTest {
+
+    private lateinit var underTest: CameraUploadFolderIndex
+
+    private val getChildrenNode: GetChildrenNode = mock()
+
+    private val parentNode = mock<MegaNode> { on { handle }.thenReturn(1L) }
+
+    private val uploadedNode = mock<MegaNode> {
+        on { handle }.thenReturn(10L)
+        on { parentHandle }.thenReturn(1L)
+        on { size }.thenReturn(100L)
+        on { name }.thenReturn("uploaded.jpg")
+        on { originalFingerprint }.thenReturn("original")
+        on { fingerprint }.thenReturn("fingerprint")
+    }
+
+    @Before
+    fun setUp() {
+        underTest = CameraUploadFolderIndex(getChildrenNode)
+    }
+
+    @Test
+    fun `test that a folder is only listed once`() = runTest {
+        whenever(getChildrenNode(any(), any())).thenReturn(listOf(uploadedNode))
+
+        assertThat(underTest.getChildBySize(parentNode, 100L)).isEqualTo(uploadedNode)
+        assertThat(underTest.getChildByName(parentNode, "uploaded.jpg")).isEqualTo(uploadedNode)
+        assertThat(underTest.getChildByFingerprint(parentNode, "original")).isEqualTo(uploadedNode)
+        assertThat(underTest.getChildBySize(parentNode, 200L)).isNull()
+
+        verify(getChildrenNode, times(1)).invoke(any(), any())
+    }
+
+    @Test
+    fun `test that an added node is found without listing the folder again`() = runTest {
+        whenever(getChildrenNode(any(), any())).thenReturn(emptyList())
+        assertThat(underTest.getChildBySize(parentNode, 100L)).isNull()
+
+        underTest.onNodeAdded(uploadedNode)
+
+        assertThat(underTest.getChildBySize(parentNode, 100L)).isEqualTo(uploadedNode)
+        verify(getChildrenNode, times(1)).invoke(any(), any())
+    }
+
+    @Test
+    fun `test that a removed node is dropped`() = runTest {
+        whenever(getChildrenNode(any(), any())).thenReturn(listOf(uploadedNode))
+        underTest.getChildBySize(parentNode, 100L)
+
+        val removedNode = mock<MegaNode> {
+            on { handle }.thenReturn(10L)
+            on { hasChanged(MegaNode.CHANGE_TYPE_REMOVED) }.thenReturn(true)
+        }
+        underTest.onNodesUpdate(listOf(removedNode))
+
+        assertThat(underTest.getChildByName(parentNode, "uploaded.jpg")).isNull()
+        assertThat(underTest.getChildByFingerprint(parentNode, "fingerprint")).isNull()
+    }
+
+    @Test
+    fun `test that removing a node keeps other nodes with the same size`() = runTest {
+        val otherNode = mock<MegaNode> {
+            on { handle }.thenReturn(11L)
+            on { parentHandle }.thenReturn(1L)
+            on { size }.thenReturn(100L)
+        }
+        whenever(getChildrenNode(any(), any())).thenReturn(listOf(uploadedNode, otherNode))
+        underTest.getChildBySize(parentNode, 100L)
+
+        val movedNode = mock<MegaNode> {
+            on { handle }.thenReturn(10L)
+            on { parentHandle }.thenReturn(2L)
+        }
+        underTest.onNodesUpdate(listOf(movedNode))
+
+        assertThat(underTest.getChildBySize(parentNode, 100L)).isEqualTo(otherNode)
+    }
+
+    @Test
+    fun `test that a cleared index lists the folder again`() = runTest {
+        whenever(getChildrenNode(any(), any())).thenReturn(listOf(uploadedNode))
+        underTest.getChildBySize(parentNode, 100L)
+
+        underTest.clear()
+        underTest.getChildBySize(parentNode, 100L)
+
+        verify(getChildrenNode, times(2)).invoke(any(), any())
+    }
+}
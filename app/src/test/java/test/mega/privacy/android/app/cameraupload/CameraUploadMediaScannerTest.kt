@@ -0,0 +1,127 @@
+package test.mega.privacy.android.app.cameraupload
+
+import android.content.ContentResolver
+import android.content.Context
+import android.database.MatrixCursor
+import android.net.Uri
+import android.os.Bundle
+import android.provider.BaseColumns
+import android.provider.MediaStore
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.app.sync.camerauploads.CameraUploadMediaScanner
+import mega.privacy.android.domain.entity.CameraUploadMedia
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.kotlin.any
+import org.mockito.kotlin.anyOrNull
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.whenever
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@RunWith(AndroidJUnit4::class)
+class CameraUploadMediaScannerTest {
+
+    private lateinit var underTest: CameraUploadMediaScanner
+
+    private val contentResolver = mock<ContentResolver>()
+    private val context = mock<Context> { on { contentResolver }.thenReturn(contentResolver) }
+    private val uri = MediaStore.Images.Media.EXTERNAL_CONTENT_URI
+    private val queries = mutableListOf<Bundle>()
+
+    /**
+     * Media store rows: id, path and modification time in seconds
+     */
+    private var rows = listOf<Triple<Long, String, Long>>()
+
+    @Before
+    fun setUp() {
+        whenever(contentResolver.query(any<Uri>(), any(), any<Bundle>(), anyOrNull()))
+            .thenAnswer { invocation ->
+                val args = invocation.getArgument<Bundle>(2)
+                queries.add(args)
+                query(args)
+            }
+        underTest = CameraUploadMediaScanner(context, UnconfinedTestDispatcher())
+    }
+
+    private fun query(args: Bundle): MatrixCursor {
+        val keyset = args.getStringArray(ContentResolver.QUERY_ARG_SQL_SELECTION_ARGS)
+            ?.let { it[0].toLong() to it[2].toLong() }
+        val limit = args.getString(ContentResolver.QUERY_ARG_SQL_LIMIT)!!.toInt()
+
+        @Suppress("DEPRECATION")
+        val cursor = MatrixCursor(
+            arrayOf(
+                BaseColumns._ID,
+                MediaStore.MediaColumns.DATA,
+                MediaStore.MediaColumns.DATE_ADDED,
+                MediaStore.MediaColumns.DATE_MODIFIED,
+            )
+        )
+        rows.sortedWith(compareBy({ it.third }, { it.first }))
+            .filter { (id, _, modified) ->
+                keyset == null || modified > keyset.first
+                        || (modified == keyset.first && id > keyset.second)
+            }
+            .take(limit)
+            .forEach { (id, path, modified) -> cursor.addRow(arrayOf(id, path, 0L, modified)) }
+        return cursor
+    }
+
+    @Test
+    fun `test that all the pages are read in order`() = runTest {
+        rows = (1L..5L).map { Triple(it, "/DCIM/$it.jpg", 100L + it) }
+
+        val pages = underTest.scan(uri, "/DCIM", null, pageSize = 2).toList()
+
+        assertThat(pages.flatten().map { it.filePath })
+            .containsExactly("/DCIM/1.jpg", "/DCIM/2.jpg", "/DCIM/3.jpg", "/DCIM/4.jpg", "/DCIM/5.jpg")
+            .inOrder()
+        assertThat(pages.map { it.size }).containsExactly(2, 2, 1).inOrder()
+        assertThat(queries).hasSize(3)
+    }
+
+    @Test
+    fun `test that rows with the same modification time are neither lost nor repeated`() =
+        runTest {
+            rows = (1L..5L).map { Triple(it, "/DCIM/$it.jpg", 100L) }
+
+            val media = underTest.scan(uri, "/DCIM", null, pageSize = 2).toList().flatten()
+
+            assertThat(media.map { it.filePath }).containsNoDuplicates()
+            assertThat(media).hasSize(5)
+        }
+
+    @Test
+    fun `test that media outside the parent folder are skipped but paging goes on`() = runTest {
+        rows = listOf(
+            Triple(1L, "/Download/1.jpg", 101L),
+            Triple(2L, "/Download/2.jpg", 102L),
+            Triple(3L, "/DCIM/3.jpg", 103L),
+        )
+
+        val pages = underTest.scan(uri, "/DCIM", null, pageSize = 2).toList()
+
+        assertThat(pages).containsExactly(listOf(CameraUploadMedia("/DCIM/3.jpg", 103_000L)))
+    }
+
+    @Test
+    fun `test that the keyset is added to the selection of the next pages`() = runTest {
+        rows = (1L..3L).map { Triple(it, "/DCIM/$it.jpg", 100L + it) }
+
+        underTest.scan(uri, "/DCIM", "size > 0", pageSize = 2).toList()
+
+        assertThat(queries.first().getString(ContentResolver.QUERY_ARG_SQL_SELECTION))
+            .isEqualTo("size > 0")
+        assertThat(queries.last().getString(ContentResolver.QUERY_ARG_SQL_SELECTION))
+            .startsWith("(size > 0) AND ")
+        assertThat(queries.last().getStringArray(ContentResolver.QUERY_ARG_SQL_SELECTION_ARGS))
+            .asList().containsExactly("102", "102", "2").inOrder()
+    }
+}
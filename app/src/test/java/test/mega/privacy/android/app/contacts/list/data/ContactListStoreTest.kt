@@ -0,0 +1,128 @@
+package test.mega.privacy.android.app.contacts.list.data
+
+import android.graphics.drawable.Drawable
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.contacts.list.data.ContactItem
+import mega.privacy.android.app.contacts.list.data.ContactListStore
+import org.junit.Before
+import org.junit.Test
+import org.mockito.kotlin.mock
+
+/**
+ * Unit tests for ContactListStore class.
+ */
+class ContactListStoreTest {
+
+    private lateinit var underTest: ContactListStore
+
+    private val placeholder = mock<Drawable>()
+
+    @Before
+    fun setUp() {
+        underTest = ContactListStore(
+            listOf(
+                contact(1L, "carol@mega.nz", fullName = "Carol"),
+                contact(2L, "alice@mega.nz", fullName = "alice"),
+                contact(3L, "bob@mega.nz", alias = "Bob"),
+            )
+        )
+    }
+
+    @Test
+    fun `test that contacts are sorted alphabetically ignoring case`() {
+        assertThat(underTest.toList().map { it.handle }).containsExactly(2L, 3L, 1L).inOrder()
+    }
+
+    @Test
+    fun `test that contacts are found by handle and email`() {
+        assertThat(underTest.getByHandle(3L)?.email).isEqualTo("bob@mega.nz")
+        assertThat(underTest.getByEmail("carol@mega.nz")?.handle).isEqualTo(1L)
+        assertThat(underTest.getByEmail("dave@mega.nz")).isNull()
+        assertThat(underTest.getByEmail(null)).isNull()
+    }
+
+    @Test
+    fun `test that a new contact is inserted in order`() {
+        underTest.put(contact(4L, "bea@mega.nz", fullName = "Bea"))
+
+        assertThat(underTest.toList().map { it.handle }).containsExactly(2L, 4L, 3L, 1L).inOrder()
+        assertThat(underTest.size).isEqualTo(4)
+    }
+
+    @Test
+    fun `test that a renamed contact is moved to its new position`() {
+        underTest.update(1L) { it.copy(alias = "Aaron") }
+
+        assertThat(underTest.toList().map { it.handle }).containsExactly(1L, 2L, 3L).inOrder()
+        assertThat(underTest.getByHandle(1L)?.getTitle()).isEqualTo("Aaron")
+    }
+
+    @Test
+    fun `test that an update not changing the title keeps the position`() {
+        val changed = underTest.update(3L) { it.copy(status = 3) }
+
+        assertThat(changed).isTrue()
+        assertThat(underTest.toList().map { it.handle }).containsExactly(2L, 3L, 1L).inOrder()
+        assertThat(underTest.getByHandle(3L)?.status).isEqualTo(3)
+    }
+
+    @Test
+    fun `test that an update without changes is ignored`() {
+        assertThat(underTest.update(3L) { it.copy() }).isFalse()
+        assertThat(underTest.update(5L) { it.copy(status = 3) }).isFalse()
+    }
+
+    @Test
+    fun `test that the contacts not updated keep their instances`() {
+        val before = underTest.toList()
+
+        underTest.update(3L) { it.copy(status = 3) }
+        val after = underTest.toList()
+
+        assertThat(after[0]).isSameInstanceAs(before[0])
+        assertThat(after[1]).isNotSameInstanceAs(before[1])
+        assertThat(after[2]).isSameInstanceAs(before[2])
+    }
+
+    @Test
+    fun `test that removed contacts are not found`() {
+        assertThat(underTest.remove(3L)).isTrue()
+        assertThat(underTest.remove(3L)).isFalse()
+
+        assertThat(underTest.getByHandle(3L)).isNull()
+        assertThat(underTest.getByEmail("bob@mega.nz")).isNull()
+        assertThat(underTest.toList().map { it.handle }).containsExactly(2L, 1L).inOrder()
+    }
+
+    @Test
+    fun `test that contacts with the same title are all kept`() {
+        underTest.put(contact(4L, "other.carol@mega.nz", fullName = "carol"))
+        underTest.remove(1L)
+
+        assertThat(underTest.toList().map { it.handle }).containsExactly(2L, 3L, 4L).inOrder()
+    }
+
+    @Test
+    fun `test that update all only reports the contacts changed`() {
+        val aliases = mapOf(1L to "Zoe")
+
+        val changed = underTest.updateAll { it.copy(alias = aliases[it.handle]) }
+
+        assertThat(changed).isTrue()
+        assertThat(underTest.toList().map { it.getTitle() })
+            .containsExactly("alice", "bob@mega.nz", "Zoe").inOrder()
+    }
+
+    private fun contact(
+        handle: Long,
+        email: String,
+        fullName: String? = null,
+        alias: String? = null,
+    ) = ContactItem.Data(
+        handle = handle,
+        email = email,
+        fullName = fullName,
+        alias = alias,
+        placeholder = placeholder,
+    )
+}
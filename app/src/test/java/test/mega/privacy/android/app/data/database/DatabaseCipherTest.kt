@@ -0,0 +1,62 @@
+package test.mega.privacy.android.app.data.database
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.data.database.DatabaseCipher
+import org.junit.Test
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import javax.crypto.Cipher
+import javax.crypto.spec.SecretKeySpec
+
+/**
+ * Unit tests for DatabaseCipher class.
+ */
+class DatabaseCipherTest {
+
+    private val key = "0123456789abcdef0123456789abcdef".toByteArray()
+
+    private val underTest = DatabaseCipher(key)
+
+    @Test
+    fun `test that encrypted data is the same as with a new cipher per call`() {
+        val clear = "/storage/emulated/0/DCIM/Camera/IMG_0001.jpg".toByteArray()
+
+        repeat(3) {
+            assertThat(underTest.encrypt(clear)).isEqualTo(legacyCipher(Cipher.ENCRYPT_MODE, clear))
+        }
+    }
+
+    @Test
+    fun `test that decrypting encrypted data returns the original data`() {
+        val clear = "fingerprint".toByteArray()
+
+        assertThat(underTest.decrypt(underTest.encrypt(clear))).isEqualTo(clear)
+    }
+
+    @Test
+    fun `test that the cipher keeps working after a failed decryption`() {
+        val clear = "true".toByteArray()
+
+        runCatching { underTest.decrypt("not encrypted".toByteArray()) }
+
+        assertThat(underTest.decrypt(underTest.encrypt(clear))).isEqualTo(clear)
+    }
+
+    @Test
+    fun `test that the cipher can be used from several threads`() {
+        val executor = Executors.newFixedThreadPool(4)
+        val results = (0 until 100).map { index ->
+            executor.submit<Boolean> {
+                val clear = "value $index".toByteArray()
+                underTest.decrypt(underTest.encrypt(clear)).contentEquals(clear)
+            }
+        }
+        executor.shutdown()
+        executor.awaitTermination(10, TimeUnit.SECONDS)
+
+        assertThat(results.all { it.get() }).isTrue()
+    }
+
+    private fun legacyCipher(mode: Int, input: ByteArray): ByteArray =
+        Cipher.getInstance("AES").apply { init(mode, SecretKeySpec(key, "AES")) }.doFinal(input)
+}
@@ -0,0 +1,47 @@
+package test.mega.privacy.android.app.data.database
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.data.database.DatabaseKeyedHash
+import org.junit.Test
+
+/**
+ * Unit tests for DatabaseKeyedHash class.
+ */
+class DatabaseKeyedHashTest {
+
+    private val key = "0123456789abcdef0123456789abcdef".toByteArray()
+
+    private val underTest = DatabaseKeyedHash(key)
+
+    @Test
+    fun `test that the same value always has the same hash`() {
+        val path = "/storage/emulated/0/DCIM/Camera/IMG_0001.jpg"
+
+        assertThat(underTest.hash(path)).isEqualTo(DatabaseKeyedHash(key).hash(path))
+    }
+
+    @Test
+    fun `test that different values have different hashes`() {
+        assertThat(underTest.hash("IMG_0001.jpg")).isNotEqualTo(underTest.hash("IMG_0002.jpg"))
+    }
+
+    @Test
+    fun `test that the hash depends on the key`() {
+        val otherKey = "fedcba9876543210fedcba9876543210".toByteArray()
+
+        assertThat(underTest.hash("fingerprint"))
+            .isNotEqualTo(DatabaseKeyedHash(otherKey).hash("fingerprint"))
+    }
+
+    @Test
+    fun `test that the hash is a fixed size hex string`() {
+        assertThat(underTest.hash("")).matches("[0-9a-f]{${DatabaseKeyedHash.HASH_SIZE * 2}}")
+        assertThat(underTest.hash("a".repeat(1000)))
+            .matches("[0-9a-f]{${DatabaseKeyedHash.HASH_SIZE * 2}}")
+    }
+
+    @Test
+    fun `test that a null value has no hash`() {
+        assertThat(underTest.hash(null)).isNull()
+    }
+}
@@ -0,0 +1,149 @@
+package test.mega.privacy.android.app.data.database
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.data.database.SettingsSnapshotStore
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+
+/**
+ * Unit tests for SettingsSnapshotStore class.
+ */
+class SettingsSnapshotStoreTest {
+
+    private val table = "preferences"
+
+    private lateinit var database: MutableMap<String, MutableMap<String, String?>>
+    private lateinit var loads: MutableList<String>
+    private lateinit var writes: MutableList<Pair<String, Map<String, String?>>>
+    private lateinit var executor: ScheduledExecutorService
+    private lateinit var underTest: SettingsSnapshotStore
+
+    @Before
+    fun setUp() {
+        database = mutableMapOf()
+        loads = mutableListOf()
+        writes = mutableListOf()
+        executor = Executors.newSingleThreadScheduledExecutor()
+        underTest = SettingsSnapshotStore(
+            loadRow = { table ->
+                loads.add(table)
+                database[table]?.toMap()
+            },
+            decrypt = { it?.removePrefix("encrypted:") },
+            writeRow = { table, values ->
+                writes.add(table to values)
+                database.getOrPut(table) { mutableMapOf() }
+                    .putAll(values.mapValues { (_, value) -> "encrypted:$value" })
+            },
+            executor = executor,
+            flushDelayMillis = Long.MAX_VALUE,
+        )
+    }
+
+    @After
+    fun tearDown() {
+        executor.shutdownNow()
+    }
+
+    @Test
+    fun `test that a table is only loaded once`() {
+        database[table] = mutableMapOf("first_login" to "encrypted:true", "auto_play" to null)
+
+        assertThat(underTest.getValue(table, "first_login", "false")).isEqualTo("true")
+        assertThat(underTest.getValue(table, "auto_play", "false")).isNull()
+        assertThat(loads).containsExactly(table)
+    }
+
+    @Test
+    fun `test that a written value is read before it is stored`() {
+        database[table] = mutableMapOf("first_login" to "encrypted:true")
+
+        underTest.setValue(table, "first_login", "false")
+
+        assertThat(underTest.getValue(table, "first_login", "true")).isEqualTo("false")
+        assertThat(underTest.snapshot.value[table]?.getBoolean("first_login")).isFalse()
+        assertThat(writes).isEmpty()
+    }
+
+    @Test
+    fun `test that writes are coalesced into a single write per table`() {
+        database[table] = mutableMapOf()
+
+        underTest.setValue(table, "first_login", "true")
+        underTest.setValue(table, "auto_play", "true")
+        underTest.setValue(table, "first_login", "false")
+        underTest.flush()
+
+        assertThat(writes).containsExactly(
+            table to mapOf("first_login" to "false", "auto_play" to "true")
+        )
+        assertThat(database[table]).containsEntry("first_login", "encrypted:false")
+    }
+
+    @Test
+    fun `test that flush does nothing without pending writes`() {
+        underTest.flush()
+
+        assertThat(writes).isEmpty()
+    }
+
+    @Test
+    fun `test that the default value is stored when the table has no row`() {
+        assertThat(underTest.getValue(table, "show_copyright", "true")).isEqualTo("true")
+
+        underTest.flush()
+
+        assertThat(writes).containsExactly(table to mapOf("show_copyright" to "true"))
+    }
+
+    @Test
+    fun `test that an invalidated table is loaded again`() {
+        database[table] = mutableMapOf("first_login" to "encrypted:true")
+        underTest.getValue(table, "first_login", "false")
+
+        database[table] = mutableMapOf("first_login" to "encrypted:false")
+        underTest.invalidate(table)
+
+        assertThat(underTest.getValue(table, "first_login", "true")).isEqualTo("false")
+        assertThat(loads).containsExactly(table, table)
+    }
+
+    @Test
+    fun `test that a table which fails to load is not cached`() {
+        var fail = true
+        val store = SettingsSnapshotStore(
+            loadRow = {
+                if (fail) throw IllegalStateException("Database closed")
+                mapOf("first_login" to "true")
+            },
+            decrypt = { it },
+            writeRow = { _, _ -> },
+            executor = executor,
+        )
+
+        assertThat(store.getValue(table, "first_login", "false")).isEqualTo("false")
+
+        fail = false
+
+        assertThat(store.getValue(table, "first_login", "false")).isEqualTo("true")
+    }
+
+    @Test
+    fun `test that pending writes are stored by the executor`() {
+        val store = SettingsSnapshotStore(
+            loadRow = { emptyMap() },
+            decrypt = { it },
+            writeRow = { table, values -> writes.add(table to values) },
+            executor = executor,
+            flushDelayMillis = 0,
+        )
+
+        store.setValue(table, "auto_play", "true")
+        executor.submit { }.get()
+
+        assertThat(writes).containsExactly(table to mapOf("auto_play" to "true"))
+    }
+}
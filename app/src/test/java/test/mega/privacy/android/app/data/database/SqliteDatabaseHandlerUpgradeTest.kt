@@ -0,0 +1,119 @@
+package test.mega.privacy.android.app.data.database
+
+import android.app.Application
+import android.content.Context
+import android.database.DatabaseUtils
+import android.database.sqlite.SQLiteDatabase
+import android.os.Build
+import androidx.test.core.app.ApplicationProvider
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.SqliteDatabaseHandler
+import mega.privacy.android.domain.entity.SyncRecord
+import org.junit.After
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.kotlin.mock
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+/**
+ * Upgrade tests of the sync records of [SqliteDatabaseHandler].
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(application = Application::class, sdk = [Build.VERSION_CODES.Q])
+class SqliteDatabaseHandlerUpgradeTest {
+
+    private val context: Context = ApplicationProvider.getApplicationContext()
+
+    @After
+    fun tearDown() {
+        context.deleteDatabase(DATABASE_NAME)
+    }
+
+    @Test
+    fun `test that the upgrade to hashed sync records deletes the records that cannot be hashed`() {
+        createHandler().apply {
+            saveSyncRecord(syncRecord)
+            close()
+        }
+        downgradeSyncRecords(corruptValue = "not encrypted")
+
+        val underTest = createHandler()
+
+        assertThat(underTest.recordExists(FINGERPRINT, isSecondary = false, isCopyOnly = false)
+            ?.localPath).isEqualTo(LOCAL_PATH)
+        assertThat(DatabaseUtils.queryNumEntries(underTest.readableDatabase, "syncrecords"))
+            .isEqualTo(1)
+        underTest.close()
+    }
+
+    private fun createHandler() = SqliteDatabaseHandler(
+        context = context,
+        legacyLoggingSettings = mock(),
+        storageStateMapper = mock(),
+        storageStateIntMapper = mock(),
+        databaseName = DATABASE_NAME,
+    )
+
+    /**
+     * Moves the sync records to the table of the version 67 of the database, without the hash
+     * columns, and adds a record whose values cannot be decrypted.
+     */
+    private fun downgradeSyncRecords(corruptValue: String) {
+        SQLiteDatabase.openDatabase(context.getDatabasePath(DATABASE_NAME).path,
+            null,
+            SQLiteDatabase.OPEN_READWRITE).use { db ->
+            db.execSQL("CREATE TABLE syncrecords_v67(id INTEGER PRIMARY KEY, " +
+                    "${V67_COLUMNS.joinToString(" TEXT, ")} TEXT)")
+            db.execSQL("INSERT INTO syncrecords_v67(id, ${V67_COLUMNS.joinToString()}) " +
+                    "SELECT id, ${V67_COLUMNS.joinToString()} FROM syncrecords")
+            db.execSQL("DROP TABLE syncrecords")
+            db.execSQL("ALTER TABLE syncrecords_v67 RENAME TO syncrecords")
+            db.execSQL("INSERT INTO syncrecords(sync_filepath_origin, sync_fingerprint_origin, " +
+                    "sync_filename) VALUES (?, ?, ?)",
+                arrayOf(corruptValue, corruptValue, corruptValue))
+            db.version = 67
+        }
+    }
+
+    private val syncRecord = SyncRecord(
+        localPath = LOCAL_PATH,
+        newPath = null,
+        originFingerprint = FINGERPRINT,
+        newFingerprint = null,
+        timestamp = 1666087810000L,
+        fileName = "IMG_1.jpg",
+        longitude = null,
+        latitude = null,
+        status = 0,
+        type = 1,
+        nodeHandle = 123456789L,
+        isCopyOnly = false,
+        isSecondary = false,
+    )
+
+    companion object {
+        private const val DATABASE_NAME = "syncRecordUpgradeTest"
+        private const val LOCAL_PATH = "/storage/emulated/0/DCIM/Camera/IMG_1.jpg"
+        private const val FINGERPRINT = "GGGGGGGGGGGGGGGGGGGGGGGGGGGGGGGGGGGGGG1"
+
+        /**
+         * Columns of the sync records table in the version 67 of the database, in order
+         */
+        private val V67_COLUMNS = listOf(
+            "sync_filepath_origin",
+            "sync_filepath_new",
+            "sync_fingerprint_origin",
+            "sync_fingerprint_new",
+            "sync_timestamp",
+            "sync_filename",
+            "sync_longitude",
+            "sync_latitude",
+            "sync_state",
+            "sync_type",
+            "sync_handle",
+            "sync_copyonly",
+            "sync_secondary",
+        )
+    }
+}
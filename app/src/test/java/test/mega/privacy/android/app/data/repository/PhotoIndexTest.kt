@@ -0,0 +1,107 @@
+package test.mega.privacy.android.app.data.repository
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.data.repository.PhotoIndex
+import mega.privacy.android.domain.entity.StaticImageFileTypeInfo
+import mega.privacy.android.domain.entity.photos.Photo
+import mega.privacy.android.domain.entity.photos.PhotosChange
+import org.junit.Before
+import org.junit.Test
+import java.time.LocalDateTime
+
+class PhotoIndexTest {
+
+    private lateinit var underTest: PhotoIndex
+
+    private val time = LocalDateTime.now()
+
+    @Before
+    fun setUp() {
+        underTest = PhotoIndex()
+    }
+
+    @Test
+    fun `test that reset reports the added, updated and removed photos`() {
+        underTest.reset(listOf(createImage(1L), createImage(2L), createImage(3L)))
+        underTest.takeChange()
+
+        underTest.reset(
+            listOf(createImage(2L), createImage(3L, isFavourite = true), createImage(4L))
+        )
+
+        assertThat(underTest.takeChange()).isEqualTo(
+            PhotosChange(
+                added = listOf(createImage(4L)),
+                updated = listOf(createImage(3L, isFavourite = true)),
+                removed = listOf(1L),
+            )
+        )
+    }
+
+    @Test
+    fun `test that reset with the same photos is not a change`() {
+        underTest.reset(listOf(createImage(1L), createImage(2L)))
+        underTest.takeChange()
+
+        underTest.reset(listOf(createImage(2L), createImage(1L)))
+
+        assertThat(underTest.takeChange()).isNull()
+    }
+
+    @Test
+    fun `test that putting an identical photo is not a change`() {
+        underTest.put(createImage(1L))
+        underTest.takeChange()
+
+        underTest.put(createImage(1L))
+        assertThat(underTest.takeChange()).isNull()
+
+        underTest.put(createImage(1L, isFavourite = true))
+        assertThat(underTest.takeChange())
+            .isEqualTo(PhotosChange(updated = listOf(createImage(1L, isFavourite = true))))
+    }
+
+    @Test
+    fun `test that removing a photo which is not indexed is not a change`() {
+        underTest.put(createImage(1L))
+        underTest.takeChange()
+
+        underTest.remove(2L)
+        assertThat(underTest.takeChange()).isNull()
+
+        underTest.remove(1L)
+        assertThat(underTest.takeChange()).isEqualTo(PhotosChange(removed = listOf(1L)))
+    }
+
+    @Test
+    fun `test that a photo added and removed before taking the change is not reported`() {
+        underTest.put(createImage(1L))
+        underTest.remove(1L)
+
+        assertThat(underTest.takeChange()).isNull()
+    }
+
+    @Test
+    fun `test that a photo removed and added again before taking the change is updated`() {
+        underTest.put(createImage(1L))
+        underTest.takeChange()
+
+        underTest.remove(1L)
+        underTest.put(createImage(1L, isFavourite = true))
+
+        assertThat(underTest.takeChange())
+            .isEqualTo(PhotosChange(updated = listOf(createImage(1L, isFavourite = true))))
+    }
+
+    private fun createImage(id: Long, isFavourite: Boolean = false) = Photo.Image(
+        id = id,
+        parentId = 0L,
+        name = "$id.jpg",
+        isFavourite = isFavourite,
+        creationTime = time,
+        modificationTime = time,
+        thumbnailFilePath = null,
+        previewFilePath = null,
+        fileTypeInfo = StaticImageFileTypeInfo("image/jpeg", "jpg"),
+    )
+}
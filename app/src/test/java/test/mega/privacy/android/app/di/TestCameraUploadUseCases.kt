@@ -24,6 +24,7 @@ import mega.privacy.android.app.domain.usecase.GetSyncFileUploadUris
 import mega.privacy.android.app.domain.usecase.IsLocalPrimaryFolderSet
 import mega.privacy.android.app.domain.usecase.IsLocalSecondaryFolderSet
 import mega.privacy.android.app.domain.usecase.IsWifiNotSatisfied
+import mega.privacy.android.app.domain.usecase.ResolveCameraUploadNodes
 import mega.privacy.android.app.domain.usecase.SaveSyncRecordsToDB
 import mega.privacy.android.app.domain.usecase.SetPrimarySyncHandle
 import mega.privacy.android.app.domain.usecase.SetSecondarySyncHandle
@@ -152,6 +153,9 @@ object TestCameraUploadUseCases {
     @Provides
     fun provideGetNodeFromCloud() = mock<GetNodeFromCloud>()
 
+    @Provides
+    fun provideResolveCameraUploadNodes() = mock<ResolveCameraUploadNodes>()
+
     @Provides
     fun provideUpdateTimeStamp() = mock<UpdateCameraUploadTimeStamp>()
 
@@ -3,18 +3,19 @@ package test.mega.privacy.android.app.domain.usecase
 import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.runTest
+import mega.privacy.android.app.domain.usecase.CameraUploadNodeResolution
 import mega.privacy.android.app.domain.usecase.DefaultGetPendingUploadList
-import mega.privacy.android.app.domain.usecase.GetFingerprint
 import mega.privacy.android.app.domain.usecase.GetNodeByHandle
-import mega.privacy.android.app.domain.usecase.GetNodeFromCloud
-import mega.privacy.android.app.domain.usecase.GetParentMegaNode
 import mega.privacy.android.app.domain.usecase.GetPendingUploadList
 import mega.privacy.android.app.domain.usecase.GetPrimarySyncHandle
 import mega.privacy.android.app.domain.usecase.GetSecondarySyncHandle
+import mega.privacy.android.app.domain.usecase.ResolveCameraUploadNodes
+import mega.privacy.android.app.domain.usecase.ResolvedCameraUploadMedia
 import mega.privacy.android.data.mapper.SyncRecordTypeIntMapper
 import mega.privacy.android.domain.entity.CameraUploadMedia
 import mega.privacy.android.domain.entity.SyncRecord
 import mega.privacy.android.domain.entity.SyncStatus
+import mega.privacy.android.domain.entity.SyncTimeStamp
 import mega.privacy.android.domain.usecase.GetGPSCoordinates
 import mega.privacy.android.domain.usecase.MediaLocalPathExists
 import mega.privacy.android.domain.usecase.ShouldCompressVideo
@@ -23,7 +24,9 @@ import nz.mega.sdk.MegaNode
 import org.junit.Before
 import org.junit.Test
 import org.mockito.kotlin.any
+import org.mockito.kotlin.anyOrNull
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 import java.io.File
 import java.util.LinkedList
@@ -33,13 +36,11 @@ class DefaultGetPendingUploadListTest {
 
     private lateinit var underTest: GetPendingUploadList
 
-    private val getNodeFromCloud: GetNodeFromCloud = mock()
+    private val resolveCameraUploadNodes: ResolveCameraUploadNodes = mock()
     private val getNodeByHandle: GetNodeByHandle = mock()
-    private val getParentMegaNode: GetParentMegaNode = mock()
     private val getPrimarySyncHandle: GetPrimarySyncHandle = mock()
     private val getSecondarySyncHandle: GetSecondarySyncHandle = mock()
     private val updateTimeStamp: UpdateCameraUploadTimeStamp = mock()
-    private val getFingerprint: GetFingerprint = mock()
     private val mediaLocalPathExists: MediaLocalPathExists = mock()
     private val shouldCompressVideo: ShouldCompressVideo = mock()
     private val getGPSCoordinates: GetGPSCoordinates = mock()
@@ -47,6 +48,12 @@ class DefaultGetPendingUploadListTest {
 
     private val uploadMedia = CameraUploadMedia("", 0)
 
+    private val notUploaded = CameraUploadNodeResolution(
+        pending = listOf(ResolvedCameraUploadMedia(uploadMedia, "local fingerprint", null)),
+        copyOnly = emptyList(),
+        uploaded = emptyList(),
+    )
+
     private val primaryPhoto = SyncRecord(
         0,
         File("").absolutePath,
@@ -118,13 +125,11 @@ class DefaultGetPendingUploadListTest {
     @Before
     fun setUp() {
         underTest = DefaultGetPendingUploadList(
-            getNodeFromCloud,
+            resolveCameraUploadNodes,
             getNodeByHandle,
-            getParentMegaNode,
             getPrimarySyncHandle,
             getSecondarySyncHandle,
             updateTimeStamp,
-            getFingerprint,
             mediaLocalPathExists,
             shouldCompressVideo,
             getGPSCoordinates,
@@ -136,12 +141,11 @@ class DefaultGetPendingUploadListTest {
     fun `test that correct sync record list is returned if node does not exist for primary photo media`() =
         runTest {
             val result = mock<MegaNode> {}
-            whenever(getFingerprint(any())).thenReturn("local fingerprint")
             whenever(getPrimarySyncHandle()).thenReturn(1L)
             whenever(getSecondarySyncHandle()).thenReturn(1L)
             whenever(shouldCompressVideo()).thenReturn(false)
             whenever(getNodeByHandle(any())).thenReturn(result)
-            whenever(getNodeFromCloud(any(), any())).thenReturn(null)
+            whenever(resolveCameraUploadNodes(any(), anyOrNull())).thenReturn(notUploaded)
             whenever(mediaLocalPathExists(any(), any())).thenReturn(false)
             whenever(getGPSCoordinates(any(), any())).thenReturn(Pair(0F, 1F))
             whenever(syncRecordTypeIntMapper(any())).thenReturn(1)
@@ -158,12 +162,11 @@ class DefaultGetPendingUploadListTest {
     fun `test that correct sync record list is returned if node does not exist for secondary photo media`() =
         runTest {
             val result = mock<MegaNode> {}
-            whenever(getFingerprint(any())).thenReturn("local fingerprint")
             whenever(getPrimarySyncHandle()).thenReturn(1L)
             whenever(getSecondarySyncHandle()).thenReturn(1L)
             whenever(shouldCompressVideo()).thenReturn(false)
             whenever(getNodeByHandle(any())).thenReturn(result)
-            whenever(getNodeFromCloud(any(), any())).thenReturn(null)
+            whenever(resolveCameraUploadNodes(any(), anyOrNull())).thenReturn(notUploaded)
             whenever(mediaLocalPathExists(any(), any())).thenReturn(false)
             whenever(getGPSCoordinates(any(), any())).thenReturn(Pair(0F, 1F))
             whenever(syncRecordTypeIntMapper(any())).thenReturn(1)
@@ -180,12 +183,11 @@ class DefaultGetPendingUploadListTest {
     fun `test that correct sync record list is returned if node does not exist for primary video media which needs to be compressed`() =
         runTest {
             val result = mock<MegaNode> {}
-            whenever(getFingerprint(any())).thenReturn("local fingerprint")
             whenever(getPrimarySyncHandle()).thenReturn(1L)
             whenever(getSecondarySyncHandle()).thenReturn(1L)
             whenever(shouldCompressVideo()).thenReturn(true)
             whenever(getNodeByHandle(any())).thenReturn(result)
-            whenever(getNodeFromCloud(any(), any())).thenReturn(null)
+            whenever(resolveCameraUploadNodes(any(), anyOrNull())).thenReturn(notUploaded)
             whenever(mediaLocalPathExists(any(), any())).thenReturn(false)
             whenever(getGPSCoordinates(any(), any())).thenReturn(Pair(0F, 1F))
             whenever(syncRecordTypeIntMapper(any())).thenReturn(2)
@@ -202,12 +204,11 @@ class DefaultGetPendingUploadListTest {
     fun `test that correct sync record list is returned if node does not exist for secondary video media which does not need to be compressed`() =
         runTest {
             val result = mock<MegaNode> {}
-            whenever(getFingerprint(any())).thenReturn("local fingerprint")
             whenever(getPrimarySyncHandle()).thenReturn(1L)
             whenever(getSecondarySyncHandle()).thenReturn(1L)
             whenever(shouldCompressVideo()).thenReturn(false)
             whenever(getNodeByHandle(any())).thenReturn(result)
-            whenever(getNodeFromCloud(any(), any())).thenReturn(null)
+            whenever(resolveCameraUploadNodes(any(), anyOrNull())).thenReturn(notUploaded)
             whenever(mediaLocalPathExists(any(), any())).thenReturn(false)
             whenever(getGPSCoordinates(any(), any())).thenReturn(Pair(0F, 1F))
             whenever(syncRecordTypeIntMapper(any())).thenReturn(2)
@@ -225,19 +226,79 @@ class DefaultGetPendingUploadListTest {
         runTest {
             val result = mock<MegaNode> {}
             whenever(result.handle).thenReturn(1L)
-            whenever(getFingerprint(any())).thenReturn("local fingerprint")
             whenever(getPrimarySyncHandle()).thenReturn(1L)
             whenever(getSecondarySyncHandle()).thenReturn(1L)
             whenever(shouldCompressVideo()).thenReturn(false)
             whenever(getNodeByHandle(any())).thenReturn(result)
-            whenever(getNodeFromCloud(any(), any())).thenReturn(result)
+            whenever(resolveCameraUploadNodes(any(), anyOrNull())).thenReturn(
+                CameraUploadNodeResolution(
+                    pending = emptyList(),
+                    copyOnly = emptyList(),
+                    uploaded = listOf(
+                        ResolvedCameraUploadMedia(uploadMedia, "local fingerprint", result)
+                    ),
+                )
+            )
             whenever(mediaLocalPathExists(any(), any())).thenReturn(false)
-            whenever(getParentMegaNode(any())).thenReturn(result)
             whenever(getGPSCoordinates(any(), any())).thenReturn(Pair(0F, 1F))
             val queue = LinkedList<CameraUploadMedia>()
             queue.add(uploadMedia)
             assertThat(underTest(queue, isSecondary = false, isVideo = false)).isEqualTo(
                 emptyList<SyncRecord>()
             )
+            verify(updateTimeStamp).invoke(uploadMedia.timestamp, SyncTimeStamp.PRIMARY_PHOTO)
+        }
+
+    @Test
+    fun `test that a copy only sync record is returned if node exists in another folder for primary photo media`() =
+        runTest {
+            val result = mock<MegaNode> {
+                on { handle }.thenReturn(2L)
+                on { originalFingerprint }.thenReturn("local fingerprint")
+                on { fingerprint }.thenReturn("cloud fingerprint")
+                on { longitude }.thenReturn(1.0)
+                on { latitude }.thenReturn(0.0)
+            }
+            whenever(getPrimarySyncHandle()).thenReturn(1L)
+            whenever(shouldCompressVideo()).thenReturn(false)
+            whenever(getNodeByHandle(any())).thenReturn(mock())
+            whenever(resolveCameraUploadNodes(any(), anyOrNull())).thenReturn(
+                CameraUploadNodeResolution(
+                    pending = emptyList(),
+                    copyOnly = listOf(
+                        ResolvedCameraUploadMedia(uploadMedia, "local fingerprint", result)
+                    ),
+                    uploaded = emptyList(),
+                )
+            )
+            whenever(mediaLocalPathExists(any(), any())).thenReturn(false)
+            whenever(syncRecordTypeIntMapper(any())).thenReturn(1)
+            val queue = LinkedList<CameraUploadMedia>()
+            queue.add(uploadMedia)
+            assertThat(underTest(queue, isSecondary = false, isVideo = false)).isEqualTo(
+                listOf(
+                    primaryPhoto.copy(
+                        localPath = "",
+                        newFingerprint = "cloud fingerprint",
+                        fileName = "",
+                        nodeHandle = 2L,
+                        isCopyOnly = true,
+                    )
+                )
+            )
+        }
+
+    @Test
+    fun `test that media whose local path is already in the database are not resolved`() =
+        runTest {
+            whenever(getPrimarySyncHandle()).thenReturn(1L)
+            whenever(mediaLocalPathExists(any(), any())).thenReturn(true)
+            whenever(resolveCameraUploadNodes(any(), anyOrNull())).thenReturn(
+                CameraUploadNodeResolution(emptyList(), emptyList(), emptyList())
+            )
+            val queue = LinkedList<CameraUploadMedia>()
+            queue.add(uploadMedia)
+            assertThat(underTest(queue, isSecondary = false, isVideo = false)).isEmpty()
+            verify(resolveCameraUploadNodes).invoke(emptyList(), null)
         }
 }
@@ -0,0 +1,171 @@
+package test.mega.privacy.android.app.domain.usecase
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.app.domain.usecase.DefaultResolveCameraUploadNodes
+import mega.privacy.android.app.domain.usecase.GetChildrenNode
+import mega.privacy.android.app.domain.usecase.GetFingerprint
+import mega.privacy.android.app.domain.usecase.GetNodeByFingerprint
+import mega.privacy.android.app.domain.usecase.GetNodesByOriginalFingerprint
+import mega.privacy.android.app.domain.usecase.ResolveCameraUploadNodes
+import mega.privacy.android.app.domain.usecase.ResolvedCameraUploadMedia
+import mega.privacy.android.domain.entity.CameraUploadMedia
+import nz.mega.sdk.MegaNode
+import nz.mega.sdk.MegaNodeList
+import org.junit.Before
+import org.junit.Test
+import org.mockito.kotlin.any
+import org.mockito.kotlin.anyOrNull
+import org.mockito.kotlin.eq
+import org.mockito.kotlin.isNull
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.notNull
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class DefaultResolveCameraUploadNodesTest {
+
+    private lateinit var underTest: ResolveCameraUploadNodes
+
+    private val getFingerprint = GetFingerprint { "fingerprint of $it" }
+    private val getChildrenNode: GetChildrenNode = mock()
+    private val getNodesByOriginalFingerprint: GetNodesByOriginalFingerprint = mock()
+    private val getNodeByFingerprint: GetNodeByFingerprint = mock()
+
+    private val parentNode = mock<MegaNode> { on { isFolder }.thenReturn(true) }
+    private val subfolder = mock<MegaNode> { on { isFolder }.thenReturn(true) }
+
+    private val uploadedMedia = CameraUploadMedia("uploaded.jpg", 1)
+    private val movedMedia = CameraUploadMedia("moved.jpg", 2)
+    private val newMedia = CameraUploadMedia("new.jpg", 3)
+
+    private val uploadedNode = mock<MegaNode> {
+        on { originalFingerprint }.thenReturn("fingerprint of uploaded.jpg")
+    }
+    private val movedNode = mock<MegaNode>()
+
+    @Before
+    fun setUp() {
+        underTest = DefaultResolveCameraUploadNodes(
+            getFingerprint = getFingerprint,
+            getChildrenNode = getChildrenNode,
+            getNodesByOriginalFingerprint = getNodesByOriginalFingerprint,
+            getNodeByFingerprint = getNodeByFingerprint,
+            ioDispatcher = UnconfinedTestDispatcher(),
+        )
+    }
+
+    @Test
+    fun `test that media are partitioned in one pass`() = runTest {
+        whenever(getChildrenNode(eq(parentNode), any())).thenReturn(listOf(uploadedNode))
+        whenever(getNodeByFingerprint("fingerprint of moved.jpg")).thenReturn(movedNode)
+
+        val result = underTest(listOf(uploadedMedia, movedMedia, newMedia), parentNode)
+
+        assertThat(result.uploaded).containsExactly(
+            ResolvedCameraUploadMedia(uploadedMedia, "fingerprint of uploaded.jpg", uploadedNode)
+        )
+        assertThat(result.copyOnly).containsExactly(
+            ResolvedCameraUploadMedia(movedMedia, "fingerprint of moved.jpg", movedNode)
+        )
+        assertThat(result.pending).containsExactly(
+            ResolvedCameraUploadMedia(newMedia, "fingerprint of new.jpg", null)
+        )
+    }
+
+    @Test
+    fun `test that each folder of the upload folder is fetched once`() = runTest {
+        whenever(getChildrenNode(eq(parentNode), any())).thenReturn(listOf(uploadedNode, subfolder))
+        whenever(getChildrenNode(eq(subfolder), any())).thenReturn(emptyList())
+
+        underTest(listOf(uploadedMedia, movedMedia, newMedia), parentNode)
+
+        verify(getChildrenNode, times(1)).invoke(eq(parentNode), any())
+        verify(getChildrenNode, times(1)).invoke(eq(subfolder), any())
+    }
+
+    @Test
+    fun `test that media found in the upload folder are not looked for in the account`() =
+        runTest {
+            whenever(getChildrenNode(eq(parentNode), any())).thenReturn(listOf(uploadedNode))
+
+            underTest(listOf(uploadedMedia), parentNode)
+
+            verify(getNodesByOriginalFingerprint, never()).invoke(any(), anyOrNull())
+            verify(getNodeByFingerprint, never()).invoke(any())
+        }
+
+    @Test
+    fun `test that media in a subfolder of the upload folder are copied from the index`() =
+        runTest {
+            val subfolderNode = mock<MegaNode> {
+                on { originalFingerprint }.thenReturn("fingerprint of new.jpg")
+            }
+            whenever(getChildrenNode(eq(parentNode), any())).thenReturn(listOf(subfolder))
+            whenever(getChildrenNode(eq(subfolder), any())).thenReturn(listOf(subfolderNode))
+
+            val result = underTest(listOf(newMedia), parentNode)
+
+            assertThat(result.pending).isEmpty()
+            assertThat(result.copyOnly.single().node).isEqualTo(subfolderNode)
+            verify(getNodesByOriginalFingerprint, never()).invoke(any(), anyOrNull())
+        }
+
+    @Test
+    fun `test that a direct child is preferred over a node of a subfolder`() = runTest {
+        val child = mock<MegaNode> { on { fingerprint }.thenReturn("fingerprint of new.jpg") }
+        val subfolderNode = mock<MegaNode> { on { fingerprint }.thenReturn("fingerprint of new.jpg") }
+        whenever(getChildrenNode(eq(parentNode), any())).thenReturn(listOf(subfolder, child))
+        whenever(getChildrenNode(eq(subfolder), any())).thenReturn(listOf(subfolderNode))
+
+        val result = underTest(listOf(newMedia), parentNode)
+
+        assertThat(result.uploaded.single().node).isEqualTo(child)
+    }
+
+    @Test
+    fun `test that a child is found by fingerprint when it has no original fingerprint`() =
+        runTest {
+            val child = mock<MegaNode> { on { fingerprint }.thenReturn("fingerprint of new.jpg") }
+            whenever(getChildrenNode(eq(parentNode), any())).thenReturn(listOf(child))
+
+            val result = underTest(listOf(newMedia), parentNode)
+
+            assertThat(result.uploaded.single().node).isEqualTo(child)
+        }
+
+    @Test
+    fun `test that media missing from the index are looked for once in the account only`() =
+        runTest {
+            val nodeList = mock<MegaNodeList> {
+                on { size() }.thenReturn(1)
+                on { get(0) }.thenReturn(movedNode)
+            }
+            whenever(getChildrenNode(eq(parentNode), any())).thenReturn(emptyList())
+            whenever(getNodesByOriginalFingerprint("fingerprint of moved.jpg", null))
+                .thenReturn(nodeList)
+
+            val result = underTest(listOf(movedMedia, movedMedia, newMedia), parentNode)
+
+            assertThat(result.copyOnly.map { it.node }).containsExactly(movedNode, movedNode)
+            verify(getNodesByOriginalFingerprint).invoke("fingerprint of moved.jpg", null)
+            verify(getNodesByOriginalFingerprint).invoke("fingerprint of new.jpg", null)
+            verify(getNodesByOriginalFingerprint, never()).invoke(any(), notNull())
+            verify(getNodeByFingerprint, never()).invoke("fingerprint of moved.jpg")
+            verify(getNodeByFingerprint).invoke("fingerprint of new.jpg")
+        }
+
+    @Test
+    fun `test that all media are pending if the upload folder does not exist`() = runTest {
+        val result = underTest(listOf(uploadedMedia, newMedia), null)
+
+        assertThat(result.pending.map { it.media }).containsExactly(uploadedMedia, newMedia)
+        verify(getNodesByOriginalFingerprint, never()).invoke(any(), isNull())
+        verify(getNodeByFingerprint, never()).invoke(any())
+    }
+}
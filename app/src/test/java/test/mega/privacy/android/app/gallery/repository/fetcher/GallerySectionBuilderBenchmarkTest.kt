@@ -0,0 +1,152 @@
+package test.mega.privacy.android.app.gallery.repository.fetcher
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.gallery.repository.fetcher.GallerySectionBuilder
+import mega.privacy.android.app.utils.ZoomUtil
+import org.junit.Assume.assumeTrue
+import org.junit.Before
+import org.junit.Test
+import java.text.SimpleDateFormat
+import java.time.Instant
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.Year
+import java.time.YearMonth
+import java.time.ZoneId
+import java.time.format.DateTimeFormatter
+import java.util.Date
+import java.util.Locale
+
+/**
+ * JVM benchmark of the section headers built by the gallery fetchers, comparing the previous
+ * per node formatting with [GallerySectionBuilder].
+ *
+ * It runs 100k synthetic nodes, newest first and a few per hour, through every zoom level.
+ * Thumbnails and the adapter are left out, as they do not depend on the section building.
+ * Results are printed, not asserted, as timings depend on the machine.
+ *
+ * Opt-in, as it is too slow for every build: run it with `-Pbenchmark`.
+ */
+class GallerySectionBuilderBenchmarkTest {
+
+    private val now = System.currentTimeMillis() / 1000
+    private val modificationTimes = LongArray(NODES) { now - it * SECONDS_BETWEEN_NODES }
+
+    @Before
+    fun setUp() {
+        assumeTrue("Benchmarks only run with -Pbenchmark", java.lang.Boolean.getBoolean("benchmark"))
+    }
+
+    @Test
+    fun `benchmark 100k nodes for every zoom level`() {
+        listOf(
+            ZoomUtil.ZOOM_OUT_2X,
+            ZoomUtil.ZOOM_OUT_1X,
+            ZoomUtil.ZOOM_DEFAULT,
+            ZoomUtil.ZOOM_IN_1X,
+        ).forEach { zoom ->
+            // Warm up both paths so the JIT does not favour the second one
+            repeat(WARM_UP_ITERATIONS) {
+                legacy(zoom)
+                builder(zoom)
+            }
+
+            var legacyHeaders = 0
+            var builderHeaders = 0
+            val legacyNanos = measure { legacyHeaders = legacy(zoom) }
+            val builderNanos = measure { builderHeaders = builder(zoom) }
+
+            println("Zoom $zoom, per node formatting:   ${legacyNanos / NANOS_PER_MILLI} ms")
+            println("Zoom $zoom, GallerySectionBuilder: ${builderNanos / NANOS_PER_MILLI} ms")
+
+            assertThat(builderHeaders).isEqualTo(legacyHeaders)
+        }
+    }
+
+    /**
+     * Builds the sections as the fetchers did before [GallerySectionBuilder].
+     *
+     * @return The number of headers.
+     */
+    private fun legacy(zoom: Int): Int {
+        var lastYearDate: LocalDate? = null
+        var lastMonthDate: LocalDate? = null
+        var lastDayDate: LocalDate? = null
+        var headers = 0
+
+        for (modificationTime in modificationTimes) {
+            val modifyDate = LocalDate.from(
+                LocalDateTime.ofInstant(
+                    Instant.ofEpochSecond(modificationTime),
+                    ZoneId.systemDefault()
+                )
+            )
+            SimpleDateFormat("LLLL yyyy", Locale.getDefault()).format(
+                Date.from(modifyDate.atStartOfDay().atZone(ZoneId.systemDefault()).toInstant())
+            )
+            val sameYear = Year.from(LocalDate.now()) == Year.from(modifyDate)
+
+            when (zoom) {
+                ZoomUtil.ZOOM_OUT_2X -> {
+                    if (lastYearDate == null || Year.from(lastYearDate) != Year.from(modifyDate)) {
+                        lastYearDate = modifyDate
+                        DateTimeFormatter.ofPattern("uuuu").format(modifyDate)
+                        headers++
+                    }
+                }
+                ZoomUtil.ZOOM_IN_1X -> {
+                    if (lastDayDate == null || lastDayDate != modifyDate) {
+                        lastDayDate = modifyDate
+                        DateTimeFormatter.ofPattern("dd MMMM").format(modifyDate)
+                        if (!sameYear) DateTimeFormatter.ofPattern("uuuu").format(modifyDate)
+                        headers++
+                    }
+                }
+                else -> {
+                    if (lastMonthDate == null
+                        || YearMonth.from(lastMonthDate) != YearMonth.from(modifyDate)
+                    ) {
+                        lastMonthDate = modifyDate
+                        SimpleDateFormat("LLLL", Locale.getDefault()).format(
+                            Date.from(
+                                modifyDate.atStartOfDay().atZone(ZoneId.systemDefault())
+                                    .toInstant()
+                            )
+                        )
+                        if (!sameYear) DateTimeFormatter.ofPattern("uuuu").format(modifyDate)
+                        headers++
+                    }
+                }
+            }
+        }
+
+        return headers
+    }
+
+    /**
+     * Builds the sections with [GallerySectionBuilder].
+     *
+     * @return The number of headers.
+     */
+    private fun builder(zoom: Int): Int {
+        val sectionBuilder = GallerySectionBuilder(zoom)
+        var headers = 0
+        for (modificationTime in modificationTimes) {
+            if (sectionBuilder.add(modificationTime) != null) headers++
+        }
+        return headers
+    }
+
+    private fun measure(block: () -> Unit): Long {
+        val start = System.nanoTime()
+        block()
+        return System.nanoTime() - start
+    }
+
+    companion object {
+        private const val NODES = 100_000
+        private const val SECONDS_BETWEEN_NODES = 1_200L
+        private const val WARM_UP_ITERATIONS = 3
+        private const val NANOS_PER_MILLI = 1_000_000
+    }
+}
@@ -0,0 +1,98 @@
+package test.mega.privacy.android.app.gallery.repository.fetcher
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.gallery.repository.fetcher.GallerySectionBuilder
+import mega.privacy.android.app.utils.ZoomUtil
+import org.junit.Test
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.ZoneOffset
+import java.util.Locale
+
+class GallerySectionBuilderTest {
+
+    private val today = LocalDate.of(2022, 10, 18)
+
+    private fun underTest(zoom: Int) =
+        GallerySectionBuilder(zoom, Locale.UK, ZoneOffset.UTC, today)
+
+    private fun seconds(year: Int, month: Int, day: Int, hour: Int = 12) =
+        LocalDateTime.of(year, month, day, hour, 0).toEpochSecond(ZoneOffset.UTC)
+
+    @Test
+    fun `test that a month header is added once per month`() {
+        val builder = underTest(ZoomUtil.ZOOM_DEFAULT)
+
+        val headers = listOf(
+            seconds(2022, 10, 18),
+            seconds(2022, 10, 2),
+            seconds(2022, 9, 30),
+            seconds(2021, 9, 30),
+        ).map { builder.add(it) }
+
+        assertThat(headers[1]).isNull()
+        assertThat(headers[0]?.date).isEqualTo(Pair("October", ""))
+        assertThat(headers[2]?.date).isEqualTo(Pair("September", ""))
+        assertThat(headers[3]?.date).isEqualTo(Pair("September", "2021"))
+        assertThat(headers[3]?.modifyDate).isEqualTo("September 2021")
+    }
+
+    @Test
+    fun `test that a year header is added once per year`() {
+        val builder = underTest(ZoomUtil.ZOOM_OUT_2X)
+
+        val headers = listOf(
+            seconds(2022, 10, 18),
+            seconds(2022, 1, 1),
+            seconds(2021, 12, 31),
+        ).mapNotNull { builder.add(it) }
+
+        assertThat(headers.map { it.date }).containsExactly(Pair("2022", ""), Pair("2021", ""))
+            .inOrder()
+    }
+
+    @Test
+    fun `test that a day header is added for the same day of another year`() {
+        val builder = underTest(ZoomUtil.ZOOM_IN_1X)
+
+        val headers = listOf(
+            seconds(2022, 10, 18, hour = 20),
+            seconds(2022, 10, 18, hour = 8),
+            seconds(2021, 10, 18),
+        ).mapNotNull { builder.add(it) }
+
+        assertThat(headers.map { it.date })
+            .containsExactly(Pair("18 October", ""), Pair("18 October", "2021")).inOrder()
+    }
+
+    @Test
+    fun `test that the modify date follows the last added node`() {
+        val builder = underTest(ZoomUtil.ZOOM_OUT_2X)
+
+        builder.add(seconds(2022, 10, 18))
+        builder.add(seconds(2022, 3, 1))
+
+        assertThat(builder.modifyDate).isEqualTo("March 2022")
+    }
+
+    @Test
+    fun `test that header keys are stable and unique`() {
+        val times = listOf(
+            seconds(2022, 10, 18),
+            seconds(2022, 9, 1),
+            // Same month again, as when images are sorted before videos
+            seconds(2022, 10, 1),
+        )
+
+        val keys = underTest(ZoomUtil.ZOOM_DEFAULT).let { builder ->
+            times.mapNotNull { builder.add(it)?.key }
+        }
+        val rebuiltKeys = underTest(ZoomUtil.ZOOM_DEFAULT).let { builder ->
+            times.mapNotNull { builder.add(it)?.key }
+        }
+
+        assertThat(keys).hasSize(3)
+        assertThat(keys).containsNoDuplicates()
+        assertThat(rebuiltKeys).isEqualTo(keys)
+    }
+}
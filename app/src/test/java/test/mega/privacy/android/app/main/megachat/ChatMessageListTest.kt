@@ -0,0 +1,190 @@
+package test.mega.privacy.android.app.main.megachat
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.main.megachat.AndroidMegaChatMessage
+import mega.privacy.android.app.main.megachat.ChatMessageList
+import mega.privacy.android.app.main.megachat.PendingMessageSingle
+import mega.privacy.android.app.utils.Constants.INVALID_POSITION
+import nz.mega.sdk.MegaChatApiJava.MEGACHAT_INVALID_HANDLE
+import nz.mega.sdk.MegaChatMessage
+import org.junit.Before
+import org.junit.Test
+import org.mockito.kotlin.inOrder
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.verify
+
+/**
+ * Unit tests for ChatMessageList class.
+ */
+class ChatMessageListTest {
+
+    private lateinit var underTest: ChatMessageList
+
+    @Before
+    fun setUp() {
+        underTest = ChatMessageList((1..5).map { message(msgId = it * 10L, msgIndex = it) })
+    }
+
+    @Test
+    fun `test that messages are found by msgId`() {
+        assertThat(underTest.findPositionByMsgId(30L)).isEqualTo(2)
+        assertThat(underTest.findPositionByMsgId(35L)).isEqualTo(INVALID_POSITION)
+        assertThat(underTest.findPositionByMsgId(MEGACHAT_INVALID_HANDLE)).isEqualTo(INVALID_POSITION)
+    }
+
+    @Test
+    fun `test that messages are found by tempId`() {
+        underTest.add(message(msgId = MEGACHAT_INVALID_HANDLE, tempId = 99L, msgIndex = 6))
+
+        assertThat(underTest.findPositionByTempId(99L)).isEqualTo(5)
+        assertThat(underTest.findPositionToUpdate(mockMessage(msgId = 60L, tempId = 99L), true))
+            .isEqualTo(5)
+        assertThat(underTest.findPositionToUpdate(mockMessage(msgId = 60L, tempId = 99L), false))
+            .isEqualTo(INVALID_POSITION)
+    }
+
+    @Test
+    fun `test that positions are updated when messages are added and removed`() {
+        assertThat(underTest.findPositionByMsgId(50L)).isEqualTo(4)
+
+        underTest.add(2, message(msgId = 25L, msgIndex = 3))
+        assertThat(underTest.findPositionByMsgId(25L)).isEqualTo(2)
+        assertThat(underTest.findPositionByMsgId(50L)).isEqualTo(5)
+
+        underTest.removeAt(0)
+        assertThat(underTest.findPositionByMsgId(10L)).isEqualTo(INVALID_POSITION)
+        assertThat(underTest.findPositionByMsgId(25L)).isEqualTo(1)
+        assertThat(underTest.findPositionByMsgId(50L)).isEqualTo(4)
+    }
+
+    @Test
+    fun `test that positions are updated when messages are replaced`() {
+        assertThat(underTest.findPositionByMsgId(20L)).isEqualTo(1)
+
+        underTest[1] = message(msgId = 21L, msgIndex = 2)
+
+        assertThat(underTest.findPositionByMsgId(20L)).isEqualTo(INVALID_POSITION)
+        assertThat(underTest.findPositionByMsgId(21L)).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that positions are rebuilt after bulk changes`() {
+        underTest.addAll(0, listOf(message(msgId = 1L, msgIndex = 0)))
+        assertThat(underTest.findPositionByMsgId(50L)).isEqualTo(5)
+
+        underTest.clear()
+        assertThat(underTest.findPositionByMsgId(50L)).isEqualTo(INVALID_POSITION)
+    }
+
+    @Test
+    fun `test that positions are rebuilt after many insertions at the beginning`() {
+        repeat(100) { underTest.add(0, message(msgId = 1000L + it, msgIndex = -it)) }
+
+        assertThat(underTest.findPositionByMsgId(1000L)).isEqualTo(99)
+        assertThat(underTest.findPositionByMsgId(50L)).isEqualTo(104)
+    }
+
+    @Test
+    fun `test that uploading messages are not found by id`() {
+        underTest.add(AndroidMegaChatMessage(mock<PendingMessageSingle>(), true))
+
+        assertThat(underTest.findPositionByMsgId(50L)).isEqualTo(4)
+        assertThat(underTest.findPositionToInsert(6)).isEqualTo(5)
+    }
+
+    @Test
+    fun `test that pending messages are found by pending message id`() {
+        underTest.add(AndroidMegaChatMessage(pendingMessage(id = 7L), true))
+        underTest.add(AndroidMegaChatMessage(pendingMessage(id = 8L), false))
+
+        assertThat(underTest.findPositionByPendingMessageId(7L)).isEqualTo(5)
+        assertThat(underTest.findPositionByPendingMessageId(8L)).isEqualTo(6)
+        assertThat(underTest.findPositionByPendingMessageId(9L)).isEqualTo(INVALID_POSITION)
+
+        underTest.removeAt(5)
+        assertThat(underTest.findPositionByPendingMessageId(7L)).isEqualTo(INVALID_POSITION)
+        assertThat(underTest.findPositionByPendingMessageId(8L)).isEqualTo(5)
+    }
+
+    @Test
+    fun `test that an insertion reports the inserted message and its neighbours`() {
+        val listener = mock<ChatMessageList.OnChangeListener>()
+        underTest.setOnChangeListener(listener)
+
+        underTest.add(2, message(msgId = 25L, msgIndex = 3))
+
+        inOrder(listener) {
+            verify(listener).onRangeInserted(2, 1)
+            verify(listener).onRangeChanged(1, 1)
+            verify(listener).onRangeChanged(3, 1)
+            verifyNoMoreInteractions()
+        }
+    }
+
+    @Test
+    fun `test that a removal reports the removed message and its neighbours`() {
+        val listener = mock<ChatMessageList.OnChangeListener>()
+        underTest.setOnChangeListener(listener)
+
+        underTest.removeAt(2)
+        underTest.removeAt(3)
+
+        inOrder(listener) {
+            verify(listener).onRangeRemoved(2, 1)
+            verify(listener).onRangeChanged(1, 2)
+            verify(listener).onRangeRemoved(3, 1)
+            verify(listener).onRangeChanged(2, 1)
+            verifyNoMoreInteractions()
+        }
+    }
+
+    @Test
+    fun `test that replacements and bulk changes report their ranges`() {
+        val listener = mock<ChatMessageList.OnChangeListener>()
+        underTest.setOnChangeListener(listener)
+
+        underTest[1] = message(msgId = 21L, msgIndex = 2)
+        underTest.addAll(listOf(message(msgId = 60L, msgIndex = 6), message(msgId = 70L, msgIndex = 7)))
+        underTest.clear()
+
+        inOrder(listener) {
+            verify(listener).onRangeChanged(1, 1)
+            verify(listener).onRangeInserted(5, 2)
+            verify(listener).onRangeChanged(4, 1)
+            verify(listener).onRangeRemoved(0, 7)
+            verifyNoMoreInteractions()
+        }
+    }
+
+    @Test
+    fun `test that the position to insert follows the msgIndex order`() {
+        assertThat(underTest.findPositionToInsert(0)).isEqualTo(0)
+        assertThat(underTest.findPositionToInsert(3)).isEqualTo(3)
+        assertThat(underTest.findPositionToInsert(9)).isEqualTo(5)
+    }
+
+    @Test
+    fun `test that the position to insert is found when the messages are not in order`() {
+        underTest.add(message(msgId = 60L, msgIndex = 2))
+
+        assertThat(underTest.findPositionToInsert(4)).isEqualTo(6)
+        assertThat(underTest.findPositionToInsert(1)).isEqualTo(1)
+    }
+
+    private fun message(
+        msgId: Long,
+        msgIndex: Int,
+        tempId: Long = MEGACHAT_INVALID_HANDLE,
+    ) = AndroidMegaChatMessage(mockMessage(msgId, tempId, msgIndex))
+
+    private fun pendingMessage(id: Long) = mock<PendingMessageSingle> {
+        on { getId() }.thenReturn(id)
+    }
+
+    private fun mockMessage(msgId: Long, tempId: Long, msgIndex: Int = 0) =
+        mock<MegaChatMessage> {
+            on { this.msgId }.thenReturn(msgId)
+            on { this.tempId }.thenReturn(tempId)
+            on { this.msgIndex }.thenReturn(msgIndex)
+        }
+}
@@ -0,0 +1,153 @@
+package test.mega.privacy.android.app.main.megachat.chatAdapters
+
+import android.graphics.Bitmap
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.test.StandardTestDispatcher
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.advanceUntilIdle
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.app.main.megachat.chatAdapters.ChatPreviewLoader
+import org.junit.Before
+import org.junit.Test
+import org.mockito.kotlin.mock
+
+/**
+ * Unit tests for ChatPreviewLoader class.
+ */
+@OptIn(ExperimentalCoroutinesApi::class)
+class ChatPreviewLoaderTest {
+
+    private lateinit var underTest: ChatPreviewLoader
+
+    private val dispatcher = StandardTestDispatcher()
+    private val testScope = TestScope(dispatcher)
+    private val preview = mock<Bitmap>()
+    private val loadedKeys = mutableListOf<String>()
+
+    @Before
+    fun setUp() {
+        underTest = ChatPreviewLoader(
+            scope = CoroutineScope(SupervisorJob() + dispatcher),
+            ioDispatcher = dispatcher,
+            maxParallelLoads = 1,
+        )
+    }
+
+    @Test
+    fun `test that the requests for the same preview share the load`() = testScope.runTest {
+        val results = mutableListOf<Bitmap?>()
+
+        underTest.load(OWNER, KEY, task(KEY)) { results.add(it) }
+        underTest.load(OTHER_OWNER, KEY, task(KEY)) { results.add(it) }
+        advanceUntilIdle()
+
+        assertThat(loadedKeys).containsExactly(KEY)
+        assertThat(results).containsExactly(preview, preview)
+    }
+
+    @Test
+    fun `test that a new request of an owner cancels the previous one`() = testScope.runTest {
+        val results = mutableListOf<String>()
+
+        underTest.load(OWNER, KEY, task(KEY)) { results.add(KEY) }
+        underTest.load(OWNER, OTHER_KEY, task(OTHER_KEY)) { results.add(OTHER_KEY) }
+        advanceUntilIdle()
+
+        assertThat(loadedKeys).containsExactly(OTHER_KEY)
+        assertThat(results).containsExactly(OTHER_KEY)
+    }
+
+    @Test
+    fun `test that a new request of an owner for the same preview keeps the load`() =
+        testScope.runTest {
+            underTest = ChatPreviewLoader(
+                scope = CoroutineScope(SupervisorJob() + dispatcher),
+                ioDispatcher = UnconfinedTestDispatcher(testScheduler),
+                maxParallelLoads = 1,
+            )
+            val results = mutableListOf<String>()
+
+            underTest.load(OWNER, KEY, task(KEY)) { results.add("first") }
+            underTest.load(OWNER, KEY, task(KEY)) { results.add("second") }
+            advanceUntilIdle()
+
+            assertThat(loadedKeys).containsExactly(KEY)
+            assertThat(results).containsExactly("second")
+        }
+
+    @Test
+    fun `test that a cancelled request is not notified`() = testScope.runTest {
+        var notified = false
+
+        underTest.load(OWNER, KEY, task(KEY)) { notified = true }
+        underTest.cancel(OWNER)
+        advanceUntilIdle()
+
+        assertThat(loadedKeys).isEmpty()
+        assertThat(notified).isFalse()
+    }
+
+    @Test
+    fun `test that a shared load continues while another owner waits for it`() =
+        testScope.runTest {
+            var notified = false
+
+            underTest.load(OWNER, KEY, task(KEY)) {}
+            underTest.load(OTHER_OWNER, KEY, task(KEY)) { notified = true }
+            underTest.cancel(OWNER)
+            advanceUntilIdle()
+
+            assertThat(loadedKeys).containsExactly(KEY)
+            assertThat(notified).isTrue()
+        }
+
+    @Test
+    fun `test that a preview is loaded again after the previous load finished`() =
+        testScope.runTest {
+            underTest.load(OWNER, KEY, task(KEY)) {}
+            advanceUntilIdle()
+            underTest.load(OWNER, KEY, task(KEY)) {}
+            advanceUntilIdle()
+
+            assertThat(loadedKeys).containsExactly(KEY, KEY)
+        }
+
+    @Test
+    fun `test that a failed load is notified as no preview`() = testScope.runTest {
+        val results = mutableListOf<Bitmap?>()
+
+        underTest.load(OWNER, KEY, { throw IllegalStateException() }) { results.add(it) }
+        advanceUntilIdle()
+
+        assertThat(results).containsExactly(null)
+    }
+
+    @Test
+    fun `test that cancel all cancels the pending requests`() = testScope.runTest {
+        var notified = false
+
+        underTest.load(OWNER, KEY, task(KEY)) { notified = true }
+        underTest.load(OTHER_OWNER, OTHER_KEY, task(OTHER_KEY)) { notified = true }
+        underTest.cancelAll()
+        advanceUntilIdle()
+
+        assertThat(loadedKeys).isEmpty()
+        assertThat(notified).isFalse()
+    }
+
+    private fun task(key: String) = ChatPreviewLoader.PreviewTask {
+        loadedKeys.add(key)
+        preview
+    }
+
+    companion object {
+        private const val OWNER = "owner"
+        private const val OTHER_OWNER = "otherOwner"
+        private const val KEY = "preview/1"
+        private const val OTHER_KEY = "preview/2"
+    }
+}
@@ -0,0 +1,54 @@
+package test.mega.privacy.android.app.mediaplayer.service
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.mediaplayer.service.PlaylistWindow
+import org.junit.Test
+
+/**
+ * Unit tests for PlaylistWindow class.
+ */
+class PlaylistWindowTest {
+
+    private val underTest = PlaylistWindow(radius = 2)
+
+    @Test
+    fun `test that the items around the playing one are materialized`() {
+        assertThat(underTest.contains(position = 8, playingPosition = 10)).isTrue()
+        assertThat(underTest.contains(position = 12, playingPosition = 10)).isTrue()
+        assertThat(underTest.contains(position = 7, playingPosition = 10)).isFalse()
+        assertThat(underTest.contains(position = 13, playingPosition = 10)).isFalse()
+    }
+
+    @Test
+    fun `test that the items around the visible ones are materialized`() {
+        underTest.setVisibleRange(first = 100, last = 110)
+
+        assertThat(underTest.contains(position = 98, playingPosition = 0)).isTrue()
+        assertThat(underTest.contains(position = 112, playingPosition = 0)).isTrue()
+        assertThat(underTest.contains(position = 113, playingPosition = 0)).isFalse()
+        assertThat(underTest.contains(position = 50, playingPosition = 0)).isFalse()
+    }
+
+    @Test
+    fun `test that reset visible range only keeps the items around the playing one`() {
+        underTest.setVisibleRange(first = 100, last = 110)
+        underTest.resetVisibleRange()
+
+        assertThat(underTest.contains(position = 105, playingPosition = 0)).isFalse()
+        assertThat(underTest.contains(position = 1, playingPosition = 0)).isTrue()
+    }
+
+    @Test
+    fun `test that invalid visible ranges are ignored`() {
+        underTest.setVisibleRange(first = -1, last = -1)
+
+        assertThat(underTest.contains(position = 0, playingPosition = 10)).isFalse()
+    }
+
+    @Test
+    fun `test that the range around the playing item is bounded by the playlist`() {
+        assertThat(underTest.around(playingPosition = 0, size = 10)).isEqualTo(0..2)
+        assertThat(underTest.around(playingPosition = 9, size = 10)).isEqualTo(7..9)
+        assertThat(underTest.around(playingPosition = 5, size = 10)).isEqualTo(3..7)
+    }
+}
@@ -0,0 +1,132 @@
+package test.mega.privacy.android.app.search.index
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.search.index.NodeNameIndex
+import org.junit.Before
+import org.junit.Test
+
+/**
+ * Unit tests for NodeNameIndex class.
+ */
+class NodeNameIndexTest {
+
+    private lateinit var underTest: NodeNameIndex
+
+    @Before
+    fun setUp() {
+        underTest = NodeNameIndex().apply {
+            put(ROOT, "Cloud Drive", NO_PARENT)
+            put(1L, "Photos", ROOT)
+            put(2L, "Holiday photo.jpg", 1L)
+            put(3L, "Report.pdf", ROOT)
+            put(4L, "Old photos", 5L)
+            put(5L, "Rubbish Bin", NO_PARENT)
+        }
+    }
+
+    @Test
+    fun `test that search finds the names containing the query ignoring case`() {
+        assertThat(underTest.search("PHOTO")).containsExactly(1L, 2L, 4L)
+    }
+
+    @Test
+    fun `test that short queries are found`() {
+        assertThat(underTest.search("p")).containsExactly(1L, 2L, 3L, 4L)
+    }
+
+    @Test
+    fun `test that prefix search only finds the names starting with the query`() {
+        assertThat(underTest.search("pho", prefix = true)).containsExactly(1L)
+    }
+
+    @Test
+    fun `test that extending a query narrows down the previous result`() {
+        assertThat(underTest.search("ph")).containsExactly(1L, 2L, 4L)
+        assertThat(underTest.search("pho")).containsExactly(1L, 2L, 4L)
+        assertThat(underTest.search("photo.")).containsExactly(2L)
+        assertThat(underTest.search("photo.x")).isEmpty()
+    }
+
+    @Test
+    fun `test that nodes added after a query are found when extending it`() {
+        underTest.search("pho")
+        underTest.put(6L, "Photo album", ROOT)
+
+        assertThat(underTest.search("phot")).containsExactly(1L, 2L, 4L, 6L)
+    }
+
+    @Test
+    fun `test that renamed nodes are found by their new name only`() {
+        underTest.put(3L, "Invoice.pdf", ROOT)
+
+        assertThat(underTest.search("report")).isEmpty()
+        assertThat(underTest.search("invoice")).containsExactly(3L)
+        assertThat(underTest.size).isEqualTo(6)
+    }
+
+    @Test
+    fun `test that removed nodes are not found`() {
+        underTest.remove(2L)
+
+        assertThat(underTest.search("photo")).containsExactly(1L, 4L)
+        assertThat(underTest.size).isEqualTo(5)
+    }
+
+    @Test
+    fun `test that moved nodes keep their name and change their parent`() {
+        underTest.put(2L, "Holiday photo.jpg", ROOT)
+
+        assertThat(underTest.getParent(2L)).isEqualTo(ROOT)
+        assertThat(underTest.search("holiday")).containsExactly(2L)
+    }
+
+    @Test
+    fun `test that is in subtree checks the ancestors of the node`() {
+        assertThat(underTest.isInSubtree(2L, setOf(ROOT), includeRoots = false)).isTrue()
+        assertThat(underTest.isInSubtree(4L, setOf(ROOT), includeRoots = false)).isFalse()
+        assertThat(underTest.isInSubtree(1L, setOf(1L), includeRoots = false)).isFalse()
+        assertThat(underTest.isInSubtree(1L, setOf(1L), includeRoots = true)).isTrue()
+    }
+
+    @Test
+    fun `test that search in subtrees only finds the nodes under the roots`() {
+        assertThat(underTest.search("photo", setOf(ROOT), includeRoots = false))
+            .containsExactly(1L, 2L)
+        assertThat(underTest.search("photo", setOf(1L), includeRoots = false))
+            .containsExactly(2L)
+        assertThat(underTest.search("photo", setOf(1L, 5L), includeRoots = true))
+            .containsExactly(1L, 2L, 4L)
+    }
+
+    @Test
+    fun `test that search in subtrees follows moved nodes`() {
+        underTest.put(1L, "Photos", 5L)
+
+        assertThat(underTest.search("photo", setOf(ROOT), includeRoots = false)).isEmpty()
+        assertThat(underTest.search("photo", setOf(5L), includeRoots = false))
+            .containsExactly(1L, 2L, 4L)
+    }
+
+    @Test
+    fun `test that clear removes all the nodes`() {
+        underTest.clear()
+
+        assertThat(underTest.size).isEqualTo(0)
+        assertThat(underTest.search("photo")).isEmpty()
+    }
+
+    @Test
+    fun `test that nodes are still found after the stale entries are compacted`() {
+        repeat(3000) { underTest.put(100L + it, "file $it.txt", ROOT) }
+        repeat(3000) { underTest.remove(100L + it) }
+
+        assertThat(underTest.search("file")).isEmpty()
+        assertThat(underTest.search("photo")).containsExactly(1L, 2L, 4L)
+        assertThat(underTest.size).isEqualTo(6)
+    }
+
+    companion object {
+        private const val ROOT = 10L
+        private const val NO_PARENT = -1L
+    }
+}
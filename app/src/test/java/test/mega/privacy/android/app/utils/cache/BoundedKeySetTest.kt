@@ -0,0 +1,49 @@
+package test.mega.privacy.android.app.utils.cache
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.utils.cache.BoundedKeySet
+import org.junit.Test
+
+/**
+ * Unit tests for BoundedKeySet class.
+ */
+class BoundedKeySetTest {
+
+    @Test
+    fun `test that added keys are contained`() {
+        val underTest = BoundedKeySet<Long>(3)
+
+        underTest.add(1L)
+        underTest.add(2L)
+
+        assertThat(1L in underTest).isTrue()
+        assertThat(2L in underTest).isTrue()
+        assertThat(3L in underTest).isFalse()
+    }
+
+    @Test
+    fun `test that the least recently used key is dropped when full`() {
+        val underTest = BoundedKeySet<Long>(2)
+
+        underTest.add(1L)
+        underTest.add(2L)
+        assertThat(1L in underTest).isTrue()
+        underTest.add(3L)
+
+        assertThat(underTest.size).isEqualTo(2)
+        assertThat(1L in underTest).isTrue()
+        assertThat(2L in underTest).isFalse()
+        assertThat(3L in underTest).isTrue()
+    }
+
+    @Test
+    fun `test that removed keys are no longer contained`() {
+        val underTest = BoundedKeySet<String>(2)
+
+        underTest.add("key")
+        underTest.remove("key")
+
+        assertThat("key" in underTest).isFalse()
+        assertThat(underTest.size).isEqualTo(0)
+    }
+}
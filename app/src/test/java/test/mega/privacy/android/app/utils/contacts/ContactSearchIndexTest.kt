@@ -0,0 +1,98 @@
+package test.mega.privacy.android.app.utils.contacts
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.utils.contacts.ContactSearchIndex
+import org.junit.Before
+import org.junit.Test
+
+/**
+ * Unit tests for ContactSearchIndex class.
+ */
+class ContactSearchIndexTest {
+
+    private lateinit var underTest: ContactSearchIndex<Contact>
+
+    private val providedContacts = mutableListOf<Contact>()
+
+    private val jose = Contact("José Álvarez", "jose@mega.nz", "+34 600 111 222")
+    private val maria = Contact("María López", "maria@mega.nz", null)
+    private val john = Contact("John Smith", "smith@mega.nz", "+44 700 333 444")
+    private val contacts = listOf(jose, maria, john)
+
+    @Before
+    fun setUp() {
+        underTest = ContactSearchIndex { contact ->
+            providedContacts.add(contact)
+            listOf(contact.name, contact.email, contact.phone)
+        }
+    }
+
+    @Test
+    fun `test that the search ignores case and accents`() {
+        assertThat(underTest.search(contacts, "ALVAREZ")).containsExactly(jose)
+        assertThat(underTest.search(contacts, "lópez")).containsExactly(maria)
+        assertThat(underTest.search(contacts, "lopez")).containsExactly(maria)
+    }
+
+    @Test
+    fun `test that the search finds the query anywhere in the names, emails and phone numbers`() {
+        assertThat(underTest.search(contacts, "mit")).containsExactly(john)
+        assertThat(underTest.search(contacts, "@mega")).containsExactly(jose, maria, john).inOrder()
+        assertThat(underTest.search(contacts, "111")).containsExactly(jose)
+    }
+
+    @Test
+    fun `test that the prefix search only finds the query at the beginning of a word`() {
+        assertThat(underTest.search(contacts, "mit", prefix = true)).isEmpty()
+        assertThat(underTest.search(contacts, "smi", prefix = true)).containsExactly(john)
+        assertThat(underTest.search(contacts, "mega", prefix = true))
+            .containsExactly(jose, maria, john)
+    }
+
+    @Test
+    fun `test that an empty query finds all the contacts`() {
+        assertThat(underTest.search(contacts, "")).containsExactly(jose, maria, john).inOrder()
+    }
+
+    @Test
+    fun `test that the fields are normalized only once`() {
+        underTest.prepare(contacts)
+        underTest.search(contacts, "a")
+        underTest.search(contacts, "b")
+
+        assertThat(providedContacts).containsExactly(jose, maria, john)
+    }
+
+    @Test
+    fun `test that extending the query narrows down the previous result`() {
+        assertThat(underTest.search(contacts, "m")).containsExactly(jose, maria, john)
+        assertThat(underTest.search(contacts, "ma")).containsExactly(maria)
+        assertThat(underTest.search(contacts, "mar")).containsExactly(maria)
+        assertThat(underTest.search(contacts, "ja")).isEmpty()
+    }
+
+    @Test
+    fun `test that contacts added after a search are found when extending the query`() {
+        val ana = Contact("Mariana", "ana@mega.nz", null)
+
+        underTest.search(contacts, "ma")
+        assertThat(underTest.search(contacts + ana, "mar")).containsExactly(maria, ana)
+    }
+
+    @Test
+    fun `test that a single contact is matched`() {
+        assertThat(underTest.matches(jose, "JOSÉ")).isTrue()
+        assertThat(underTest.matches(jose, "maria")).isFalse()
+    }
+
+    @Test
+    fun `test that cleared contacts are normalized again`() {
+        underTest.prepare(contacts)
+        underTest.clear()
+        underTest.prepare(contacts)
+
+        assertThat(providedContacts).hasSize(6)
+    }
+
+    data class Contact(val name: String, val email: String, val phone: String?)
+}
@@ -0,0 +1,152 @@
+package test.mega.privacy.android.app.zippreview.domain
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.app.zippreview.domain.DefaultZipFileRepository
+import mega.privacy.android.app.zippreview.domain.FileType
+import mega.privacy.android.data.gateway.CacheFolderGateway
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.whenever
+import java.io.ByteArrayOutputStream
+import java.io.File
+import java.io.FileOutputStream
+import java.io.OutputStream
+import java.util.zip.ZipEntry
+import java.util.zip.ZipFile
+import java.util.zip.ZipOutputStream
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class DefaultZipFileRepositoryTest {
+
+    @get:Rule
+    val temporaryFolder = TemporaryFolder()
+
+    private lateinit var underTest: DefaultZipFileRepository
+
+    private lateinit var cacheFolder: File
+
+    private val cacheFolderGateway = mock<CacheFolderGateway>()
+
+    @Before
+    fun setUp() {
+        cacheFolder = temporaryFolder.newFolder("cache")
+        whenever(cacheFolderGateway.getCacheFolder(any())).thenReturn(cacheFolder)
+        underTest = DefaultZipFileRepository(UnconfinedTestDispatcher(), cacheFolderGateway)
+    }
+
+    private fun writeZip(outputStream: OutputStream, entries: Map<String, ByteArray>) {
+        ZipOutputStream(outputStream).use { zip ->
+            entries.forEach { (name, content) ->
+                zip.putNextEntry(ZipEntry(name))
+                zip.write(content)
+                zip.closeEntry()
+            }
+        }
+    }
+
+    private fun createZip(entries: Map<String, ByteArray>): ZipFile {
+        val file = temporaryFolder.newFile("archive.zip")
+        writeZip(FileOutputStream(file), entries)
+        return ZipFile(file)
+    }
+
+    private fun cachedFiles() = cacheFolder.walkTopDown().filter { it.isFile }.toList()
+
+    @Test
+    fun `test that only the opened entry is extracted`() = runTest {
+        val zipFile = createZip(
+            mapOf(
+                "docs/a.txt" to "first".toByteArray(),
+                "docs/b.txt" to "second".toByteArray(),
+            )
+        )
+        underTest.initZipTreeNode(zipFile)
+
+        val file = underTest.extractEntry("docs/b.txt")
+
+        assertThat(file?.readText()).isEqualTo("second")
+        assertThat(file?.name).isEqualTo("b.txt")
+        assertThat(cachedFiles()).containsExactly(file)
+    }
+
+    @Test
+    fun `test that an extracted entry is returned without extracting it again`() = runTest {
+        val zipFile = createZip(mapOf("a.txt" to "zip content".toByteArray()))
+        underTest.initZipTreeNode(zipFile)
+
+        assertThat(underTest.getExtractedEntry("a.txt")).isNull()
+        underTest.extractEntry("a.txt")?.writeText("cached content")
+
+        assertThat(underTest.getExtractedEntry("a.txt")?.readText()).isEqualTo("cached content")
+        assertThat(underTest.extractEntry("a.txt")?.readText()).isEqualTo("cached content")
+    }
+
+    @Test
+    fun `test that entries outside of the archive are not extracted`() = runTest {
+        val zipFile = createZip(mapOf("../outside.txt" to "content".toByteArray()))
+        underTest.initZipTreeNode(zipFile)
+
+        assertThat(underTest.extractEntry("../outside.txt")).isNull()
+        assertThat(File(cacheFolder, "outside.txt").exists()).isFalse()
+    }
+
+    @Test
+    fun `test that a nested zip file is browsed from the parent tree`() = runTest {
+        val nested = ByteArrayOutputStream().also {
+            writeZip(it, mapOf("inner/c.txt" to "nested".toByteArray()))
+        }.toByteArray()
+        val zipFile = createZip(
+            mapOf(
+                "a.txt" to "first".toByteArray(),
+                "folder/nested.zip" to nested,
+            )
+        )
+        underTest.initZipTreeNode(zipFile)
+
+        assertThat(underTest.openNestedZip("folder/nested.zip")).isTrue()
+
+        val nestedChildren = underTest.updateZipInfoList(zipFile, "folder/nested.zip")
+        assertThat(nestedChildren.map { it.path }).containsExactly("folder/nested.zip/inner")
+        assertThat(nestedChildren.single().fileType).isEqualTo(FileType.FOLDER)
+
+        val innerChildren = underTest.updateZipInfoList(zipFile, "folder/nested.zip/inner/")
+        assertThat(innerChildren.map { it.name }).containsExactly("c.txt")
+        assertThat(underTest.extractEntry("folder/nested.zip/inner/c.txt")?.readText())
+            .isEqualTo("nested")
+
+        val parentList = underTest.getParentZipInfoList("folder/nested.zip/inner/c.txt", false)
+        assertThat(parentList.map { it.path }).containsExactly("folder/nested.zip/inner")
+    }
+
+    @Test
+    fun `test that a reopened nested zip file reads its entries from the cache`() = runTest {
+        val nested = ByteArrayOutputStream().also {
+            writeZip(it, mapOf("c.txt" to "nested".toByteArray()))
+        }.toByteArray()
+        val zipFile = createZip(mapOf("nested.zip" to nested))
+        underTest.initZipTreeNode(zipFile)
+        underTest.openNestedZip("nested.zip")
+        underTest.extractEntry("nested.zip/c.txt")?.writeText("cached content")
+
+        underTest.initZipTreeNode(ZipFile(zipFile.name))
+        underTest.openNestedZip("nested.zip")
+
+        assertThat(underTest.getExtractedEntry("nested.zip/c.txt")?.readText())
+            .isEqualTo("cached content")
+    }
+
+    @Test
+    fun `test that a corrupted nested zip file cannot be browsed`() = runTest {
+        val zipFile = createZip(mapOf("broken.zip" to "not a zip".toByteArray()))
+        underTest.initZipTreeNode(zipFile)
+
+        assertThat(underTest.openNestedZip("broken.zip")).isFalse()
+    }
+}
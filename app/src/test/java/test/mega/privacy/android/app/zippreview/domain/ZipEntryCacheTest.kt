@@ -0,0 +1,75 @@
+package test.mega.privacy.android.app.zippreview.domain
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.zippreview.domain.ZipEntryCache
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+
+class ZipEntryCacheTest {
+
+    @get:Rule
+    val temporaryFolder = TemporaryFolder()
+
+    private lateinit var folder: File
+
+    @Before
+    fun setUp() {
+        folder = temporaryFolder.newFolder()
+    }
+
+    private fun createEntry(path: String, size: Int) = File(folder, path).apply {
+        parentFile?.mkdirs()
+        writeBytes(ByteArray(size))
+    }
+
+    @Test
+    fun `test that an entry which is not extracted is not returned`() {
+        val underTest = ZipEntryCache(folder, 100)
+
+        assertThat(underTest.get(File(folder, "a.txt"))).isNull()
+    }
+
+    @Test
+    fun `test that the least recently opened entries are deleted when the size is exceeded`() {
+        val underTest = ZipEntryCache(folder, 100)
+        val first = createEntry("a/1.txt", 40).also { underTest.put(it) }
+        val second = createEntry("a/2.txt", 40).also { underTest.put(it) }
+
+        underTest.get(first)
+        val third = createEntry("b/3.txt", 40).also { underTest.put(it) }
+
+        assertThat(first.exists()).isTrue()
+        assertThat(second.exists()).isFalse()
+        assertThat(third.exists()).isTrue()
+        assertThat(underTest.currentSize).isEqualTo(80)
+    }
+
+    @Test
+    fun `test that an entry larger than the cache is kept until the next one`() {
+        val underTest = ZipEntryCache(folder, 100)
+        val large = createEntry("a/large.bin", 150).also { underTest.put(it) }
+
+        assertThat(underTest.get(large)).isEqualTo(large)
+
+        createEntry("b/small.txt", 10).also { underTest.put(it) }
+
+        assertThat(large.exists()).isFalse()
+        assertThat(File(folder, "a").exists()).isFalse()
+    }
+
+    @Test
+    fun `test that entries extracted before are loaded and parts are deleted`() {
+        val old = createEntry("a/old.txt", 60).apply { setLastModified(1_000L) }
+        val part = createEntry("a/new.txt${ZipEntryCache.SUFFIX_PART}", 60)
+        val underTest = ZipEntryCache(folder, 100)
+
+        createEntry("a/new.txt", 60).also { underTest.put(it) }
+
+        assertThat(part.exists()).isFalse()
+        assertThat(old.exists()).isFalse()
+        assertThat(underTest.currentSize).isEqualTo(60)
+    }
+}
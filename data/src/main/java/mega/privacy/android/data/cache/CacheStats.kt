@@ -0,0 +1,90 @@
+package mega.privacy.android.data.cache
+
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Hit, miss and eviction counters of a cache, either a bitmap cache or a folder managed by the
+ * [DiskCacheManager].
+ *
+ * Counters are updated from any thread and only read for logging, so they are not
+ * snapshotted atomically as a whole.
+ */
+class CacheStats {
+    private val hits = AtomicLong()
+    private val negativeHits = AtomicLong()
+    private val misses = AtomicLong()
+    private val evictions = AtomicLong()
+    private val evictedBytes = AtomicLong()
+
+    /**
+     * Number of lookups served from memory.
+     */
+    val hitCount: Long
+        get() = hits.get()
+
+    /**
+     * Number of lookups answered by the negative-lookup set.
+     */
+    val negativeHitCount: Long
+        get() = negativeHits.get()
+
+    /**
+     * Number of lookups that found nothing.
+     */
+    val missCount: Long
+        get() = misses.get()
+
+    /**
+     * Number of entries evicted because of the size limit.
+     */
+    val evictionCount: Long
+        get() = evictions.get()
+
+    /**
+     * Number of bytes evicted because of the size limit, if the cache knows the size of its
+     * entries.
+     */
+    val evictedByteCount: Long
+        get() = evictedBytes.get()
+
+    /**
+     * Counts a lookup served from memory, or from disk for a disk only cache.
+     */
+    fun onHit() = hits.incrementAndGet()
+
+    /**
+     * Counts a lookup answered by the negative-lookup set.
+     */
+    fun onNegativeHit() = negativeHits.incrementAndGet()
+
+    /**
+     * Counts a lookup that found nothing.
+     */
+    fun onMiss() = misses.incrementAndGet()
+
+    /**
+     * Counts an eviction.
+     *
+     * @param bytes Size of the evicted entry, 0 if unknown.
+     */
+    @JvmOverloads
+    fun onEviction(bytes: Long = 0) {
+        evictions.incrementAndGet()
+        evictedBytes.addAndGet(bytes)
+    }
+
+    /**
+     * Resets all the counters.
+     */
+    fun reset() {
+        hits.set(0)
+        negativeHits.set(0)
+        misses.set(0)
+        evictions.set(0)
+        evictedBytes.set(0)
+    }
+
+    override fun toString() =
+        "hits=$hitCount, negativeHits=$negativeHitCount, " +
+                "misses=$missCount, evictions=$evictionCount, evictedBytes=$evictedByteCount"
+}
@@ -0,0 +1,312 @@
+package mega.privacy.android.data.cache
+
+import timber.log.Timber
+import java.io.File
+import java.io.IOException
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * Cache folder managed by the [DiskCacheManager]
+ *
+ * Keeps the files of the folder by access order, with their size, so the least recently used ones
+ * are evicted without walking the folder. The index is persisted in an append-only journal, one
+ * operation per line, which is replayed when the folder is loaded and rewritten with only the
+ * current entries once it grows too much. Fields are separated by tabs:
+ *
+ * - `W <size> <name>`: file written or found in the folder
+ * - `A <name>`: file read
+ * - `D <name>`: file deleted
+ *
+ * Operations are buffered in memory and only written by [flushJournal], so reads and writes of
+ * files never wait for the journal. The folder is loaded in background by [load]; until then,
+ * accesses are only remembered and applied once it is loaded.
+ *
+ * @property name       Name of the folder
+ * @property directory  Folder
+ * @property maxBytes   Quota of the folder
+ * @property journal    Journal file of the folder
+ */
+internal class DiskCacheFolder(
+    val name: String,
+    val directory: File,
+    val maxBytes: Long,
+    private val journal: File,
+) {
+    /**
+     * True while a trim of the folder is scheduled or running
+     */
+    val isTrimScheduled = AtomicBoolean()
+
+    /**
+     * True while a flush of the journal is scheduled
+     */
+    val isFlushScheduled = AtomicBoolean()
+
+    /**
+     * Hit, miss and eviction counters of the folder
+     */
+    val stats = CacheStats()
+
+    private val lock = Any()
+    private val entries = LinkedHashMap<String, Long>(INITIAL_CAPACITY, LOAD_FACTOR, true)
+    private val pendingOperations = ArrayList<String>()
+
+    /**
+     * Files accessed before the folder is loaded, by access order: true if the file was read or
+     * written, false if it was deleted
+     */
+    private val accessesBeforeLoad = LinkedHashMap<String, Boolean>()
+    private var journalOperations = 0
+    private var currentBytes = 0L
+    private var isLoaded = false
+    private var generation = 0
+
+    /**
+     * True if the files of the folder exceed its quota
+     */
+    val isOverQuota: Boolean
+        get() = synchronized(lock) { currentBytes > maxBytes }
+
+    /**
+     * Current size of the files of the folder, 0 until it is loaded
+     */
+    val sizeBytes: Long
+        get() = synchronized(lock) { currentBytes }
+
+    /**
+     * Loads the index from the journal, if not loaded yet. Walks the folder, so it must only be
+     * called in background.
+     *
+     * The index is then reconciled with the names of the files of the folder: files missing from
+     * the journal, as the ones written without going through the manager, are added as the least
+     * recently used ones, and entries without file are removed. Files accessed meanwhile are
+     * then moved to the end, as the most recently used ones.
+     */
+    fun load() {
+        val loadGeneration = synchronized(lock) {
+            if (isLoaded) return
+            generation
+        }
+
+        val loaded = readJournal()
+        val names = directory.list()?.toHashSet() ?: hashSetOf()
+        loaded.keys.retainAll(names)
+        names.removeAll(loaded.keys)
+        val found = names.map { File(directory, it) }
+            .filter { it.isFile }
+            .sortedBy { it.lastModified() }
+            .map { it.name to it.length() }
+
+        synchronized(lock) {
+            // Cleared or loaded by another call meanwhile
+            if (isLoaded || generation != loadGeneration) return
+
+            entries.clear()
+            found.forEach { (fileName, size) -> entries[fileName] = size }
+            entries.putAll(loaded)
+            accessesBeforeLoad.forEach { (fileName, isPresent) ->
+                entries.remove(fileName)
+                val file = File(directory, fileName)
+                if (isPresent && file.isFile) entries[fileName] = file.length()
+            }
+            accessesBeforeLoad.clear()
+            currentBytes = entries.values.sum()
+            isLoaded = true
+
+            pendingOperations.clear()
+            writeJournal()
+        }
+    }
+
+    /**
+     * Checks if a file of the folder exists, recording the access. Never waits for the folder to
+     * be loaded.
+     *
+     * @param fileName Name of the file
+     * @return true if the file exists
+     */
+    fun exists(fileName: String): Boolean {
+        val file = File(directory, fileName)
+        val exists = file.exists()
+        val size = if (exists) file.length() else 0L
+        synchronized(lock) {
+            val isIndexed = entries[fileName] != null
+            when {
+                !isLoaded -> if (exists) onAccessBeforeLoad(fileName, isPresent = true)
+                exists && isIndexed -> pendingOperations.add("$ACCESS\t$fileName")
+                exists -> add(fileName, size)
+                isIndexed -> remove(fileName)
+            }
+            if (exists) stats.onHit() else stats.onMiss()
+        }
+        return exists
+    }
+
+    /**
+     * Records a file written in the folder
+     *
+     * @param fileName Name of the file
+     */
+    fun onWritten(fileName: String) {
+        val file = File(directory, fileName)
+        if (!file.isFile) return
+        val size = file.length()
+        synchronized(lock) {
+            if (!isLoaded) {
+                onAccessBeforeLoad(fileName, isPresent = true)
+                return
+            }
+            remove(fileName)
+            add(fileName, size)
+        }
+    }
+
+    /**
+     * Records a file deleted from the folder
+     *
+     * @param fileName Name of the file
+     */
+    fun onDeleted(fileName: String) = synchronized(lock) {
+        if (isLoaded) remove(fileName) else onAccessBeforeLoad(fileName, isPresent = false)
+    }
+
+    /**
+     * Deletes the least recently used files until the size of the folder is below
+     * [TRIM_TARGET_PERCENT] of its quota
+     *
+     * @param maxFiles Maximum number of files deleted
+     * @return the number of files deleted
+     */
+    fun evict(maxFiles: Int): Int {
+        val evicted = ArrayList<String>()
+        synchronized(lock) {
+            val targetBytes = maxBytes / 100 * TRIM_TARGET_PERCENT
+            val iterator = entries.entries.iterator()
+            while (currentBytes > targetBytes && evicted.size < maxFiles && iterator.hasNext()) {
+                val (fileName, size) = iterator.next()
+                iterator.remove()
+                currentBytes -= size
+                stats.onEviction(size)
+                pendingOperations.add("$DELETE\t$fileName")
+                evicted.add(fileName)
+            }
+        }
+        evicted.forEach { File(directory, it).delete() }
+        return evicted.size
+    }
+
+    /**
+     * Forgets all the entries, after the files of the folder were deleted.
+     * The folder is loaded again on the next access.
+     */
+    fun clear() = synchronized(lock) {
+        entries.clear()
+        pendingOperations.clear()
+        accessesBeforeLoad.clear()
+        currentBytes = 0
+        isLoaded = false
+        generation++
+    }
+
+    /**
+     * Appends the buffered operations to the journal, or rewrites it with the current entries
+     * if it holds too many operations
+     */
+    fun flushJournal() = synchronized(lock) {
+        if (!isLoaded || pendingOperations.isEmpty()) return@synchronized
+
+        journalOperations += pendingOperations.size
+        if (journalOperations > maxOf(COMPACT_MIN_OPERATIONS, entries.size * 2)) {
+            pendingOperations.clear()
+            writeJournal()
+            return@synchronized
+        }
+
+        try {
+            journal.parentFile?.mkdirs()
+            journal.appendText(pendingOperations.joinToString(separator = "\n", postfix = "\n"))
+        } catch (e: IOException) {
+            Timber.w(e, "Error writing the journal of $name")
+        }
+        pendingOperations.clear()
+    }
+
+    private fun add(fileName: String, size: Long) {
+        entries[fileName] = size
+        currentBytes += size
+        pendingOperations.add("$WRITE\t$size\t$fileName")
+    }
+
+    private fun onAccessBeforeLoad(fileName: String, isPresent: Boolean) {
+        accessesBeforeLoad.remove(fileName)
+        accessesBeforeLoad[fileName] = isPresent
+    }
+
+    private fun remove(fileName: String) {
+        entries.remove(fileName)?.let {
+            currentBytes -= it
+            pendingOperations.add("$DELETE\t$fileName")
+        }
+    }
+
+    /**
+     * Replays the journal
+     *
+     * @return the entries, by access order
+     */
+    private fun readJournal(): LinkedHashMap<String, Long> {
+        val loaded = LinkedHashMap<String, Long>(INITIAL_CAPACITY, LOAD_FACTOR, true)
+        if (!journal.exists()) return loaded
+        try {
+            journal.forEachLine { line ->
+                val fields = line.split('\t', limit = 3)
+                when {
+                    fields[0] == WRITE && fields.size == 3 ->
+                        fields[1].toLongOrNull()?.let { loaded[fields[2]] = it }
+                    fields[0] == ACCESS && fields.size == 2 -> loaded[fields[1]]
+                    fields[0] == DELETE && fields.size == 2 -> loaded.remove(fields[1])
+                }
+            }
+        } catch (e: IOException) {
+            Timber.w(e, "Error reading the journal of $name")
+            loaded.clear()
+        }
+        return loaded
+    }
+
+    /**
+     * Rewrites the journal with the current entries, by access order
+     */
+    private fun writeJournal() {
+        val temporary = File(journal.path + TEMPORARY_EXTENSION)
+        try {
+            journal.parentFile?.mkdirs()
+            temporary.bufferedWriter().use { writer ->
+                entries.forEach { (fileName, size) ->
+                    writer.write("$WRITE\t$size\t$fileName\n")
+                }
+            }
+            if (!temporary.renameTo(journal)) throw IOException("Unable to rename $temporary")
+            journalOperations = entries.size
+        } catch (e: IOException) {
+            Timber.w(e, "Error compacting the journal of $name")
+            temporary.delete()
+        }
+    }
+
+    companion object {
+        /**
+         * Percentage of the quota the folder is trimmed to, so a trim is not started on every
+         * write once the quota is reached
+         */
+        const val TRIM_TARGET_PERCENT = 90
+
+        private const val WRITE = "W"
+        private const val ACCESS = "A"
+        private const val DELETE = "D"
+        private const val COMPACT_MIN_OPERATIONS = 1000
+        private const val TEMPORARY_EXTENSION = ".tmp"
+        private const val INITIAL_CAPACITY = 256
+        private const val LOAD_FACTOR = 0.75f
+    }
+}
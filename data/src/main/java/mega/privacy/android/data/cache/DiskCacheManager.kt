@@ -0,0 +1,184 @@
+package mega.privacy.android.data.cache
+
+import android.content.Context
+import dagger.hilt.android.qualifiers.ApplicationContext
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.yield
+import mega.privacy.android.data.constant.CacheFolderConstant
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import timber.log.Timber
+import java.io.File
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Disk cache manager
+ *
+ * Keeps the thumbnail, preview and preview bitmap cache folders below a byte quota each, deleting
+ * the least recently used files first. Reads and writes of the files of these folders are recorded
+ * through [exists], [onWritten] and [delete], and the access order is kept in a journal per folder
+ * (see [DiskCacheFolder]), so the folders are never walked to find the files to evict. Folders are
+ * loaded in background once per run, when files written without going through the manager are
+ * found; these files are also found when they are read.
+ *
+ * The temporary folder is not managed, as it holds the files of transfers in progress, which must
+ * not be evicted.
+ *
+ * Folders over their quota are trimmed in background, [TRIM_BATCH_SIZE] files at a time.
+ * Files of other folders are not managed and only checked on disk.
+ *
+ * @param rootDirectory     Provides the folder containing the managed folders
+ * @param quotas            Quota of each managed folder, by name
+ * @property applicationScope
+ * @property ioDispatcher
+ */
+@Singleton
+class DiskCacheManager internal constructor(
+    rootDirectory: () -> File,
+    quotas: Map<String, Long>,
+    private val applicationScope: CoroutineScope,
+    private val ioDispatcher: CoroutineDispatcher,
+) {
+
+    @Inject
+    constructor(
+        @ApplicationContext context: Context,
+        @ApplicationScope applicationScope: CoroutineScope,
+        @IoDispatcher ioDispatcher: CoroutineDispatcher,
+    ) : this({ context.cacheDir }, DEFAULT_QUOTAS, applicationScope, ioDispatcher)
+
+    private val folders: Map<String, DiskCacheFolder> by lazy {
+        val root = rootDirectory()
+        quotas.mapValues { (name, maxBytes) ->
+            DiskCacheFolder(
+                name = name,
+                directory = File(root, name),
+                maxBytes = maxBytes,
+                journal = File(File(root, JOURNAL_FOLDER), name + JOURNAL_EXTENSION)
+            )
+        }
+    }
+
+    init {
+        applicationScope.launch(ioDispatcher) { loadFolders() }
+    }
+
+    /**
+     * Checks if a cached file exists, recording the access
+     *
+     * @param file File in a cache folder
+     * @return true if the file exists
+     */
+    fun exists(file: File): Boolean {
+        val folder = getFolder(file) ?: return file.exists()
+        return folder.exists(file.name).also { scheduleMaintenance(folder) }
+    }
+
+    /**
+     * Records a file written in a cache folder, trimming the folder if it exceeds its quota
+     *
+     * @param file File written
+     */
+    fun onWritten(file: File) {
+        val folder = getFolder(file) ?: return
+        folder.onWritten(file.name)
+        scheduleMaintenance(folder)
+    }
+
+    /**
+     * Deletes a cached file
+     *
+     * @param file File to delete
+     * @return true if the file was deleted
+     */
+    fun delete(file: File): Boolean {
+        val deleted = file.delete()
+        getFolder(file)?.let { folder ->
+            folder.onDeleted(file.name)
+            scheduleMaintenance(folder)
+        }
+        return deleted
+    }
+
+    /**
+     * Forgets the indexed files, after the cache was cleared. The folders are loaded again in
+     * background.
+     */
+    fun clear() {
+        folders.values.forEach { it.clear() }
+        applicationScope.launch(ioDispatcher) { loadFolders() }
+    }
+
+    /**
+     * Gets the statistics of the managed folders
+     *
+     * @return the statistics, by folder name
+     */
+    fun getStats(): Map<String, CacheStats> = folders.mapValues { it.value.stats }
+
+    /**
+     * Gets the current size of the managed folders, 0 for the ones not loaded yet
+     *
+     * @return the size in bytes, by folder name
+     */
+    fun getSizes(): Map<String, Long> = folders.mapValues { it.value.sizeBytes }
+
+    private fun getFolder(file: File): DiskCacheFolder? =
+        folders[file.parentFile?.name]?.takeIf { it.directory.path == file.parent }
+
+    private fun loadFolders() = folders.values.forEach { folder ->
+        folder.load()
+        scheduleMaintenance(folder)
+    }
+
+    private fun scheduleMaintenance(folder: DiskCacheFolder) {
+        if (folder.isOverQuota && folder.isTrimScheduled.compareAndSet(false, true)) {
+            applicationScope.launch(ioDispatcher) { trim(folder) }
+        }
+        if (folder.isFlushScheduled.compareAndSet(false, true)) {
+            applicationScope.launch(ioDispatcher) {
+                delay(FLUSH_DELAY_MS)
+                folder.isFlushScheduled.set(false)
+                folder.flushJournal()
+            }
+        }
+    }
+
+    private suspend fun trim(folder: DiskCacheFolder) {
+        try {
+            while (folder.evict(TRIM_BATCH_SIZE) > 0) {
+                yield()
+            }
+        } finally {
+            folder.isTrimScheduled.set(false)
+        }
+        folder.flushJournal()
+        Timber.d("%s trimmed: %d bytes, %s", folder.name, folder.sizeBytes, folder.stats)
+        if (folder.isOverQuota) scheduleMaintenance(folder)
+    }
+
+    companion object {
+        /**
+         * Maximum number of files deleted in a row by a trim
+         */
+        const val TRIM_BATCH_SIZE = 32
+
+        /**
+         * Time the operations are buffered before being written to the journal
+         */
+        const val FLUSH_DELAY_MS = 2000L
+
+        private const val JOURNAL_FOLDER = "diskCacheJournalMEGA"
+        private const val JOURNAL_EXTENSION = ".journal"
+        private const val MB = 1024L * 1024L
+
+        private val DEFAULT_QUOTAS = mapOf(
+            CacheFolderConstant.THUMBNAIL_FOLDER to 256 * MB,
+            CacheFolderConstant.PREVIEW_FOLDER to 512 * MB,
+        )
+    }
+}
@@ -4,6 +4,7 @@ import android.content.Context
 import dagger.hilt.android.qualifiers.ApplicationContext
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.withContext
+import mega.privacy.android.data.cache.DiskCacheManager
 import mega.privacy.android.data.gateway.CacheGateway
 import mega.privacy.android.domain.qualifier.IoDispatcher
 import timber.log.Timber
@@ -15,10 +16,12 @@ import javax.inject.Inject
  *
  * @property context
  * @property ioDispatcher
+ * @property diskCacheManager
  */
 internal class CacheFacade @Inject constructor(
     @ApplicationContext private val context: Context,
     @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
+    private val diskCacheManager: DiskCacheManager,
 ) : CacheGateway {
 
     companion object {
@@ -48,6 +51,7 @@ internal class CacheFacade @Inject constructor(
                 dir.list()?.forEach {
                     deleteDir(File(dir, it))
                 }
+                diskCacheManager.clear()
             } catch (e: Exception) {
                 Timber.e(e)
             }
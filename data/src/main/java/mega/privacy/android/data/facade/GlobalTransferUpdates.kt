@@ -0,0 +1,89 @@
+package mega.privacy.android.data.facade
+
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.channelFlow
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import mega.privacy.android.data.model.GlobalTransfer
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Queue of the transfer events from the SDK listener to the collectors of the bus
+ *
+ * Only the latest update event and the latest data event of each transfer wait in the queue, at
+ * the position of the first one received, so the queue does not grow with the progress and data
+ * callbacks. Other events are queued without a limit, so they are never dropped.
+ */
+internal class GlobalTransferQueue {
+    private val events = Channel<GlobalTransfer>(Channel.UNLIMITED)
+    private val latestUpdates = ConcurrentHashMap<Int, GlobalTransfer>()
+    private val latestData = ConcurrentHashMap<Int, GlobalTransfer>()
+
+    /**
+     * Adds an event, replacing the waiting one of the same kind and transfer if it is conflated
+     *
+     * @param event
+     */
+    fun offer(event: GlobalTransfer) {
+        val latestEvents = getLatestEvents(event)
+        if (latestEvents == null || latestEvents.put(event.transfer.tag, event) == null) {
+            events.trySend(event)
+        }
+    }
+
+    /**
+     * Suspends until there is an event
+     *
+     * @return the next event
+     */
+    suspend fun receive(): GlobalTransfer {
+        val event = events.receive()
+        return getLatestEvents(event)?.remove(event.transfer.tag) ?: event
+    }
+
+    private fun getLatestEvents(event: GlobalTransfer) = when (event) {
+        is GlobalTransfer.OnTransferUpdate -> latestUpdates
+        is GlobalTransfer.OnTransferData -> latestData
+        else -> null
+    }
+}
+
+/**
+ * Emits the update events of each transfer at most once every [intervalMillis], keeping only the
+ * latest one. Other events are never dropped nor delayed, and a pending update of the same
+ * transfer is emitted before them so the order of the events of a transfer is kept.
+ *
+ * @param intervalMillis minimum time between the update events of a transfer, 0 for no limit
+ */
+internal fun Flow<GlobalTransfer>.limitUpdateRate(intervalMillis: Long): Flow<GlobalTransfer> =
+    if (intervalMillis <= 0) this else channelFlow {
+        val mutex = Mutex()
+        val pendingUpdates = LinkedHashMap<Int, GlobalTransfer>()
+
+        val flushJob = launch {
+            while (true) {
+                delay(intervalMillis)
+                mutex.withLock {
+                    pendingUpdates.values.forEach { send(it) }
+                    pendingUpdates.clear()
+                }
+            }
+        }
+
+        collect { event ->
+            mutex.withLock {
+                if (event is GlobalTransfer.OnTransferUpdate) {
+                    pendingUpdates[event.transfer.tag] = event
+                } else {
+                    pendingUpdates.remove(event.transfer.tag)?.let { send(it) }
+                    send(event)
+                }
+            }
+        }
+
+        flushJob.cancel()
+        pendingUpdates.values.forEach { send(it) }
+    }
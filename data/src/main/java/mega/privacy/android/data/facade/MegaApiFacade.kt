@@ -3,8 +3,12 @@ package mega.privacy.android.data.facade
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.channels.awaitClose
 import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.SharingStarted
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
 import kotlinx.coroutines.flow.callbackFlow
+import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.shareIn
 import kotlinx.coroutines.suspendCancellableCoroutine
 import mega.privacy.android.data.gateway.api.MegaApiGateway
@@ -157,31 +161,46 @@ internal class MegaApiFacade @Inject constructor(
         SharingStarted.WhileSubscribed()
     )
 
-    override val globalTransfer: Flow<GlobalTransfer> = callbackFlow {
+    private val globalTransferListenerRegistered = MutableStateFlow(false)
+
+    override val isGlobalTransferListenerRegistered: StateFlow<Boolean> =
+        globalTransferListenerRegistered.asStateFlow()
+
+    override val globalTransfer: Flow<GlobalTransfer> = flow {
+        val events = GlobalTransferQueue()
         val listener = OptionalMegaTransferListenerInterface(
             onTransferStart = { transfer ->
-                trySend(GlobalTransfer.OnTransferStart(transfer))
+                events.offer(GlobalTransfer.OnTransferStart(transfer))
             },
             onTransferFinish = { transfer, error ->
-                trySend(GlobalTransfer.OnTransferFinish(transfer, error))
+                events.offer(GlobalTransfer.OnTransferFinish(transfer, error))
             },
             onTransferUpdate = { transfer ->
-                trySend(GlobalTransfer.OnTransferUpdate(transfer))
+                events.offer(GlobalTransfer.OnTransferUpdate(transfer))
             },
             onTransferTemporaryError = { transfer, error ->
-                trySend(GlobalTransfer.OnTransferTemporaryError(transfer, error))
+                events.offer(GlobalTransfer.OnTransferTemporaryError(transfer, error))
             },
             onTransferData = { transfer, buffer ->
-                trySend(GlobalTransfer.OnTransferData(transfer, buffer))
+                events.offer(GlobalTransfer.OnTransferData(transfer, buffer))
             }
         )
 
         megaApi.addTransferListener(listener)
+        globalTransferListenerRegistered.value = true
 
-        awaitClose {
+        try {
+            while (true) {
+                emit(events.receive())
+            }
+        } finally {
+            globalTransferListenerRegistered.value = false
             megaApi.removeTransferListener(listener)
         }
-    }.shareIn(sharingScope, SharingStarted.WhileSubscribed(), 1)
+    }.shareIn(sharingScope, SharingStarted.WhileSubscribed())
+
+    override fun monitorGlobalTransfer(maxUpdateRateMillis: Long): Flow<GlobalTransfer> =
+        globalTransfer.limitUpdateRate(maxUpdateRateMillis)
 
     override fun getFavourites(
         node: MegaNode?,
@@ -3,42 +3,114 @@ package mega.privacy.android.data.gateway
 import android.util.Log
 import mega.privacy.android.domain.entity.logging.LogEntry
 import org.slf4j.Logger
+import java.text.SimpleDateFormat
+import java.util.Date
+import java.util.Locale
+import java.util.TimeZone
 
 /**
  * File logger
  *
  * Writes log messages to file
  *
+ * Consecutive entries of the same level are formatted into a single message, so the appender of
+ * the logger writes and flushes once per run of entries instead of once per entry, and every
+ * entry is still written at its own level. The appender only adds the message, see logback.xml,
+ * so the stack trace of an entry's throwable is added here after its line, and lines are
+ * prefixed with the time the entry was logged and its level if [timestampPattern] is set.
+ *
  * @property logger
+ * @property timestampPattern UTC time pattern of the line prefix, or null for no prefix
  */
 class FileLogWriter(
     private val logger: Logger,
+    private val timestampPattern: String? = null,
 ) : LogWriterGateway {
+
+    private val timestampFormat = timestampPattern?.let {
+        SimpleDateFormat(it, Locale.US).apply { timeZone = TimeZone.getTimeZone("UTC") }
+    }
+
+    private val date = Date()
+
+    private val lines = StringBuilder()
+
     /**
      * Log to file
      *
-     * @param logEntry
+     * @param logEntries
      */
-    override fun writeLogEntry(
-        logEntry: LogEntry,
+    @Synchronized
+    override fun writeLogEntries(
+        logEntries: List<LogEntry>,
     ) {
-        val logMessage = logEntry.toString()
-        with(logger) {
-            when (logEntry.priority) {
-                Log.VERBOSE -> trace(logMessage)
-                Log.DEBUG -> debug(logMessage)
-                Log.INFO -> info(logMessage)
-                Log.ASSERT -> info(logMessage)
-                Log.WARN -> warn(logMessage)
-                Log.ERROR -> {
-                    if (logEntry.throwable != null) {
-                        error(logMessage, logEntry.throwable)
-                    } else {
-                        error(logMessage)
-                    }
-                }
+        var runLevel: Level? = null
+        lines.setLength(0)
+
+        for (logEntry in logEntries) {
+            val level = Level.fromPriority(logEntry.priority)
+                ?.takeIf { it.isEnabled(logger) }
+                ?: continue
+
+            if (runLevel != null && level != runLevel) {
+                runLevel.write(logger, lines.toString())
+                lines.setLength(0)
             }
+            runLevel = level
+            appendEntry(logEntry, level)
+        }
+
+        runLevel?.write(logger, lines.toString())
+        if (lines.capacity() > MAX_RETAINED_CAPACITY) {
+            lines.setLength(0)
+            lines.trimToSize()
+        }
+    }
+
+    private fun appendEntry(logEntry: LogEntry, level: Level) {
+        timestampFormat?.let {
+            date.time = logEntry.timestamp
+            lines.append('[').append(it.format(date)).append("][").append(level.label).append("] ")
         }
+        lines.append(logEntry.toString()).append('\n')
+        logEntry.throwable?.let { lines.append(it.stackTraceToString().trimEnd()).append('\n') }
+    }
+
+    /**
+     * Logger levels, from the least to the most severe
+     */
+    private enum class Level(val label: String) {
+        TRACE("TRACE"), DEBUG("DEBUG"), INFO("INFO "), WARN("WARN "), ERROR("ERROR");
+
+        fun isEnabled(logger: Logger) = when (this) {
+            TRACE -> logger.isTraceEnabled
+            DEBUG -> logger.isDebugEnabled
+            INFO -> logger.isInfoEnabled
+            WARN -> logger.isWarnEnabled
+            ERROR -> logger.isErrorEnabled
+        }
+
+        fun write(logger: Logger, message: String) = when (this) {
+            TRACE -> logger.trace(message)
+            DEBUG -> logger.debug(message)
+            INFO -> logger.info(message)
+            WARN -> logger.warn(message)
+            ERROR -> logger.error(message)
+        }
+
+        companion object {
+            fun fromPriority(priority: Int) = when (priority) {
+                Log.VERBOSE -> TRACE
+                Log.DEBUG -> DEBUG
+                Log.INFO, Log.ASSERT -> INFO
+                Log.WARN -> WARN
+                Log.ERROR -> ERROR
+                else -> null
+            }
+        }
+    }
 
+    companion object {
+        private const val MAX_RETAINED_CAPACITY = 256 * 1024
     }
-}
\ No newline at end of file
+}
@@ -6,9 +6,9 @@ interface LogWriterGateway {
     /**
      * Log to file
      *
-     * @param logEntry
+     * @param logEntries entries to write at once
      */
-    fun writeLogEntry(
-        logEntry: LogEntry,
+    fun writeLogEntries(
+        logEntries: List<LogEntry>,
     )
-}
\ No newline at end of file
+}
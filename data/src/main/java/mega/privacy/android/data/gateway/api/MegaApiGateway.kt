@@ -1,6 +1,7 @@
 package mega.privacy.android.data.gateway.api
 
 import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.StateFlow
 import mega.privacy.android.data.model.GlobalTransfer
 import mega.privacy.android.data.model.GlobalUpdate
 import nz.mega.sdk.MegaCancelToken
@@ -166,9 +167,29 @@ interface MegaApiGateway {
 
     /**
      * Global transfer
+     *
+     * Shared by all the collectors. If a collector is slow, only the latest update event and the
+     * latest data event of each transfer are kept for it, and the other events are never dropped.
      */
     val globalTransfer: Flow<GlobalTransfer>
 
+    /**
+     * Is global transfer listener registered
+     *
+     * True while the listener of [globalTransfer] is registered in the SDK. A collector
+     * subscribed to [globalTransfer] before it becomes true receives every change of the
+     * transfers listed by the SDK from then on.
+     */
+    val isGlobalTransferListenerRegistered: StateFlow<Boolean>
+
+    /**
+     * Global transfer, with the update events of each transfer limited to a maximum rate
+     *
+     * @param maxUpdateRateMillis minimum time between the update events of a transfer, 0 for no limit
+     * @return flow of the transfer events
+     */
+    fun monitorGlobalTransfer(maxUpdateRateMillis: Long): Flow<GlobalTransfer>
+
     /**
      * Get favourites
      * @param node Node and its children that will be searched for favourites. Search all nodes if null
@@ -1,11 +1,15 @@
 package mega.privacy.android.data.logging
 
+import android.util.Log
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Job
-import kotlinx.coroutines.channels.BufferOverflow
+import kotlinx.coroutines.channels.Channel
 import kotlinx.coroutines.flow.MutableSharedFlow
 import kotlinx.coroutines.flow.SharedFlow
+import kotlinx.coroutines.flow.collectLatest
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.launch
 import mega.privacy.android.data.gateway.TimberChatLogger
 import mega.privacy.android.data.gateway.TimberMegaLogger
@@ -14,28 +18,60 @@ import mega.privacy.android.domain.entity.logging.LogEntry
 import mega.privacy.android.domain.entity.logging.LogPriority
 import mega.privacy.android.domain.usecase.CreateLogEntry
 import timber.log.Timber
+import java.util.concurrent.atomic.AtomicBoolean
 
 /**
  * Sdk log flow tree
  *
  * Implementation of [Timber.Tree] that converts logging events from the sdk listener to a flow
  *
- * @property logFlow a flow where all sdk log messages are emitted
+ * Logging threads only add the event to a [LogRingBuffer], and only while [logFlow] is
+ * collected. A single consumer creates the log entries and emits them in batches, so they can be
+ * written at once. Events logged while the buffer is full are dropped, and the number of dropped
+ * events is added to the next batch.
+ *
+ * @property logFlow a flow where all sdk log messages are emitted, in batches
  */
 internal class LogFlowTree(
     dispatcher: CoroutineDispatcher,
     private val createLogEntry: CreateLogEntry,
 ) : Timber.Tree() {
 
+    companion object {
+        /**
+         * Maximum number of events waiting to be written
+         */
+        const val BUFFER_CAPACITY = 4096
+
+        /**
+         * Maximum number of log entries emitted at once
+         */
+        const val BATCH_SIZE = 256
+
+        /**
+         * Number of stack frames kept to find the caller, from the [LogFlowTree.log] call
+         */
+        const val MAX_TRACE_DEPTH = 16
+    }
+
     private val scope = CoroutineScope(Job() + dispatcher)
 
-    private val _logFlow =
-        MutableSharedFlow<LogEntry>(
-            replay = 0,
-            extraBufferCapacity = 1,
-            onBufferOverflow = BufferOverflow.DROP_OLDEST
-        )
-    val logFlow: SharedFlow<LogEntry> = _logFlow
+    private val _logFlow = MutableSharedFlow<List<LogEntry>>()
+    val logFlow: SharedFlow<List<LogEntry>> = _logFlow
+
+    private val buffer = LogRingBuffer<CreateLogEntryRequest>(BUFFER_CAPACITY)
+
+    private val isConsumerWaiting = AtomicBoolean(false)
+    private val wakeUp = Channel<Unit>(Channel.CONFLATED)
+
+    @Volatile
+    private var isCollected = false
+
+    /**
+     * Number of events dropped because they were logged faster than written
+     */
+    val droppedCount: Long
+        get() = buffer.droppedCount
 
     private val ignoredClasses = listOf(
         Timber::class.java.name,
@@ -50,20 +86,86 @@ internal class LogFlowTree(
         TimberMegaLogger::class.java.name
     )
 
+    init {
+        scope.launch {
+            _logFlow.subscriptionCount
+                .map { it > 0 }
+                .distinctUntilChanged()
+                .collectLatest { isCollected ->
+                    this@LogFlowTree.isCollected = isCollected
+                    if (isCollected) consumeLogs()
+                }
+        }
+    }
+
+    /**
+     * Nothing is formatted nor captured while the logs are not written
+     */
+    override fun isLoggable(tag: String?, priority: Int) = isCollected
+
     override fun log(priority: Int, tag: String?, message: String, t: Throwable?) {
+        val request = CreateLogEntryRequest(
+            tag = tag,
+            message = message,
+            priority = LogPriority.fromInt(priority),
+            throwable = t,
+            trace = if (tag == null) captureTrace() else emptyList(),
+            loggingClasses = ignoredClasses,
+            sdkLoggers = sdkLoggers,
+            timestamp = System.currentTimeMillis()
+        )
+        if (buffer.offer(request) && isConsumerWaiting.compareAndSet(true, false)) {
+            wakeUp.trySend(Unit)
+        }
+    }
+
+    /**
+     * Captures the frames needed to find the caller and to tell sdk logs apart. Tagged logs come
+     * from the sdk and do not need them.
+     */
+    private fun captureTrace(): List<StackTraceElement> {
         val trace = Throwable().stackTrace
-        scope.launch {
-            createLogEntry(
-                CreateLogEntryRequest(
-                    tag = tag,
-                    message = message,
-                    priority = LogPriority.fromInt(priority),
-                    throwable = t,
-                    trace = trace.asList(),
-                    loggingClasses = ignoredClasses,
-                    sdkLoggers = sdkLoggers)
-            )?.let { _logFlow.emit(it) }
+        return trace.asList().subList(0, minOf(trace.size, MAX_TRACE_DEPTH))
+    }
+
+    private suspend fun consumeLogs() {
+        val requests = ArrayList<CreateLogEntryRequest>(BATCH_SIZE)
+        var reportedDrops = buffer.droppedCount
+        while (true) {
+            if (buffer.drainTo(requests, BATCH_SIZE) == 0) {
+                awaitLogs()
+                continue
+            }
+
+            val entries = ArrayList<LogEntry>(requests.size + 1)
+            val droppedCount = buffer.droppedCount
+            if (droppedCount > reportedDrops) {
+                entries.add(createDroppedEntry(droppedCount - reportedDrops))
+                reportedDrops = droppedCount
+            }
+            requests.mapNotNullTo(entries) { createLogEntry(it) }
+            requests.clear()
+
+            if (entries.isNotEmpty()) _logFlow.emit(entries)
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Suspends until a producer adds an event. The buffer is checked again after asking for the
+     * wake up, so an event added in between is not missed.
+     */
+    private suspend fun awaitLogs() {
+        isConsumerWaiting.set(true)
+        if (buffer.isEmpty) {
+            wakeUp.receive()
+        } else {
+            isConsumerWaiting.set(false)
+        }
+    }
+
+    private fun createDroppedEntry(count: Long) = LogEntry(
+        tag = "[clientApp]",
+        message = "$count log entries dropped",
+        priority = Log.WARN,
+    )
+}
@@ -0,0 +1,100 @@
+package mega.privacy.android.data.logging
+
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicLongArray
+import java.util.concurrent.atomic.AtomicReferenceArray
+
+/**
+ * Log ring buffer
+ *
+ * Bounded lock free queue for many producers and a single consumer. Every slot has a sequence
+ * number telling whether it is free for the producer of a position or published for the consumer,
+ * so producers only compete on one compare and set and never wait for each other.
+ * When the buffer is full the new item is dropped and counted.
+ *
+ * @param capacity maximum number of items, a power of two
+ */
+internal class LogRingBuffer<T : Any>(private val capacity: Int) {
+
+    init {
+        require(capacity > 0 && capacity and (capacity - 1) == 0) {
+            "Capacity must be a power of two"
+        }
+    }
+
+    private val mask = capacity - 1L
+    private val items = AtomicReferenceArray<T?>(capacity)
+    private val sequences = AtomicLongArray(capacity).apply {
+        for (index in 0 until capacity) set(index, index.toLong())
+    }
+    private val tail = AtomicLong()
+    private val dropped = AtomicLong()
+
+    /**
+     * Next position to read, only accessed by the consumer
+     */
+    private var head = 0L
+
+    /**
+     * Number of items dropped because the buffer was full
+     */
+    val droppedCount: Long
+        get() = dropped.get()
+
+    /**
+     * True if there is no published item to read
+     */
+    val isEmpty: Boolean
+        get() = sequences.get(head.toIndex()) != head + 1
+
+    /**
+     * Adds an item, from any thread
+     *
+     * @param item
+     * @return true if the item was added, false if it was dropped
+     */
+    fun offer(item: T): Boolean {
+        var position = tail.get()
+        while (true) {
+            val index = position.toIndex()
+            val difference = sequences.get(index) - position
+            when {
+                difference == 0L -> {
+                    if (tail.compareAndSet(position, position + 1)) {
+                        items.set(index, item)
+                        sequences.set(index, position + 1)
+                        return true
+                    }
+                    position = tail.get()
+                }
+                difference < 0L -> {
+                    // The consumer has not read this slot yet
+                    dropped.incrementAndGet()
+                    return false
+                }
+                else -> position = tail.get()
+            }
+        }
+    }
+
+    /**
+     * Moves the published items to a list, from the consumer
+     *
+     * @param destination list the items are added to
+     * @param maxItems maximum number of items to move
+     * @return the number of items moved
+     */
+    fun drainTo(destination: MutableList<T>, maxItems: Int): Int {
+        var count = 0
+        while (count < maxItems && !isEmpty) {
+            val index = head.toIndex()
+            destination.add(requireNotNull(items.getAndSet(index, null)))
+            sequences.set(index, head + capacity)
+            head++
+            count++
+        }
+        return count
+    }
+
+    private fun Long.toIndex() = (this and mask).toInt()
+}
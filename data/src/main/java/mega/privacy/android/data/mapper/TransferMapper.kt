@@ -1,5 +1,6 @@
 package mega.privacy.android.data.mapper
 
+import mega.privacy.android.data.extensions.isBackgroundTransfer
 import mega.privacy.android.domain.entity.transfer.Transfer
 import mega.privacy.android.domain.entity.transfer.TransferState
 import mega.privacy.android.domain.entity.transfer.TransferType
@@ -17,6 +18,7 @@ internal fun toTransferModel(transfer: MegaTransfer) = Transfer(
     transferredBytes = transfer.transferredBytes,
     isFinished = transfer.isFinished,
     transferState = mapTransferState(transfer.state),
+    isBackgroundTransfer = transfer.isBackgroundTransfer(),
 )
 
 private fun mapTransferType(transferType: Int): TransferType = when (transferType) {
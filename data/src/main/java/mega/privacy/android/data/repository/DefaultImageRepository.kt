@@ -4,6 +4,7 @@ import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.runBlocking
 import kotlinx.coroutines.suspendCancellableCoroutine
 import kotlinx.coroutines.withContext
+import mega.privacy.android.data.cache.DiskCacheManager
 import mega.privacy.android.data.constant.CacheFolderConstant
 import mega.privacy.android.data.constant.FileConstant
 import mega.privacy.android.data.extensions.failWithError
@@ -12,6 +13,7 @@ import mega.privacy.android.data.extensions.getThumbnailFileName
 import mega.privacy.android.data.gateway.CacheGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.listener.OptionalMegaRequestListenerInterface
+import mega.privacy.android.data.thumbnail.ThumbnailRequestScheduler
 import mega.privacy.android.domain.qualifier.IoDispatcher
 import mega.privacy.android.domain.repository.ImageRepository
 import nz.mega.sdk.MegaError
@@ -25,11 +27,15 @@ import javax.inject.Inject
  * @param megaApiGateway MegaApiGateway
  * @param ioDispatcher CoroutineDispatcher
  * @param cacheGateway CacheGateway
+ * @param thumbnailRequestScheduler ThumbnailRequestScheduler, shared queue of the downloads
+ * @param diskCacheManager DiskCacheManager, keeps the cached images within their quota
  */
 internal class DefaultImageRepository @Inject constructor(
     private val megaApiGateway: MegaApiGateway,
     @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
     private val cacheGateway: CacheGateway,
+    private val thumbnailRequestScheduler: ThumbnailRequestScheduler,
+    private val diskCacheManager: DiskCacheManager,
 ) : ImageRepository {
 
     private var thumbnailFolderPath: String? = null
@@ -48,9 +54,7 @@ internal class DefaultImageRepository @Inject constructor(
     override suspend fun getThumbnailFromLocal(handle: Long): File? =
         withContext(ioDispatcher) {
             megaApiGateway.getMegaNodeByHandle(handle)?.run {
-                getThumbnailFile(this).takeIf {
-                    it?.exists() ?: false
-                }
+                getThumbnailFile(this)?.takeIf { diskCacheManager.exists(it) }
             }
         }
 
@@ -63,7 +67,11 @@ internal class DefaultImageRepository @Inject constructor(
             megaApiGateway.getMegaNodeByHandle(handle)?.let { node ->
                 getThumbnailFile(node)?.let { thumbnail ->
                     suspendCancellableCoroutine { continuation ->
-                        megaApiGateway.getThumbnail(node, thumbnail.absolutePath,
+                        val ticket = thumbnailRequestScheduler.request(
+                            node,
+                            ThumbnailRequestScheduler.Type.THUMBNAIL,
+                            thumbnail.absolutePath,
+                            ThumbnailRequestScheduler.PRIORITY_VISIBLE,
                             OptionalMegaRequestListenerInterface(
                                 onRequestFinish = { _, error ->
                                     if (error.errorCode == MegaError.API_OK) {
@@ -74,6 +82,7 @@ internal class DefaultImageRepository @Inject constructor(
                                 }
                             )
                         )
+                        continuation.invokeOnCancellation { ticket.cancel() }
                     }
                 }
             }
@@ -86,9 +95,7 @@ internal class DefaultImageRepository @Inject constructor(
     override suspend fun getPreviewFromLocal(handle: Long): File? =
         withContext(ioDispatcher) {
             megaApiGateway.getMegaNodeByHandle(handle)?.run {
-                getPreviewFile(this).takeIf {
-                    it?.exists() ?: false
-                }
+                getPreviewFile(this)?.takeIf { diskCacheManager.exists(it) }
             }
         }
 
@@ -97,7 +104,11 @@ internal class DefaultImageRepository @Inject constructor(
             megaApiGateway.getMegaNodeByHandle(handle)?.let { node ->
                 getPreviewFile(node)?.let { preview ->
                     suspendCancellableCoroutine { continuation ->
-                        megaApiGateway.getPreview(node, preview.absolutePath,
+                        val ticket = thumbnailRequestScheduler.request(
+                            node,
+                            ThumbnailRequestScheduler.Type.PREVIEW,
+                            preview.absolutePath,
+                            ThumbnailRequestScheduler.PRIORITY_VISIBLE,
                             OptionalMegaRequestListenerInterface(
                                 onRequestFinish = { _, error ->
                                     if (error.errorCode == MegaError.API_OK) {
@@ -108,6 +119,7 @@ internal class DefaultImageRepository @Inject constructor(
                                 }
                             )
                         )
+                        continuation.invokeOnCancellation { ticket.cancel() }
                     }
                 }
             }
@@ -116,19 +128,17 @@ internal class DefaultImageRepository @Inject constructor(
     override suspend fun downloadThumbnail(
         handle: Long,
         callback: (success: Boolean) -> Unit,
-    ) = withContext(ioDispatcher) {
+    ) = withContext<Unit>(ioDispatcher) {
         val node = megaApiGateway.getMegaNodeByHandle(handle)
         if (node == null || thumbnailFolderPath == null || !node.hasThumbnail()) {
             callback(false)
         } else {
-            megaApiGateway.getThumbnail(
+            thumbnailRequestScheduler.request(
                 node,
+                ThumbnailRequestScheduler.Type.THUMBNAIL,
                 getThumbnailPath(thumbnailFolderPath ?: return@withContext, node),
-                OptionalMegaRequestListenerInterface(
-                    onRequestFinish = { _, error ->
-                        callback(error.errorCode == MegaError.API_OK)
-                    }
-                )
+                ThumbnailRequestScheduler.PRIORITY_VISIBLE,
+                callback
             )
         }
     }
@@ -136,19 +146,17 @@ internal class DefaultImageRepository @Inject constructor(
     override suspend fun downloadPreview(
         handle: Long,
         callback: (success: Boolean) -> Unit,
-    ) = withContext(ioDispatcher) {
+    ) = withContext<Unit>(ioDispatcher) {
         val node = megaApiGateway.getMegaNodeByHandle(handle)
         if (node == null || previewFolderPath == null || !node.hasPreview()) {
             callback(false)
         } else {
-            megaApiGateway.getPreview(
+            thumbnailRequestScheduler.request(
                 node,
+                ThumbnailRequestScheduler.Type.PREVIEW,
                 getPreviewPath(previewFolderPath ?: return@withContext, node),
-                OptionalMegaRequestListenerInterface(
-                    onRequestFinish = { _, error ->
-                        callback(error.errorCode == MegaError.API_OK)
-                    }
-                )
+                ThumbnailRequestScheduler.PRIORITY_VISIBLE,
+                callback
             )
         }
     }
@@ -1,33 +1,58 @@
 package mega.privacy.android.data.repository
 
 import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.FlowPreview
 import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.debounce
+import kotlinx.coroutines.flow.first
 import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
 import kotlinx.coroutines.withContext
 import mega.privacy.android.data.database.DatabaseHandler
-import mega.privacy.android.data.extensions.isBackgroundTransfer
 import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.mapper.MegaTransferMapper
 import mega.privacy.android.data.mapper.TransferEventMapper
 import mega.privacy.android.domain.entity.transfer.TransferEvent
+import mega.privacy.android.domain.entity.transfer.TransferType
+import mega.privacy.android.domain.qualifier.ApplicationScope
 import mega.privacy.android.domain.qualifier.IoDispatcher
 import mega.privacy.android.domain.repository.TransferRepository
+import mega.privacy.android.domain.usecase.TransferAggregator
 import nz.mega.sdk.MegaTransfer
 import javax.inject.Inject
+import javax.inject.Singleton
 
 /**
  * Default [TransferRepository] implementation.
  *
+ * The pending and paused counts come from a [TransferAggregator] kept up to date with the
+ * transfer events, so they do not get the transfer lists from the SDK on every call. The lists
+ * are read when the counts are requested for the first time, and again once the transfer events
+ * stop for [RECONCILE_IDLE_MILLIS], to recover from missed events.
+ *
  * @param megaApiGateway    [MegaApiGateway]
  * @param ioDispatcher      [IoDispatcher]
  * @param dbH               [DatabaseHandler]
+ * @param applicationScope  [ApplicationScope]
  */
+@Singleton
 internal class DefaultTransfersRepository @Inject constructor(
     private val megaApiGateway: MegaApiGateway,
     @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
     private val dbH: DatabaseHandler,
     private val transferEventMapper: TransferEventMapper,
+    private val transferMapper: MegaTransferMapper,
+    @ApplicationScope private val applicationScope: CoroutineScope,
 ) : TransferRepository {
 
+    private val transferAggregator = TransferAggregator()
+    private val trackingMutex = Mutex()
+    private var isTracking = false
+
     private suspend fun getUploadTransfers(): List<MegaTransfer> = withContext(ioDispatcher) {
         megaApiGateway.getTransfers(MegaTransfer.TYPE_UPLOAD)
     }
@@ -36,19 +61,51 @@ internal class DefaultTransfersRepository @Inject constructor(
         megaApiGateway.getTransfers(MegaTransfer.TYPE_DOWNLOAD)
     }
 
-    override suspend fun getNumPendingDownloadsNonBackground(): Int = withContext(ioDispatcher) {
-        getDownloadTransfers().count { transfer ->
-            !transfer.isFinished && !transfer.isBackgroundTransfer()
+    /**
+     * Gets the aggregator of the current transfers, starting to track them the first time.
+     *
+     * The lists are only read once the transfer listener is registered, so no change after
+     * reading them is missed.
+     */
+    @OptIn(FlowPreview::class)
+    private suspend fun getTransferAggregator(): TransferAggregator = trackingMutex.withLock {
+        if (!isTracking) {
+            isTracking = true
+            // Undispatched, so the events are collected before waiting for the listener
+            applicationScope.launch(ioDispatcher, start = CoroutineStart.UNDISPATCHED) {
+                monitorTransferEvents().collect { transferAggregator.update(it.transfer) }
+            }
+            applicationScope.launch(ioDispatcher) {
+                monitorTransferEvents()
+                    .debounce(RECONCILE_IDLE_MILLIS)
+                    .collect { reconcileTransfers() }
+            }
+            megaApiGateway.isGlobalTransferListenerRegistered.first { it }
+            reconcileTransfers()
         }
+        transferAggregator
     }
 
-    override suspend fun getNumPendingUploads(): Int = withContext(ioDispatcher) {
-        getUploadTransfers().count { transfer -> !transfer.isFinished }
+    /**
+     * Applies the transfer lists of the SDK. Events received while the lists are read are newer,
+     * so they win over the listed state.
+     */
+    private suspend fun reconcileTransfers() {
+        val since = transferAggregator.lastUpdate
+        transferAggregator.reconcile(
+            (getUploadTransfers() + getDownloadTransfers()).map(transferMapper),
+            since
+        )
     }
 
-    override suspend fun getNumPendingTransfers(): Int = withContext(ioDispatcher) {
+    override suspend fun getNumPendingDownloadsNonBackground(): Int =
+        getTransferAggregator().getNumPending(TransferType.TYPE_DOWNLOAD)
+
+    override suspend fun getNumPendingUploads(): Int =
+        getTransferAggregator().getNumPending(TransferType.TYPE_UPLOAD)
+
+    override suspend fun getNumPendingTransfers(): Int =
         getNumPendingDownloadsNonBackground() + getNumPendingUploads()
-    }
 
     override suspend fun isCompletedTransfersEmpty(): Boolean = withContext(ioDispatcher) {
         dbH.isCompletedTransfersEmpty
@@ -62,18 +119,11 @@ internal class DefaultTransfersRepository @Inject constructor(
         megaApiGateway.areUploadTransfersPaused()
     }
 
-    override suspend fun getNumPendingPausedUploads(): Int = withContext(ioDispatcher) {
-        getUploadTransfers().count { transfer ->
-            !transfer.isFinished && transfer.state == MegaTransfer.STATE_PAUSED
-        }
-    }
+    override suspend fun getNumPendingPausedUploads(): Int =
+        getTransferAggregator().getNumPendingPaused(TransferType.TYPE_UPLOAD)
 
     override suspend fun getNumPendingNonBackgroundPausedDownloads(): Int =
-        withContext(ioDispatcher) {
-            getDownloadTransfers().count { transfer ->
-                !transfer.isFinished && !transfer.isBackgroundTransfer() && transfer.state == MegaTransfer.STATE_PAUSED
-            }
-        }
+        getTransferAggregator().getNumPendingPaused(TransferType.TYPE_DOWNLOAD)
 
     override suspend fun areAllTransfersPaused(): Boolean = withContext(ioDispatcher) {
         areTransfersPaused() || getNumPendingPausedUploads() + getNumPendingNonBackgroundPausedDownloads() == getNumPendingTransfers()
@@ -81,4 +131,11 @@ internal class DefaultTransfersRepository @Inject constructor(
 
     override fun monitorTransferEvents(): Flow<TransferEvent> =
         megaApiGateway.globalTransfer.map { event -> transferEventMapper(event) }
-}
\ No newline at end of file
+
+    companion object {
+        /**
+         * Time without transfer events after which the transfer lists are read again
+         */
+        const val RECONCILE_IDLE_MILLIS = 10_000L
+    }
+}
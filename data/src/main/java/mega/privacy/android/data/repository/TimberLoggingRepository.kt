@@ -96,14 +96,14 @@ internal class TimberLoggingRepository @Inject constructor(
         MegaApiAndroid.addLoggerObject(megaSdkLogger)
     }
 
-    override fun getSdkLoggingFlow(): Flow<LogEntry> = sdkLogFlowTree.logFlow.onSubscription {
+    override fun getSdkLoggingFlow(): Flow<List<LogEntry>> = sdkLogFlowTree.logFlow.onSubscription {
         MegaApiAndroid.setLogLevel(MegaApiAndroid.LOG_LEVEL_MAX)
         loggingConfig.resetLoggingConfiguration()
     }.onCompletion {
         MegaApiAndroid.setLogLevel(MegaApiAndroid.LOG_LEVEL_FATAL)
     }
 
-    override fun getChatLoggingFlow(): Flow<LogEntry> =
+    override fun getChatLoggingFlow(): Flow<List<LogEntry>> =
         chatLogFlowTree.logFlow.onSubscription {
             MegaChatApiAndroid.setLogLevel(MegaChatApiAndroid.LOG_LEVEL_MAX)
             loggingConfig.resetLoggingConfiguration()
@@ -111,11 +111,11 @@ internal class TimberLoggingRepository @Inject constructor(
             MegaChatApiAndroid.setLogLevel(MegaChatApiAndroid.LOG_LEVEL_ERROR)
         }
 
-    override suspend fun logToSdkFile(logMessage: LogEntry) =
-        withContext(ioDispatcher) { sdkLogger.writeLogEntry(logMessage) }
+    override suspend fun logToSdkFile(logMessages: List<LogEntry>) =
+        withContext(ioDispatcher) { sdkLogger.writeLogEntries(logMessages) }
 
-    override suspend fun logToChatFile(logMessage: LogEntry) =
-        withContext(ioDispatcher) { chatLogger.writeLogEntry(logMessage) }
+    override suspend fun logToChatFile(logMessages: List<LogEntry>) =
+        withContext(ioDispatcher) { chatLogger.writeLogEntries(logMessages) }
 
     override suspend fun compressLogs(): File = withContext(ioDispatcher) {
         val loggingDirectoryPath = loggingConfig.getLoggingDirectoryPath()
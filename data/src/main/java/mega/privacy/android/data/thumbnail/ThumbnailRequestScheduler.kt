@@ -0,0 +1,262 @@
+package mega.privacy.android.data.thumbnail
+
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.launch
+import mega.privacy.android.data.cache.DiskCacheManager
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.listener.OptionalMegaRequestListenerInterface
+import mega.privacy.android.domain.entity.ConnectivityState
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import mega.privacy.android.domain.repository.NetworkRepository
+import nz.mega.sdk.MegaApiJava
+import nz.mega.sdk.MegaError
+import nz.mega.sdk.MegaNode
+import nz.mega.sdk.MegaRequest
+import nz.mega.sdk.MegaRequestListenerInterface
+import java.io.File
+import java.util.TreeSet
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Thumbnail request scheduler
+ *
+ * Shared queue of the thumbnail and preview downloads of the app. Queued requests are started by
+ * priority, lower values first and, for the same priority, the most recently requested first, as
+ * it is the most likely to be on screen. Requests of the same node and [Type] are merged into a
+ * single download, whose result is sent to all of them. Only [UNMETERED_RUNNING_REQUESTS] downloads
+ * run at the same time, [METERED_RUNNING_REQUESTS] on metered connections, so the visible items do
+ * not wait behind thousands of requests already sent to the sdk.
+ *
+ * A [Ticket] cancels or reprioritises a request while it is queued. Once started, the download
+ * cannot be stopped, but the listeners of the cancelled tickets are not called.
+ *
+ * Downloaded files are recorded in the [DiskCacheManager], which keeps the thumbnail and preview
+ * folders within their quota.
+ *
+ * @property megaApiGateway
+ * @property diskCacheManager
+ */
+@Singleton
+class ThumbnailRequestScheduler @Inject constructor(
+    private val megaApiGateway: MegaApiGateway,
+    private val diskCacheManager: DiskCacheManager,
+    networkRepository: NetworkRepository,
+    @ApplicationScope applicationScope: CoroutineScope,
+) {
+
+    /**
+     * Type of the image downloaded
+     */
+    enum class Type {
+        /**
+         * Thumbnail
+         */
+        THUMBNAIL,
+
+        /**
+         * Preview
+         */
+        PREVIEW
+    }
+
+    /**
+     * Request added to the scheduler
+     */
+    inner class Ticket internal constructor(
+        private val entry: Entry,
+        internal var priority: Int,
+        internal val listener: MegaRequestListenerInterface,
+    ) {
+
+        /**
+         * Removes the request. The download is dropped if it is not started and no other request
+         * of the same node is waiting for it.
+         */
+        fun cancel() = synchronized(lock) {
+            if (!entry.tickets.remove(this)) return@synchronized
+            if (entry.tickets.isEmpty() && !entry.isStarted) {
+                queue.remove(entry)
+                entries.remove(entry.key)
+            } else {
+                updatePriority(entry, refresh = false)
+            }
+        }
+
+        /**
+         * Changes the priority of the request, if it is not started yet
+         *
+         * @param priority New priority, lower values are started first
+         */
+        fun setPriority(priority: Int) = synchronized(lock) {
+            if (this.priority == priority || this !in entry.tickets) return@synchronized
+            this.priority = priority
+            updatePriority(entry, refresh = false)
+        }
+    }
+
+    internal data class Key(val handle: Long, val type: Type)
+
+    internal class Entry(val key: Key, val node: MegaNode, val path: String) {
+        val tickets = ArrayList<Ticket>(1)
+        var priority = 0
+        var sequence = 0L
+        var isStarted = false
+    }
+
+    private val lock = Any()
+    private val entries = HashMap<Key, Entry>()
+    private val queue = TreeSet(
+        compareBy<Entry> { it.priority }.thenByDescending { it.sequence }
+    )
+    private var sequence = 0L
+    private var runningRequests = 0
+    private var maxRunningRequests = getMaxRunningRequests(
+        networkRepository.getCurrentConnectivityState()
+    )
+
+    init {
+        applicationScope.launch {
+            networkRepository.monitorConnectivityChanges().collect {
+                synchronized(lock) { maxRunningRequests = getMaxRunningRequests(it) }
+                startRequests()
+            }
+        }
+    }
+
+    /**
+     * Requests the download of the thumbnail or preview of a node
+     *
+     * @param node     Node of the image
+     * @param type     Type of the image
+     * @param path     Destination path of the image
+     * @param priority Priority of the request, lower values are started first
+     * @param listener Listener notified when the download finishes. Only
+     *                 [MegaRequestListenerInterface.onRequestFinish] is called.
+     * @return the ticket of the request
+     */
+    fun request(
+        node: MegaNode,
+        type: Type,
+        path: String,
+        priority: Int,
+        listener: MegaRequestListenerInterface,
+    ): Ticket {
+        val ticket = synchronized(lock) {
+            val key = Key(node.handle, type)
+            val entry = entries.getOrPut(key) { Entry(key, node, path) }
+            Ticket(entry, priority, listener).also {
+                entry.tickets.add(it)
+                updatePriority(entry, refresh = true)
+            }
+        }
+        startRequests()
+        return ticket
+    }
+
+    /**
+     * Requests the download of the thumbnail or preview of a node
+     *
+     * @param node     Node of the image
+     * @param type     Type of the image
+     * @param path     Destination path of the image
+     * @param priority Priority of the request, lower values are started first
+     * @param callback Called with the result when the download finishes
+     * @return the ticket of the request
+     */
+    fun request(
+        node: MegaNode,
+        type: Type,
+        path: String,
+        priority: Int,
+        callback: (success: Boolean) -> Unit,
+    ): Ticket = request(
+        node,
+        type,
+        path,
+        priority,
+        OptionalMegaRequestListenerInterface(onRequestFinish = { _, error ->
+            callback(error.errorCode == MegaError.API_OK)
+        })
+    )
+
+    private fun getMaxRunningRequests(connectivityState: ConnectivityState) =
+        if (connectivityState is ConnectivityState.Connected && !connectivityState.meteredConnection) {
+            UNMETERED_RUNNING_REQUESTS
+        } else {
+            METERED_RUNNING_REQUESTS
+        }
+
+    /**
+     * Sets the entry priority to the best one of its tickets. Requesting it again makes it the
+     * most recent one of its priority.
+     */
+    private fun updatePriority(entry: Entry, refresh: Boolean) {
+        if (entry.isStarted) return
+        val queued = queue.remove(entry)
+        entry.priority = entry.tickets.minOf { it.priority }
+        if (refresh || !queued) entry.sequence = ++sequence
+        queue.add(entry)
+    }
+
+    private fun startRequests() {
+        val started = ArrayList<Entry>()
+        synchronized(lock) {
+            while (runningRequests < maxRunningRequests) {
+                val entry = queue.pollFirst() ?: break
+                entry.isStarted = true
+                runningRequests++
+                started.add(entry)
+            }
+        }
+        started.forEach { start(it) }
+    }
+
+    private fun start(entry: Entry) {
+        val listener = object : MegaRequestListenerInterface {
+            override fun onRequestStart(api: MegaApiJava, request: MegaRequest) {}
+
+            override fun onRequestUpdate(api: MegaApiJava, request: MegaRequest) {}
+
+            override fun onRequestTemporaryError(
+                api: MegaApiJava,
+                request: MegaRequest,
+                error: MegaError,
+            ) {
+            }
+
+            override fun onRequestFinish(api: MegaApiJava, request: MegaRequest, error: MegaError) {
+                val tickets = synchronized(lock) {
+                    entries.remove(entry.key)
+                    runningRequests--
+                    entry.tickets.toList().also { entry.tickets.clear() }
+                }
+                if (error.errorCode == MegaError.API_OK) diskCacheManager.onWritten(File(entry.path))
+                startRequests()
+                tickets.forEach { it.listener.onRequestFinish(api, request, error) }
+            }
+        }
+
+        when (entry.key.type) {
+            Type.THUMBNAIL -> megaApiGateway.getThumbnail(entry.node, entry.path, listener)
+            Type.PREVIEW -> megaApiGateway.getPreview(entry.node, entry.path, listener)
+        }
+    }
+
+    companion object {
+        /**
+         * Priority of the requests of the items on screen
+         */
+        const val PRIORITY_VISIBLE = 0
+
+        /**
+         * Downloads running at the same time on unmetered connections
+         */
+        const val UNMETERED_RUNNING_REQUESTS = 6
+
+        /**
+         * Downloads running at the same time on metered connections, or without connection
+         */
+        const val METERED_RUNNING_REQUESTS = 2
+    }
+}
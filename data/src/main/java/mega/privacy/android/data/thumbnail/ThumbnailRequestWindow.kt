@@ -0,0 +1,139 @@
+package mega.privacy.android.data.thumbnail
+
+import nz.mega.sdk.MegaNode
+import java.util.TreeMap
+
+/**
+ * Thumbnail request window
+ *
+ * Sends to the [ThumbnailRequestScheduler] the requests of a list of items following the visible
+ * part of the list. Only the items up to [PREFETCH_DISTANCE] positions away from the visible ones
+ * are requested, with their distance as priority, and their requests are cancelled once they are
+ * more than [CANCEL_DISTANCE] positions away. Cancelled items are requested again when they get
+ * close to the visible ones.
+ *
+ * Until the visible range is known, the first items of the list are considered visible.
+ *
+ * @property scheduler
+ * @property type       Type of the images requested
+ * @property onLoaded   Called with the handle of every image downloaded successfully
+ */
+class ThumbnailRequestWindow(
+    private val scheduler: ThumbnailRequestScheduler,
+    private val type: ThumbnailRequestScheduler.Type,
+    private val onLoaded: (handle: Long) -> Unit,
+) {
+
+    /**
+     * Image to download
+     *
+     * @property position Position of the item in the list
+     * @property node     Node of the image
+     * @property path     Destination path of the image
+     */
+    data class Request(val position: Int, val node: MegaNode, val path: String)
+
+    private val pending = TreeMap<Int, Request>()
+    private val tickets = HashMap<Int, ThumbnailRequestScheduler.Ticket>()
+    private var firstVisible = 0
+    private var lastVisible = INITIAL_VISIBLE_ITEMS - 1
+
+    /**
+     * Replaces the requested images
+     *
+     * @param requests Images to download, in any order
+     */
+    @Synchronized
+    fun submit(requests: List<Request>) {
+        cancelAll()
+        requests.associateByTo(pending) { it.position }
+        update()
+    }
+
+    /**
+     * Sets the visible items
+     *
+     * @param first Position of the first visible item
+     * @param last  Position of the last visible item
+     */
+    @Synchronized
+    fun setVisibleRange(first: Int, last: Int) {
+        if (first > last || (first == firstVisible && last == lastVisible)) return
+        firstVisible = first
+        lastVisible = last
+        update()
+    }
+
+    /**
+     * Cancels all the requests
+     */
+    @Synchronized
+    fun cancel() {
+        cancelAll()
+        pending.clear()
+    }
+
+    private fun cancelAll() {
+        tickets.values.forEach { it.cancel() }
+        tickets.clear()
+    }
+
+    private fun update() {
+        val iterator = tickets.entries.iterator()
+        while (iterator.hasNext()) {
+            val (position, ticket) = iterator.next()
+            val distance = distanceToVisible(position)
+            if (distance > CANCEL_DISTANCE) {
+                ticket.cancel()
+                iterator.remove()
+            } else {
+                ticket.setPriority(distance)
+            }
+        }
+
+        pending.subMap(firstVisible - PREFETCH_DISTANCE, true, lastVisible + PREFETCH_DISTANCE, true)
+            .values
+            .filter { it.position !in tickets }
+            .sortedBy { distanceToVisible(it.position) }
+            .forEach { request ->
+                val ticket = scheduler.request(
+                    request.node,
+                    type,
+                    request.path,
+                    distanceToVisible(request.position)
+                ) { success -> onFinished(request, success) }
+                if (pending[request.position] === request) tickets[request.position] = ticket
+            }
+    }
+
+    @Synchronized
+    private fun onFinished(request: Request, success: Boolean) {
+        if (pending[request.position] !== request) return
+        pending.remove(request.position)
+        tickets.remove(request.position)
+        if (success) onLoaded(request.node.handle)
+    }
+
+    private fun distanceToVisible(position: Int) = when {
+        position < firstVisible -> firstVisible - position
+        position > lastVisible -> position - lastVisible
+        else -> ThumbnailRequestScheduler.PRIORITY_VISIBLE
+    }
+
+    companion object {
+        /**
+         * Number of items considered visible before the visible range is set
+         */
+        const val INITIAL_VISIBLE_ITEMS = 30
+
+        /**
+         * Maximum distance to the visible items of the requested items
+         */
+        const val PREFETCH_DISTANCE = 60
+
+        /**
+         * Distance to the visible items from which the requests are cancelled
+         */
+        const val CANCEL_DISTANCE = 120
+    }
+}
@@ -0,0 +1,148 @@
+package mega.privacy.android.data.cache
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.StandardTestDispatcher
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.advanceUntilIdle
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class DiskCacheManagerTest {
+
+    @get:Rule
+    val temporaryFolder = TemporaryFolder()
+
+    private val dispatcher = StandardTestDispatcher()
+    private val scope = TestScope(dispatcher)
+
+    private lateinit var manager: DiskCacheManager
+
+    private val folder by lazy { File(temporaryFolder.root, FOLDER).apply { mkdirs() } }
+
+    @Test
+    fun `test that the least recently used files are evicted down to the trim target`() {
+        val underTest = createManager(quota = 1000)
+        val files = (0..4).map { write("file$it") }
+        underTest.exists(files[0])
+
+        scope.advanceUntilIdle()
+
+        assertThat(folder.list()).asList().containsExactly("file0", "file3", "file4")
+        val stats = underTest.getStats().getValue(FOLDER)
+        assertThat(stats.evictionCount).isEqualTo(2)
+        assertThat(stats.evictedByteCount).isEqualTo(2L * FILE_SIZE)
+        assertThat(underTest.getSizes().getValue(FOLDER))
+            .isAtMost(1000L / 100 * DiskCacheFolder.TRIM_TARGET_PERCENT)
+    }
+
+    @Test
+    fun `test that the access order is restored from the journal`() {
+        val underTest = createManager(quota = 10_000)
+        val files = (0..2).map { write("file$it") }
+        files.forEachIndexed { index, file -> file.setLastModified(MODIFICATION_TIME * (index + 1)) }
+        underTest.exists(files[1])
+        underTest.exists(files[0])
+        scope.advanceUntilIdle()
+
+        createManager(quota = 700)
+        scope.advanceUntilIdle()
+
+        assertThat(folder.list()).asList().containsExactly("file0", "file1")
+    }
+
+    @Test
+    fun `test that files written without the manager are evicted first`() {
+        File(folder, "external").writeBytes(ByteArray(FILE_SIZE))
+        val underTest = createManager(quota = 700)
+        write("file0")
+        write("file1")
+
+        scope.advanceUntilIdle()
+
+        assertThat(folder.list()).asList().containsExactly("file0", "file1")
+        assertThat(underTest.getStats().getValue(FOLDER).evictionCount).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that hits and misses are counted`() {
+        val underTest = createManager(quota = 10_000)
+        val file = write("file0")
+
+        underTest.exists(file)
+        underTest.exists(File(folder, "missing"))
+        underTest.delete(file)
+        underTest.exists(file)
+
+        val stats = underTest.getStats().getValue(FOLDER)
+        assertThat(stats.hitCount).isEqualTo(1)
+        assertThat(stats.missCount).isEqualTo(2)
+        assertThat(underTest.getSizes().getValue(FOLDER)).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that files of other folders are not managed`() {
+        val underTest = createManager(quota = 0)
+        val file = File(temporaryFolder.newFolder("other"), "file0").apply {
+            writeBytes(ByteArray(FILE_SIZE))
+        }
+
+        underTest.onWritten(file)
+        scope.advanceUntilIdle()
+
+        assertThat(underTest.exists(file)).isTrue()
+        assertThat(underTest.getStats().keys).containsExactly(FOLDER)
+    }
+
+    @Test
+    fun `test that cleared files are forgotten`() {
+        val underTest = createManager(quota = 10_000)
+        write("file0")
+        write("file1")
+
+        folder.listFiles()?.forEach { it.delete() }
+        underTest.clear()
+        scope.advanceUntilIdle()
+
+        assertThat(underTest.getSizes().getValue(FOLDER)).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that accesses before the folder is loaded are applied once it is loaded`() {
+        val underTest = createManager(quota = 10_000)
+        val file = write("file0")
+        File(folder, "file1").writeBytes(ByteArray(FILE_SIZE))
+
+        assertThat(underTest.exists(file)).isTrue()
+        assertThat(underTest.getSizes().getValue(FOLDER)).isEqualTo(0)
+        assertThat(File(temporaryFolder.root, JOURNAL).exists()).isFalse()
+        underTest.delete(file)
+        scope.advanceUntilIdle()
+
+        assertThat(underTest.getSizes().getValue(FOLDER)).isEqualTo(FILE_SIZE.toLong())
+        assertThat(File(temporaryFolder.root, JOURNAL).readLines())
+            .containsExactly("W\t$FILE_SIZE\tfile1")
+    }
+
+    private fun createManager(quota: Long) = DiskCacheManager(
+        rootDirectory = { temporaryFolder.root },
+        quotas = mapOf(FOLDER to quota),
+        applicationScope = scope,
+        ioDispatcher = dispatcher
+    ).also { manager = it }
+
+    private fun write(name: String) = File(folder, name).also {
+        it.writeBytes(ByteArray(FILE_SIZE))
+        manager.onWritten(it)
+    }
+
+    companion object {
+        private const val FOLDER = "cacheMEGA"
+        private const val JOURNAL = "diskCacheJournalMEGA/$FOLDER.journal"
+        private const val FILE_SIZE = 300
+        private const val MODIFICATION_TIME = 1_000_000L
+    }
+}
@@ -0,0 +1,120 @@
+package mega.privacy.android.data.facade
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.model.GlobalTransfer
+import nz.mega.sdk.MegaError
+import nz.mega.sdk.MegaTransfer
+import org.junit.Test
+import org.mockito.kotlin.mock
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class GlobalTransferUpdatesTest {
+
+    private fun transfer(tag: Int) = mock<MegaTransfer> { on { this.tag }.thenReturn(tag) }
+
+    private fun TestScope.collectWithTime(flow: Flow<GlobalTransfer>) =
+        flow.map { testScheduler.currentTime to it }
+
+    @Test
+    fun `test that only the latest update of each transfer is emitted every interval`() =
+        runTest {
+            val first = GlobalTransfer.OnTransferUpdate(transfer(1))
+            val latest = GlobalTransfer.OnTransferUpdate(transfer(1))
+            val other = GlobalTransfer.OnTransferUpdate(transfer(2))
+            val source = flow {
+                emit(first)
+                emit(other)
+                emit(latest)
+                delay(INTERVAL * 3 / 2)
+            }
+
+            val emitted = collectWithTime(source.limitUpdateRate(INTERVAL)).toList()
+
+            assertThat(emitted).containsExactly(INTERVAL to latest, INTERVAL to other).inOrder()
+        }
+
+    @Test
+    fun `test that a finish event is not delayed and follows the pending update`() = runTest {
+        val transfer = transfer(1)
+        val update = GlobalTransfer.OnTransferUpdate(transfer)
+        val finish = GlobalTransfer.OnTransferFinish(transfer, mock<MegaError>())
+        val source = flow {
+            emit(update)
+            emit(finish)
+            delay(INTERVAL * 2)
+        }
+
+        val emitted = collectWithTime(source.limitUpdateRate(INTERVAL)).toList()
+
+        assertThat(emitted).containsExactly(0L to update, 0L to finish).inOrder()
+    }
+
+    @Test
+    fun `test that data and error events are never dropped`() = runTest {
+        val transfer = transfer(1)
+        val firstData = GlobalTransfer.OnTransferData(transfer, ByteArray(1))
+        val secondData = GlobalTransfer.OnTransferData(transfer, ByteArray(2))
+        val error = GlobalTransfer.OnTransferTemporaryError(transfer, mock())
+        val source = flow {
+            emit(firstData)
+            emit(secondData)
+            emit(error)
+        }
+
+        val emitted = source.limitUpdateRate(INTERVAL).toList()
+
+        assertThat(emitted).containsExactly(firstData, secondData, error).inOrder()
+    }
+
+    @Test
+    fun `test that the queue keeps the latest update and data event of each transfer`() =
+        runTest {
+            val underTest = GlobalTransferQueue()
+            val transfer = transfer(1)
+            val firstData = GlobalTransfer.OnTransferData(transfer, ByteArray(1))
+            val latestData = GlobalTransfer.OnTransferData(transfer, ByteArray(2))
+            val otherData = GlobalTransfer.OnTransferData(transfer(2), ByteArray(3))
+            val firstUpdate = GlobalTransfer.OnTransferUpdate(transfer)
+            val latestUpdate = GlobalTransfer.OnTransferUpdate(transfer)
+            val finish = GlobalTransfer.OnTransferFinish(transfer, mock())
+
+            listOf(firstData, firstUpdate, otherData, latestData, latestUpdate, finish)
+                .forEach { underTest.offer(it) }
+
+            assertThat(List(4) { underTest.receive() })
+                .containsExactly(latestData, latestUpdate, otherData, finish).inOrder()
+        }
+
+    @Test
+    fun `test that the queue keeps the events received after the waiting one was taken`() =
+        runTest {
+            val underTest = GlobalTransferQueue()
+            val first = GlobalTransfer.OnTransferData(transfer(1), ByteArray(1))
+            val second = GlobalTransfer.OnTransferData(transfer(1), ByteArray(2))
+
+            underTest.offer(first)
+            assertThat(underTest.receive()).isEqualTo(first)
+            underTest.offer(second)
+            assertThat(underTest.receive()).isEqualTo(second)
+        }
+
+    @Test
+    fun `test that every update is emitted without a limit`() = runTest {
+        val updates = List(3) { GlobalTransfer.OnTransferUpdate(transfer(1)) }
+        val source = flow { updates.forEach { emit(it) } }
+
+        assertThat(source.limitUpdateRate(0).toList()).isEqualTo(updates)
+    }
+
+    companion object {
+        private const val INTERVAL = 1000L
+    }
+}
@@ -0,0 +1,97 @@
+package mega.privacy.android.data.gateway
+
+import android.util.Log
+import mega.privacy.android.domain.entity.logging.LogEntry
+import org.junit.Test
+import org.mockito.kotlin.any
+import org.mockito.kotlin.inOrder
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.verify
+import org.slf4j.Logger
+
+class FileLogWriterTest {
+
+    private val logger = mock<Logger> {
+        on { isTraceEnabled }.thenReturn(false)
+        on { isDebugEnabled }.thenReturn(true)
+        on { isInfoEnabled }.thenReturn(true)
+        on { isWarnEnabled }.thenReturn(true)
+        on { isErrorEnabled }.thenReturn(true)
+    }
+
+    @Test
+    fun `test that consecutive entries of the same level are written at once`() {
+        val underTest = FileLogWriter(logger)
+
+        underTest.writeLogEntries(
+            listOf(
+                LogEntry(tag = "[sdk]", message = "first", priority = Log.DEBUG),
+                LogEntry(message = "second", priority = Log.DEBUG),
+                LogEntry(message = "third", priority = Log.DEBUG),
+            )
+        )
+
+        verify(logger).debug("[sdk] first\nsecond\nthird\n")
+    }
+
+    @Test
+    fun `test that every entry is written at its own level`() {
+        val underTest = FileLogWriter(logger)
+
+        underTest.writeLogEntries(
+            listOf(
+                LogEntry(message = "first", priority = Log.DEBUG),
+                LogEntry(message = "second", priority = Log.WARN),
+                LogEntry(message = "third", priority = Log.DEBUG),
+            )
+        )
+
+        inOrder(logger) {
+            verify(logger).debug("first\n")
+            verify(logger).warn("second\n")
+            verify(logger).debug("third\n")
+        }
+    }
+
+    @Test
+    fun `test that the stack trace of the throwable is written after the entry`() {
+        val underTest = FileLogWriter(logger)
+        val throwable = IllegalStateException("failure")
+
+        underTest.writeLogEntries(
+            listOf(
+                LogEntry(message = "first", priority = Log.ERROR, throwable = throwable),
+                LogEntry(message = "second", priority = Log.ERROR),
+            )
+        )
+
+        verify(logger).error(
+            "first\n${throwable.stackTraceToString().trimEnd()}\nsecond\n"
+        )
+    }
+
+    @Test
+    fun `test that entries of disabled levels are not written`() {
+        val underTest = FileLogWriter(logger)
+
+        underTest.writeLogEntries(listOf(LogEntry(message = "verbose", priority = Log.VERBOSE)))
+
+        verify(logger, never()).trace(any<String>())
+    }
+
+    @Test
+    fun `test that lines are prefixed with the time each entry was logged and its level`() {
+        val underTest = FileLogWriter(logger, timestampPattern = "dd-MM HH:mm:ss")
+
+        underTest.writeLogEntries(
+            listOf(
+                // 2022-10-18 10:15:30 and 10:15:31 UTC
+                LogEntry(message = "first", priority = Log.INFO, timestamp = 1666088130000L),
+                LogEntry(message = "second", priority = Log.INFO, timestamp = 1666088131000L),
+            )
+        )
+
+        verify(logger).info("[18-10 10:15:30][INFO ] first\n[18-10 10:15:31][INFO ] second\n")
+    }
+}
@@ -1,15 +1,19 @@
 package mega.privacy.android.data.logging
 
+import app.cash.turbine.test
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CompletableDeferred
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.logging.CreateLogEntryRequest
 import mega.privacy.android.domain.entity.logging.LogEntry
 import mega.privacy.android.domain.usecase.CreateLogEntry
 import org.junit.Before
 import org.junit.Test
 import org.mockito.kotlin.any
-import org.mockito.kotlin.argForWhich
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.verifyBlocking
 import timber.log.Timber
 
@@ -17,9 +21,11 @@ import timber.log.Timber
 class LogFlowTreeTest {
     private lateinit var underTest: LogFlowTree
 
-    private val createLogEntry = mock<CreateLogEntry> {
-        onBlocking { invoke(any()) }.thenReturn(
-            LogEntry(message = "", priority = 0))
+    private val requests = mutableListOf<CreateLogEntryRequest>()
+
+    private val createLogEntry = CreateLogEntry { request ->
+        requests.add(request)
+        LogEntry(message = request.message, priority = request.priority.intValue)
     }
 
     @Before
@@ -34,14 +40,70 @@ class LogFlowTreeTest {
     fun `test that correct ignored classes are passed to create entry`() = runTest {
         val expected = listOf<String>(
             Timber::class.java.name,
-            Timber::class.java.name,
+            Timber.Forest::class.java.name,
             Timber.Tree::class.java.name,
             Timber.DebugTree::class.java.name,
             LogFlowTree::class.java.name,
         )
+        underTest.logFlow.test {
+            underTest.d("Message")
+
+            awaitItem()
+            assertThat(requests.single().loggingClasses).containsAtLeastElementsIn(expected)
+        }
+    }
+
+    @Test
+    fun `test that nothing is logged while the flow is not collected`() = runTest {
+        val createLogEntry = mock<CreateLogEntry>()
+        underTest = LogFlowTree(UnconfinedTestDispatcher(), createLogEntry)
+
         underTest.d("Message")
+        underTest.logFlow.test {
+            expectNoEvents()
+        }
 
-        verifyBlocking(createLogEntry) { invoke(argForWhich { loggingClasses.containsAll(expected) }) }
+        verifyBlocking(createLogEntry, never()) { invoke(any()) }
     }
 
-}
\ No newline at end of file
+    @Test
+    fun `test that the caller is only captured for untagged logs`() = runTest {
+        Timber.plant(underTest)
+        underTest.logFlow.test {
+            Timber.tag("[sdk]").d("Sdk message")
+            Timber.d("App message")
+
+            cancelAndIgnoreRemainingEvents()
+        }
+        Timber.uproot(underTest)
+
+        assertThat(requests.map { it.message }).containsExactly("Sdk message", "App message")
+            .inOrder()
+        assertThat(requests[0].trace).isEmpty()
+        assertThat(requests[1].trace).isNotEmpty()
+        assertThat(requests[1].trace.size).isAtMost(LogFlowTree.MAX_TRACE_DEPTH)
+    }
+
+    @Test
+    fun `test that dropped logs are counted and reported in the next batch`() = runTest {
+        val firstEntryCreated = CompletableDeferred<Unit>()
+        underTest = LogFlowTree(UnconfinedTestDispatcher()) { request ->
+            // Keeps the consumer busy with the first batch while the buffer fills
+            firstEntryCreated.await()
+            LogEntry(message = request.message, priority = request.priority.intValue)
+        }
+
+        underTest.logFlow.test {
+            repeat(1 + LogFlowTree.BUFFER_CAPACITY + 10) {
+                underTest.d("Message $it")
+            }
+            assertThat(underTest.droppedCount).isEqualTo(10)
+
+            firstEntryCreated.complete(Unit)
+
+            assertThat(awaitItem().single().message).isEqualTo("Message 0")
+            assertThat(awaitItem().first().message).isEqualTo("10 log entries dropped")
+            cancelAndIgnoreRemainingEvents()
+        }
+    }
+}
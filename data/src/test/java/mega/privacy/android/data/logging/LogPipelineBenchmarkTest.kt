@@ -0,0 +1,267 @@
+package mega.privacy.android.data.logging
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.joinAll
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import mega.privacy.android.data.gateway.FileLogWriter
+import mega.privacy.android.data.gateway.TimberChatLogger
+import mega.privacy.android.data.gateway.TimberMegaLogger
+import mega.privacy.android.domain.entity.logging.CreateLogEntryRequest
+import mega.privacy.android.domain.entity.logging.LogEntry
+import mega.privacy.android.domain.entity.logging.LogPriority
+import mega.privacy.android.domain.usecase.CreateLogEntry
+import mega.privacy.android.domain.usecase.CreateSdkLogEntry
+import mega.privacy.android.domain.usecase.DefaultCreateTraceString
+import org.junit.After
+import org.junit.Assume.assumeTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import org.slf4j.Logger
+import timber.log.Timber
+import java.io.BufferedOutputStream
+import java.io.File
+import java.io.FileOutputStream
+import java.lang.reflect.InvocationHandler
+import java.lang.reflect.Method
+import java.lang.reflect.Proxy
+import java.util.concurrent.CountDownLatch
+import kotlin.concurrent.thread
+
+/**
+ * JVM benchmark of the sdk log pipeline, comparing the previous coroutine launch per call and
+ * write per entry with [LogFlowTree] and [FileLogWriter] batches.
+ *
+ * Both paths create the entries with [CreateSdkLogEntry] and write them through a logger which
+ * flushes a file on every call, as the logback appender does. The previous path is reproduced
+ * without its shared flow, whose single slot buffer dropped entries under load, so it is measured
+ * writing every entry. Most calls are tagged, as when the sdk logs at LOG_LEVEL_MAX. The threads
+ * log as fast as they can and do not wait for the writer in the new path, so the events exceeding
+ * the buffer are dropped and counted instead of queued.
+ * Results are printed, not asserted, as timings depend on the machine.
+ *
+ * Opt-in, as it is too slow for every build: run it with `-Pbenchmark`.
+ */
+class LogPipelineBenchmarkTest {
+
+    @get:Rule
+    val temporaryFolder = TemporaryFolder()
+
+    private val createLogEntry = CreateSdkLogEntry(DefaultCreateTraceString())
+
+    @Before
+    fun setUp() {
+        assumeTrue("Benchmarks only run with -Pbenchmark", java.lang.Boolean.getBoolean("benchmark"))
+    }
+
+    @After
+    fun tearDown() {
+        Timber.uprootAll()
+    }
+
+    @Test
+    fun `benchmark 20k log calls from 4 threads`() = runBlocking {
+        val legacyResult = runLegacy()
+        val newResult = runLogFlowTree()
+
+        println("LogFlowTree per call: ${legacyResult.millis} ms, ${legacyResult.written} written")
+        println(
+            "LogFlowTree batches:  ${newResult.millis} ms, ${newResult.written} written, " +
+                    "${newResult.dropped} dropped"
+        )
+
+        assertThat(legacyResult.written).isEqualTo(CALLS)
+        assertThat(newResult.written + newResult.dropped).isEqualTo(CALLS)
+    }
+
+    private suspend fun runLegacy(): Result {
+        val logger = FlushingLogger(temporaryFolder.newFile())
+        val scope = CoroutineScope(Job() + Dispatchers.IO)
+        val tree = LegacyLogFlowTree(scope, createLogEntry) { logger.write(it) }
+        Timber.plant(tree)
+
+        log(WARM_UP_CALLS)
+        scope.coroutineContext[Job]?.children?.toList()?.joinAll()
+        logger.reset()
+
+        val start = System.nanoTime()
+        log(CALLS)
+        scope.coroutineContext[Job]?.children?.toList()?.joinAll()
+        val nanos = System.nanoTime() - start
+
+        Timber.uproot(tree)
+        scope.cancel()
+        return Result(nanos / NANOS_PER_MILLI, logger.lines, 0)
+    }
+
+    private suspend fun runLogFlowTree(): Result = coroutineScope {
+        val logger = FlushingLogger(temporaryFolder.newFile())
+        val writer = FileLogWriter(logger.logger)
+        val tree = LogFlowTree(Dispatchers.IO, createLogEntry)
+        Timber.plant(tree)
+        val collector = launch(Dispatchers.IO) {
+            tree.logFlow.collect { writer.writeLogEntries(it) }
+        }
+
+        // The tree starts logging once it sees the collector
+        while (logger.lines == 0) {
+            Timber.d(MARKER)
+            delay(1)
+        }
+        log(WARM_UP_CALLS)
+        awaitWritten(logger, tree, WARM_UP_CALLS.toLong(), tree.droppedCount)
+        logger.reset()
+        val droppedBefore = tree.droppedCount
+
+        val start = System.nanoTime()
+        log(CALLS)
+        awaitWritten(logger, tree, CALLS.toLong(), droppedBefore)
+        val nanos = System.nanoTime() - start
+
+        collector.cancel()
+        Timber.uproot(tree)
+        Result(nanos / NANOS_PER_MILLI, logger.lines, tree.droppedCount - droppedBefore)
+    }
+
+    private suspend fun awaitWritten(
+        logger: FlushingLogger,
+        tree: LogFlowTree,
+        calls: Long,
+        droppedBefore: Long,
+    ) {
+        while (logger.lines + tree.droppedCount - droppedBefore < calls) delay(1)
+    }
+
+    /**
+     * Logs from [THREADS] threads, one app call every [SDK_CALLS_PER_APP_CALL] sdk calls
+     */
+    private fun log(calls: Int) {
+        val start = CountDownLatch(1)
+        val threads = (0 until THREADS).map {
+            thread {
+                start.await()
+                repeat(calls / THREADS) { call ->
+                    if (call % SDK_CALLS_PER_APP_CALL == 0) {
+                        Timber.d("$MARKER app call $call")
+                    } else {
+                        Timber.tag("[sdk]").d("$MARKER sdk call $call")
+                    }
+                }
+            }
+        }
+        start.countDown()
+        threads.forEach { it.join() }
+    }
+
+    private class Result(val millis: Long, val written: Int, val dropped: Long)
+
+    /**
+     * Previous sdk log tree, launching a coroutine with the whole stack trace for every call
+     */
+    private class LegacyLogFlowTree(
+        private val scope: CoroutineScope,
+        private val createLogEntry: CreateLogEntry,
+        private val write: (LogEntry) -> Unit,
+    ) : Timber.Tree() {
+
+        private val ignoredClasses = listOf(
+            Timber::class.java.name,
+            Timber.Forest::class.java.name,
+            Timber.Tree::class.java.name,
+            Timber.DebugTree::class.java.name,
+            LegacyLogFlowTree::class.java.name,
+        )
+
+        private val sdkLoggers = listOf(
+            TimberChatLogger::class.java.name,
+            TimberMegaLogger::class.java.name
+        )
+
+        override fun log(priority: Int, tag: String?, message: String, t: Throwable?) {
+            val trace = Throwable().stackTrace
+            scope.launch {
+                createLogEntry(
+                    CreateLogEntryRequest(
+                        tag = tag,
+                        message = message,
+                        priority = LogPriority.fromInt(priority),
+                        throwable = t,
+                        trace = trace.asList(),
+                        loggingClasses = ignoredClasses,
+                        sdkLoggers = sdkLoggers)
+                )?.let(write)
+            }
+        }
+    }
+
+    /**
+     * Logger writing every call to a file and flushing it, counting the benchmark lines
+     */
+    private class FlushingLogger(file: File) : InvocationHandler {
+        private val outputStream = BufferedOutputStream(FileOutputStream(file))
+
+        @Volatile
+        var lines = 0
+            private set
+
+        val logger = Proxy.newProxyInstance(
+            Logger::class.java.classLoader,
+            arrayOf(Logger::class.java),
+            this
+        ) as Logger
+
+        /**
+         * Previous file log writer, one call per entry
+         */
+        fun write(logEntry: LogEntry) = logger.debug(logEntry.toString())
+
+        @Synchronized
+        fun reset() {
+            lines = 0
+        }
+
+        @Synchronized
+        override fun invoke(proxy: Any, method: Method, args: Array<out Any?>?): Any? {
+            val message = args?.firstOrNull()
+            return when {
+                method.declaringClass == Any::class.java -> method.invoke(this, *args.orEmpty())
+                method.name.startsWith("is") -> true
+                message is String -> {
+                    outputStream.write(message.toByteArray())
+                    outputStream.write('\n'.code)
+                    outputStream.flush()
+                    lines += message.countMarkers()
+                    null
+                }
+                else -> null
+            }
+        }
+
+        private fun String.countMarkers(): Int {
+            var count = 0
+            var index = indexOf(MARKER)
+            while (index >= 0) {
+                count++
+                index = indexOf(MARKER, index + MARKER.length)
+            }
+            return count
+        }
+    }
+
+    companion object {
+        private const val MARKER = "benchmark"
+        private const val THREADS = 4
+        private const val CALLS = 20_000
+        private const val WARM_UP_CALLS = 2_000
+        private const val SDK_CALLS_PER_APP_CALL = 10
+        private const val NANOS_PER_MILLI = 1_000_000
+    }
+}
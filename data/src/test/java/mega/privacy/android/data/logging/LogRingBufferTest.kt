@@ -0,0 +1,61 @@
+package mega.privacy.android.data.logging
+
+import com.google.common.truth.Truth.assertThat
+import org.junit.Test
+import java.util.concurrent.CountDownLatch
+import kotlin.concurrent.thread
+
+class LogRingBufferTest {
+
+    @Test
+    fun `test that items are drained in the order they were added`() {
+        val underTest = LogRingBuffer<Int>(8)
+        (1..5).forEach { underTest.offer(it) }
+
+        val drained = mutableListOf<Int>()
+        assertThat(underTest.drainTo(drained, 3)).isEqualTo(3)
+        assertThat(underTest.drainTo(drained, 10)).isEqualTo(2)
+
+        assertThat(drained).containsExactly(1, 2, 3, 4, 5).inOrder()
+        assertThat(underTest.isEmpty).isTrue()
+    }
+
+    @Test
+    fun `test that items are dropped and counted when the buffer is full`() {
+        val underTest = LogRingBuffer<Int>(4)
+
+        val added = (1..6).map { underTest.offer(it) }
+
+        assertThat(added).containsExactly(true, true, true, true, false, false).inOrder()
+        assertThat(underTest.droppedCount).isEqualTo(2)
+
+        underTest.drainTo(mutableListOf(), 1)
+        assertThat(underTest.offer(7)).isTrue()
+    }
+
+    @Test
+    fun `test that items from many producers are neither lost nor repeated`() {
+        val underTest = LogRingBuffer<Int>(1024)
+        val producers = 4
+        val itemsPerProducer = 50_000
+        val start = CountDownLatch(1)
+        val drained = mutableListOf<Int>()
+
+        val threads = (0 until producers).map { producer ->
+            thread {
+                start.await()
+                repeat(itemsPerProducer) {
+                    val item = producer * itemsPerProducer + it
+                    while (!underTest.offer(item)) Thread.yield()
+                }
+            }
+        }
+        start.countDown()
+        while (drained.size < producers * itemsPerProducer) {
+            if (underTest.drainTo(drained, 256) == 0) Thread.yield()
+        }
+        threads.forEach { it.join() }
+
+        assertThat(drained.toSet()).hasSize(producers * itemsPerProducer)
+    }
+}
@@ -2,13 +2,19 @@ package mega.privacy.android.data.repository
 
 import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.emptyFlow
+import kotlinx.coroutines.test.TestScope
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.cache.DiskCacheManager
 import mega.privacy.android.data.constant.CacheFolderConstant
 import mega.privacy.android.data.gateway.CacheGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.thumbnail.ThumbnailRequestScheduler
+import mega.privacy.android.domain.entity.ConnectivityState
 import mega.privacy.android.domain.exception.MegaException
 import mega.privacy.android.domain.repository.ImageRepository
+import mega.privacy.android.domain.repository.NetworkRepository
 import nz.mega.sdk.MegaApiJava
 import nz.mega.sdk.MegaError
 import nz.mega.sdk.MegaNode
@@ -27,7 +33,17 @@ class DefaultImageRepositoryTest {
     private lateinit var underTest: ImageRepository
 
     private val megaApiGateway = mock<MegaApiGateway>()
+    private val diskCacheManager = DiskCacheManager(
+        rootDirectory = { File("cache") },
+        quotas = emptyMap(),
+        applicationScope = TestScope(UnconfinedTestDispatcher()),
+        ioDispatcher = UnconfinedTestDispatcher()
+    )
     private val cacheGateway = mock<CacheGateway>()
+    private val networkRepository = mock<NetworkRepository> {
+        on { getCurrentConnectivityState() }.thenReturn(ConnectivityState.Connected(false))
+        on { monitorConnectivityChanges() }.thenReturn(emptyFlow())
+    }
 
     private val cacheDir = File("cache")
 
@@ -36,7 +52,14 @@ class DefaultImageRepositoryTest {
         underTest = DefaultImageRepository(
             megaApiGateway = megaApiGateway,
             ioDispatcher = UnconfinedTestDispatcher(),
-            cacheGateway = cacheGateway
+            cacheGateway = cacheGateway,
+            thumbnailRequestScheduler = ThumbnailRequestScheduler(
+                megaApiGateway = megaApiGateway,
+                diskCacheManager = diskCacheManager,
+                networkRepository = networkRepository,
+                applicationScope = TestScope(UnconfinedTestDispatcher())
+            ),
+            diskCacheManager = diskCacheManager
         )
     }
 
@@ -0,0 +1,142 @@
+package mega.privacy.android.data.thumbnail
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.cache.DiskCacheManager
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.domain.entity.ConnectivityState
+import mega.privacy.android.domain.repository.NetworkRepository
+import nz.mega.sdk.MegaError
+import nz.mega.sdk.MegaNode
+import nz.mega.sdk.MegaRequestListenerInterface
+import org.junit.Before
+import org.junit.Test
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.whenever
+import java.io.File
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class ThumbnailRequestSchedulerTest {
+    private lateinit var underTest: ThumbnailRequestScheduler
+
+    private val connectivity = MutableSharedFlow<ConnectivityState>()
+    private val networkRepository = mock<NetworkRepository> {
+        on { getCurrentConnectivityState() }.thenReturn(ConnectivityState.Connected(true))
+        on { monitorConnectivityChanges() }.thenReturn(connectivity)
+    }
+    private val megaApiGateway = mock<MegaApiGateway>()
+    private val diskCacheManager = DiskCacheManager(
+        rootDirectory = { File("cache") },
+        quotas = emptyMap(),
+        applicationScope = TestScope(UnconfinedTestDispatcher()),
+        ioDispatcher = UnconfinedTestDispatcher()
+    )
+
+    private val started = mutableListOf<Long>()
+    private val listeners = mutableMapOf<Long, MegaRequestListenerInterface>()
+
+    @Before
+    fun setUp() {
+        whenever(megaApiGateway.getThumbnail(any(), any(), any())).thenAnswer {
+            val handle = (it.arguments[0] as MegaNode).handle
+            started.add(handle)
+            listeners[handle] = it.arguments[2] as MegaRequestListenerInterface
+            Unit
+        }
+        underTest = ThumbnailRequestScheduler(
+            megaApiGateway = megaApiGateway,
+            diskCacheManager = diskCacheManager,
+            networkRepository = networkRepository,
+            applicationScope = TestScope(UnconfinedTestDispatcher())
+        )
+    }
+
+    @Test
+    fun `test that requests of the same node are merged`() {
+        val results = mutableListOf<Boolean>()
+        request(1L) { results.add(it) }
+        request(1L) { results.add(it) }
+
+        finish(1L)
+
+        assertThat(started).containsExactly(1L)
+        assertThat(results).containsExactly(true, true)
+    }
+
+    @Test
+    fun `test that queued requests start by priority and the most recent first`() {
+        request(1L, priority = 0)
+        request(2L, priority = 0)
+        request(3L, priority = 5)
+        request(4L, priority = 1)
+        request(5L, priority = 1)
+
+        finish(1L)
+        finish(5L)
+        finish(2L)
+
+        assertThat(started).containsExactly(1L, 2L, 5L, 4L, 3L).inOrder()
+    }
+
+    @Test
+    fun `test that cancelled requests are not started nor notified`() {
+        val results = mutableListOf<Boolean>()
+        request(1L)
+        request(2L)
+        request(3L).cancel()
+        val merged = request(4L) { results.add(it) }
+        request(4L)
+        merged.cancel()
+
+        finish(1L)
+        finish(2L)
+        finish(4L)
+
+        assertThat(started).containsExactly(1L, 2L, 4L).inOrder()
+        assertThat(results).isEmpty()
+    }
+
+    @Test
+    fun `test that a new priority changes the order of the queued requests`() {
+        request(1L)
+        request(2L)
+        request(3L, priority = 1)
+        request(4L, priority = 2).setPriority(0)
+
+        finish(1L)
+
+        assertThat(started).containsExactly(1L, 2L, 4L).inOrder()
+    }
+
+    @Test
+    fun `test that more requests run at the same time on unmetered connections`() = runTest {
+        (1L..10L).forEach { request(it) }
+        assertThat(started).hasSize(ThumbnailRequestScheduler.METERED_RUNNING_REQUESTS)
+
+        connectivity.emit(ConnectivityState.Connected(false))
+
+        assertThat(started).hasSize(ThumbnailRequestScheduler.UNMETERED_RUNNING_REQUESTS)
+    }
+
+    private fun request(
+        handle: Long,
+        priority: Int = ThumbnailRequestScheduler.PRIORITY_VISIBLE,
+        callback: (Boolean) -> Unit = {},
+    ) = underTest.request(
+        mock { on { this.handle }.thenReturn(handle) },
+        ThumbnailRequestScheduler.Type.THUMBNAIL,
+        "path/$handle.jpg",
+        priority,
+        callback
+    )
+
+    private fun finish(handle: Long) {
+        val error = mock<MegaError> { on { errorCode }.thenReturn(MegaError.API_OK) }
+        listeners.getValue(handle).onRequestFinish(mock(), mock(), error)
+    }
+}
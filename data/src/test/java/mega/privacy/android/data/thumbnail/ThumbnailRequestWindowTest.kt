@@ -0,0 +1,145 @@
+package mega.privacy.android.data.thumbnail
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.emptyFlow
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import mega.privacy.android.data.cache.DiskCacheManager
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.thumbnail.ThumbnailRequestWindow.Companion.INITIAL_VISIBLE_ITEMS
+import mega.privacy.android.data.thumbnail.ThumbnailRequestWindow.Companion.PREFETCH_DISTANCE
+import mega.privacy.android.domain.entity.ConnectivityState
+import mega.privacy.android.domain.repository.NetworkRepository
+import nz.mega.sdk.MegaError
+import nz.mega.sdk.MegaNode
+import nz.mega.sdk.MegaRequestListenerInterface
+import org.junit.Before
+import org.junit.Test
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.whenever
+import java.io.File
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class ThumbnailRequestWindowTest {
+    private lateinit var underTest: ThumbnailRequestWindow
+
+    private val networkRepository = mock<NetworkRepository> {
+        on { getCurrentConnectivityState() }.thenReturn(ConnectivityState.Connected(true))
+        on { monitorConnectivityChanges() }.thenReturn(emptyFlow())
+    }
+    private val megaApiGateway = mock<MegaApiGateway>()
+    private val diskCacheManager = DiskCacheManager(
+        rootDirectory = { File("cache") },
+        quotas = emptyMap(),
+        applicationScope = TestScope(UnconfinedTestDispatcher()),
+        ioDispatcher = UnconfinedTestDispatcher()
+    )
+
+    private val started = mutableListOf<Long>()
+    private val running = mutableMapOf<Long, MegaRequestListenerInterface>()
+    private val loaded = mutableListOf<Long>()
+
+    private val requests = (0 until ITEMS).map { position ->
+        ThumbnailRequestWindow.Request(
+            position = position,
+            node = mock { on { handle }.thenReturn(position.toLong()) },
+            path = "path/$position.jpg"
+        )
+    }
+
+    @Before
+    fun setUp() {
+        whenever(megaApiGateway.getThumbnail(any(), any(), any())).thenAnswer {
+            val handle = (it.arguments[0] as MegaNode).handle
+            started.add(handle)
+            running[handle] = it.arguments[2] as MegaRequestListenerInterface
+            Unit
+        }
+        val scheduler = ThumbnailRequestScheduler(
+            megaApiGateway = megaApiGateway,
+            diskCacheManager = diskCacheManager,
+            networkRepository = networkRepository,
+            applicationScope = TestScope(UnconfinedTestDispatcher())
+        )
+        underTest = ThumbnailRequestWindow(
+            scheduler,
+            ThumbnailRequestScheduler.Type.THUMBNAIL
+        ) { loaded.add(it) }
+    }
+
+    @Test
+    fun `test that only the items close to the first ones are requested initially`() {
+        underTest.submit(requests)
+
+        finishAll()
+
+        assertThat(started).containsExactlyElementsIn(
+            (0L until INITIAL_VISIBLE_ITEMS + PREFETCH_DISTANCE.toLong()).toList()
+        )
+        assertThat(started.take(INITIAL_VISIBLE_ITEMS).sorted())
+            .isEqualTo((0L until INITIAL_VISIBLE_ITEMS).toList())
+    }
+
+    @Test
+    fun `test that the visible items are requested first and the far ones cancelled`() {
+        underTest.submit(requests)
+        started.clear()
+
+        underTest.setVisibleRange(FIRST_VISIBLE, LAST_VISIBLE)
+        finishAll()
+
+        assertThat(started.take(LAST_VISIBLE - FIRST_VISIBLE + 1).sorted())
+            .isEqualTo((FIRST_VISIBLE.toLong()..LAST_VISIBLE).toList())
+        assertThat(started.minOf { it }).isEqualTo(FIRST_VISIBLE - PREFETCH_DISTANCE.toLong())
+        assertThat(started.maxOf { it }).isEqualTo(LAST_VISIBLE + PREFETCH_DISTANCE.toLong())
+    }
+
+    @Test
+    fun `test that downloaded items are notified and not requested again`() {
+        underTest.submit(requests)
+        finishAll(failed = setOf(FAILED_HANDLE))
+        started.clear()
+
+        underTest.setVisibleRange(FIRST_VISIBLE, LAST_VISIBLE)
+        underTest.setVisibleRange(0, LAST_VISIBLE - FIRST_VISIBLE)
+        finishAll()
+
+        assertThat(loaded).doesNotContain(FAILED_HANDLE)
+        assertThat(started.filter { it < INITIAL_VISIBLE_ITEMS + PREFETCH_DISTANCE }).isEmpty()
+    }
+
+    @Test
+    fun `test that cancel drops the queued requests`() {
+        underTest.submit(requests)
+        val firstRunning = started.toList()
+
+        underTest.cancel()
+        underTest.setVisibleRange(FIRST_VISIBLE, LAST_VISIBLE)
+        finishAll()
+
+        assertThat(started).isEqualTo(firstRunning)
+        assertThat(loaded).isEmpty()
+    }
+
+    /**
+     * Finishes the running downloads, and the ones started meanwhile, until none is left
+     */
+    private fun finishAll(failed: Set<Long> = emptySet()) {
+        while (running.isNotEmpty()) {
+            val (handle, listener) = running.entries.first()
+            running.remove(handle)
+            val errorCode = if (handle in failed) MegaError.API_ENOENT else MegaError.API_OK
+            val error = mock<MegaError> { on { this.errorCode }.thenReturn(errorCode) }
+            listener.onRequestFinish(mock(), mock(), error)
+        }
+    }
+
+    companion object {
+        private const val ITEMS = 2000
+        private const val FIRST_VISIBLE = 500
+        private const val LAST_VISIBLE = 520
+        private const val FAILED_HANDLE = 3L
+    }
+}
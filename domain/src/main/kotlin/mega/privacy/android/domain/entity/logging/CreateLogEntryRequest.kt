@@ -10,6 +10,7 @@ package mega.privacy.android.domain.entity.logging
  * @property trace
  * @property loggingClasses
  * @property sdkLoggers
+ * @property timestamp time of the logging call, in milliseconds since the epoch
  */
 data class CreateLogEntryRequest(
     val tag: String?,
@@ -19,4 +20,5 @@ data class CreateLogEntryRequest(
     val trace: List<StackTraceElement>,
     val loggingClasses: List<String>,
     val sdkLoggers: List<String>,
+    val timestamp: Long = System.currentTimeMillis(),
 )
\ No newline at end of file
@@ -8,6 +8,7 @@ package mega.privacy.android.domain.entity.logging
  * @property stackTrace
  * @property priority
  * @property throwable
+ * @property timestamp time the entry was logged, in milliseconds since the epoch
  */
 data class LogEntry(
     val tag: String? = null,
@@ -15,6 +16,7 @@ data class LogEntry(
     val stackTrace: String? = null,
     val priority: Int,
     val throwable: Throwable? = null,
+    val timestamp: Long = System.currentTimeMillis(),
 ) {
     override fun toString() = "${tag.orEmpty()} $message ${stackTrace.orEmpty()}".trim()
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package mega.privacy.android.domain.entity.photos
+
+/**
+ * Changes of the photos since the previous emission
+ *
+ * @property added Photos which were not there before
+ * @property updated New values of photos which were already there
+ * @property removed Ids of the photos which are no longer there
+ */
+data class PhotosChange(
+    val added: List<Photo> = emptyList(),
+    val updated: List<Photo> = emptyList(),
+    val removed: List<Long> = emptyList(),
+)
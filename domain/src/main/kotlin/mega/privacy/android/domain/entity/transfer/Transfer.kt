@@ -10,6 +10,8 @@ package mega.privacy.android.domain.entity.transfer
  * @property tag
  * @property transferType
  * @property isFinished
+ * @property isBackgroundTransfer true if the app started it in the background, these transfers are
+ * not counted as pending for the user
  */
 data class Transfer(
     val totalBytes: Long,
@@ -18,4 +20,5 @@ data class Transfer(
     val tag: Int,
     val transferType: TransferType,
     val isFinished: Boolean,
+    val isBackgroundTransfer: Boolean = false,
 )
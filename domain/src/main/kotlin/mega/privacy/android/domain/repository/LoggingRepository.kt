@@ -25,28 +25,30 @@ interface LoggingRepository {
     /**
      * Get sdk logging flow
      *
+     * @return flow of the sdk log entries, emitted in batches
      */
-    fun getSdkLoggingFlow(): Flow<LogEntry>
+    fun getSdkLoggingFlow(): Flow<List<LogEntry>>
 
     /**
      * Get chat logging flow
      *
+     * @return flow of the chat log entries, emitted in batches
      */
-    fun getChatLoggingFlow(): Flow<LogEntry>
+    fun getChatLoggingFlow(): Flow<List<LogEntry>>
 
     /**
      * Log to sdk file
      *
-     * @param logMessage
+     * @param logMessages batch of entries, written at once
      */
-    suspend fun logToSdkFile(logMessage: LogEntry)
+    suspend fun logToSdkFile(logMessages: List<LogEntry>)
 
     /**
      * Log to chat file
      *
-     * @param logMessage
+     * @param logMessages batch of entries, written at once
      */
-    suspend fun logToChatFile(logMessage: LogEntry)
+    suspend fun logToChatFile(logMessages: List<LogEntry>)
 
     /**
      * Compress logs
@@ -3,6 +3,7 @@ package mega.privacy.android.domain.repository
 import kotlinx.coroutines.flow.Flow
 import mega.privacy.android.domain.entity.node.NodeUpdate
 import mega.privacy.android.domain.entity.photos.Photo
+import mega.privacy.android.domain.entity.photos.PhotosChange
 import java.io.File
 
 /**
@@ -45,4 +46,14 @@ interface PhotosRepository {
      * Search all the Photos in mega
      */
     suspend fun searchMegaPhotos(): List<Photo>
+
+    /**
+     * Monitor the photos in mega
+     *
+     * The photos are searched once, and then kept up to date with the node updates.
+     *
+     * @return a flow emitting all the photos as added first, and then only the photos changed
+     * by each node update
+     */
+    fun monitorPhotos(): Flow<PhotosChange>
 }
\ No newline at end of file
@@ -26,7 +26,8 @@ class CreateChatLogEntry @Inject constructor(
                 request.message,
                 stackTrace,
                 request.priority.intValue,
-                request.throwable)
+                request.throwable,
+                request.timestamp)
         } else null
         return entry
     }
@@ -17,13 +17,15 @@ class CreateSdkLogEntry @Inject constructor(
                 request.message,
                 null,
                 request.priority.intValue,
-                request.throwable)
+                request.throwable,
+                request.timestamp)
             isNotSdkLog(request.trace, request.sdkLoggers) -> LogEntry(
                 "[clientApp]",
                 request.message,
                 createTraceString(request.trace, request.loggingClasses),
                 request.priority.intValue,
-                request.throwable
+                request.throwable,
+                request.timestamp
             )
             else -> null
         }
@@ -1,12 +1,6 @@
 package mega.privacy.android.domain.usecase
 
-import kotlinx.coroutines.ExperimentalCoroutinesApi
-import kotlinx.coroutines.flow.emitAll
-import kotlinx.coroutines.flow.filter
 import kotlinx.coroutines.flow.flow
-import kotlinx.coroutines.flow.map
-import kotlinx.coroutines.flow.mapLatest
-import mega.privacy.android.domain.entity.node.NodeChanges
 import mega.privacy.android.domain.entity.photos.Photo
 import mega.privacy.android.domain.repository.PhotosRepository
 import javax.inject.Inject
@@ -14,6 +8,8 @@ import javax.inject.Inject
 /**
  * Default get albums
  *
+ * Only the photos changed by each update are checked against the predicates.
+ *
  * @property photosRepository
  */
 class DefaultGetDefaultAlbumPhotos @Inject constructor(
@@ -21,29 +17,21 @@ class DefaultGetDefaultAlbumPhotos @Inject constructor(
 ) : GetDefaultAlbumPhotos {
 
     override fun invoke(list: List<suspend (Photo) -> Boolean>) = flow {
-        emit(createAlbumList(list))
-        emitAll(getUpdatePhotos(list))
-    }
-
-    private suspend fun createAlbumList(list: List<suspend (Photo) -> Boolean>) =
-        photosRepository.searchMegaPhotos()
-            .filter {
-                list.any { predicate -> predicate(it) }
+        val albumPhotos = LinkedHashMap<Long, Photo>()
+        var isFirstChange = true
+        photosRepository.monitorPhotos().collect { (added, updated, removed) ->
+            var changed = false
+            removed.forEach { changed = albumPhotos.remove(it) != null || changed }
+            (added + updated).forEach { photo ->
+                changed = if (list.any { predicate -> predicate(photo) }) {
+                    albumPhotos.put(photo.id, photo) != photo || changed
+                } else {
+                    albumPhotos.remove(photo.id) != null || changed
+                }
             }
 
-    @OptIn(ExperimentalCoroutinesApi::class)
-    private fun getUpdatePhotos(list: List<suspend (Photo) -> Boolean>) =
-        photosRepository.monitorNodeUpdates()
-            .map { (changes) ->
-                changes
-                    .filter { (_, value) ->
-                        value.contains(NodeChanges.New)
-                                || value.contains(NodeChanges.Favourite)
-                                || value.contains(NodeChanges.Attributes)
-                                || value.contains(NodeChanges.Parent)
-                    }
-            }
-            .filter { it.isNotEmpty() }
-            .mapLatest { createAlbumList(list) }
-
-}
\ No newline at end of file
+            if (changed || isFirstChange) emit(albumPhotos.values.toList())
+            isFirstChange = false
+        }
+    }
+}
@@ -1,11 +1,7 @@
 package mega.privacy.android.domain.usecase
 
 import kotlinx.coroutines.flow.Flow
-import kotlinx.coroutines.flow.emitAll
-import kotlinx.coroutines.flow.filter
 import kotlinx.coroutines.flow.flow
-import kotlinx.coroutines.flow.map
-import mega.privacy.android.domain.entity.node.NodeChanges
 import mega.privacy.android.domain.entity.photos.Photo
 import mega.privacy.android.domain.repository.PhotosRepository
 import javax.inject.Inject
@@ -20,21 +16,11 @@ class DefaultGetTimelinePhotos @Inject constructor(
 ) : GetTimelinePhotos {
 
     override fun invoke(): Flow<List<Photo>> = flow {
-        emit(photosRepository.searchMegaPhotos())
-        emitAll(getUpdatePhotos())
-    }
-
-    private fun getUpdatePhotos(): Flow<List<Photo>> = photosRepository.monitorNodeUpdates()
-        .map { (changes) ->
-            changes
-                .filter { (_, value) ->
-                    value.contains(NodeChanges.New)
-                            || value.contains(NodeChanges.Favourite)
-                            || value.contains(NodeChanges.Attributes)
-                            || value.contains(NodeChanges.Parent)
-                }
+        val photos = LinkedHashMap<Long, Photo>()
+        photosRepository.monitorPhotos().collect { (added, updated, removed) ->
+            removed.forEach { photos.remove(it) }
+            (added + updated).forEach { photos[it.id] = it }
+            emit(photos.values.toList())
         }
-        .filter { it.isNotEmpty() }
-        .map { photosRepository.searchMegaPhotos() }
-
-}
\ No newline at end of file
+    }
+}
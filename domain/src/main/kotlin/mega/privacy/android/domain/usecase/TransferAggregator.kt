@@ -0,0 +1,155 @@
+package mega.privacy.android.domain.usecase
+
+import mega.privacy.android.domain.entity.TransfersSizeInfo
+import mega.privacy.android.domain.entity.transfer.Transfer
+import mega.privacy.android.domain.entity.transfer.TransferState
+import mega.privacy.android.domain.entity.transfer.TransferType
+import java.util.EnumMap
+
+/**
+ * Transfer aggregator
+ *
+ * Keeps running totals per [TransferType] from the last known state of every transfer, so each
+ * update only applies the difference with the previous state of its tag instead of adding every
+ * transfer again.
+ *
+ * Finished transfers still count for the sizes, so the progress does not go back, until every
+ * transfer is finished and all of them are cleared. Background transfers are not counted as
+ * pending.
+ *
+ * The state listed by the SDK can be applied with [reconcile], to recover from missed events.
+ */
+class TransferAggregator {
+
+    private val transfers = HashMap<Int, Transfer>()
+    private val updateSequences = HashMap<Int, Long>()
+    private var sequence = 0L
+    private val totals = EnumMap<TransferType, Totals>(TransferType::class.java)
+    private var unfinishedCount = 0
+
+    /**
+     * Applies the new state of a transfer
+     *
+     * @param transfer
+     * @return the sizes of all the transfers, including the finished ones
+     */
+    @Synchronized
+    fun update(transfer: Transfer): TransfersSizeInfo {
+        transfers.put(transfer.tag, transfer)?.let { remove(it) }
+        add(transfer)
+        updateSequences[transfer.tag] = ++sequence
+        val sizeInfo = getSizeInfo(transfer.transferType)
+
+        // we only clear cache when all transfer done
+        // if we remove in OnTransferFinish it can cause the progress show incorrectly
+        if (unfinishedCount == 0) clear()
+        return sizeInfo
+    }
+
+    /**
+     * Sequence number of the last update, to be passed to [reconcile]
+     */
+    @get:Synchronized
+    val lastUpdate: Long
+        get() = sequence
+
+    /**
+     * Applies the transfers listed by the SDK
+     *
+     * The transfers updated after [since] keep their state, as it is more recent than the list.
+     * The other ones take the listed state, and the unfinished ones which are not listed any
+     * more are removed, as the event of their end was missed.
+     *
+     * @param listedTransfers current transfers of the SDK
+     * @param since value of [lastUpdate] before the transfers were listed
+     */
+    @Synchronized
+    fun reconcile(listedTransfers: List<Transfer>, since: Long) {
+        val listedTags = HashSet<Int>(listedTransfers.size)
+        listedTransfers.forEach { transfer ->
+            listedTags.add(transfer.tag)
+            if (isUpdatedAfter(transfer.tag, since)) return@forEach
+            transfers.put(transfer.tag, transfer)?.let { remove(it) }
+            add(transfer)
+        }
+        transfers.values
+            .filter { !it.isFinished && it.tag !in listedTags && !isUpdatedAfter(it.tag, since) }
+            .forEach {
+                transfers.remove(it.tag)
+                updateSequences.remove(it.tag)
+                remove(it)
+            }
+        if (unfinishedCount == 0) clear()
+    }
+
+    /**
+     * Removes all the transfers
+     */
+    @Synchronized
+    fun clear() {
+        transfers.clear()
+        updateSequences.clear()
+        totals.clear()
+        unfinishedCount = 0
+    }
+
+    /**
+     * Gets the number of pending transfers of a type, background transfers excluded
+     *
+     * @param transferType
+     * @return number of pending transfers
+     */
+    @Synchronized
+    fun getNumPending(transferType: TransferType): Int = totals[transferType]?.pending ?: 0
+
+    /**
+     * Gets the number of pending and paused transfers of a type, background transfers excluded
+     *
+     * @param transferType
+     * @return number of pending and paused transfers
+     */
+    @Synchronized
+    fun getNumPendingPaused(transferType: TransferType): Int =
+        totals[transferType]?.pendingPaused ?: 0
+
+    private fun getSizeInfo(transferType: TransferType): TransfersSizeInfo {
+        var totalBytes = 0L
+        var transferredBytes = 0L
+        totals.values.forEach {
+            totalBytes += it.totalBytes
+            transferredBytes += it.transferredBytes
+        }
+        return TransfersSizeInfo(
+            transferType = transferType,
+            totalSizePendingTransfer = totalBytes,
+            totalSizeTransferred = transferredBytes
+        )
+    }
+
+    private fun isUpdatedAfter(tag: Int, since: Long) = (updateSequences[tag] ?: 0L) > since
+
+    private fun add(transfer: Transfer) = apply(transfer, 1)
+
+    private fun remove(transfer: Transfer) = apply(transfer, -1)
+
+    private fun apply(transfer: Transfer, sign: Int) {
+        val typeTotals = totals.getOrPut(transfer.transferType) { Totals() }
+        typeTotals.totalBytes += sign * transfer.totalBytes
+        typeTotals.transferredBytes += sign *
+                if (transfer.transferState == TransferState.STATE_COMPLETED) transfer.totalBytes
+                else transfer.transferredBytes
+
+        if (transfer.isFinished) return
+        unfinishedCount += sign
+        if (transfer.isBackgroundTransfer) return
+        typeTotals.pending += sign
+        if (transfer.transferState == TransferState.STATE_PAUSED) typeTotals.pendingPaused += sign
+    }
+
+    private class Totals {
+        var totalBytes = 0L
+        var transferredBytes = 0L
+        var pending = 0
+        var pendingPaused = 0
+    }
+}
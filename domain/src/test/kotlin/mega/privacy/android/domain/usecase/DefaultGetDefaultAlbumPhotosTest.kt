@@ -1,14 +1,13 @@
 package mega.privacy.android.domain.usecase
 
 import app.cash.turbine.test
+import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.domain.entity.VideoFileTypeInfo
-import mega.privacy.android.domain.entity.node.NodeChanges
-import mega.privacy.android.domain.entity.node.NodeId
-import mega.privacy.android.domain.entity.node.NodeUpdate
 import mega.privacy.android.domain.entity.photos.Photo
+import mega.privacy.android.domain.entity.photos.PhotosChange
 import mega.privacy.android.domain.repository.PhotosRepository
 import org.junit.Before
 import org.junit.Test
@@ -28,102 +27,80 @@ class DefaultGetDefaultAlbumPhotosTest {
     }
 
     @Test
-    fun `test that nodes are not updated when node update type is not in monitored types`() =
-        runTest {
-            whenever(photosRepository.searchMegaPhotos()).thenReturn(listOf(
-                createVideo(id = 1L)
-            ))
-            whenever(photosRepository.monitorNodeUpdates()).thenReturn(
-                flowOf(
-                    NodeUpdate(
-                        mapOf(
-                            NodeId(1L) to NodeChanges.values().filter {
-                                it !in listOf(
-                                    NodeChanges.New,
-                                    NodeChanges.Favourite,
-                                    NodeChanges.Attributes,
-                                    NodeChanges.Parent,
-                                )
-                            }
-                        )
-                    )
+    fun `test that only the photos matching a predicate are returned`() = runTest {
+        whenever(photosRepository.monitorPhotos()).thenReturn(
+            flowOf(
+                PhotosChange(
+                    added = listOf(createVideo(id = 1L, isFavourite = true), createVideo(id = 2L)),
                 )
             )
+        )
 
-            underTest(listOf())
-                .test {
-                    awaitItem()
-                    awaitComplete()
-                }
-        }
-
-    @Test
-    fun `test that nodes are updated when node update of type NodeChanges New is returned`() =
-        runTest {
-            whenever(photosRepository.searchMegaPhotos()).thenReturn(listOf(
-                createVideo(id = 1L)
-            ))
-            whenever(photosRepository.monitorNodeUpdates()).thenReturn(flowOf(NodeUpdate(mapOf(
-                NodeId(1L) to listOf(NodeChanges.New)))))
-
-            underTest(listOf())
-                .test {
-                    awaitItem()
-                    awaitItem()
-                    awaitComplete()
-                }
-        }
+        underTest(listOf { it.isFavourite })
+            .test {
+                assertThat(awaitItem().map { it.id }).containsExactly(1L)
+                awaitComplete()
+            }
+    }
 
     @Test
-    fun `test that nodes are updated when node update of type NodeChanges Favourite is returned`() =
-        runTest {
-            whenever(photosRepository.searchMegaPhotos()).thenReturn(listOf(
-                createVideo(id = 1L)
-            ))
-            whenever(photosRepository.monitorNodeUpdates()).thenReturn(flowOf(NodeUpdate(mapOf(
-                NodeId(1L) to listOf(NodeChanges.Favourite)))))
+    fun `test that album photos are updated each time the photos change`() = runTest {
+        whenever(photosRepository.monitorPhotos()).thenReturn(
+            flowOf(
+                PhotosChange(added = listOf(createVideo(id = 1L, isFavourite = true))),
+                PhotosChange(
+                    added = listOf(createVideo(id = 2L, isFavourite = true)),
+                    updated = listOf(createVideo(id = 1L)),
+                ),
+            )
+        )
 
-            underTest(listOf())
-                .test {
-                    awaitItem()
-                    awaitItem()
-                    awaitComplete()
-                }
-        }
+        underTest(listOf { it.isFavourite })
+            .test {
+                assertThat(awaitItem().map { it.id }).containsExactly(1L)
+                assertThat(awaitItem().map { it.id }).containsExactly(2L)
+                awaitComplete()
+            }
+    }
 
     @Test
-    fun `test that nodes are updated when node update of type NodeChanges Attributes is returned`() =
-        runTest {
-            whenever(photosRepository.searchMegaPhotos()).thenReturn(listOf(
-                createVideo(id = 1L)
-            ))
-            whenever(photosRepository.monitorNodeUpdates()).thenReturn(flowOf(NodeUpdate(mapOf(
-                NodeId(1L) to listOf(NodeChanges.Attributes)))))
+    fun `test that removed photos are removed from the album`() = runTest {
+        whenever(photosRepository.monitorPhotos()).thenReturn(
+            flowOf(
+                PhotosChange(
+                    added = listOf(
+                        createVideo(id = 1L, isFavourite = true),
+                        createVideo(id = 2L, isFavourite = true),
+                    ),
+                ),
+                PhotosChange(removed = listOf(1L)),
+            )
+        )
 
-            underTest(listOf())
-                .test {
-                    awaitItem()
-                    awaitItem()
-                    awaitComplete()
-                }
-        }
+        underTest(listOf { it.isFavourite })
+            .test {
+                assertThat(awaitItem().map { it.id }).containsExactly(1L, 2L)
+                assertThat(awaitItem().map { it.id }).containsExactly(2L)
+                awaitComplete()
+            }
+    }
 
     @Test
-    fun `test that nodes are updated when node update of type NodeChanges Parent is returned`() =
-        runTest {
-            whenever(photosRepository.searchMegaPhotos()).thenReturn(listOf(
-                createVideo(id = 1L)
-            ))
-            whenever(photosRepository.monitorNodeUpdates()).thenReturn(flowOf(NodeUpdate(mapOf(
-                NodeId(1L) to listOf(NodeChanges.Parent)))))
+    fun `test that changes to photos outside the album are not emitted`() = runTest {
+        whenever(photosRepository.monitorPhotos()).thenReturn(
+            flowOf(
+                PhotosChange(),
+                PhotosChange(added = listOf(createVideo(id = 1L))),
+                PhotosChange(removed = listOf(1L)),
+            )
+        )
 
-            underTest(listOf())
-                .test {
-                    awaitItem()
-                    awaitItem()
-                    awaitComplete()
-                }
-        }
+        underTest(listOf { it.isFavourite })
+            .test {
+                assertThat(awaitItem()).isEmpty()
+                awaitComplete()
+            }
+    }
 
     private fun createVideo(
         id: Long,
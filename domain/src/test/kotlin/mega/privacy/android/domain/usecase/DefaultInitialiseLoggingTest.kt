@@ -26,8 +26,8 @@ class DefaultInitialiseLoggingTest {
     private val chatMessage = LogEntry(message = "chat", priority = 1)
 
     private val loggingRepository = mock<LoggingRepository> {
-        on { getSdkLoggingFlow() }.thenReturn(flowOf(sdkMessage))
-        on { getChatLoggingFlow() }.thenReturn(flowOf(chatMessage))
+        on { getSdkLoggingFlow() }.thenReturn(flowOf(listOf(sdkMessage)))
+        on { getChatLoggingFlow() }.thenReturn(flowOf(listOf(chatMessage)))
     }
 
     @Before
@@ -48,7 +48,7 @@ class DefaultInitialiseLoggingTest {
         underTest()
 
         verify(loggingRepository, times(1)).getSdkLoggingFlow()
-        verify(loggingRepository, times(1)).logToSdkFile(sdkMessage)
+        verify(loggingRepository, times(1)).logToSdkFile(listOf(sdkMessage))
 
         verifyNoMoreInteractions(loggingRepository)
     }
@@ -61,7 +61,7 @@ class DefaultInitialiseLoggingTest {
         underTest()
 
         verify(loggingRepository, times(1)).getChatLoggingFlow()
-        verify(loggingRepository, times(1)).logToChatFile(chatMessage)
+        verify(loggingRepository, times(1)).logToChatFile(listOf(chatMessage))
 
         verifyNoMoreInteractions(loggingRepository)
     }
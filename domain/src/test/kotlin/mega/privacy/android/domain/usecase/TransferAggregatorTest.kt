@@ -0,0 +1,104 @@
+package mega.privacy.android.domain.usecase
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.domain.entity.TransfersSizeInfo
+import mega.privacy.android.domain.entity.transfer.Transfer
+import mega.privacy.android.domain.entity.transfer.TransferState
+import mega.privacy.android.domain.entity.transfer.TransferType
+import org.junit.Test
+
+class TransferAggregatorTest {
+    private val underTest = TransferAggregator()
+
+    private val upload = Transfer(
+        totalBytes = 1000L,
+        transferredBytes = 100L,
+        transferState = TransferState.STATE_ACTIVE,
+        tag = 1,
+        transferType = TransferType.TYPE_UPLOAD,
+        isFinished = false
+    )
+
+    private val download = upload.copy(tag = 2, transferType = TransferType.TYPE_DOWNLOAD)
+
+    @Test
+    fun `test that an update replaces the previous state of the same tag`() {
+        underTest.update(upload)
+        underTest.update(download)
+        val sizeInfo = underTest.update(upload.copy(transferredBytes = 600L))
+
+        assertThat(sizeInfo).isEqualTo(
+            TransfersSizeInfo(
+                transferType = TransferType.TYPE_UPLOAD,
+                totalSizePendingTransfer = 2000L,
+                totalSizeTransferred = 700L
+            )
+        )
+    }
+
+    @Test
+    fun `test that finished transfers count for the size until all transfers finish`() {
+        underTest.update(upload)
+        underTest.update(download)
+
+        val completed = upload.copy(
+            transferredBytes = 0L,
+            transferState = TransferState.STATE_COMPLETED,
+            isFinished = true
+        )
+        assertThat(underTest.update(completed).totalSizeTransferred).isEqualTo(1100L)
+        assertThat(underTest.getNumPending(TransferType.TYPE_UPLOAD)).isEqualTo(0)
+
+        val lastSizeInfo = underTest.update(download.copy(transferredBytes = 1000L, isFinished = true))
+        assertThat(lastSizeInfo.totalSizeTransferred).isEqualTo(2000L)
+        assertThat(underTest.update(upload.copy(tag = 3)).totalSizePendingTransfer)
+            .isEqualTo(1000L)
+    }
+
+    @Test
+    fun `test that pending and paused counts follow the state of the transfers`() {
+        underTest.update(upload)
+        underTest.update(upload.copy(tag = 3, transferState = TransferState.STATE_PAUSED))
+        underTest.update(download.copy(transferState = TransferState.STATE_PAUSED))
+        underTest.update(download.copy(tag = 4, isBackgroundTransfer = true))
+
+        assertThat(underTest.getNumPending(TransferType.TYPE_UPLOAD)).isEqualTo(2)
+        assertThat(underTest.getNumPendingPaused(TransferType.TYPE_UPLOAD)).isEqualTo(1)
+        assertThat(underTest.getNumPending(TransferType.TYPE_DOWNLOAD)).isEqualTo(1)
+        assertThat(underTest.getNumPendingPaused(TransferType.TYPE_DOWNLOAD)).isEqualTo(1)
+
+        underTest.update(download)
+
+        assertThat(underTest.getNumPendingPaused(TransferType.TYPE_DOWNLOAD)).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that listed transfers do not replace the ones updated after listing`() {
+        val since = underTest.lastUpdate
+        underTest.update(upload.copy(transferState = TransferState.STATE_PAUSED))
+        underTest.reconcile(listOf(upload, download), since)
+
+        assertThat(underTest.getNumPendingPaused(TransferType.TYPE_UPLOAD)).isEqualTo(1)
+        assertThat(underTest.getNumPending(TransferType.TYPE_DOWNLOAD)).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that listed transfers replace the ones updated before listing`() {
+        underTest.update(upload.copy(transferState = TransferState.STATE_PAUSED))
+        underTest.update(download)
+        underTest.reconcile(listOf(upload, download), underTest.lastUpdate)
+
+        assertThat(underTest.getNumPendingPaused(TransferType.TYPE_UPLOAD)).isEqualTo(0)
+        assertThat(underTest.getNumPending(TransferType.TYPE_UPLOAD)).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that unfinished transfers which are not listed any more are removed`() {
+        underTest.update(upload)
+        underTest.update(download)
+        underTest.reconcile(listOf(download), underTest.lastUpdate)
+
+        assertThat(underTest.getNumPending(TransferType.TYPE_UPLOAD)).isEqualTo(0)
+        assertThat(underTest.update(download).totalSizePendingTransfer).isEqualTo(1000L)
+    }
+}